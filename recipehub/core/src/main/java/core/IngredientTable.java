@@ -0,0 +1,483 @@
+package core;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Compact table of the ingredients of a recipe, with the name, amount and unit of each
+ * ingredient in the same place of three arrays, instead of two maps with an entry and a
+ * boxed amount for each ingredient.
+ *
+ * <p>The amounts are kept as primitive doubles, the units as codes from {@link Unit},
+ * and the names are taken from the shared {@link StringInterner}, so an ingredient used
+ * in many recipes keeps one copy of its name, the same copy as the strings read from files.
+ * </p>
+ *
+ * <p>An ingredient can have a unit without an amount, when its unit is set before it is
+ * added, or an amount without a unit, when it was saved without one. A missing amount is
+ * kept as NaN. The table is a map from the ingredients with an amount to their amounts,
+ * and {@link #units()} is a map from the ingredients with a unit to their units, so Gson
+ * reads and writes them the same way as the maps they replace.
+ * </p>
+ */
+final class IngredientTable extends AbstractMap<String, Double> {
+    private static final String[] NO_NAMES = {};
+    private static final double[] NO_AMOUNTS = {};
+    private static final byte[] NO_UNITS = {};
+    private static final Unit[] UNITS = Unit.values();
+
+    private String[] names = NO_NAMES;
+    private double[] amounts = NO_AMOUNTS;
+    private byte[] units = NO_UNITS;
+    private String[] otherUnits;
+    private int size;
+
+    /**
+     * Units an ingredient can be measured in. Units which are not known are kept as
+     * {@link #OTHER}, with their symbol kept beside the table.
+     */
+    enum Unit {
+        NONE(null), GRAMS("g"), PIECES("pcs"), DECILITRES("dL"), OTHER(null);
+
+        private final String symbol;
+
+        Unit(String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * Finds the unit with the given symbol.
+         *
+         * @param symbol symbol of the unit, or null for no unit
+         * @return The unit, or OTHER if the symbol is not known
+         */
+        static Unit of(String symbol) {
+            if (symbol == null) {
+                return NONE;
+            }
+            for (Unit unit : UNITS) {
+                if (symbol.equals(unit.symbol)) {
+                    return unit;
+                }
+            }
+            return OTHER;
+        }
+    }
+
+    /**
+     * Contructor for an empty table. It is also used by Gson, which puts the amounts in.
+     */
+    IngredientTable() {
+    }
+
+    /**
+     * This method makes a table from maps of amounts and units.
+     *
+     * @param amounts map from each ingredient to its amount, or null
+     * @param units map from each ingredient to its unit, or null
+     * @return A table with the ingredients of both maps
+     */
+    static IngredientTable of(Map<String, Double> amounts, Map<String, String> units) {
+        IngredientTable table = new IngredientTable();
+        int capacity = (amounts == null ? 0 : amounts.size())
+                + (units == null ? 0 : units.size());
+        table.grow(capacity);
+        if (amounts != null) {
+            for (Map.Entry<String, Double> amount : amounts.entrySet()) {
+                table.put(amount.getKey(), amount.getValue());
+            }
+        }
+        if (units != null) {
+            table.putUnits(units);
+        }
+        table.trim();
+        return table;
+    }
+
+    /**
+     * This method gets the place of an ingredient in the table.
+     *
+     * @param name name of the ingredient
+     * @return The place of the ingredient, or -1 if it is not in the table
+     */
+    int indexOf(Object name) {
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(names[i], name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * This method adds an ingredient without an amount or unit to the end of the table.
+     *
+     * @param name name of the ingredient
+     * @return The place of the ingredient
+     */
+    int add(String name) {
+        if (size == names.length) {
+            grow(Math.max(4, size + (size >> 1)));
+        }
+        names[size] = canonical(name);
+        amounts[size] = Double.NaN;
+        units[size] = (byte) Unit.NONE.ordinal();
+        return size++;
+    }
+
+    /**
+     * This method removes the ingredient at the given place, and moves the ingredients
+     * after it forward.
+     *
+     * @param index place of the ingredient
+     */
+    void remove(int index) {
+        int moved = size - index - 1;
+        System.arraycopy(names, index + 1, names, index, moved);
+        System.arraycopy(amounts, index + 1, amounts, index, moved);
+        System.arraycopy(units, index + 1, units, index, moved);
+        if (otherUnits != null) {
+            System.arraycopy(otherUnits, index + 1, otherUnits, index, moved);
+            otherUnits[size - 1] = null;
+        }
+        names[--size] = null;
+    }
+
+    /**
+     * This method gets the number of places in the table, including the ingredients which
+     * only have a unit.
+     *
+     * @return The number of places
+     */
+    int places() {
+        return size;
+    }
+
+    /**
+     * This method gets the name of the ingredient at the given place.
+     *
+     * @param index place of the ingredient
+     * @return The name of the ingredient
+     */
+    String nameAt(int index) {
+        return names[index];
+    }
+
+    /**
+     * This method checks if the ingredient at the given place has an amount.
+     *
+     * @param index place of the ingredient
+     * @return true if the ingredient has an amount, false if it only has a unit
+     */
+    boolean hasAmount(int index) {
+        return !Double.isNaN(amounts[index]);
+    }
+
+    /**
+     * This method gets the amount of the ingredient at the given place.
+     *
+     * @param index place of the ingredient
+     * @return The amount, or NaN if the ingredient has no amount
+     */
+    double amountAt(int index) {
+        return amounts[index];
+    }
+
+    /**
+     * This method sets the amount of the ingredient at the given place.
+     *
+     * @param index place of the ingredient
+     * @param amount amount of the ingredient
+     */
+    void setAmount(int index, double amount) {
+        amounts[index] = amount;
+    }
+
+    /**
+     * This method gets the unit of the ingredient at the given place.
+     *
+     * @param index place of the ingredient
+     * @return The symbol of the unit, or null if the ingredient has no unit
+     */
+    String unitAt(int index) {
+        Unit unit = UNITS[units[index]];
+        return unit == Unit.OTHER ? otherUnits[index] : unit.symbol;
+    }
+
+    /**
+     * This method sets the unit of the ingredient at the given place.
+     *
+     * @param index place of the ingredient
+     * @param symbol symbol of the unit, or null for no unit
+     */
+    void setUnit(int index, String symbol) {
+        Unit unit = Unit.of(symbol);
+        units[index] = (byte) unit.ordinal();
+        if (unit == Unit.OTHER) {
+            if (otherUnits == null) {
+                otherUnits = new String[names.length];
+            }
+            otherUnits[index] = canonical(symbol);
+        } else if (otherUnits != null) {
+            otherUnits[index] = null;
+        }
+    }
+
+    /**
+     * This method sets the units of the given ingredients, and adds the ingredients which
+     * are not in the table.
+     *
+     * @param units map from each ingredient to its unit
+     */
+    void putUnits(Map<String, String> units) {
+        for (Map.Entry<String, String> unit : units.entrySet()) {
+            int index = indexOf(unit.getKey());
+            setUnit(index < 0 ? add(unit.getKey()) : index, unit.getValue());
+        }
+    }
+
+    /**
+     * This method gets a map from the ingredients with a unit to their units, which
+     * reads and writes the units in this table.
+     *
+     * @return The units of the ingredients
+     */
+    Units units() {
+        return new Units(this);
+    }
+
+    @Override
+    public int size() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            count += hasAmount(i) ? 1 : 0;
+        }
+        return count;
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        int index = indexOf(name);
+        return index >= 0 && hasAmount(index);
+    }
+
+    @Override
+    public Double get(Object name) {
+        int index = indexOf(name);
+        return index >= 0 && hasAmount(index) ? amounts[index] : null;
+    }
+
+    @Override
+    public Double put(String name, Double amount) {
+        int index = indexOf(name);
+        Double previous = null;
+        if (index < 0) {
+            index = add(name);
+        } else if (hasAmount(index)) {
+            previous = amounts[index];
+        }
+        amounts[index] = amount == null ? Double.NaN : amount;
+        return previous;
+    }
+
+    @Override
+    public Set<String> keySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<String> iterator() {
+                return new Rows<>(true) {
+                    @Override
+                    String get(int index) {
+                        return names[index];
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object name) {
+                return containsKey(name);
+            }
+
+            @Override
+            public int size() {
+                return IngredientTable.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Map.Entry<String, Double>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Map.Entry<String, Double>> iterator() {
+                return new Rows<>(true) {
+                    @Override
+                    Map.Entry<String, Double> get(int index) {
+                        return new SimpleImmutableEntry<>(names[index], amounts[index]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return IngredientTable.this.size();
+            }
+        };
+    }
+
+    /**
+     * Iterator over the places in the table with an amount, or with a unit.
+     */
+    private abstract class Rows<T> implements Iterator<T> {
+        private final boolean withAmount;
+        private int next = -1;
+
+        Rows(boolean withAmount) {
+            this.withAmount = withAmount;
+            advance();
+        }
+
+        /**
+         * Gets the value of the iterator for the given place.
+         */
+        abstract T get(int index);
+
+        private void advance() {
+            do {
+                next++;
+            } while (next < size && (withAmount ? !hasAmount(next)
+                    : units[next] == Unit.NONE.ordinal()));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T value = get(next);
+            advance();
+            return value;
+        }
+    }
+
+    /**
+     * Map from the ingredients with a unit to their units, kept in an ingredient table.
+     * Gson makes it with its own table when it reads the units, which is joined with the
+     * table of the amounts when the recipe is used.
+     */
+    static final class Units extends AbstractMap<String, String> {
+        private final IngredientTable table;
+
+        /**
+         * Contructor for units with their own table, used by Gson.
+         */
+        Units() {
+            this(new IngredientTable());
+        }
+
+        private Units(IngredientTable table) {
+            this.table = table;
+        }
+
+        /**
+         * This method gets the table the units are kept in.
+         *
+         * @return The table of the units
+         */
+        IngredientTable getTable() {
+            return table;
+        }
+
+        @Override
+        public String get(Object name) {
+            int index = table.indexOf(name);
+            return index < 0 ? null : table.unitAt(index);
+        }
+
+        @Override
+        public boolean containsKey(Object name) {
+            return get(name) != null;
+        }
+
+        @Override
+        public String put(String name, String unit) {
+            int index = table.indexOf(name);
+            String previous = index < 0 ? null : table.unitAt(index);
+            table.setUnit(index < 0 ? table.add(name) : index, unit);
+            return previous;
+        }
+
+        @Override
+        public Set<Map.Entry<String, String>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Map.Entry<String, String>> iterator() {
+                    return table.new Rows<>(false) {
+                        @Override
+                        Map.Entry<String, String> get(int index) {
+                            return new SimpleImmutableEntry<>(table.names[index],
+                                    table.unitAt(index));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    int count = 0;
+                    for (int i = 0; i < table.size; i++) {
+                        count += table.units[i] == Unit.NONE.ordinal() ? 0 : 1;
+                    }
+                    return count;
+                }
+            };
+        }
+    }
+
+    /**
+     * Helper method which makes room for the given number of ingredients.
+     */
+    private void grow(int capacity) {
+        if (capacity <= names.length) {
+            return;
+        }
+        names = Arrays.copyOf(names, capacity);
+        amounts = Arrays.copyOf(amounts, capacity);
+        units = Arrays.copyOf(units, capacity);
+        if (otherUnits != null) {
+            otherUnits = Arrays.copyOf(otherUnits, capacity);
+        }
+    }
+
+    /**
+     * Helper method which frees the room which is not used by any ingredient.
+     */
+    private void trim() {
+        if (size == names.length) {
+            return;
+        }
+        names = size == 0 ? NO_NAMES : Arrays.copyOf(names, size);
+        amounts = size == 0 ? NO_AMOUNTS : Arrays.copyOf(amounts, size);
+        units = size == 0 ? NO_UNITS : Arrays.copyOf(units, size);
+        if (otherUnits != null) {
+            otherUnits = Arrays.copyOf(otherUnits, size);
+        }
+    }
+
+    /**
+     * Helper method which gets the copy of a name kept by the shared StringInterner.
+     */
+    private static String canonical(String name) {
+        return StringInterner.getShared().intern(name);
+    }
+}
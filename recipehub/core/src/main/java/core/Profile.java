@@ -31,6 +31,24 @@ public class Profile {
         favorites = new RecipeLibrary();
     }
 
+    /**
+     * Contructor for restoring a saved Profile object, which only has the hashed password.
+     * The values are not checked, since it is meant for reading profiles which were made
+     * with the other constructor.
+     * 
+     * @param username string value of the username
+     * @param hashedPassword string value of the hashed password
+     * @param recipeLibrary the profile's recipes
+     * @param favorites the profile's favorite recipes
+     */
+    public Profile(String username, String hashedPassword, RecipeLibrary recipeLibrary,
+            RecipeLibrary favorites) {
+        this.username = username;
+        this.hashedPassword = hashedPassword;
+        this.recipeLibrary = recipeLibrary;
+        this.favorites = favorites;
+    }
+
     /**
      * This metod checks if a username is valid.
      * These are the criterias:
@@ -1,25 +1,68 @@
 package core;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.Supplier;
 
 /**
  * Information centered class for storing and changing recipes.
+ *
+ * <p>A recipe can be made with only its header, which is its name, portions, author,
+ * description and a summary of its reviews, and a body which is loaded the first time
+ * the steps, ingredients or reviews are used. This lets a long list of recipes be shown
+ * without keeping all of their steps, ingredients and reviews in memory.
+ * </p>
+ *
+ * <p>The sum of the ratings, the number of reviewers and comments and the usernames of
+ * the reviewers are kept along with the reviews, and updated when a review is added, so
+ * the rating of a recipe is found without going through its reviews. They are not saved,
+ * and are counted again from the reviews the first time they are used after the reviews
+ * are read or loaded. They are counted, changed and read while holding the lock of the
+ * recipe, so threads sharing a recipe never see a sum and a count from different reviews.
+ * </p>
+ *
+ * <p>The ingredients are kept in a compact table with the amounts as primitive doubles and
+ * the units as small codes. Amounts and units can be read without boxing with
+ * {@link #forEachIngredient(IngredientConsumer)}.
+ * </p>
  */
 public class Recipe {
     private List<String> steps;
     private int portions;
     private String name;
     private String description;
-    private Map<String, Double> ingredients;
-    private Map<String, String> ingredientUnits;
+    private IngredientTable ingredients;
+    private IngredientTable.Units ingredientUnits;
     private String authorUsername;
     private boolean isSaved;
     private List<Review> reviewList;
+    private transient volatile Supplier<Recipe> body;
+    private transient double ratingSum;
+    private transient int numberOfReviewers;
+    private transient int numberOfComments;
+    private transient Set<String> reviewers;
+    private transient List<Review> countedReviews;
+
+    /**
+     * Action done with each ingredient of a recipe.
+     *
+     * @see Recipe#forEachIngredient(IngredientConsumer)
+     */
+    @FunctionalInterface
+    public interface IngredientConsumer {
+        /**
+         * Does the action with an ingredient.
+         *
+         * @param ingredient name of the ingredient
+         * @param amount amount of the ingredient
+         * @param unit unit of the ingredient, or null if it has none
+         */
+        void accept(String ingredient, double amount, String unit);
+    }
 
     /**
      * Contructor for creating a new Recipe object.
@@ -37,13 +80,160 @@ public class Recipe {
         setPortions(portions);
         this.authorUsername = author.getUsername();
         author.putRecipe(this);
-        ingredients = new HashMap<>();
+        ingredients = new IngredientTable();
         steps = new ArrayList<>();
-        ingredientUnits = new HashMap<>();
+        ingredientUnits = ingredients.units();
         isSaved = false;
         reviewList = new ArrayList<>();
     }
 
+    /**
+     * Contructor for restoring a saved Recipe object with all of its values.
+     * The values are not checked, and the recipe is not added to its author, since it is
+     * meant for reading recipes which were made with the other constructor.
+     * The collections are used as they are, and may be null if they were not saved,
+     * except the ingredients and units, which are copied into the table of ingredients.
+     * 
+     * @param name name of the recipe
+     * @param portions amount of portions this recipe makes
+     * @param authorUsername username of the author of this recipe
+     * @param description description of the recipe
+     * @param steps list of the steps in the recipe
+     * @param ingredients map from each ingredient to its amount
+     * @param ingredientUnits map from each ingredient to its unit
+     * @param isSaved boolean value for whether the recipe is saved or not
+     * @param reviewList list of the reviews of the recipe
+     */
+    public Recipe(String name, int portions, String authorUsername, String description,
+            List<String> steps, Map<String, Double> ingredients,
+            Map<String, String> ingredientUnits, boolean isSaved, List<Review> reviewList) {
+        this.name = name;
+        this.portions = portions;
+        this.authorUsername = authorUsername;
+        this.description = description;
+        this.steps = steps;
+        if (ingredients != null || ingredientUnits != null) {
+            this.ingredients = IngredientTable.of(ingredients, ingredientUnits);
+            this.ingredientUnits = this.ingredients.units();
+        }
+        this.isSaved = isSaved;
+        this.reviewList = reviewList;
+    }
+
+    /**
+     * Contructor for restoring a saved Recipe object from its header, with a body which
+     * is loaded the first time the steps, ingredients or reviews are used.
+     * The summary of the reviews is used for the rating and the number of reviewers and
+     * comments until the body is loaded. The body is loaded at most once, and only the
+     * steps, ingredients, units and reviews of the recipe it gives are used.
+     * If it gives null, the recipe gets no steps, ingredients or reviews.
+     * 
+     * @param name name of the recipe
+     * @param portions amount of portions this recipe makes
+     * @param authorUsername username of the author of this recipe
+     * @param description description of the recipe
+     * @param isSaved boolean value for whether the recipe is saved or not
+     * @param ratingSum sum of the ratings of the reviews
+     * @param numberOfReviewers number of reviews
+     * @param numberOfComments number of reviews with a comment
+     * @param body supplier of a recipe with the steps, ingredients and reviews
+     * @see #isLoaded()
+     */
+    public Recipe(String name, int portions, String authorUsername, String description,
+            boolean isSaved, double ratingSum, int numberOfReviewers, int numberOfComments,
+            Supplier<Recipe> body) {
+        this(name, portions, authorUsername, description, null, null, null, isSaved, null);
+        this.ratingSum = ratingSum;
+        this.numberOfReviewers = numberOfReviewers;
+        this.numberOfComments = numberOfComments;
+        this.body = body;
+    }
+
+    /**
+     * This method checks if the steps, ingredients and reviews of the recipe are in
+     * memory. Only recipes made from a header can be without them.
+     * 
+     * @return true if the body of the recipe is loaded, false otherwise
+     */
+    public boolean isLoaded() {
+        return body == null;
+    }
+
+    /**
+     * Helper method which loads the body of the recipe if it is not loaded yet.
+     */
+    private void load() {
+        if (body == null) {
+            return;
+        }
+        synchronized (this) {
+            Supplier<Recipe> loader = body;
+            if (loader == null) {
+                return;
+            }
+            Recipe loaded = loader.get();
+            steps = loaded == null || loaded.steps == null ? new ArrayList<>() : loaded.steps;
+            ingredients = loaded == null ? null : loaded.ingredients;
+            ingredientUnits = loaded == null ? null : loaded.ingredientUnits;
+            reviewList = loaded == null || loaded.reviewList == null
+                    ? new ArrayList<>() : loaded.reviewList;
+            body = null;
+        }
+    }
+
+    /**
+     * Helper method which loads the body of the recipe, and gets its table of ingredients.
+     * Gson reads the amounts and units into separate tables, so the units are joined
+     * with the amounts the first time they are used.
+     */
+    private IngredientTable ingredients() {
+        load();
+        if (ingredientUnits == null || ingredientUnits.getTable() != ingredients) {
+            if (ingredients == null) {
+                ingredients = new IngredientTable();
+            }
+            if (ingredientUnits != null) {
+                ingredients.putUnits(ingredientUnits);
+            }
+            ingredientUnits = ingredients.units();
+        }
+        return ingredients;
+    }
+
+    /**
+     * Helper method which counts the ratings, reviewers and comments of the reviews again
+     * if the reviews were read or loaded since they were last counted. The summary of
+     * the reviews is kept as it is until the body is loaded. It must be called with the
+     * lock of the recipe held, like every method which reads the summary.
+     */
+    private void countReviews() {
+        if (!isLoaded() || countedReviews == reviewList) {
+            return;
+        }
+        ratingSum = 0;
+        numberOfReviewers = 0;
+        numberOfComments = 0;
+        reviewers = new HashSet<>();
+        for (Review review : reviewList) {
+            countReview(review);
+        }
+        countedReviews = reviewList;
+    }
+
+    /**
+     * Helper method which adds a review to the sum of the ratings, the number of reviewers
+     * and comments and the usernames of the reviewers. It must be called with the lock of
+     * the recipe held.
+     */
+    private void countReview(Review review) {
+        ratingSum += review.getRating();
+        numberOfReviewers++;
+        if (review.getComment() != null && !review.getComment().equals("")) {
+            numberOfComments++;
+        }
+        reviewers.add(review.getReviewer());
+    }
+
     /**
      * This method sets the name of the recipe.
      * 
@@ -106,21 +296,47 @@ public class Recipe {
         return portions;
     }
 
+    /**
+     * This method gets a view of the recipe scaled to the given portions. The view does not
+     * copy the recipe, and computes the scaled amounts when they are read.
+     * 
+     * @param portions amount of portions to scale the recipe to
+     * @return A scaled view of the recipe
+     * @throws IllegalArgumentException if portions is less than one
+     */
+    public ScaledRecipe scaledTo(int portions) {
+        return new ScaledRecipe(this, portions);
+    }
+
     /**
      * This method fetches the preparation steps of the recipe.
      * 
      * @return A List of the steps in the recipe
      */
     public List<String> getSteps() {
+        load();
         return new ArrayList<>(steps);
     }
 
+    /**
+     * This method gets a view of the preparation steps of the recipe, which can not be
+     * changed, and shows the steps as they are changed in the recipe. Unlike
+     * {@link #getSteps()} it does not copy the steps.
+     * 
+     * @return An unmodifiable List of the steps in the recipe
+     */
+    public List<String> getStepsView() {
+        load();
+        return Collections.unmodifiableList(steps);
+    }
+
     /**
      * This method adds a step to the list of steps in the recipe.
      * 
      * @param step string with step to add
      */
     public void addStep(String step) {
+        load();
         steps.add(step);
     }
 
@@ -131,6 +347,7 @@ public class Recipe {
      * @throws IllegalArgumentException if the step is not in the list of steps
      */
     public void removeStep(String step) {
+        load();
         if (!steps.remove(step)) {
             throw new IllegalArgumentException("Step not found in steps");
         }
@@ -142,7 +359,46 @@ public class Recipe {
      * @return A set containing every ingredient in the set
      */
     public Set<String> getIngredients() {
-        return new HashSet<>(ingredients.keySet());
+        return new HashSet<>(ingredients().keySet());
+    }
+
+    /**
+     * This method gets a view of the different ingredients in the recipe, which can not be
+     * changed, and shows the ingredients as they are changed in the recipe. Unlike
+     * {@link #getIngredients()} it does not copy the ingredients.
+     * 
+     * @return An unmodifiable Set of the ingredients in the recipe
+     */
+    public Set<String> getIngredientsView() {
+        return Collections.unmodifiableSet(ingredients().keySet());
+    }
+
+    /**
+     * This method gets a view of the units of the ingredients in the recipe, which can not
+     * be changed. A unit can be kept for an ingredient without an amount, so the view may
+     * have ingredients which are not in {@link #getIngredientsView()}, and the other way
+     * around.
+     * 
+     * @return An unmodifiable Map from each ingredient with a unit to its unit
+     */
+    public Map<String, String> getIngredientUnitsView() {
+        ingredients();
+        return Collections.unmodifiableMap(ingredientUnits);
+    }
+
+    /**
+     * This method does the given action with the name, amount and unit of each ingredient
+     * in the recipe, in the order they were added, without boxing the amounts.
+     * 
+     * @param action action to do with each ingredient
+     */
+    public void forEachIngredient(IngredientConsumer action) {
+        IngredientTable table = ingredients();
+        for (int i = 0; i < table.places(); i++) {
+            if (table.hasAmount(i)) {
+                action.accept(table.nameAt(i), table.amountAt(i), table.unitAt(i));
+            }
+        }
     }
 
     /**
@@ -153,10 +409,12 @@ public class Recipe {
      * @throws IllegalArgumentException if the ingredient is not in the recipe
      */
     public Double getIngredientAmount(String ingredient) {
-        if (!ingredients.containsKey(ingredient)) {
+        IngredientTable table = ingredients();
+        int index = table.indexOf(ingredient);
+        if (index < 0 || !table.hasAmount(index)) {
             throw new IllegalArgumentException("Ingredient not found in recipe");
         }
-        return ingredients.get(ingredient);
+        return table.amountAt(index);
     }
 
     /**
@@ -170,18 +428,22 @@ public class Recipe {
      *                                  and the unit is not the same
      */
     public void addIngredient(String ingredient, Double amount, String unit) {
-        if (amount < 0) {
+        IngredientTable table = ingredients();
+        if (amount < 0 || amount.isNaN()) {
             throw new IllegalArgumentException("Amount must be over 0");
         }
-        if (ingredients.keySet().contains(ingredient)) {
+        int index = table.indexOf(ingredient);
+        if (index >= 0 && table.hasAmount(index)) {
             if (!getIngredientUnit(ingredient).equals(unit)) {
                 throw new IllegalArgumentException("Unit must be the same as previously given");
             }
-            Double newAmount = ingredients.getOrDefault(ingredient, 0.0) + amount;
-            ingredients.put(ingredient, newAmount);
+            table.setAmount(index, table.amountAt(index) + amount);
         } else {
-            ingredients.put(ingredient, amount);
-            ingredientUnits.put(ingredient, unit);
+            if (index < 0) {
+                index = table.add(ingredient);
+            }
+            table.setAmount(index, amount);
+            table.setUnit(index, unit);
         }
     }
 
@@ -192,11 +454,12 @@ public class Recipe {
      * @throws IllegalArgumentException if the ingredient is not in the keyset
      */
     public void removeIngredient(String ingredient) {
-        if (!ingredients.containsKey(ingredient)) {
+        IngredientTable table = ingredients();
+        int index = table.indexOf(ingredient);
+        if (index < 0 || !table.hasAmount(index)) {
             throw new IllegalArgumentException("Ingredient not found in recipe");
         } else {
-            ingredients.remove(ingredient);
-            ingredientUnits.remove(ingredient);
+            table.remove(index);
         }
     }
 
@@ -210,17 +473,18 @@ public class Recipe {
      * @throws IllegalargumentException if the amount to remove is larger than what is in the recipe
      */
     public void removeIngredientAmount(String ingredient, Double amount) {
+        IngredientTable table = ingredients();
         if (amount < 0) {
             throw new IllegalArgumentException("Amount to remove must be over 0");
         }
-        if (!ingredients.containsKey(ingredient)) {
+        int index = table.indexOf(ingredient);
+        if (index < 0 || !table.hasAmount(index)) {
             throw new IllegalArgumentException("Ingredient not found in recipe");
         }
-        if (ingredients.get(ingredient) < amount) {
+        if (table.amountAt(index) < amount) {
             throw new IllegalArgumentException("Cannot remove more than already in ingredients");
         }
-        Double newAmount = ingredients.get(ingredient) - amount;
-        ingredients.put(ingredient, newAmount);
+        table.setAmount(index, table.amountAt(index) - amount);
     }
 
     /**
@@ -231,10 +495,12 @@ public class Recipe {
      * @throws IllegalArgumentException if the ingredient is not in the recipe
      */
     public String getIngredientUnit(String ingredient) {
-        if (!ingredientUnits.containsKey(ingredient)) {
+        IngredientTable table = ingredients();
+        int index = table.indexOf(ingredient);
+        if (index < 0 || table.unitAt(index) == null) {
             throw new IllegalArgumentException("Ingredient not found in recipe");
         }
-        return ingredientUnits.get(ingredient);
+        return table.unitAt(index);
     }
 
     /**
@@ -245,10 +511,12 @@ public class Recipe {
      * @throws IllegalArgumentException if unit is not pcs, g or dL
      */
     public void setIngredientUnit(String ingredient, String unit) {
+        IngredientTable table = ingredients();
         if (!(unit.equals("pcs") || unit.equals("g") || unit.equals("dL"))) {
             throw new IllegalArgumentException("Unit must be pcs, g or dL");
         }
-        ingredientUnits.put(ingredient, unit);
+        int index = table.indexOf(ingredient);
+        table.setUnit(index < 0 ? table.add(ingredient) : index, unit);
     }
 
     /**
@@ -257,11 +525,13 @@ public class Recipe {
      * @param rating rating given by the user
      * @see #hasRated(String)
      */
-    public void addReview(Review rating) {
+    public synchronized void addReview(Review rating) {
+        load();
         if (hasRated(rating.getReviewer())) {
             throw new IllegalArgumentException("User has already rated this recipe");
         }
         reviewList.add(rating);
+        countReview(rating);
     }
 
     /**
@@ -270,8 +540,10 @@ public class Recipe {
      * @return true if the recipe has been rated by the user, false otherwise
      * @see Review#getReviewer()
      */
-    public boolean hasRated(String username) {
-        return reviewList.stream().anyMatch(r -> r.getReviewer().equals(username));
+    public synchronized boolean hasRated(String username) {
+        load();
+        countReviews();
+        return reviewers.contains(username);
     }
 
     /**
@@ -279,10 +551,20 @@ public class Recipe {
      * 
      * @return The average rating of the recipe
      */
-    public double getAverageRating() {
-        double number = reviewList.stream().mapToDouble(r -> r.getRating()).average().orElse(0.00);
-        double roundedNumber = Math.round(number * 100) / 100.0;
-        return roundedNumber;
+    public synchronized double getAverageRating() {
+        countReviews();
+        double average = numberOfReviewers == 0 ? 0.00 : ratingSum / numberOfReviewers;
+        return Math.round(average * 100) / 100.0;
+    }
+
+    /**
+     * This method gets the sum of the ratings of the recipe.
+     * 
+     * @return The sum of the ratings of the recipe
+     */
+    public synchronized double getRatingSum() {
+        countReviews();
+        return ratingSum;
     }
 
     /**
@@ -290,8 +572,9 @@ public class Recipe {
      * 
      * @return The number of reviews the recipe has as integer
      */
-    public int getNumberOfReviewers() {
-        return reviewList.size();
+    public synchronized int getNumberOfReviewers() {
+        countReviews();
+        return numberOfReviewers;
     }
 
     /**
@@ -300,8 +583,9 @@ public class Recipe {
      * @return The number of comments the recipe has as integer
      * @see Review#getComment()
      */
-    public int getNumberOfComments() {
-        return (int) reviewList.stream().filter(r -> !r.getComment().equals("")).count();
+    public synchronized int getNumberOfComments() {
+        countReviews();
+        return numberOfComments;
     }
 
     /**
@@ -310,9 +594,22 @@ public class Recipe {
      * @return The reviews of the recipe as a list
      */
     public List<Review> getReviews() {
+        load();
         return new ArrayList<>(reviewList);
     }
 
+    /**
+     * This method gets a view of the reviews of the recipe, which can not be changed, and
+     * shows the reviews as they are added. Unlike {@link #getReviews()} it does not copy
+     * the reviews.
+     * 
+     * @return An unmodifiable List of the reviews of the recipe
+     */
+    public List<Review> getReviewsView() {
+        load();
+        return Collections.unmodifiableList(reviewList);
+    }
+
     /**
      * This method gets the author of the recipe.
      * 
@@ -1,15 +1,39 @@
 package core;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.stream.Stream;
 
 /**
  * Class for storing several recipes.
+ *
+ * <p>A recipe is identified by its author and name. The recipes are kept in the order they
+ * were put in, along with an index from the author and name of each recipe to its place,
+ * so finding, putting and removing a recipe takes the same time no matter how many
+ * recipes there are. A removed recipe leaves a hole in its place, and the holes are closed
+ * when they are more than half of the places, so each removal pays for closing at most two
+ * holes. Until then a recipe is read by its place through a tree of counts of the recipes
+ * before each place, which takes time growing with the logarithm of the number of places.
+ * The index uses the author and name a recipe had when it was put in, so a recipe should
+ * not be renamed while it is in the library.
+ * </p>
  */
 public class RecipeLibrary implements Iterable<Recipe> {
 
     private List<Recipe> recipes;
+    private transient Map<List<String>, Integer> positions;
+    private transient List<Recipe> indexedRecipes;
+    private transient int holes;
+    private transient int[] counts;
+    private transient List<Recipe> view;
 
     /**
      * This contructor initilizes an empty list.
@@ -41,7 +65,7 @@ public class RecipeLibrary implements Iterable<Recipe> {
         if (n < 0 || n >= getSize()) {
             throw new IllegalArgumentException("The index is invalid");
         }
-        return recipes.get(n);
+        return recipes.get(placeOf(n));
     }
 
     /**
@@ -50,46 +74,61 @@ public class RecipeLibrary implements Iterable<Recipe> {
      * @return Integer value with the amount of recipes
      */
     public int getSize() {
-        return recipes.size();
+        return recipes.size() - (indexedRecipes == recipes ? holes : 0);
     }
 
     /**
-     * This method adds the recipe to recipe library.
+     * This method adds the recipe to the end of the recipe library.
      * 
      * @param recipe recipe to be added
      */
     private void addRecipe(Recipe recipe) {
-        if (recipe == null) {
-            throw new IllegalArgumentException("Can't add null to the RecipeLibrary");
-        }
+        positions.put(getKey(recipe), recipes.size());
         recipes.add(recipe);
+        if (counts != null) {
+            int node = recipes.size();
+            if (node == counts.length) {
+                counts = Arrays.copyOf(counts, counts.length * 2);
+            }
+            counts[node] = 1 + countBefore(node - 1) - countBefore(node - (node & -node));
+        }
     }
 
     /**
      * This mehtod updates a recipe if it exists, or adds it if it doesn't.
+     * Either way the recipe is put at the end of the recipe library.
      * 
      * @param recipe recipe to be updated or added
-     * @see #containsRecipe(Recipe)
      * @see #removeRecipe(Recipe)
      * @see #addRecipe(Recipe)
      */
     public void putRecipe(Recipe recipe) {
-        if (containsRecipe(recipe)) {
-            removeRecipe(recipe);
+        if (recipe == null) {
+            throw new IllegalArgumentException("Can't add null to the RecipeLibrary");
         }
+        removeRecipe(recipe);
         addRecipe(recipe);
     }
 
     /**
-     * This method removes the given recipe from the recipe library.
+     * This method removes the recipe with the same author and name as the given recipe
+     * from the recipe library.
      * 
      * @param recipe recipe to be removed
      */
     public void removeRecipe(Recipe recipe) {
-        for (Recipe r : recipes) {
-            if (r.getName().equals(recipe.getName()) && r.getAuthor().equals(recipe.getAuthor())) {
-                recipes.remove(r);
-                return;
+        index();
+        Integer position = positions.remove(getKey(recipe));
+        if (position != null) {
+            recipes.set(position, null);
+            holes++;
+            if (counts != null) {
+                for (int node = position + 1; node <= recipes.size(); node += node & -node) {
+                    counts[node]--;
+                }
+            }
+            if (holes > recipes.size() / 2) {
+                closeHoles();
             }
         }
     }
@@ -101,9 +140,8 @@ public class RecipeLibrary implements Iterable<Recipe> {
      * @return Boolean value, true if the recipe exists in the recipe library, false otherwise
      */
     public boolean containsRecipe(Recipe recipe) {
-        return recipes.stream()
-                .anyMatch(r -> (r.getName().equals(recipe.getName())
-                        && r.getAuthor().equals(recipe.getAuthor())));
+        index();
+        return positions.containsKey(getKey(recipe));
     }
 
     /**
@@ -115,17 +153,21 @@ public class RecipeLibrary implements Iterable<Recipe> {
         if (newRecipes == null) {
             throw new IllegalArgumentException("Recipes cannot be null");
         }
-        recipes = newRecipes;
+        recipes = new ArrayList<>(newRecipes);
     }
 
     /**
      * This method defines an iterator for the class, which makes it iterable.
+     * The recipe library can not be changed through the iterator.
      * 
      * @return Iterator which iterates over the elements of the recipe library
      */
     @Override
     public Iterator<Recipe> iterator() {
-        return recipes.iterator();
+        if (indexedRecipes != recipes || holes == 0) {
+            return Collections.unmodifiableList(recipes).iterator();
+        }
+        return recipes.stream().filter(Objects::nonNull).iterator();
     }
 
     /**
@@ -134,6 +176,171 @@ public class RecipeLibrary implements Iterable<Recipe> {
      * @return List with all the recipes
      */
     public List<Recipe> getRecipes() {
-        return new ArrayList<>(recipes);
+        List<Recipe> copy = new ArrayList<>(getSize());
+        iterator().forEachRemaining(copy::add);
+        return copy;
+    }
+
+    /**
+     * This method gets a view of the recipes, which can not be changed, and shows the
+     * recipes as they are put in and removed from the recipe library. Unlike
+     * {@link #getRecipes()} it does not copy the recipes, so it should not be iterated over
+     * while the recipe library is changed.
+     * 
+     * @return Unmodifiable List with all the recipes
+     */
+    public List<Recipe> getRecipesView() {
+        if (view == null) {
+            view = new RecipesView();
+        }
+        return view;
+    }
+
+    /**
+     * This method streams the recipes without copying them.
+     * 
+     * @return Stream of all the recipes
+     * @see #getRecipesView()
+     */
+    public Stream<Recipe> stream() {
+        return getRecipesView().stream();
+    }
+
+    /**
+     * This helper method makes the index of the places of the recipes, if the list of
+     * recipes has been replaced since it was made, like when the recipes are set.
+     * If several recipes have the same author and name, only the first is in the index,
+     * which is the one that is removed first.
+     */
+    private void index() {
+        if (indexedRecipes == recipes && positions != null) {
+            return;
+        }
+        positions = new HashMap<>();
+        holes = 0;
+        counts = null;
+        for (int i = 0; i < recipes.size(); i++) {
+            Recipe recipe = recipes.get(i);
+            if (recipe == null) {
+                holes++;
+            } else {
+                positions.putIfAbsent(getKey(recipe), i);
+            }
+        }
+        indexedRecipes = recipes;
+    }
+
+    /**
+     * This helper method gets the place of the recipe with the given index, skipping the
+     * holes left by removed recipes. The tree of counts is made the first time a recipe is
+     * read by its index while there are holes, and is kept up to date until they are closed.
+     *
+     * @param n index of the recipe, which must be valid
+     * @return The place of the recipe in the list of recipes
+     */
+    private int placeOf(int n) {
+        if (indexedRecipes != recipes || holes == 0) {
+            return n;
+        }
+        if (counts == null) {
+            countRecipes();
+        }
+        int place = 0;
+        int remaining = n + 1;
+        for (int step = Integer.highestOneBit(recipes.size()); step > 0; step >>= 1) {
+            int node = place + step;
+            if (node <= recipes.size() && counts[node] < remaining) {
+                place = node;
+                remaining -= counts[node];
+            }
+        }
+        return place;
+    }
+
+    /**
+     * This helper method makes the tree of counts, where node i holds the number of recipes
+     * in the i & -i places up to and including place i - 1.
+     */
+    private void countRecipes() {
+        counts = new int[Math.max(16, recipes.size() * 2)];
+        for (int node = 1; node <= recipes.size(); node++) {
+            if (recipes.get(node - 1) != null) {
+                counts[node]++;
+            }
+            int parent = node + (node & -node);
+            if (parent <= recipes.size()) {
+                counts[parent] += counts[node];
+            }
+        }
+    }
+
+    /**
+     * This helper method counts the recipes in the given number of first places, using the
+     * tree of counts.
+     *
+     * @param places number of places to count the recipes in
+     * @return The number of recipes in the places
+     */
+    private int countBefore(int places) {
+        int count = 0;
+        for (int node = places; node > 0; node -= node & -node) {
+            count += counts[node];
+        }
+        return count;
+    }
+
+    /**
+     * This helper method closes the holes left by removed recipes, moving the recipes after
+     * them forward, and updates the places in the index. Recipe libraries which are only
+     * read have no holes, and are not changed.
+     */
+    private void closeHoles() {
+        if (indexedRecipes != recipes || holes == 0) {
+            return;
+        }
+        int next = 0;
+        for (int i = 0; i < recipes.size(); i++) {
+            Recipe recipe = recipes.get(i);
+            if (recipe != null) {
+                recipes.set(next, recipe);
+                positions.replace(getKey(recipe), i, next);
+                next++;
+            }
+        }
+        recipes.subList(next, recipes.size()).clear();
+        holes = 0;
+        counts = null;
+    }
+
+    /**
+     * This helper method gets the key a recipe is identified by, which is its author and
+     * its name.
+     *
+     * @param recipe recipe to get the key of
+     * @return List with the author and the name of the recipe
+     */
+    private static List<String> getKey(Recipe recipe) {
+        return Arrays.asList(recipe.getAuthor(), recipe.getName());
+    }
+
+    /**
+     * View of the recipes of the library, which skips the holes left by removed recipes,
+     * and follows the list of recipes when it is replaced.
+     */
+    private class RecipesView extends AbstractList<Recipe> implements RandomAccess {
+        @Override
+        public Recipe get(int index) {
+            return recipes.get(placeOf(Objects.checkIndex(index, getSize())));
+        }
+
+        @Override
+        public Iterator<Recipe> iterator() {
+            return RecipeLibrary.this.iterator();
+        }
+
+        @Override
+        public int size() {
+            return getSize();
+        }
     }
 }
@@ -0,0 +1,117 @@
+package core;
+
+import java.util.function.Supplier;
+
+/**
+ * Class for the few values of a recipe which are shown in a list of recipes, which are
+ * its name, author and a summary of its reviews.
+ * A summary is much smaller than the recipe, and can not be changed.
+ */
+public class RecipeSummary {
+    private final String name;
+    private final String authorUsername;
+    private final double ratingSum;
+    private final int numberOfReviewers;
+    private final int numberOfComments;
+
+    /**
+     * Contructor for a summary with the given values.
+     *
+     * @param name name of the recipe
+     * @param authorUsername username of the author of the recipe
+     * @param ratingSum sum of the ratings of the reviews
+     * @param numberOfReviewers number of reviews
+     * @param numberOfComments number of reviews with a comment
+     */
+    public RecipeSummary(String name, String authorUsername, double ratingSum,
+            int numberOfReviewers, int numberOfComments) {
+        this.name = name;
+        this.authorUsername = authorUsername;
+        this.ratingSum = ratingSum;
+        this.numberOfReviewers = numberOfReviewers;
+        this.numberOfComments = numberOfComments;
+    }
+
+    /**
+     * This method makes the summary of a recipe. The body of the recipe is not loaded
+     * for it.
+     *
+     * @param recipe recipe to summarize
+     * @return The summary of the recipe
+     */
+    public static RecipeSummary of(Recipe recipe) {
+        return new RecipeSummary(recipe.getName(), recipe.getAuthor(), recipe.getRatingSum(),
+                recipe.getNumberOfReviewers(), recipe.getNumberOfComments());
+    }
+
+    /**
+     * This method makes a recipe with the values of the summary, which loads the rest of
+     * its values the first time its steps, ingredients or reviews are used.
+     * The recipe has no portions or description, since they are not in the summary.
+     *
+     * @param body supplier of the full recipe
+     * @return A recipe with the values of the summary
+     * @see Recipe#isLoaded()
+     */
+    public Recipe toRecipe(Supplier<Recipe> body) {
+        return new Recipe(name, 0, authorUsername, null, false, ratingSum, numberOfReviewers,
+                numberOfComments, body);
+    }
+
+    /**
+     * This method gets the name of the recipe.
+     *
+     * @return The name of the recipe
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * This method gets the author of the recipe.
+     *
+     * @return The username of the author of the recipe
+     */
+    public String getAuthor() {
+        return authorUsername;
+    }
+
+    /**
+     * This method gets the sum of the ratings of the recipe.
+     *
+     * @return The sum of the ratings
+     */
+    public double getRatingSum() {
+        return ratingSum;
+    }
+
+    /**
+     * This method gets the average rating of the recipe as double with two decimals,
+     * in the same way as the recipe does.
+     *
+     * @return The average rating of the recipe
+     * @see Recipe#getAverageRating()
+     */
+    public double getAverageRating() {
+        double average = numberOfReviewers == 0 ? 0.00 : ratingSum / numberOfReviewers;
+        return Math.round(average * 100) / 100.0;
+    }
+
+    /**
+     * This method gets the number of reviews the recipe has.
+     *
+     * @return The number of reviews
+     */
+    public int getNumberOfReviewers() {
+        return numberOfReviewers;
+    }
+
+    /**
+     * This method gets the number of comments the recipe has.
+     *
+     * @return The number of comments
+     */
+    public int getNumberOfComments() {
+        return numberOfComments;
+    }
+}
@@ -0,0 +1,107 @@
+package core;
+
+import java.util.Set;
+
+/**
+ * View of a recipe scaled to another number of portions.
+ *
+ * <p>The view only keeps the recipe and the number of portions. The scaled amounts are
+ * computed from the amounts in the recipe each time they are read, so the view shows the
+ * recipe as it is changed, and making a new view when the portions change costs nothing
+ * but the view itself.
+ * </p>
+ *
+ * @see Recipe#scaledTo(int)
+ */
+public final class ScaledRecipe {
+    private final Recipe recipe;
+    private final int portions;
+
+    /**
+     * Contructor for a view of the given recipe scaled to the given portions.
+     *
+     * @param recipe recipe to scale
+     * @param portions amount of portions to scale the recipe to
+     * @throws IllegalArgumentException if portions is less than one
+     */
+    ScaledRecipe(Recipe recipe, int portions) {
+        if (portions < 1) {
+            throw new IllegalArgumentException("Portions must be at least one");
+        }
+        this.recipe = recipe;
+        this.portions = portions;
+    }
+
+    /**
+     * This method gets the recipe which is scaled.
+     *
+     * @return The recipe
+     */
+    public Recipe getRecipe() {
+        return recipe;
+    }
+
+    /**
+     * This method gets the portions the recipe is scaled to.
+     *
+     * @return The portions of the view
+     */
+    public int getPortions() {
+        return portions;
+    }
+
+    /**
+     * This method gets the number the amounts of the recipe are multiplied with, which is
+     * the portions of the view divided by the portions of the recipe.
+     *
+     * @return The scaling factor
+     */
+    public double getScale() {
+        return (double) portions / recipe.getPortions();
+    }
+
+    /**
+     * This method gets a view of the different ingredients in the recipe.
+     *
+     * @return An unmodifiable Set of the ingredients in the recipe
+     * @see Recipe#getIngredientsView()
+     */
+    public Set<String> getIngredients() {
+        return recipe.getIngredientsView();
+    }
+
+    /**
+     * This method gets the scaled amount of an ingredient in the recipe.
+     *
+     * @param ingredient ingredient to get amount of
+     * @return The amount for the portions of the view
+     * @throws IllegalArgumentException if the ingredient is not in the recipe
+     */
+    public double getIngredientAmount(String ingredient) {
+        return recipe.getIngredientAmount(ingredient) * getScale();
+    }
+
+    /**
+     * This method gets the unit of an ingredient in the recipe, which is not scaled.
+     *
+     * @param ingredient ingredient to find the unit of
+     * @return A string of the unit of the ingredient
+     * @throws IllegalArgumentException if the ingredient is not in the recipe
+     */
+    public String getIngredientUnit(String ingredient) {
+        return recipe.getIngredientUnit(ingredient);
+    }
+
+    /**
+     * This method does the given action with the name, scaled amount and unit of each
+     * ingredient in the recipe, in the order they were added.
+     *
+     * @param action action to do with each ingredient
+     * @see Recipe#forEachIngredient(Recipe.IngredientConsumer)
+     */
+    public void forEachIngredient(Recipe.IngredientConsumer action) {
+        double scale = getScale();
+        recipe.forEachIngredient((ingredient, amount, unit) ->
+                action.accept(ingredient, amount * scale, unit));
+    }
+}
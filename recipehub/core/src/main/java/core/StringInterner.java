@@ -0,0 +1,87 @@
+package core;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pool which gives the same String object for equal short strings, instead of a new
+ * String each time a string is read or made. Ingredient names, units, authors and
+ * reviewers are repeated in many recipes, reviews and profiles, so a loaded recipe library
+ * keeps one copy of each instead of one per use.
+ *
+ * <p>Only strings up to a maximum length are kept, since longer strings such as steps,
+ * descriptions and comments are seldom repeated. When the pool is full, new strings are
+ * returned as they are, so the pool can not grow without limit.
+ * </p>
+ *
+ * <p>The shared pool is used both for the names in the ingredient tables of recipes and for
+ * the strings read from files, so a name is only kept once however it was made.
+ * </p>
+ */
+public final class StringInterner {
+    public static final int DEFAULT_MAX_LENGTH = 32;
+    public static final int DEFAULT_MAX_SIZE = 1 << 16;
+
+    private static final StringInterner shared = new StringInterner(DEFAULT_MAX_LENGTH,
+            DEFAULT_MAX_SIZE);
+
+    private final Map<String, String> pool = new ConcurrentHashMap<>();
+    private final int maxLength;
+    private final int maxSize;
+
+    /**
+     * Contructor for an interner with its own pool.
+     *
+     * @param maxLength length of the longest string to keep
+     * @param maxSize number of strings to keep at most
+     * @throws IllegalArgumentException if a limit is negative
+     */
+    public StringInterner(int maxLength, int maxSize) {
+        if (maxLength < 0 || maxSize < 0) {
+            throw new IllegalArgumentException("Limits cannot be negative.");
+        }
+        this.maxLength = maxLength;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * This method gets the interner shared by the recipes, the filehandlers and the remote
+     * access, so that strings made by any of them are only kept once.
+     *
+     * @return The shared interner
+     */
+    public static StringInterner getShared() {
+        return shared;
+    }
+
+    /**
+     * This method returns the kept copy of the given string, and keeps the string if there
+     * is no copy of it yet.
+     *
+     * @param value string to intern
+     * @return The kept copy, or the string itself if it is null, too long or the pool is full
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > maxLength) {
+            return value;
+        }
+        String kept = pool.get(value);
+        if (kept != null) {
+            return kept;
+        }
+        if (pool.size() >= maxSize) {
+            return value;
+        }
+        kept = pool.putIfAbsent(value, value);
+        return kept == null ? value : kept;
+    }
+
+    /**
+     * This method gets the number of strings kept.
+     *
+     * @return The size of the pool
+     */
+    public int size() {
+        return pool.size();
+    }
+}
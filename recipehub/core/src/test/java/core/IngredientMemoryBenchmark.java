@@ -0,0 +1,101 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class measures the memory used for the ingredients of each recipe, kept in the
+ * table of ingredients, and compares it with two maps with boxed amounts, which is how
+ * recipes kept their ingredients before they had the table. It also measures the memory
+ * of a whole recipe with its ingredients.
+ *
+ * <p>Each recipe has 10 ingredients picked from 200 names, and each name is a new string,
+ * like names read by a parser which does not intern strings. The memory is measured as
+ * the growth of the used heap after garbage collection, so it is an estimate.
+ * </p>
+ *
+ * <p>Run it with {@code mvn -pl core test -Dtest=IngredientMemoryBenchmark}.
+ * </p>
+ */
+public class IngredientMemoryBenchmark {
+    private static final int RECIPES = 100_000;
+    private static final int INGREDIENTS = 10;
+    private static final int NAMES = 200;
+    private static final String[] UNITS = {"g", "pcs", "dL"};
+
+    /**
+     * Measures each way of keeping the ingredients, and prints the bytes used per recipe.
+     */
+    @Test
+    public void benchmark() {
+        System.out.printf("%d recipes with %d ingredients%n", RECIPES, INGREDIENTS);
+        System.out.printf("%-12s %16s%n", "Storage", "Bytes/recipe");
+        for (int i = 0; i < 2; i++) {
+            print("Maps", measure(index -> {
+                Map<String, Double> amounts = new HashMap<>();
+                Map<String, String> units = new HashMap<>();
+                fill(index, amounts, units);
+                return new Object[] {amounts, units};
+            }));
+            print("Table", measure(index -> {
+                Map<String, Double> amounts = new HashMap<>();
+                Map<String, String> units = new HashMap<>();
+                fill(index, amounts, units);
+                IngredientTable table = IngredientTable.of(amounts, units);
+                return new Object[] {table, table.units()};
+            }));
+            print("Recipe", measure(index -> {
+                Map<String, Double> amounts = new HashMap<>();
+                Map<String, String> units = new HashMap<>();
+                fill(index, amounts, units);
+                return new Recipe("Recipe " + index, 4, "Author" + index % 100, null,
+                        new ArrayList<>(), amounts, units, true, new ArrayList<>());
+            }));
+        }
+    }
+
+    private static void print(String storage, double bytes) {
+        System.out.printf("%-12s %16.0f%n", storage, bytes);
+    }
+
+    /**
+     * Helper method which keeps the objects made for every recipe, and gets the growth of
+     * the used heap per recipe, without the reference to each recipe in the list.
+     */
+    private static double measure(IntFunction<Object> factory) {
+        List<Object> kept = new ArrayList<>(RECIPES);
+        long before = usedMemory();
+        for (int i = 0; i < RECIPES; i++) {
+            kept.add(factory.apply(i));
+        }
+        long after = usedMemory();
+        Assertions.assertEquals(RECIPES, kept.size());
+        return (after - before) / (double) RECIPES - 4;
+    }
+
+    /**
+     * Helper method which puts the amounts and units of the ingredients of a recipe in the
+     * given maps, with new strings for the names.
+     */
+    private static void fill(int recipe, Map<String, Double> amounts,
+            Map<String, String> units) {
+        for (int i = 0; i < INGREDIENTS; i++) {
+            String name = new String("Ingredient " + (recipe * 7 + i * 13) % NAMES);
+            amounts.put(name, 10.0 * i + recipe % 10);
+            units.put(name, UNITS[i % UNITS.length]);
+        }
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,82 @@
+package core;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Junit test class for the IngredientTable class.
+ */
+public class IngredientTableTest {
+
+    /**
+     * This method tests if the amounts and units are kept in the order they were added,
+     * and if ingredients are removed with their units.
+     */
+    @Test
+    @DisplayName("Amounts and units test")
+    public void testAmountsAndUnits() {
+        IngredientTable table = new IngredientTable();
+        for (String name : List.of("flour", "milk", "eggs", "salt", "sugar")) {
+            table.setAmount(table.add(name), name.length());
+        }
+        table.setUnit(table.indexOf("milk"), "dL");
+        table.setUnit(table.indexOf("eggs"), "pcs");
+        table.setUnit(table.indexOf("sugar"), "tbsp");
+        Assertions.assertEquals(List.of("flour", "milk", "eggs", "salt", "sugar"),
+                List.copyOf(table.keySet()));
+        Assertions.assertEquals(4.0, table.get("milk"));
+        Assertions.assertEquals("tbsp", table.unitAt(table.indexOf("sugar")),
+            "Units which are not known should be kept as they are");
+        Assertions.assertNull(table.unitAt(table.indexOf("flour")));
+
+        table.remove(table.indexOf("milk"));
+        Assertions.assertEquals(-1, table.indexOf("milk"));
+        Assertions.assertEquals("pcs", table.unitAt(table.indexOf("eggs")));
+        Assertions.assertEquals("tbsp", table.unitAt(table.indexOf("sugar")));
+        Assertions.assertEquals(Map.of("eggs", "pcs", "sugar", "tbsp"), table.units());
+    }
+
+    /**
+     * This method tests if ingredients with only a unit are left out of the amounts, and
+     * if units read into their own table are kept apart from the amounts.
+     */
+    @Test
+    @DisplayName("Separate amounts and units test")
+    public void testSeparateUnits() {
+        Map<String, Double> amounts = new LinkedHashMap<>();
+        amounts.put("flour", 400.0);
+        amounts.put("milk", 4.0);
+        IngredientTable table = IngredientTable.of(amounts, Map.of("flour", "g", "salt", "g"));
+        Assertions.assertEquals(amounts, table);
+        Assertions.assertFalse(table.containsKey("salt"));
+        Assertions.assertEquals(Map.of("flour", "g", "salt", "g"), table.units());
+
+        IngredientTable.Units units = new IngredientTable.Units();
+        units.put("milk", "dL");
+        Assertions.assertNotSame(table, units.getTable());
+        Assertions.assertTrue(units.getTable().isEmpty(),
+            "Units without amounts should not be ingredients");
+        table.putUnits(units);
+        Assertions.assertEquals("dL", table.units().get("milk"));
+    }
+
+    /**
+     * This method tests if equal names in different tables are kept as one copy, the copy
+     * kept by the shared StringInterner.
+     */
+    @Test
+    @DisplayName("Name dictionary test")
+    public void testDictionary() {
+        IngredientTable first = new IngredientTable();
+        IngredientTable second = new IngredientTable();
+        first.add(new String("baking powder"));
+        second.add(new String("baking powder"));
+        Assertions.assertSame(first.nameAt(0), second.nameAt(0));
+        Assertions.assertSame(StringInterner.getShared().intern(new String("baking powder")),
+                first.nameAt(0));
+    }
+}
@@ -53,6 +53,23 @@ public class ProfileTest {
                 "The RecipeLibrary with the profile's favorites should be empty");
     }
 
+    /**
+     * This method tests if the contructor for saved profiles keeps the hashed password and
+     * the recipes.
+     */
+    @Test
+    @DisplayName("Saved profile contructor test")
+    public void testSavedContructor() {
+        RecipeLibrary favorites = new RecipeLibrary();
+        Profile saved = new Profile("Username123", profile.getHashedPassword(),
+                profile.getRecipes(), favorites);
+        Assertions.assertEquals("Username123", saved.getUsername());
+        Assertions.assertNull(saved.getPassword(), "The password itself should not be known");
+        Assertions.assertEquals(profile.getHashedPassword(), saved.getHashedPassword());
+        Assertions.assertSame(profile.getRecipes(), saved.getRecipes());
+        Assertions.assertSame(favorites, saved.getFavorites());
+    }
+
     /**
      * This method tests if the username validation works properly.
      * 
@@ -0,0 +1,99 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class measures the time of finding, putting and removing recipes in recipe
+ * libraries of 10 000 to 1 000 000 recipes, and compares it with searching the list of
+ * recipes, which is what the recipe library did before it had an index.
+ *
+ * <p>Run it with {@code mvn -pl core test -Dtest=RecipeLibraryBenchmark}.
+ * </p>
+ */
+public class RecipeLibraryBenchmark {
+    private static final int[] SIZES = {10_000, 100_000, 1_000_000};
+    private static final int OPERATIONS = 10_000;
+    private static final int LINEAR_OPERATIONS = 200;
+
+    /**
+     * Runs the operations on recipe libraries of each size, and prints the average time of
+     * each operation.
+     */
+    @Test
+    public void benchmark() {
+        System.out.printf("%10s %12s %12s %12s %12s %12s %14s%n", "Recipes", "Put (ns)",
+                "Find (ns)", "Update (ns)", "Remove (ns)", "Index (ns)", "Search (ns)");
+        for (int size : SIZES) {
+            List<Recipe> recipes = createRecipes(size);
+            Random random = new Random(size);
+
+            RecipeLibrary recipeLibrary = new RecipeLibrary();
+            long start = System.nanoTime();
+            for (Recipe recipe : recipes) {
+                recipeLibrary.putRecipe(recipe);
+            }
+            double put = (System.nanoTime() - start) / (double) size;
+
+            start = System.nanoTime();
+            for (int i = 0; i < OPERATIONS; i++) {
+                Assertions.assertTrue(recipeLibrary.containsRecipe(
+                        recipes.get(random.nextInt(size))));
+            }
+            double find = (System.nanoTime() - start) / (double) OPERATIONS;
+
+            start = System.nanoTime();
+            for (int i = 0; i < OPERATIONS; i++) {
+                recipeLibrary.putRecipe(recipes.get(random.nextInt(size)));
+            }
+            double update = (System.nanoTime() - start) / (double) OPERATIONS;
+
+            start = System.nanoTime();
+            for (int i = 0; i < OPERATIONS; i++) {
+                recipeLibrary.removeRecipe(recipes.get(random.nextInt(size)));
+            }
+            double remove = (System.nanoTime() - start) / (double) OPERATIONS;
+
+            start = System.nanoTime();
+            int count = 0;
+            for (int i = 0; i < recipeLibrary.getSize(); i++) {
+                count += recipeLibrary.getRecipe(i) == null ? 0 : 1;
+            }
+            double index = (System.nanoTime() - start) / (double) count;
+
+            start = System.nanoTime();
+            for (int i = 0; i < LINEAR_OPERATIONS; i++) {
+                Assertions.assertTrue(search(recipes, recipes.get(random.nextInt(size))));
+            }
+            double search = (System.nanoTime() - start) / (double) LINEAR_OPERATIONS;
+
+            System.out.printf("%10d %12.0f %12.0f %12.0f %12.0f %12.0f %14.0f%n", size, put,
+                    find, update, remove, index, search);
+        }
+    }
+
+    /**
+     * Helper method which finds a recipe by comparing the author and name of every recipe,
+     * like the recipe library did before it had an index.
+     */
+    private static boolean search(List<Recipe> recipes, Recipe recipe) {
+        return recipes.stream().anyMatch(r -> r.getName().equals(recipe.getName())
+                && r.getAuthor().equals(recipe.getAuthor()));
+    }
+
+    /**
+     * Helper method which makes recipes by a hundred authors. Only the name and author of
+     * the recipes are used.
+     */
+    private static List<Recipe> createRecipes(int size) {
+        List<Recipe> recipes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            recipes.add(new RecipeSummary("Recipe " + i, "Author" + i % 100, 0, 0, 0)
+                    .toRecipe(() -> null));
+        }
+        return recipes;
+    }
+}
@@ -202,4 +202,86 @@ public class RecipeLibraryTest {
         Assertions.assertTrue(recipeLibrary.getSize() != readRecipes.size(),
                 "The RecipeLibrary should not be affected by changes made to the returnes list");
     }
+
+    /**
+     * This method tests if the recipes keep their order when recipes are removed and
+     * updated, and if recipes are found after the recipes are set.
+     *
+     * @see RecipeLibrary#containsRecipe(Recipe)
+     * @see RecipeLibrary#getRecipe(int)
+     */
+    @Test
+    @DisplayName("Order and lookup test")
+    public void testOrder() {
+        recipeLibrary.setRecipeLibrary(recipeList);
+        Assertions.assertTrue(recipeLibrary.containsRecipe(recipeList.get(2)));
+        Assertions.assertFalse(recipeLibrary.containsRecipe(new Recipe("Kebab", 2,
+                new Profile("Profile2", "Password2"))));
+
+        recipeLibrary.removeRecipe(recipeList.get(1));
+        Assertions.assertEquals(3, recipeLibrary.getSize());
+        Assertions.assertFalse(recipeLibrary.containsRecipe(recipeList.get(1)));
+        recipeLibrary.putRecipe(recipe1);
+        Assertions.assertEquals(List.of(recipeList.get(2), recipeList.get(3), recipe1),
+                recipeLibrary.getRecipes(), "An updated recipe should be moved to the end");
+        Assertions.assertEquals(recipeList.get(3), recipeLibrary.getRecipe(1));
+
+        Profile profile2 = new Profile("Profile2", "Password2");
+        List<Recipe> added = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Recipe recipe = new Recipe("Recipe " + i, 1, profile2);
+            recipeLibrary.putRecipe(recipe);
+            added.add(recipe);
+        }
+        for (int i = 0; i < 100; i += 2) {
+            recipeLibrary.removeRecipe(added.get(i));
+        }
+        Assertions.assertEquals(53, recipeLibrary.getSize());
+        Assertions.assertEquals(added.get(1), recipeLibrary.getRecipe(3));
+        Assertions.assertEquals(added.get(99), recipeLibrary.getRecipe(52));
+        Iterator<Recipe> iterator = recipeLibrary.iterator();
+        Assertions.assertEquals(recipeList.get(2), iterator.next());
+        Assertions.assertThrows(UnsupportedOperationException.class, iterator::remove);
+        Assertions.assertTrue(recipeLibrary.containsRecipe(added.get(51)));
+        Assertions.assertFalse(recipeLibrary.containsRecipe(added.get(50)));
+
+        List<Recipe> expected = new ArrayList<>(recipeLibrary.getRecipes().subList(0, 3));
+        for (int i = 0; i < 100; i++) {
+            Recipe recipe = new Recipe("Recipe " + i, 1, profile2);
+            recipeLibrary.putRecipe(recipe);
+            expected.add(recipe);
+            Assertions.assertSame(recipe, recipeLibrary.getRecipe(recipeLibrary.getSize() - 1),
+                "An updated recipe should be read at the end while the holes are left");
+        }
+        Assertions.assertEquals(expected, recipeLibrary.getRecipes());
+        Assertions.assertEquals(expected, recipeLibrary.getRecipesView());
+    }
+
+    /**
+     * This method tests if the view of the recipes shows the recipes as they are put in,
+     * removed and set, without holes, and can not be changed.
+     *
+     * @see RecipeLibrary#getRecipesView()
+     * @see RecipeLibrary#stream()
+     */
+    @Test
+    @DisplayName("Recipes view test")
+    public void testRecipesView() {
+        List<Recipe> view = recipeLibrary.getRecipesView();
+        Assertions.assertTrue(view.isEmpty());
+        recipeList.forEach(recipeLibrary::putRecipe);
+        Assertions.assertEquals(recipeList, view);
+        recipeLibrary.removeRecipe(recipe1);
+        Assertions.assertEquals(recipeList.subList(1, 4), view,
+            "Removed recipes should not be in the view");
+        Assertions.assertEquals(3, recipeLibrary.stream().count());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> view.add(recipe1));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> view.remove(0));
+
+        recipeLibrary.setRecipeLibrary(List.of(recipe1));
+        Assertions.assertEquals(List.of(recipe1), view);
+        Assertions.assertSame(view, recipeLibrary.getRecipesView());
+        Assertions.assertNotSame(recipeLibrary.getRecipes(), recipeLibrary.getRecipes(),
+            "The recipes should still be copied when a copy is asked for");
+    }
 }
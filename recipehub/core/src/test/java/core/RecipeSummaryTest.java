@@ -0,0 +1,62 @@
+package core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Junit test class for the RecipeSummary class.
+ */
+public class RecipeSummaryTest {
+    private Recipe recipe;
+
+    /**
+     * This method sets up a recipe with two reviews, one of them without a comment.
+     */
+    @BeforeEach
+    public void setup() {
+        recipe = new Recipe("Pancakes", 4, new Profile("User1234", "Password123"));
+        recipe.addStep("Mix");
+        recipe.addReview(new Review(4, "Great", "User5678"));
+        recipe.addReview(new Review(3, "", "User9012"));
+    }
+
+    /**
+     * This method tests if the summary of a recipe has the same values as the recipe.
+     *
+     * @see RecipeSummary#of(Recipe)
+     */
+    @Test
+    @DisplayName("Summary test")
+    public void testOf() {
+        RecipeSummary summary = RecipeSummary.of(recipe);
+        Assertions.assertEquals("Pancakes", summary.getName());
+        Assertions.assertEquals("User1234", summary.getAuthor());
+        Assertions.assertEquals(7.0, summary.getRatingSum());
+        Assertions.assertEquals(recipe.getAverageRating(), summary.getAverageRating());
+        Assertions.assertEquals(2, summary.getNumberOfReviewers());
+        Assertions.assertEquals(1, summary.getNumberOfComments());
+        Assertions.assertEquals(0.0, new RecipeSummary("Toast", "User1234", 0, 0, 0)
+                .getAverageRating());
+    }
+
+    /**
+     * This method tests if the recipe made from a summary has its values, and loads the
+     * rest of the recipe when it is used.
+     *
+     * @see RecipeSummary#toRecipe(java.util.function.Supplier)
+     */
+    @Test
+    @DisplayName("Recipe from summary test")
+    public void testToRecipe() {
+        Recipe fromSummary = RecipeSummary.of(recipe).toRecipe(() -> recipe);
+        Assertions.assertFalse(fromSummary.isLoaded());
+        Assertions.assertEquals("Pancakes", fromSummary.getName());
+        Assertions.assertEquals("User1234", fromSummary.getAuthor());
+        Assertions.assertEquals(3.5, fromSummary.getAverageRating());
+        Assertions.assertEquals(1, fromSummary.getNumberOfComments());
+        Assertions.assertEquals(recipe.getSteps(), fromSummary.getSteps());
+        Assertions.assertTrue(fromSummary.isLoaded());
+    }
+}
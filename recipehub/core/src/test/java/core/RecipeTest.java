@@ -1,7 +1,17 @@
 package core;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -54,6 +64,119 @@ public class RecipeTest {
         Assertions.assertEquals(0, r.getReviews().size(), "Should be an empty list");
     }
 
+    /**
+     * This method tests if the contructor for saved recipes keeps all the values, and
+     * does not add the recipe to the author.
+     */
+    @Test
+    @DisplayName("Saved recipe constructor test")
+    public void testSavedConstructor() {
+        Recipe r = new Recipe("Waffles", 2, "User1234", "Crispy", Arrays.asList("Mix", "Bake"),
+                new HashMap<>(Map.of("flour", 200.0)), new HashMap<>(Map.of("flour", "g")), true,
+                new ArrayList<>(List.of(new Review(5, "Great", "User5678"))));
+        Assertions.assertEquals("Waffles", r.getName());
+        Assertions.assertEquals(2, r.getPortions());
+        Assertions.assertEquals("User1234", r.getAuthor());
+        Assertions.assertEquals("Crispy", r.getDescription());
+        Assertions.assertEquals(Arrays.asList("Mix", "Bake"), r.getSteps());
+        Assertions.assertEquals(200.0, r.getIngredientAmount("flour"));
+        Assertions.assertEquals("g", r.getIngredientUnit("flour"));
+        Assertions.assertTrue(r.isSaved());
+        Assertions.assertTrue(r.hasRated("User5678"));
+        Assertions.assertFalse(profile.getRecipes().containsRecipe(r),
+            "The recipe should not be added to the author");
+    }
+
+    /**
+     * This method tests if a recipe made from its header uses the summary of its reviews,
+     * and loads its body once, the first time the steps are used.
+     */
+    @Test
+    @DisplayName("Lazy recipe body test")
+    public void testLazyBody() {
+        int[] loads = new int[1];
+        Recipe r = new Recipe("Waffles", 2, "User1234", "Crispy", true, 9.0, 2, 1, () -> {
+            loads[0]++;
+            return new Recipe(null, 0, null, null, new ArrayList<>(List.of("Mix", "Bake")),
+                    new HashMap<>(Map.of("flour", 200.0)), new HashMap<>(Map.of("flour", "g")),
+                    false, new ArrayList<>(List.of(new Review(4, "Great", "User5678"),
+                            new Review(5, "", "User9012"))));
+        });
+        Assertions.assertFalse(r.isLoaded());
+        Assertions.assertEquals("Waffles", r.getName());
+        Assertions.assertEquals(4.5, r.getAverageRating());
+        Assertions.assertEquals(2, r.getNumberOfReviewers());
+        Assertions.assertEquals(1, r.getNumberOfComments());
+        Assertions.assertEquals(0, loads[0], "The body should not be loaded for the header");
+
+        Assertions.assertEquals(Arrays.asList("Mix", "Bake"), r.getSteps());
+        Assertions.assertTrue(r.isLoaded());
+        Assertions.assertEquals("g", r.getIngredientUnit("flour"));
+        Assertions.assertTrue(r.hasRated("User9012"));
+        Assertions.assertEquals(4.5, r.getAverageRating());
+        Assertions.assertEquals(1, loads[0], "The body should only be loaded once");
+
+        Recipe empty = new Recipe("Toast", 1, "User1234", null, false, 0, 0, 0, () -> null);
+        Assertions.assertEquals(0, empty.getSteps().size());
+        Assertions.assertEquals(0.0, empty.getAverageRating());
+    }
+
+    /**
+     * This method tests if the views of the steps, ingredients and reviews show the
+     * recipe as it is changed, and can not be changed themselves.
+     * 
+     * @see Recipe#getStepsView()
+     * @see Recipe#getIngredientsView()
+     * @see Recipe#getReviewsView()
+     */
+    @Test
+    @DisplayName("Views test")
+    public void testViews() {
+        List<String> steps = recipe.getStepsView();
+        Set<String> ingredients = recipe.getIngredientsView();
+        List<Review> reviews = recipe.getReviewsView();
+        Assertions.assertEquals(recipe.getSteps(), steps);
+        Assertions.assertEquals(recipe.getIngredients(), ingredients);
+        Assertions.assertTrue(reviews.isEmpty());
+
+        recipe.addStep("Serve");
+        recipe.removeIngredient("salt");
+        recipe.addReview(new Review(4, "Good", "User5678"));
+        Assertions.assertEquals("Serve", steps.get(3));
+        Assertions.assertFalse(ingredients.contains("salt"));
+        Assertions.assertEquals("User5678", reviews.get(0).getReviewer());
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> steps.add("Eat"));
+        Assertions.assertThrows(UnsupportedOperationException.class,
+                () -> ingredients.remove("flour"));
+        Assertions.assertThrows(UnsupportedOperationException.class, () -> reviews.clear());
+
+        Recipe lazy = new Recipe("Toast", 1, "User1234", null, false, 0, 0, 0,
+                () -> new Recipe(null, 0, null, null, new ArrayList<>(List.of("Toast")),
+                        null, null, false, null));
+        Assertions.assertEquals(List.of("Toast"), lazy.getStepsView(),
+            "The view should load the body of the recipe");
+    }
+
+    /**
+     * This method tests if every ingredient is given with its amount and unit, in the
+     * order they were added.
+     * 
+     * @see Recipe#forEachIngredient(Recipe.IngredientConsumer)
+     */
+    @Test
+    @DisplayName("Ingredient iteration test")
+    public void testForEachIngredient() {
+        List<String> lines = new ArrayList<>();
+        recipe.removeIngredient("salt");
+        recipe.addIngredient("milk", 1.0, "dL");
+        recipe.forEachIngredient((ingredient, amount, unit) ->
+                lines.add(amount + " " + unit + " " + ingredient));
+        Assertions.assertEquals(List.of("400.0 g flour", "5.0 dL milk", "3.0 pcs eggs",
+                "2.0 g baking powder"), lines);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> recipe.addIngredient("sugar", Double.NaN, "g"));
+    }
+
     /**
      * This method tests the getter and setter for the recipe name.
      * 
@@ -283,4 +406,80 @@ public class RecipeTest {
         Assertions.assertEquals(4.5, recipe.getAverageRating(), 
             "The average rating for the recipe should be (5+4)/2=4.5");
     }
+
+    /**
+     * This method tests if the rating, reviewers and comments of a recipe are counted
+     * from the reviews it was made with, and kept up to date when reviews are added,
+     * also after a lazy body is loaded.
+     * 
+     * @see Recipe#getRatingSum()
+     * @see Recipe#hasRated(String)
+     */
+    @Test
+    @DisplayName("Review count test")
+    public void testReviewCounts() {
+        Recipe r = new Recipe("Waffles", 2, "User1234", null, new ArrayList<>(),
+                new HashMap<>(), new HashMap<>(), true, new ArrayList<>(List.of(
+                        new Review(5, "Great", "User5678"), new Review(2, null, "User9012"))));
+        Assertions.assertEquals(7.0, r.getRatingSum());
+        Assertions.assertEquals(3.5, r.getAverageRating());
+        Assertions.assertEquals(1, r.getNumberOfComments());
+        Assertions.assertTrue(r.hasRated("User9012"));
+        Assertions.assertFalse(r.hasRated("User3456"));
+        r.addReview(new Review(3, "Okay", "User3456"));
+        Assertions.assertTrue(r.hasRated("User3456"));
+        Assertions.assertEquals(3, r.getNumberOfReviewers());
+        Assertions.assertEquals(2, r.getNumberOfComments());
+        Assertions.assertEquals(3.33, r.getAverageRating());
+
+        Recipe lazy = new Recipe("Toast", 1, "User1234", null, false, 5.0, 1, 1,
+                () -> new Recipe(null, 0, null, null, null, null, null, false,
+                        new ArrayList<>(List.of(new Review(5, "Great", "User5678")))));
+        lazy.addReview(new Review(1, "", "User9012"));
+        Assertions.assertEquals(6.0, lazy.getRatingSum(),
+            "The loaded reviews should be counted along with the added review");
+        Assertions.assertEquals(2, lazy.getNumberOfReviewers());
+        Assertions.assertEquals(1, lazy.getNumberOfComments());
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> lazy.addReview(new Review(4, "", "User5678")));
+    }
+
+    /**
+     * Tests if threads which read the rating of the same recipe at once, the first time
+     * after its reviews were read, all get the rating of every review.
+     *
+     * @throws Exception if a thread fails
+     * @see Recipe#getAverageRating()
+     */
+    @Test
+    @DisplayName("Concurrent rating test")
+    public void testConcurrentRating() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 100; round++) {
+                List<Review> reviews = new ArrayList<>();
+                for (int i = 0; i < 1000; i++) {
+                    reviews.add(new Review(i % 5 + 1, i % 2 == 0 ? "Good" : "", "User" + i));
+                }
+                Recipe read = new Recipe("Pancakes", 4, "User1234", null, null, null, null,
+                        true, reviews);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<List<Double>>> results = new ArrayList<>();
+                for (int thread = 0; thread < 8; thread++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return List.of(read.getRatingSum(), (double) read.getNumberOfReviewers(),
+                                (double) read.getNumberOfComments());
+                    }));
+                }
+                start.countDown();
+                for (Future<List<Double>> result : results) {
+                    Assertions.assertEquals(List.of(3000.0, 1000.0, 500.0),
+                            result.get(10, TimeUnit.SECONDS));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
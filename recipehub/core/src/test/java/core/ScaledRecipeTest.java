@@ -0,0 +1,69 @@
+package core;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Junit test class for the ScaledRecipe class.
+ */
+public class ScaledRecipeTest {
+
+    private Recipe recipe;
+
+    /**
+     * This method makes a recipe for four portions before each test.
+     */
+    @BeforeEach
+    public void setUp() {
+        recipe = new Recipe("Pancakes", 4, new Profile("User1234", "User12345"));
+        recipe.addIngredient("flour", 400.0, "g");
+        recipe.addIngredient("milk", 4.0, "dL");
+        recipe.addIngredient("eggs", 3.0, "pcs");
+    }
+
+    /**
+     * This method tests if the amounts are scaled to the portions of the view, and the
+     * units and the recipe are not changed.
+     *
+     * @see Recipe#scaledTo(int)
+     */
+    @Test
+    @DisplayName("Scaled amounts test")
+    public void testScaledAmounts() {
+        ScaledRecipe scaled = recipe.scaledTo(6);
+        Assertions.assertSame(recipe, scaled.getRecipe());
+        Assertions.assertEquals(6, scaled.getPortions());
+        Assertions.assertEquals(1.5, scaled.getScale());
+        Assertions.assertEquals(600.0, scaled.getIngredientAmount("flour"));
+        Assertions.assertEquals("dL", scaled.getIngredientUnit("milk"));
+        Assertions.assertEquals(400.0, recipe.getIngredientAmount("flour"),
+            "The recipe should not be changed by the view");
+
+        List<String> lines = new ArrayList<>();
+        recipe.scaledTo(2).forEachIngredient((ingredient, amount, unit) ->
+                lines.add(amount + " " + unit + " " + ingredient));
+        Assertions.assertEquals(List.of("200.0 g flour", "2.0 dL milk", "1.5 pcs eggs"), lines);
+
+        Assertions.assertThrows(IllegalArgumentException.class, () -> recipe.scaledTo(0));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> scaled.getIngredientAmount("sugar"));
+    }
+
+    /**
+     * This method tests if the view shows the recipe as it is changed.
+     */
+    @Test
+    @DisplayName("Live view test")
+    public void testLiveView() {
+        ScaledRecipe scaled = recipe.scaledTo(8);
+        recipe.addIngredient("sugar", 50.0, "g");
+        recipe.setPortions(2);
+        Assertions.assertEquals(4.0, scaled.getScale());
+        Assertions.assertEquals(200.0, scaled.getIngredientAmount("sugar"));
+        Assertions.assertTrue(scaled.getIngredients().contains("sugar"));
+    }
+}
@@ -0,0 +1,34 @@
+package core;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Junit test class for the StringInterner class.
+ */
+public class StringInternerTest {
+
+    /**
+     * This method tests if equal strings give the same object, and if long strings and
+     * strings past the size of the pool are not kept.
+     *
+     * @see StringInterner#intern(String)
+     */
+    @Test
+    @DisplayName("Interning test")
+    public void testIntern() {
+        StringInterner interner = new StringInterner(4, 2);
+        String grams = interner.intern(new String("g"));
+        Assertions.assertSame(grams, interner.intern(new String("g")));
+        Assertions.assertNull(interner.intern(null));
+
+        String longer = new String("Tomatoes");
+        Assertions.assertSame(longer, interner.intern(longer), "Long strings should not be kept.");
+        interner.intern("dL");
+        String full = new String("pcs");
+        Assertions.assertSame(full, interner.intern(full), "A full pool should not grow.");
+        Assertions.assertEquals(2, interner.size());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new StringInterner(-1, 1));
+    }
+}
@@ -0,0 +1,419 @@
+package file;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiPredicate;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * This class handles an append-only log of records, stored as one JSON object per line.
+ * Every change is appended as a single record, so the cost of writing a change
+ * does not depend on how much has been written before. A record is forced to the disk
+ * before it is reported as appended, so an appended record survives a crash.
+ *
+ * <p>A crash while appending can leave a partly written last line. The next record is
+ * then started on a new line, and lines which are not whole records are skipped when
+ * the log is read, so the records after them are not lost.
+ * </p>
+ *
+ * <p>The log can be compacted into a snapshot file. Compaction first seals the current
+ * log, so new records go to a fresh log while the snapshot is built and written.
+ * Readers always see either the old snapshot with the sealed log, or the new snapshot.
+ * </p>
+ */
+public class AppendLog {
+    public static final String PUT = "put";
+    public static final String REMOVE = "remove";
+
+    private static final Gson gson = ModelTypeAdapterFactory.newGsonBuilder().create();
+    private static final Map<Path, ReadWriteLock> locks = new ConcurrentHashMap<>();
+    private static final Map<Path, Lock> compactionLocks = new ConcurrentHashMap<>();
+
+    private final Path logPath;
+    private final Path sealedPath;
+    private final ReadWriteLock lock;
+
+    /**
+     * This constructor initializes the log and creates the log file if it does not exist.
+     *
+     * @param logPath - Path object to the log file
+     */
+    public AppendLog(Path logPath) {
+        this.logPath = logPath;
+        this.sealedPath = Path.of(logPath + ".compacting");
+        this.lock = locks.computeIfAbsent(logPath.toAbsolutePath(),
+                path -> new ReentrantReadWriteLock());
+        FileUtil.createFile(logPath);
+    }
+
+    /**
+     * This method appends one record to the end of the log.
+     *
+     * @param operation - The operation the record describes, e.g. {@link #PUT}
+     * @param value     - The object the operation was done on
+     * @return - Returns true if the record was appended, false otherwise
+     */
+    public boolean append(String operation, Object value) {
+        JsonObject record = new JsonObject();
+        record.addProperty("op", operation);
+        record.add("value", gson.toJsonTree(value));
+        byte[] line = (gson.toJson(record) + "\n").getBytes(StandardCharsets.UTF_8);
+        lock.writeLock().lock();
+        try (FileChannel channel = FileChannel.open(logPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate(line.length + 1);
+            if (!endsWithNewline(channel, end)) {
+                buffer.put((byte) '\n');
+            }
+            buffer.put(line).flip();
+            while (buffer.hasRemaining()) {
+                end += channel.write(buffer, end);
+            }
+            channel.force(false);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error appending to log");
+            System.out.println(e.getMessage());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This helper method checks if the log is empty or ends with a whole line, so a new
+     * record does not continue a line left partly written by a crash.
+     *
+     * @param channel - Channel to the log file
+     * @param size    - Size of the log file
+     * @return - Returns true if the next record can be written at the end of the file
+     * @throws IOException if the file cannot be read
+     */
+    private static boolean endsWithNewline(FileChannel channel, long size) throws IOException {
+        if (size == 0) {
+            return true;
+        }
+        ByteBuffer last = ByteBuffer.allocate(1);
+        channel.read(last, size - 1);
+        return last.get(0) == '\n';
+    }
+
+    /**
+     * This method reads all records in the log, in the order they were appended.
+     * Records in a log sealed by an unfinished compaction are read first.
+     *
+     * @return - Returns a list of the records in the log
+     */
+    public List<LogRecord> readRecords() {
+        lock.readLock().lock();
+        try {
+            List<LogRecord> records = readRecords(sealedPath);
+            records.addAll(readRecords(logPath));
+            return records;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * This method runs the given reader while no records are appended and no compaction
+     * is committed, so that a snapshot and the log can be read consistently.
+     *
+     * @param <T>    - Generic type
+     * @param reader - Supplier which reads the snapshot and the log
+     * @return - Returns the result of the reader
+     */
+    public <T> T read(Supplier<T> reader) {
+        lock.readLock().lock();
+        try {
+            return reader.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * This method compacts the log into the snapshot file, written as JSON.
+     *
+     * @param snapshotPath    - Path object to the snapshot file
+     * @param snapshotBuilder - Function which builds the new snapshot from the old snapshot
+     *                        and the given sealed records
+     * @return - Returns true if the log was compacted, false if there was nothing to
+     *         compact, another compaction was running or it failed
+     * @see #compact(Path, BiPredicate)
+     */
+    public boolean compact(Path snapshotPath, Function<List<LogRecord>, Object> snapshotBuilder) {
+        return compact(snapshotPath, (tempPath, records) ->
+                FileUtil.writeFile(tempPath, snapshotBuilder.apply(records)));
+    }
+
+    /**
+     * This method compacts the log into the snapshot file.
+     * The current log is sealed, the snapshot is built from the sealed records and
+     * written to a temporary file, and the temporary file is then moved into place.
+     * Records can be appended while the snapshot is built. Sealing the log, and moving
+     * the snapshot into place together with deleting the sealed log, are done while
+     * holding the {@link StoreLock} of the snapshot file, so other programs never read
+     * the old snapshot without the sealed log.
+     *
+     * @param snapshotPath   - Path object to the snapshot file
+     * @param snapshotWriter - Function which writes the new snapshot, built from the old
+     *                       snapshot and the given sealed records, to the given path
+     * @return - Returns true if the log was compacted, false if there was nothing to
+     *         compact, another compaction was running or it failed
+     */
+    public boolean compact(Path snapshotPath,
+            BiPredicate<Path, List<LogRecord>> snapshotWriter) {
+        return compact(snapshotPath, StoreLock.forFile(snapshotPath), snapshotWriter,
+                BooleanSupplier::getAsBoolean);
+    }
+
+    /**
+     * This method compacts the log into the snapshot file, like
+     * {@link #compact(Path, BiPredicate)}, while holding the given store lock.
+     * Sealing the log and committing the snapshot are each passed to the store change,
+     * which runs them with the store lock held. It can then keep what depends on the
+     * files of the store, like an index, in step with them.
+     *
+     * @param snapshotPath   - Path object to the snapshot file
+     * @param storeLock      - The lock of the store the log belongs to
+     * @param snapshotWriter - Function which writes the new snapshot, built from the old
+     *                       snapshot and the given sealed records, to the given path
+     * @param storeChange    - Predicate which runs the given change to the files and
+     *                       returns if the change was made
+     * @return - Returns true if the log was compacted, false if there was nothing to
+     *         compact, another compaction was running or it failed
+     */
+    public boolean compact(Path snapshotPath, StoreLock storeLock,
+            BiPredicate<Path, List<LogRecord>> snapshotWriter,
+            Predicate<BooleanSupplier> storeChange) {
+        Lock compactionLock = compactionLocks.computeIfAbsent(logPath.toAbsolutePath(),
+                path -> new ReentrantLock());
+        if (!compactionLock.tryLock()) {
+            return false;
+        }
+        try {
+            if (!storeLock.write(() -> storeChange.test(this::seal))) {
+                return false;
+            }
+            Path tempPath = Path.of(snapshotPath + ".tmp");
+            if (!snapshotWriter.test(tempPath, readRecords(sealedPath))) {
+                return false;
+            }
+            return storeLock.write(() -> storeChange.test(() -> commit(tempPath, snapshotPath)));
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * This helper method moves the new snapshot into place and deletes the sealed log,
+     * while no records are appended or read.
+     *
+     * @param tempPath     - Path object to the new snapshot
+     * @param snapshotPath - Path object to the snapshot file
+     * @return - Returns true if the compaction was committed, false otherwise
+     */
+    private boolean commit(Path tempPath, Path snapshotPath) {
+        lock.writeLock().lock();
+        try {
+            Files.move(tempPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            Files.delete(sealedPath);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error compacting log");
+            System.out.println(e.getMessage());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method moves the current log aside so new records go to a fresh log.
+     * If a log is already sealed by a compaction which did not finish, that log is
+     * compacted first. A store which saves the sealed records itself, instead of through
+     * {@link #compact(Path, BiPredicate)}, deletes them with {@link #deleteSealed()}.
+     *
+     * @return - Returns true if there is a sealed log to compact, false otherwise
+     */
+    boolean seal() {
+        lock.writeLock().lock();
+        try {
+            if (Files.exists(sealedPath)) {
+                return true;
+            }
+            if (size() == 0) {
+                return false;
+            }
+            Files.move(logPath, sealedPath, StandardCopyOption.ATOMIC_MOVE);
+            FileUtil.createFile(logPath);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error sealing log");
+            System.out.println(e.getMessage());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method deletes the log sealed by {@link #seal()}, once its records have been
+     * saved somewhere else. Records appended after the log was sealed are kept.
+     *
+     * @return - Returns true if there is no sealed log anymore, false otherwise
+     */
+    boolean deleteSealed() {
+        lock.writeLock().lock();
+        try {
+            Files.deleteIfExists(sealedPath);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error deleting sealed log");
+            System.out.println(e.getMessage());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method removes every record from the log, including a log sealed by an
+     * unfinished compaction. Used when the records have been saved somewhere else.
+     *
+     * @return - Returns true if the log was cleared, false otherwise
+     */
+    public boolean clear() {
+        lock.writeLock().lock();
+        try {
+            Files.deleteIfExists(sealedPath);
+            Files.write(logPath, new byte[0]);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error clearing log");
+            System.out.println(e.getMessage());
+            return false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method gets the size of the current log.
+     *
+     * @return - The size of the log file in bytes
+     */
+    public long size() {
+        try {
+            return Files.exists(logPath) ? Files.size(logPath) : 0;
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * This helper method reads all records in the given file.
+     * Lines which are not whole records, like a record partly written when the program
+     * crashed, are skipped, and the records after them are still read.
+     *
+     * @param path - Path object to the file to read
+     * @return - Returns a list of the records in the file
+     */
+    private static List<LogRecord> readRecords(Path path) {
+        List<LogRecord> records = new ArrayList<>();
+        if (!Files.exists(path)) {
+            return records;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                JsonObject record;
+                try {
+                    record = JsonParser.parseString(line).getAsJsonObject();
+                } catch (JsonParseException | IllegalStateException e) {
+                    record = null;
+                }
+                if (record == null || !record.has("op") || !record.has("value")) {
+                    System.out.println("Skipping incomplete record in log");
+                    continue;
+                }
+                records.add(new LogRecord(record.get("op").getAsString(), record.get("value")));
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading from log");
+            System.out.println(e.getMessage());
+        }
+        return records;
+    }
+
+    /**
+     * This method gets the path of the log file.
+     *
+     * @return - Path object of the log file
+     */
+    public Path getLogPath() {
+        return logPath;
+    }
+
+    /**
+     * A single record in the log.
+     */
+    public static class LogRecord {
+        private final String operation;
+        private final JsonElement value;
+
+        private LogRecord(String operation, JsonElement value) {
+            this.operation = operation;
+            this.value = value;
+        }
+
+        /**
+         * This method gets the operation of the record.
+         *
+         * @return - String value of the operation
+         */
+        public String getOperation() {
+            return operation;
+        }
+
+        /**
+         * This method converts the value of the record to the given type.
+         *
+         * @param <T>  - Generic type
+         * @param type - Class of the value
+         * @return - Returns the value of the record
+         */
+        public <T> T getValue(Class<T> type) {
+            return gson.fromJson(value, type);
+        }
+    }
+}
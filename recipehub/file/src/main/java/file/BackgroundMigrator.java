@@ -0,0 +1,135 @@
+package file;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * This class upgrades the records saved in an older version to the current version on a
+ * background thread, so the records are upgraded on file without the program waiting
+ * for it. Records read before they are upgraded are upgraded when they are read, so the
+ * program works the same while the migration runs.
+ *
+ * <p>The records are upgraded in small batches with a pause between them, so the
+ * migration does not hold the files or stores for long at a time, and other reads and
+ * writes get their turn. The migration stops when a batch upgrades no records, or when
+ * the migrator is closed.
+ * </p>
+ *
+ * @see RecordVersions
+ * @see RecipeHubAccess#migrateRecords(int)
+ */
+public class BackgroundMigrator implements Closeable {
+    public static final int DEFAULT_BATCH_SIZE = 100;
+    public static final Duration DEFAULT_PAUSE = Duration.ofMillis(100);
+
+    private final RecipeHubAccess access;
+    private final int batchSize;
+    private final Duration pause;
+    private final CompletableFuture<Integer> result = new CompletableFuture<>();
+    private Thread thread;
+    private boolean closed;
+
+    /**
+     * This constructor makes a migrator with the default batch size and pause.
+     *
+     * @param access - RecipeHubAccess to upgrade the records of
+     */
+    public BackgroundMigrator(RecipeHubAccess access) {
+        this(access, DEFAULT_BATCH_SIZE, DEFAULT_PAUSE);
+    }
+
+    /**
+     * This constructor makes a migrator which upgrades the given number of records at a
+     * time, with the given pause between batches.
+     *
+     * @param access    - RecipeHubAccess to upgrade the records of
+     * @param batchSize - Number of records to upgrade in each batch, at least 1
+     * @param pause     - Time to wait between batches
+     */
+    public BackgroundMigrator(RecipeHubAccess access, int batchSize, Duration pause) {
+        if (access == null || pause == null || batchSize < 1) {
+            throw new IllegalArgumentException("Invalid migration settings.");
+        }
+        this.access = access;
+        this.batchSize = batchSize;
+        this.pause = pause;
+    }
+
+    /**
+     * This method starts the migration on a background thread, unless it is already
+     * started. The thread is a daemon thread, so it does not keep the program running.
+     *
+     * @return - Returns the result, which is completed with the number of records
+     *         upgraded when the migration stops
+     */
+    public synchronized CompletableFuture<Integer> start() {
+        if (thread == null && !closed) {
+            thread = new Thread(this::migrate, "recipehub-migrator");
+            thread.setDaemon(true);
+            thread.start();
+        } else if (thread == null) {
+            result.complete(0);
+        }
+        return result;
+    }
+
+    /**
+     * This method gets the result of the migration.
+     *
+     * @return - Returns the result, which is completed with the number of records
+     *         upgraded when the migration stops
+     */
+    public CompletableFuture<Integer> getResult() {
+        return result;
+    }
+
+    /**
+     * This method stops the migration after the batch being upgraded. Records which are
+     * not upgraded yet are still upgraded when they are read.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    /**
+     * Helper method which upgrades batches of records until there are none left, or the
+     * migrator is closed. Errors are printed, and stop the migration.
+     */
+    private void migrate() {
+        int total = 0;
+        try {
+            int migrated;
+            do {
+                migrated = access.migrateRecords(batchSize);
+                total += migrated;
+            } while (migrated > 0 && awaitPause());
+        } catch (RuntimeException e) {
+            System.out.println("Error upgrading records");
+            System.out.println(e.getMessage());
+        }
+        result.complete(total);
+    }
+
+    /**
+     * Helper method which waits for the pause between batches, or until the migrator is
+     * closed.
+     *
+     * @return - true if the migration should go on, false if it is closed
+     */
+    private synchronized boolean awaitPause() {
+        long end = System.nanoTime() + pause.toNanos();
+        try {
+            for (long left = pause.toMillis(); !closed && left > 0;
+                    left = (end - System.nanoTime()) / 1_000_000) {
+                wait(left);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return !closed;
+    }
+}
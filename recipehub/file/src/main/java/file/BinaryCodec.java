@@ -0,0 +1,931 @@
+package file;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import core.Profile;
+import core.Recipe;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * This class encodes recipes, reviews and profiles as compact binary records.
+ *
+ * <p>A binary file starts with the bytes "RHB" and the version of the format, followed
+ * by one record per recipe or profile. Each record starts with its length in bytes,
+ * so a record can be skipped, or read on its own, without decoding the records before it.
+ * Field names are not stored, since the fields of each record are always written in the
+ * same order, and lengths and counts inside a record are written as variable-length
+ * integers.
+ * </p>
+ *
+ * <p>Records are decoded into the same tree Gson builds when parsing JSON, so objects
+ * read from a binary file are the same as objects read from the equivalent JSON file.
+ * </p>
+ *
+ * <p>Since the header of a recipe is written before its steps, ingredients, units and
+ * reviews, a recipe can also be decoded from its header only. The rest of the record is
+ * then kept as it is, and decoded the first time the recipe uses it.
+ * </p>
+ */
+public class BinaryCodec {
+    /**
+     * The version of the format written by this class.
+     * Files with a higher version can not be read.
+     */
+    public static final int VERSION = 1;
+
+    private static final byte[] MAGIC = {'R', 'H', 'B'};
+    static final int HEADER_LENGTH = MAGIC.length + 1;
+
+    private static final Gson gson = ModelTypeAdapterFactory.newGsonBuilder().create();
+
+    /**
+     * This method checks if a file is in the binary format, by checking how it starts.
+     *
+     * @param filePath - Path object to the file
+     * @return - Returns true if the file is in the binary format, false otherwise
+     */
+    public static boolean isBinary(Path filePath) {
+        if (!Files.exists(filePath)) {
+            return false;
+        }
+        try (InputStream input = Files.newInputStream(filePath)) {
+            return Arrays.equals(MAGIC, input.readNBytes(MAGIC.length));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * This method checks if the given bytes start like a binary file.
+     *
+     * @param bytes - The first bytes of a file
+     * @return - Returns true if the bytes start with the binary header, false otherwise
+     */
+    static boolean isBinary(byte[] bytes) {
+        return bytes.length >= MAGIC.length
+                && Arrays.equals(MAGIC, Arrays.copyOf(bytes, MAGIC.length));
+    }
+
+    /**
+     * This method writes recipes to a file in the binary format.
+     *
+     * @param filePath - Path object to the file
+     * @param recipes  - Recipes to write
+     * @return - Returns true if the recipes were written, false otherwise
+     */
+    public static boolean writeRecipes(Path filePath, Iterable<Recipe> recipes) {
+        return writeRecords(filePath, recipes, BinaryCodec::encodeRecipe);
+    }
+
+    /**
+     * This method writes profiles to a file in the binary format.
+     *
+     * @param filePath - Path object to the file
+     * @param profiles - Profiles to write
+     * @return - Returns true if the profiles were written, false otherwise
+     */
+    public static boolean writeProfiles(Path filePath, Iterable<Profile> profiles) {
+        return writeRecords(filePath, profiles, BinaryCodec::encodeProfile);
+    }
+
+    /**
+     * This method reads all recipes from a file in the binary format.
+     * If the last record was only partly written, reading stops at that record.
+     *
+     * @param filePath - Path object to the file
+     * @return - Returns a list of the recipes
+     */
+    public static List<Recipe> readRecipes(Path filePath) {
+        try (Stream<Recipe> recipes = streamRecipes(filePath)) {
+            return recipes.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * This method reads the headers of all recipes from a file in the binary format.
+     * The steps, ingredients and reviews of each recipe are decoded the first time they
+     * are used.
+     *
+     * @param filePath - Path object to the file
+     * @return - Returns a list of the recipes
+     * @see #decodeRecipeHeader(byte[])
+     */
+    public static List<Recipe> readRecipeHeaders(Path filePath) {
+        try (Stream<Recipe> recipes = streamRecords(filePath, BinaryCodec::decodeRecipeHeader)) {
+            return recipes.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * This method reads all profiles from a file in the binary format.
+     * If the last record was only partly written, reading stops at that record.
+     *
+     * @param filePath - Path object to the file
+     * @return - Returns a list of the profiles
+     */
+    public static List<Profile> readProfiles(Path filePath) {
+        try (Stream<Profile> profiles = streamRecords(filePath, BinaryCodec::decodeProfile)) {
+            return profiles.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * This method streams the recipes in a file in the binary format, one record at a time.
+     * The file is opened before this method returns, and the stream keeps it open until it
+     * is closed.
+     *
+     * @param filePath - Path object to the file
+     * @return - Returns a stream of the recipes
+     */
+    public static Stream<Recipe> streamRecipes(Path filePath) {
+        return streamRecords(filePath, BinaryCodec::decodeRecipe);
+    }
+
+    /**
+     * This method reads a single profile from a file in the binary format, without
+     * reading the rest of the file.
+     *
+     * @param filePath - Path object to the file
+     * @param offset   - Position in the file the record starts at, after its length
+     * @param length   - Length of the record, in bytes
+     * @return - Returns the profile, or null if it could not be read
+     */
+    public static Profile readProfile(Path filePath, long offset, int length) {
+        try {
+            return decodeProfile(FileUtil.readBytes(filePath, offset, length));
+        } catch (IOException e) {
+            System.out.println("Error reading from file");
+            System.out.println(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * This method encodes a recipe as a binary record, without the length in front.
+     *
+     * @param recipe - Recipe to encode
+     * @return - The encoded recipe
+     */
+    public static byte[] encodeRecipe(Recipe recipe) {
+        return encode(output -> writeRecipe(output, gson.toJsonTree(recipe).getAsJsonObject()));
+    }
+
+    /**
+     * This method decodes a recipe from a binary record.
+     *
+     * @param bytes - The encoded recipe
+     * @return - The recipe, or null if it could not be decoded
+     */
+    public static Recipe decodeRecipe(byte[] bytes) {
+        return decode(bytes, input -> gson.fromJson(
+                readRecipe(input, newRecord(Recipe.class)), Recipe.class));
+    }
+
+    /**
+     * This method decodes a recipe from a binary record in a buffer, such as a part of a
+     * file mapped into memory. Only the strings of the recipe are copied out of the buffer.
+     *
+     * @param record - Buffer holding the encoded recipe, from its position to its limit
+     * @return - The recipe, or null if it could not be decoded
+     */
+    static Recipe decodeRecipe(ByteBuffer record) {
+        return decode(record, input -> gson.fromJson(
+                readRecipe(input, newRecord(Recipe.class)), Recipe.class));
+    }
+
+    /**
+     * This method reads only the author and name of an encoded recipe, which are in its
+     * header.
+     *
+     * @param record - Buffer holding the encoded recipe, from its position to its limit
+     * @return - List with the author and the name, or null if they could not be read
+     */
+    static List<String> readRecipeKey(ByteBuffer record) {
+        try {
+            String name = readString(record);
+            skipString(record);
+            String author = readString(record);
+            return name == null || author == null ? null : List.of(author, name);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * This method decodes the header of a recipe from a binary record, which is its name,
+     * description, author, portions and whether it is saved. The reviews are only counted
+     * and summed up, and the part of the record after the header is kept, to be decoded
+     * the first time the steps, ingredients or reviews are used.
+     *
+     * @param bytes - The encoded recipe
+     * @return - The recipe, or null if it could not be decoded
+     * @see Recipe#isLoaded()
+     */
+    public static Recipe decodeRecipeHeader(byte[] bytes) {
+        return decode(bytes, input -> {
+            String name = readString(input);
+            String description = readString(input);
+            String authorUsername = readString(input);
+            int portions = input.getInt();
+            boolean isSaved = input.get() != 0;
+            int bodyStart = input.position();
+
+            int size = readLength(input);
+            for (int i = 0; i < size; i++) {
+                skipString(input);
+            }
+            size = readLength(input);
+            for (int i = 0; i < size; i++) {
+                skipString(input);
+                input.getDouble();
+            }
+            size = readLength(input);
+            for (int i = 0; i < size; i++) {
+                skipString(input);
+                skipString(input);
+            }
+            double ratingSum = 0;
+            int numberOfComments = 0;
+            int numberOfReviewers = Math.max(readLength(input), 0);
+            for (int i = 0; i < numberOfReviewers; i++) {
+                ratingSum += input.getDouble();
+                if (skipString(input) > 0) {
+                    numberOfComments++;
+                }
+                skipString(input);
+            }
+
+            byte[] body = Arrays.copyOfRange(bytes, bodyStart, input.position());
+            return new Recipe(name, portions, authorUsername, description, isSaved, ratingSum,
+                    numberOfReviewers, numberOfComments, () -> decodeRecipeBody(body));
+        });
+    }
+
+    /**
+     * This helper method decodes the steps, ingredients, units and reviews kept by
+     * {@link #decodeRecipeHeader(byte[])} into a recipe.
+     *
+     * @param body - The part of the record after the header
+     * @return - The recipe, or null if it could not be decoded
+     */
+    private static Recipe decodeRecipeBody(byte[] body) {
+        return decode(body, input -> gson.fromJson(readRecipeBody(input, newRecord(Recipe.class)),
+                Recipe.class));
+    }
+
+    /**
+     * This method encodes a profile, with its recipes and favorites, as a binary record,
+     * without the length in front.
+     *
+     * @param profile - Profile to encode
+     * @return - The encoded profile
+     */
+    public static byte[] encodeProfile(Profile profile) {
+        return encode(output -> writeProfile(output,
+                gson.toJsonTree(profile).getAsJsonObject()));
+    }
+
+    /**
+     * This method decodes a profile from a binary record.
+     *
+     * @param bytes - The encoded profile
+     * @return - The profile, or null if it could not be decoded
+     */
+    public static Profile decodeProfile(byte[] bytes) {
+        return decode(bytes, input -> gson.fromJson(readProfile(input), Profile.class));
+    }
+
+    /**
+     * This method reads only the username of an encoded profile, which is its first field.
+     *
+     * @param bytes  - Bytes holding the encoded profile
+     * @param offset - Position in the bytes the profile starts at
+     * @param length - Length of the encoded profile
+     * @return - The username, or null if it could not be read
+     */
+    static String readUsername(byte[] bytes, int offset, int length) {
+        try {
+            return readString(ByteBuffer.wrap(bytes, offset, length));
+        } catch (IOException | BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    /**
+     * This helper method writes the header and a record for each value to a file.
+     * The file is replaced atomically.
+     *
+     * @param <T>      - Generic type
+     * @param filePath - Path object to the file
+     * @param values   - Values to write
+     * @param encoder  - Function which encodes a value as a record
+     * @return - Returns true if the values were written, false otherwise
+     * @see FileUtil#commitFile(Path, FileUtil.FileContent)
+     */
+    private static <T> boolean writeRecords(Path filePath, Iterable<T> values,
+            Function<T, byte[]> encoder) {
+        return FileUtil.commitFile(filePath, stream -> {
+            DataOutputStream output = new DataOutputStream(stream);
+            writeHeader(output);
+            for (T value : values) {
+                byte[] record = encoder.apply(value);
+                output.writeInt(record.length);
+                output.write(record);
+            }
+            output.flush();
+        });
+    }
+
+    /**
+     * This method writes what a file in the binary format starts with, which is the magic
+     * bytes and the version of the format. The records are written after it, each with
+     * its length in front.
+     *
+     * @param output - Output to write to
+     * @throws IOException if the header could not be written
+     */
+    static void writeHeader(DataOutput output) throws IOException {
+        output.write(MAGIC);
+        output.writeByte(VERSION);
+    }
+
+    /**
+     * This helper method streams the records of a file, decoding one record at a time.
+     *
+     * @param <T>      - Generic type
+     * @param filePath - Path object to the file
+     * @param decoder  - Function which decodes a record
+     * @return - Returns a stream of the decoded records
+     */
+    private static <T> Stream<T> streamRecords(Path filePath, Function<byte[], T> decoder) {
+        RecordIterator<T> iterator = new RecordIterator<>(filePath, decoder);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
+    }
+
+    /**
+     * This interface writes a value to a binary output.
+     */
+    private interface Writer {
+        void write(DataOutput output) throws IOException;
+    }
+
+    /**
+     * This interface reads a value from a binary input.
+     */
+    private interface Reader<T> {
+        T read(ByteBuffer input) throws IOException;
+    }
+
+    /**
+     * This helper method runs a writer on an output held in memory.
+     *
+     * @param writer - Writer to run
+     * @return - The bytes written
+     */
+    private static byte[] encode(Writer writer) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            writer.write(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            // Writing to memory can not fail
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * This helper method runs a reader on the given bytes.
+     *
+     * @param <T>    - Generic type
+     * @param bytes  - Bytes to read
+     * @param reader - Reader to run
+     * @return - The value read, or null if it could not be read
+     */
+    private static <T> T decode(byte[] bytes, Reader<T> reader) {
+        return decode(ByteBuffer.wrap(bytes), reader);
+    }
+
+    /**
+     * This helper method runs a reader on the given buffer, which may be outside the heap.
+     *
+     * @param <T>    - Generic type
+     * @param input  - Buffer to read, from its position to its limit
+     * @param reader - Reader to run
+     * @return - The value read, or null if it could not be read
+     */
+    private static <T> T decode(ByteBuffer input, Reader<T> reader) {
+        try {
+            return reader.read(input);
+        } catch (IOException | BufferUnderflowException | JsonParseException
+                | IllegalStateException e) {
+            System.out.println("Error decoding record");
+            System.out.println(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * This helper method writes the fields of a profile, with its recipes and favorites.
+     *
+     * @param output  - Output to write to
+     * @param profile - The profile as a JSON tree
+     * @throws IOException if the output can not be written to
+     */
+    private static void writeProfile(DataOutput output, JsonObject profile) throws IOException {
+        writeString(output, getString(profile, "username"));
+        writeString(output, getString(profile, "hashedPassword"));
+        writeRecipeLibrary(output, profile.get("recipeLibrary"));
+        writeRecipeLibrary(output, profile.get("favorites"));
+    }
+
+    /**
+     * This helper method reads the fields of a profile into a JSON tree.
+     *
+     * @param input - Input to read from
+     * @return - The profile as a JSON tree
+     * @throws IOException if the record is malformed
+     */
+    private static JsonObject readProfile(ByteBuffer input) throws IOException {
+        JsonObject profile = newRecord(Profile.class);
+        profile.addProperty("username", readString(input));
+        profile.addProperty("hashedPassword", readString(input));
+        profile.add("recipeLibrary", readRecipeLibrary(input));
+        profile.add("favorites", readRecipeLibrary(input));
+        return profile;
+    }
+
+    /**
+     * This helper method makes the JSON tree of a record read on its own, which has the
+     * current version. Binary files are upgraded as a whole, by the version in their
+     * header, so their records are always of the current version.
+     *
+     * @param type - Type of the record
+     * @return - An empty JSON tree with the version of the record
+     * @see RecordVersions
+     */
+    private static JsonObject newRecord(Class<?> type) {
+        JsonObject record = new JsonObject();
+        record.addProperty(RecordVersions.VERSION_MEMBER,
+                RecordVersions.getDefault().getCurrentVersion(type));
+        return record;
+    }
+
+    /**
+     * This helper method writes the recipes of a recipe library, or -1 if it is null.
+     *
+     * @param output        - Output to write to
+     * @param recipeLibrary - The recipe library as a JSON tree, or null
+     * @throws IOException if the output can not be written to
+     */
+    private static void writeRecipeLibrary(DataOutput output, JsonElement recipeLibrary)
+            throws IOException {
+        JsonArray recipes = recipeLibrary == null || !recipeLibrary.isJsonObject() ? null
+                : getArray(recipeLibrary.getAsJsonObject(), "recipes");
+        writeLength(output, recipes == null ? -1 : recipes.size());
+        if (recipes != null) {
+            for (JsonElement recipe : recipes) {
+                writeRecipe(output, recipe.getAsJsonObject());
+            }
+        }
+    }
+
+    /**
+     * This helper method reads a recipe library into a JSON tree.
+     *
+     * @param input - Input to read from
+     * @return - The recipe library as a JSON tree, or null if it was null
+     * @throws IOException if the record is malformed
+     */
+    private static JsonElement readRecipeLibrary(ByteBuffer input) throws IOException {
+        int size = readLength(input);
+        if (size < 0) {
+            return null;
+        }
+        JsonArray recipes = new JsonArray(size);
+        for (int i = 0; i < size; i++) {
+            recipes.add(readRecipe(input, new JsonObject()));
+        }
+        JsonObject recipeLibrary = new JsonObject();
+        recipeLibrary.add("recipes", recipes);
+        return recipeLibrary;
+    }
+
+    /**
+     * This helper method writes the fields of a recipe, with its reviews.
+     * Steps, ingredients, units and reviews are each written as a count followed by
+     * the entries, with -1 for a missing collection.
+     *
+     * @param output - Output to write to
+     * @param recipe - The recipe as a JSON tree
+     * @throws IOException if the output can not be written to
+     */
+    private static void writeRecipe(DataOutput output, JsonObject recipe) throws IOException {
+        writeString(output, getString(recipe, "name"));
+        writeString(output, getString(recipe, "description"));
+        writeString(output, getString(recipe, "authorUsername"));
+        output.writeInt(recipe.has("portions") ? recipe.get("portions").getAsInt() : 0);
+        output.writeBoolean(recipe.has("isSaved") && recipe.get("isSaved").getAsBoolean());
+
+        JsonArray steps = getArray(recipe, "steps");
+        writeLength(output, steps == null ? -1 : steps.size());
+        if (steps != null) {
+            for (JsonElement step : steps) {
+                writeString(output, step.isJsonNull() ? null : step.getAsString());
+            }
+        }
+
+        JsonObject ingredients = getObject(recipe, "ingredients");
+        writeLength(output, ingredients == null ? -1 : ingredients.size());
+        if (ingredients != null) {
+            for (Map.Entry<String, JsonElement> ingredient : ingredients.entrySet()) {
+                writeString(output, ingredient.getKey());
+                output.writeDouble(ingredient.getValue().getAsDouble());
+            }
+        }
+
+        JsonObject units = getObject(recipe, "ingredientUnits");
+        writeLength(output, units == null ? -1 : units.size());
+        if (units != null) {
+            for (Map.Entry<String, JsonElement> unit : units.entrySet()) {
+                writeString(output, unit.getKey());
+                writeString(output, unit.getValue().isJsonNull()
+                        ? null : unit.getValue().getAsString());
+            }
+        }
+
+        JsonArray reviews = getArray(recipe, "reviewList");
+        writeLength(output, reviews == null ? -1 : reviews.size());
+        if (reviews != null) {
+            for (JsonElement review : reviews) {
+                writeReview(output, review.getAsJsonObject());
+            }
+        }
+    }
+
+    /**
+     * This helper method reads the fields of a recipe into a JSON tree.
+     *
+     * @param input  - Input to read from
+     * @param recipe - The recipe as a JSON tree, to add the fields to
+     * @return - The recipe as a JSON tree
+     * @throws IOException if the record is malformed
+     */
+    private static JsonObject readRecipe(ByteBuffer input, JsonObject recipe)
+            throws IOException {
+        recipe.addProperty("name", readString(input));
+        recipe.addProperty("description", readString(input));
+        recipe.addProperty("authorUsername", readString(input));
+        recipe.addProperty("portions", input.getInt());
+        recipe.addProperty("isSaved", input.get() != 0);
+        return readRecipeBody(input, recipe);
+    }
+
+    /**
+     * This helper method reads the steps, ingredients, units and reviews of a recipe, which
+     * come after its header, into a JSON tree.
+     *
+     * @param input  - Input to read from
+     * @param recipe - The recipe as a JSON tree, to add the fields to
+     * @return - The recipe as a JSON tree
+     * @throws IOException if the record is malformed
+     */
+    private static JsonObject readRecipeBody(ByteBuffer input, JsonObject recipe)
+            throws IOException {
+        int size = readLength(input);
+        if (size >= 0) {
+            JsonArray steps = new JsonArray(size);
+            for (int i = 0; i < size; i++) {
+                steps.add(readString(input));
+            }
+            recipe.add("steps", steps);
+        }
+
+        size = readLength(input);
+        if (size >= 0) {
+            JsonObject ingredients = new JsonObject();
+            for (int i = 0; i < size; i++) {
+                ingredients.addProperty(readString(input), input.getDouble());
+            }
+            recipe.add("ingredients", ingredients);
+        }
+
+        size = readLength(input);
+        if (size >= 0) {
+            JsonObject units = new JsonObject();
+            for (int i = 0; i < size; i++) {
+                units.addProperty(readString(input), readString(input));
+            }
+            recipe.add("ingredientUnits", units);
+        }
+
+        size = readLength(input);
+        if (size >= 0) {
+            JsonArray reviews = new JsonArray(size);
+            for (int i = 0; i < size; i++) {
+                reviews.add(readReview(input));
+            }
+            recipe.add("reviewList", reviews);
+        }
+        return recipe;
+    }
+
+    /**
+     * This helper method writes the fields of a review.
+     *
+     * @param output - Output to write to
+     * @param review - The review as a JSON tree
+     * @throws IOException if the output can not be written to
+     */
+    private static void writeReview(DataOutput output, JsonObject review) throws IOException {
+        output.writeDouble(review.has("rating") ? review.get("rating").getAsDouble() : 0);
+        writeString(output, getString(review, "comment"));
+        writeString(output, getString(review, "username"));
+    }
+
+    /**
+     * This helper method reads the fields of a review into a JSON tree.
+     *
+     * @param input - Input to read from
+     * @return - The review as a JSON tree
+     * @throws IOException if the record is malformed
+     */
+    private static JsonObject readReview(ByteBuffer input) throws IOException {
+        JsonObject review = new JsonObject();
+        review.addProperty("rating", input.getDouble());
+        review.addProperty("comment", readString(input));
+        review.addProperty("username", readString(input));
+        return review;
+    }
+
+    /**
+     * This helper method gets a string field of a JSON tree.
+     *
+     * @param object - The JSON tree
+     * @param name   - Name of the field
+     * @return - The string, or null if the field is missing or null
+     */
+    private static String getString(JsonObject object, String name) {
+        JsonElement element = object.get(name);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+
+    /**
+     * This helper method gets an array field of a JSON tree.
+     *
+     * @param object - The JSON tree
+     * @param name   - Name of the field
+     * @return - The array, or null if the field is missing or not an array
+     */
+    private static JsonArray getArray(JsonObject object, String name) {
+        JsonElement element = object.get(name);
+        return element == null || !element.isJsonArray() ? null : element.getAsJsonArray();
+    }
+
+    /**
+     * This helper method gets an object field of a JSON tree.
+     *
+     * @param object - The JSON tree
+     * @param name   - Name of the field
+     * @return - The object, or null if the field is missing or not an object
+     */
+    private static JsonObject getObject(JsonObject object, String name) {
+        JsonElement element = object.get(name);
+        return element == null || !element.isJsonObject() ? null : element.getAsJsonObject();
+    }
+
+    /**
+     * This helper method writes a string as its length followed by its UTF-8 bytes.
+     * A null string is written as the length -1.
+     *
+     * @param output - Output to write to
+     * @param value  - String to write, or null
+     * @throws IOException if the output can not be written to
+     */
+    private static void writeString(DataOutput output, String value) throws IOException {
+        if (value == null) {
+            writeLength(output, -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeLength(output, bytes.length);
+        output.write(bytes);
+    }
+
+    /**
+     * This helper method reads a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param input - Input to read from
+     * @return - The string, or null if a null string was written
+     * @throws IOException if the record is malformed
+     */
+    private static String readString(ByteBuffer input) throws IOException {
+        int length = readLength(input);
+        if (length < 0) {
+            return null;
+        }
+        if (!input.hasArray()) {
+            byte[] bytes = new byte[length];
+            input.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        String value = new String(input.array(), input.arrayOffset() + input.position(), length,
+                StandardCharsets.UTF_8);
+        input.position(input.position() + length);
+        return value;
+    }
+
+    /**
+     * This helper method skips a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param input - Input to read from
+     * @return - The length of the string, or -1 if a null string was written
+     * @throws IOException if the record is malformed
+     */
+    private static int skipString(ByteBuffer input) throws IOException {
+        int length = readLength(input);
+        if (length > 0) {
+            input.position(input.position() + length);
+        }
+        return length;
+    }
+
+    /**
+     * This helper method writes a length or count of at least -1 as a variable-length
+     * integer, using one byte for values below 127.
+     *
+     * @param output - Output to write to
+     * @param length - Length to write
+     * @throws IOException if the output can not be written to
+     */
+    private static void writeLength(DataOutput output, int length) throws IOException {
+        int value = length + 1;
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte(value);
+    }
+
+    /**
+     * This helper method reads a length written by {@link #writeLength(DataOutput, int)}.
+     *
+     * @param input - Input to read from
+     * @return - The length
+     * @throws IOException if the length is malformed, or longer than the rest of the record
+     */
+    private static int readLength(ByteBuffer input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = input.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0 || value - 1 > input.remaining()) {
+                    break;
+                }
+                return value - 1;
+            }
+        }
+        throw new IOException("Malformed length in record");
+    }
+
+    /**
+     * This class iterates over the records of a binary file, reading one record ahead
+     * of the caller.
+     */
+    private static class RecordIterator<T> implements Iterator<T>, Closeable {
+        private final Function<byte[], T> decoder;
+        private DataInputStream input;
+        private T nextValue;
+
+        /**
+         * This constructor opens the file and reads its header.
+         *
+         * @param filePath - Path object to the file
+         * @param decoder  - Function which decodes a record
+         */
+        RecordIterator(Path filePath, Function<byte[], T> decoder) {
+            this.decoder = decoder;
+            if (!Files.exists(filePath)) {
+                return;
+            }
+            try {
+                input = new DataInputStream(new BufferedInputStream(
+                        Files.newInputStream(filePath)));
+                byte[] header = input.readNBytes(HEADER_LENGTH);
+                if (header.length == 0) {
+                    close();
+                } else if (header.length < HEADER_LENGTH || !isBinary(header)) {
+                    System.out.println("File is not in the binary format");
+                    close();
+                } else if (header[MAGIC.length] > VERSION) {
+                    System.out.println("Unsupported binary format version "
+                            + header[MAGIC.length]);
+                    close();
+                }
+            } catch (IOException e) {
+                System.out.println("Error reading from file");
+                System.out.println(e.getMessage());
+                close();
+            }
+        }
+
+        /**
+         * This method checks if there are more records, by reading the next one.
+         * If the last record was only partly written, the iteration ends before it.
+         *
+         * @return - Returns true if there is another record, false otherwise
+         */
+        @Override
+        public boolean hasNext() {
+            while (nextValue == null && input != null) {
+                byte[] record;
+                try {
+                    int length;
+                    try {
+                        length = input.readInt();
+                    } catch (EOFException e) {
+                        close();
+                        break;
+                    }
+                    record = new byte[length];
+                    input.readFully(record);
+                } catch (EOFException | NegativeArraySizeException e) {
+                    System.out.println("Skipping incomplete record at end of file");
+                    close();
+                    break;
+                } catch (IOException e) {
+                    System.out.println("Error reading from file");
+                    System.out.println(e.getMessage());
+                    close();
+                    break;
+                }
+                nextValue = decoder.apply(record);
+                if (nextValue == null) {
+                    close();
+                }
+            }
+            return nextValue != null;
+        }
+
+        /**
+         * This method gets the next record.
+         *
+         * @return - The next decoded record
+         * @throws NoSuchElementException if there are no more records
+         */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T value = nextValue;
+            nextValue = null;
+            return value;
+        }
+
+        /**
+         * This method closes the file. It can be called more than once.
+         */
+        @Override
+        public void close() {
+            if (input == null) {
+                return;
+            }
+            try {
+                input.close();
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+            input = null;
+        }
+    }
+}
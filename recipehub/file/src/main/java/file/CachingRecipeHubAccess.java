@@ -0,0 +1,346 @@
+package file;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class keeps the recipelibrary and profiles in memory, so that reads do not parse
+ * the files every time. The files are only read again after they have changed.
+ *
+ * <p>A cached value is dropped when it is changed through this class, and when a
+ * WatchService reports a change to one of its files, for instance by another process.
+ * Since watch events arrive some time after the change, each read also compares the
+ * size, modification time and file key of the files with the ones seen when the value
+ * was read. A change made just before a read, by another access in the same program,
+ * is therefore never missed.
+ * </p>
+ *
+ * <p>The lists returned are new, but the recipes and profiles in them are the cached
+ * ones. They should be saved, not only changed, for the change to be kept.
+ * </p>
+ *
+ * <p>Since the recipes of the profiles are read from the recipe file, the profiles are
+ * also read again when the recipes change.
+ * </p>
+ *
+ * <p>A single profile is not looked up in the cached list of profiles, which is dropped on
+ * every write and read again from the files of every user, but loaded by itself, like in
+ * {@link DirectRecipeHubAccess}. Logging in and registering therefore only read the file
+ * of that user.
+ * </p>
+ */
+public class CachingRecipeHubAccess extends DirectRecipeHubAccess implements Closeable {
+    private final CachedValue<RecipeLibrary> recipeLibrary;
+    private final CachedValue<List<Profile>> profiles;
+    private final Set<Path> watchedDirectories = ConcurrentHashMap.newKeySet();
+    private WatchService watchService;
+
+    /**
+     * This empty constructor will make default filehandlers for the class to use. Each
+     * profile is kept in a file of its own.
+     *
+     * @see ShardedUserFilehandler
+     */
+    public CachingRecipeHubAccess() {
+        this(new ShardedUserFilehandler(), new RecipeFilehandler());
+    }
+
+    /**
+     * This constructor will make default filehandlers, with a recipe filehandler which
+     * either rewrites the recipe file, or appends changes to a log that is compacted in the
+     * background. Each profile is kept in a file of its own either way.
+     *
+     * @param logStructured - true to make a log-structured recipe filehandler
+     * @see DirectRecipeHubAccess#DirectRecipeHubAccess(boolean)
+     */
+    public CachingRecipeHubAccess(boolean logStructured) {
+        this(new ShardedUserFilehandler(), new RecipeFilehandler(logStructured));
+    }
+
+    /**
+     * This constructor will make filehandlers with their own files in the given directory,
+     * named like the default files. Accesses for different directories are independent of
+     * each other, so several stores can be used at the same time in one program.
+     *
+     * @param directory     - Path object to the directory of the recipe and profile files
+     * @param logStructured - true to make a log-structured recipe filehandler
+     * @see DirectRecipeHubAccess#DirectRecipeHubAccess(Path, boolean)
+     */
+    public CachingRecipeHubAccess(Path directory, boolean logStructured) {
+        this(new ShardedUserFilehandler(directory.resolve(UserFilehandler.DEFAULT_FILE_NAME)),
+                new RecipeFilehandler(directory.resolve(RecipeFilehandler.DEFAULT_FILE_NAME),
+                        logStructured, StorageFormat.JSON));
+    }
+
+    /**
+     * This contructor takes in two filehandlers for the class to use, and starts watching
+     * for changes to the files. The filehandlers cannot be null.
+     *
+     * @param userFilehandler - UserFilehandler to use for the profiles
+     * @param recipeFilehandler - RecipeFilehandler to use for the recipelibrary/recipes
+     */
+    public CachingRecipeHubAccess(UserFilehandler userFilehandler,
+            RecipeFilehandler recipeFilehandler) {
+        super(userFilehandler, recipeFilehandler);
+        recipeLibrary = new CachedValue<>(recipeFilehandler::getStoragePaths,
+                super::getRecipeLibrary);
+        profiles = new CachedValue<>(() -> Stream.concat(
+                userFilehandler.getStoragePaths().stream(),
+                recipeFilehandler.getStoragePaths().stream()).collect(Collectors.toList()),
+                super::getProfiles);
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            Thread watcher = new Thread(this::watchFiles, "recipehub-file-watcher");
+            watcher.setDaemon(true);
+            watcher.start();
+        } catch (IOException e) {
+            System.out.println("Error watching files, changes are only found when reading");
+            System.out.println(e.getMessage());
+        }
+    }
+
+    @Override
+    public RecipeLibrary getRecipeLibrary() {
+        RecipeLibrary cached = recipeLibrary.get();
+        return cached == null ? null : new RecipeLibrary(cached.getRecipes());
+    }
+
+    @Override
+    public Stream<Recipe> streamRecipes() {
+        RecipeLibrary cached = recipeLibrary.get();
+        return cached == null ? Stream.empty() : cached.getRecipes().stream();
+    }
+
+    @Override
+    public boolean removeRecipe(Recipe recipe) {
+        try {
+            return super.removeRecipe(recipe);
+        } finally {
+            recipeLibrary.invalidate();
+            profiles.invalidate();
+        }
+    }
+
+    @Override
+    public boolean saveRecipe(Recipe recipe) {
+        try {
+            return super.saveRecipe(recipe);
+        } finally {
+            recipeLibrary.invalidate();
+            profiles.invalidate();
+        }
+    }
+
+    @Override
+    public boolean saveProfile(Profile profile) {
+        try {
+            return super.saveProfile(profile);
+        } finally {
+            profiles.invalidate();
+        }
+    }
+
+    @Override
+    public List<Profile> getProfiles() {
+        List<Profile> cached = profiles.get();
+        return cached == null ? null : new ArrayList<>(cached);
+    }
+
+    @Override
+    public boolean saveProfiles(List<Profile> profiles) {
+        try {
+            return super.saveProfiles(profiles);
+        } finally {
+            this.profiles.invalidate();
+        }
+    }
+
+    /**
+     * This method stops watching the files. The cache is still used, and changes are
+     * still found when reading.
+     */
+    @Override
+    public void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Helper method which registers the directories of the given files with the watch
+     * service, if they are not watched already. A path which is a directory is watched
+     * itself.
+     */
+    private void watch(List<Path> paths) {
+        if (watchService == null) {
+            return;
+        }
+        for (Path path : paths) {
+            Path directory = Files.isDirectory(path) ? path : path.getParent();
+            if (directory != null && watchedDirectories.add(directory)) {
+                try {
+                    directory.register(watchService, ENTRY_CREATE, ENTRY_DELETE,
+                            ENTRY_MODIFY);
+                } catch (IOException | ClosedWatchServiceException e) {
+                    watchedDirectories.remove(directory);
+                }
+            }
+        }
+    }
+
+    /**
+     * Helper method run by the watcher thread, which drops the cached values whose files
+     * are changed until the watch service is closed.
+     */
+    private void watchFiles() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Path directory = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == OVERFLOW) {
+                        recipeLibrary.invalidate();
+                        profiles.invalidate();
+                        continue;
+                    }
+                    Path changed = directory.resolve((Path) event.context());
+                    recipeLibrary.invalidateIfAffected(changed);
+                    profiles.invalidateIfAffected(changed);
+                }
+                if (!key.reset()) {
+                    watchedDirectories.remove(directory);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // The access was closed
+        }
+    }
+
+    /**
+     * Helper method which describes the current state of the given files, so that a
+     * change to any of them gives a different description.
+     */
+    private static List<String> describe(List<Path> paths) {
+        return paths.stream().map(path -> {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(path,
+                        BasicFileAttributes.class);
+                return attributes.fileKey() + ":" + attributes.size() + ":"
+                        + attributes.lastModifiedTime().toMillis();
+            } catch (IOException e) {
+                return "missing";
+            }
+        }).collect(Collectors.toList());
+    }
+
+    /**
+     * This class holds a value read from a set of files, along with the state of the
+     * files when it was read.
+     */
+    private final class CachedValue<T> {
+        private final Supplier<List<Path>> pathSupplier;
+        private final Supplier<T> loader;
+        private List<Path> paths = List.of();
+        private List<String> state;
+        private T value;
+
+        private CachedValue(Supplier<List<Path>> pathSupplier, Supplier<T> loader) {
+            this.pathSupplier = pathSupplier;
+            this.loader = loader;
+        }
+
+        /**
+         * This method returns the cached value, and reads it again if it was dropped or
+         * the files have changed. The files are described before they are read, so a
+         * change made while reading is found by the next call.
+         *
+         * @return - Returns the value, or null if it could not be read
+         */
+        private synchronized T get() {
+            List<Path> currentPaths = currentPaths();
+            List<String> currentState = describe(currentPaths);
+            if (value == null || !currentPaths.equals(paths) || !currentState.equals(state)) {
+                watch(currentPaths);
+                value = loader.get();
+                paths = currentPaths;
+                state = currentState;
+            }
+            return value;
+        }
+
+        private synchronized void invalidate() {
+            value = null;
+        }
+
+        /**
+         * This method drops the value if the changed file is one of its files, or is in
+         * one of its directories.
+         *
+         * @param changed - Path object of the changed file
+         */
+        private synchronized void invalidateIfAffected(Path changed) {
+            if (paths.contains(changed) || paths.contains(changed.getParent())) {
+                value = null;
+            }
+        }
+
+        private List<Path> currentPaths() {
+            List<Path> currentPaths = pathSupplier.get();
+            if (currentPaths == null) {
+                return List.of();
+            }
+            return currentPaths.stream().map(Path::toAbsolutePath).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * This class registers the cached access to the files as the storage engine named
+     * {@value #NAME}. Each profile is kept in a file of its own.
+     *
+     * @see ShardedUserFilehandler
+     * @see RecipeHubAccessProvider
+     */
+    public static final class Provider implements RecipeHubAccessProvider {
+        public static final String NAME = "caching";
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public RecipeHubAccess create() {
+            return new CachingRecipeHubAccess(new ShardedUserFilehandler(),
+                    new RecipeFilehandler());
+        }
+    }
+}
@@ -3,11 +3,25 @@ package file;
 import core.Profile;
 import core.Recipe;
 import core.RecipeLibrary;
+import core.RecipeSummary;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
 
 /**
  * This class centralizes access to the profiles and recipelibrary saved on file.
  * Makes it easier to support transparent use of a REST API.
+ *
+ * <p>Profiles are saved with references to the recipes in the recipe file, and the
+ * references are replaced by the saved recipes when profiles are loaded.
+ * </p>
+ *
+ * @see ProfileReferences
  */
 public class DirectRecipeHubAccess implements RecipeHubAccess {
 
@@ -15,10 +29,41 @@ public class DirectRecipeHubAccess implements RecipeHubAccess {
     private RecipeFilehandler recipeFilehandler;
 
     /**
-     * This empty constructor will make default filehandlers for the class to use.
+     * This empty constructor will make default filehandlers for the class to use. Each
+     * profile is kept in a file of its own.
+     *
+     * @see ShardedUserFilehandler
      */
     public DirectRecipeHubAccess() {
-        this(new UserFilehandler(), new RecipeFilehandler());
+        this(new ShardedUserFilehandler(), new RecipeFilehandler());
+    }
+
+    /**
+     * This constructor will make default filehandlers, with a recipe filehandler which
+     * either rewrites the recipe file, or appends changes to a log that is compacted in the
+     * background. Each profile is kept in a file of its own either way.
+     * 
+     * @param logStructured - true to make a log-structured recipe filehandler
+     * @see RecipeFilehandler#RecipeFilehandler(boolean)
+     * @see ShardedUserFilehandler
+     */
+    public DirectRecipeHubAccess(boolean logStructured) {
+        this(new ShardedUserFilehandler(), new RecipeFilehandler(logStructured));
+    }
+
+    /**
+     * This constructor will make filehandlers with their own files in the given directory,
+     * named like the default files. Accesses for different directories are independent of
+     * each other, so several stores can be used at the same time in one program.
+     *
+     * @param directory     - Path object to the directory of the recipe and profile files
+     * @param logStructured - true to make a log-structured recipe filehandler
+     * @see RecipeFilehandler#RecipeFilehandler(Path, boolean, StorageFormat)
+     */
+    public DirectRecipeHubAccess(Path directory, boolean logStructured) {
+        this(new ShardedUserFilehandler(directory.resolve(UserFilehandler.DEFAULT_FILE_NAME)),
+                new RecipeFilehandler(directory.resolve(RecipeFilehandler.DEFAULT_FILE_NAME),
+                        logStructured, StorageFormat.JSON));
     }
 
     /**
@@ -48,6 +93,43 @@ public class DirectRecipeHubAccess implements RecipeHubAccess {
         return recipeFilehandler.readRecipeLibrary();
     }
 
+    /**
+     * This method will stream all recipes from file, one at a time.
+     * 
+     * @return Stream of all the recipes for the app
+     * @see RecipeFilehandler#streamRecipes()
+     */
+    @Override
+    public Stream<Recipe> streamRecipes() {
+        return recipeFilehandler.streamRecipes();
+    }
+
+    /**
+     * This method will load the recipe with the given author and name, without reading
+     * the other recipes.
+     * 
+     * @param author - Username of the author of the recipe
+     * @param name - Name of the recipe
+     * @return The recipe, or null if it does not exist
+     * @see RecipeFilehandler#loadRecipe(String, String)
+     */
+    @Override
+    public Recipe loadRecipe(String author, String name) {
+        return recipeFilehandler.loadRecipe(author, name);
+    }
+
+    /**
+     * This method will return the summaries of all recipes, from the summary index next
+     * to the recipe file.
+     * 
+     * @return List with the summaries of all the recipes for the app
+     * @see RecipeFilehandler#readRecipeSummaries()
+     */
+    @Override
+    public List<RecipeSummary> getRecipeSummaries() {
+        return recipeFilehandler.readRecipeSummaries();
+    }
+
     /**
      * This method will remove the given recipe from the saved recipes.
      * 
@@ -71,37 +153,66 @@ public class DirectRecipeHubAccess implements RecipeHubAccess {
     }
 
     /**
-     * This method will save the given profile to file.
+     * This method will save the given profile to file. Its recipes which are saved
+     * are written as references.
      * 
      * @param profile - Profile to be saved
      * @see UserFilehandler#writeProfile(Profile)
+     * @see ProfileReferences#toReferences(Profile, BiFunction)
      */
     @Override
     public boolean saveProfile(Profile profile) {
-        return userFilehandler.writeProfile(profile);
+        return userFilehandler.writeProfile(ProfileReferences.toReferences(profile,
+                getRecipeLookup()));
     }
 
     /**
-     * This mehtod will return a list containing all profiles .
+     * This mehtod will return a list containing all profiles, with their recipes read
+     * from the saved recipes.
      * 
      * @return List with all profiles for the app
      * @see UserFilehandler#readProfiles()
+     * @see ProfileReferences#resolve(Profile, BiFunction)
      */
     @Override
     public List<Profile> getProfiles() {
-        return userFilehandler.readProfiles();
+        List<Profile> profiles = userFilehandler.readProfiles();
+        if (profiles == null || profiles.isEmpty()) {
+            return profiles;
+        }
+        BiFunction<String, String, Recipe> lookup = getRecipeLookup();
+        profiles.forEach(profile -> ProfileReferences.resolve(profile, lookup));
+        return profiles;
     }
 
     /**
      * This method will load the first profile which matches the username, or null if not found.
+     * The recipes of the profile are read from the saved recipes.
      * 
      * @param username - Username of the profile to load
      * @return First profile to match the predicate
      * @see UserFilehandler#loadProfile()
+     * @see ProfileReferences#resolve(Profile, BiFunction)
      */
     @Override
     public Profile loadProfile(String username) {
-        return userFilehandler.loadProfile(username);
+        Profile profile = userFilehandler.loadProfile(username);
+        if (profile == null) {
+            return null;
+        }
+        return ProfileReferences.resolve(profile, getRecipeLookup());
+    }
+
+    /**
+     * This method will check if a profile with the given username exists, without loading it.
+     * 
+     * @param username - Username to check
+     * @return true if the profile exists, false otherwise
+     * @see UserFilehandler#userExists(String)
+     */
+    @Override
+    public boolean profileExists(String username) {
+        return userFilehandler.userExists(username);
     }
 
     /**
@@ -112,6 +223,81 @@ public class DirectRecipeHubAccess implements RecipeHubAccess {
      */
     @Override
     public boolean saveProfiles(List<Profile> profiles) {
-        return userFilehandler.writeAllProfiles(profiles);
+        return userFilehandler.writeAllProfiles(ProfileReferences.toReferences(profiles,
+                getRecipeLookup()));
+    }
+
+    /**
+     * This method upgrades the recipes and profiles saved in an older version to the
+     * current version. Log-structured files are upgraded in batches of at most the given
+     * number of records, by appending the upgraded records to the logs. Other files can
+     * only be written whole, so every outdated record in them is upgraded at once, and the
+     * limit only decides whether there is room for the profile file after the recipe file.
+     *
+     * @param limit - Number of records to upgrade before stopping
+     * @return the number of records which were upgraded
+     * @see RecipeFilehandler#migrateRecords(long)
+     * @see UserFilehandler#migrateRecords(long)
+     */
+    @Override
+    public int migrateRecords(int limit) {
+        long migrated = recipeFilehandler.migrateRecords(limit);
+        if (migrated < limit) {
+            migrated += userFilehandler.migrateRecords(limit - migrated);
+        }
+        return (int) Math.min(migrated, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Helper method which finds the recipes of profiles by their author and name, loading
+     * only the recipes the profiles refer to. Each recipe is loaded once, even if several
+     * profiles have it.
+     * A log-structured recipe file has to be read whole to find one recipe, so it is then
+     * read once, the first time a recipe is looked up, and every recipe is found in it.
+     */
+    private BiFunction<String, String, Recipe> getRecipeLookup() {
+        if (recipeFilehandler.isLogStructured()) {
+            Map<List<String>, Recipe> library = new HashMap<>();
+            boolean[] read = new boolean[1];
+            return (author, name) -> {
+                if (!read[0]) {
+                    try (Stream<Recipe> recipes = streamRecipes()) {
+                        recipes.forEach(recipe -> library.putIfAbsent(
+                                Arrays.asList(recipe.getAuthor(), recipe.getName()), recipe));
+                    }
+                    read[0] = true;
+                }
+                return library.get(Arrays.asList(author, name));
+            };
+        }
+        Map<List<String>, Optional<Recipe>> loaded = new HashMap<>();
+        return (author, name) -> loaded.computeIfAbsent(Arrays.asList(author, name),
+                key -> Optional.ofNullable(loadRecipe(author, name))).orElse(null);
+    }
+
+    /**
+     * This class registers the access to the files as the storage engine named
+     * {@value #NAME}. The recipes are read with lazy loading, so a list of recipes is shown
+     * without decoding the steps, ingredients and reviews of every recipe. Each profile is
+     * kept in a file of its own, so logging in and registering only read and write the
+     * file of that user.
+     *
+     * @see ShardedUserFilehandler
+     * @see RecipeHubAccessProvider
+     */
+    public static final class Provider implements RecipeHubAccessProvider {
+        public static final String NAME = "direct";
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public RecipeHubAccess create() {
+            RecipeFilehandler recipeFilehandler = new RecipeFilehandler();
+            recipeFilehandler.setLazyLoading(true);
+            return new DirectRecipeHubAccess(new ShardedUserFilehandler(), recipeFilehandler);
+        }
     }
 }
@@ -1,74 +1,509 @@
-package file;
-
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
-import java.lang.reflect.Type;
-import java.nio.charset.Charset;
-import java.nio.file.Files;
-import java.nio.file.Path;
-
-/**
- * This is a utility class for filehandling.
- */
-public class FileUtil {
-
-    private static final Gson gson = new GsonBuilder().setPrettyPrinting().create();
-
-    /**
-     * This method creates a file if it does not already exist.
-     * 
-     * @param filePath - Path object to the file
-     */
-    public static void createFile(Path filePath) {
-        if (!Files.exists(filePath)) {
-            try {
-                Files.createFile(filePath);
-            } catch (IOException e) {
-                // This will never happen
-                System.out.println(e.getMessage());
-            }
-        }
-    }
-
-    /**
-     * This method writes data to a file.
-     * 
-     * @param <T>      - Generic type
-     * @param filePath - Path object to the file
-     * @param data     - Data to write to the file
-     */
-    public static <T> boolean writeFile(Path filePath, T data) {
-        try (Writer writer = new FileWriter(filePath.toFile(), Charset.forName("UTF-8"))) {
-            gson.toJson(data, writer);
-            return true;
-        } catch (IOException | IllegalStateException e) {
-            System.out.println("Error writing to file");
-            System.out.println(e.getMessage());
-            return false;
-        }
-    }
-
-    /**
-     * This method reads data from a file.
-     * 
-     * @param <T>      - Generic type
-     * @param filePath - Path object to the file
-     * @param data     - Data to read from the file
-     * @param type     - Type object
-     * @return - Returns the data read from the file
-     */
-    public static <T> T readFile(Path filePath, T data, Type type) {
-        try (Reader reader = new FileReader(filePath.toFile(), Charset.forName("UTF-8"))) {
-            data = gson.fromJson(reader, type);
-        } catch (IOException e) {
-            System.out.println("Error reading from file");
-            System.out.println(e.getMessage());
-        }
-        return data;
-    }
-}
\ No newline at end of file
+package file;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This is a utility class for filehandling.
+ */
+public class FileUtil {
+
+    private static final Gson gson = ModelTypeAdapterFactory.newGsonBuilder()
+            .setPrettyPrinting().create();
+    private static final Gson lazyGson = ModelTypeAdapterFactory.newGsonBuilder(true)
+            .setPrettyPrinting().create();
+    private static final Gson compactGson = ModelTypeAdapterFactory.newGsonBuilder().create();
+    private static final byte[] GZIP_HEADER = {(byte) 0x1f, (byte) 0x8b};
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * This interface writes the content of a file to a stream.
+     */
+    public interface FileContent {
+        /**
+         * This method writes the content to the given stream.
+         * 
+         * @param output - Stream to write to
+         * @throws IOException if the stream can not be written to
+         */
+        void writeTo(OutputStream output) throws IOException;
+    }
+
+    /**
+     * This method creates a file, and the directories it is in, if it does not already exist.
+     * 
+     * @param filePath - Path object to the file
+     */
+    public static void createFile(Path filePath) {
+        if (!Files.exists(filePath)) {
+            try {
+                Path directory = filePath.toAbsolutePath().getParent();
+                if (directory != null) {
+                    Files.createDirectories(directory);
+                }
+                Files.createFile(filePath);
+            } catch (IOException e) {
+                // This will never happen
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * This method writes data to a file as JSON.
+     * The file is replaced atomically, as described in {@link #commitFile(Path, FileContent)}.
+     * 
+     * @param <T>      - Generic type
+     * @param filePath - Path object to the file
+     * @param data     - Data to write to the file
+     * @return - Returns true if the data was written, false otherwise
+     */
+    public static <T> boolean writeFile(Path filePath, T data) {
+        return writeFile(filePath, data, false);
+    }
+
+    /**
+     * This method writes data to a file as JSON, which may be compressed with GZIP.
+     * Compressed JSON is written without pretty-printing, since it can not be read by hand
+     * anyway. Files are read the same way whether they are compressed or not.
+     * The file is replaced atomically, as described in {@link #commitFile(Path, FileContent)}.
+     * 
+     * @param <T>        - Generic type
+     * @param filePath   - Path object to the file
+     * @param data       - Data to write to the file
+     * @param compressed - true to compress the file with GZIP
+     * @return - Returns true if the data was written, false otherwise
+     * @see #isCompressed(Path)
+     */
+    public static <T> boolean writeFile(Path filePath, T data, boolean compressed) {
+        return commitFile(filePath, output -> {
+            if (!compressed) {
+                Writer writer = new BufferedWriter(new OutputStreamWriter(output,
+                        StandardCharsets.UTF_8));
+                gson.toJson(data, writer);
+                writer.flush();
+                return;
+            }
+            GZIPOutputStream gzip = new GZIPOutputStream(output, BUFFER_SIZE);
+            Writer writer = new OutputStreamWriter(gzip, StandardCharsets.UTF_8);
+            compactGson.toJson(data, writer);
+            writer.flush();
+            gzip.finish();
+        });
+    }
+
+    /**
+     * This method checks if a file is compressed with GZIP, by reading its first bytes.
+     * 
+     * @param filePath - Path object to the file
+     * @return - Returns true if the file is compressed, false otherwise
+     */
+    public static boolean isCompressed(Path filePath) {
+        try (InputStream input = Files.newInputStream(filePath)) {
+            return isCompressed(input.readNBytes(GZIP_HEADER.length));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * This method checks if the given bytes start like a file compressed with GZIP.
+     * 
+     * @param bytes - The first bytes of a file, or the whole file
+     * @return - Returns true if the bytes are compressed, false otherwise
+     */
+    public static boolean isCompressed(byte[] bytes) {
+        return bytes.length >= GZIP_HEADER.length && bytes[0] == GZIP_HEADER[0]
+                && bytes[1] == GZIP_HEADER[1];
+    }
+
+    /**
+     * This method opens a UTF-8 reader of a text file, which is decompressed while it is
+     * read if it is compressed with GZIP.
+     * 
+     * @param filePath - Path object to the file
+     * @return - Returns a reader of the text in the file
+     * @throws IOException if the file could not be opened
+     */
+    public static Reader newReader(Path filePath) throws IOException {
+        InputStream input = new BufferedInputStream(Files.newInputStream(filePath),
+                BUFFER_SIZE);
+        try {
+            input.mark(GZIP_HEADER.length);
+            byte[] header = input.readNBytes(GZIP_HEADER.length);
+            input.reset();
+            if (isCompressed(header)) {
+                input = new GZIPInputStream(input, BUFFER_SIZE);
+            }
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+        return new InputStreamReader(input, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * This method replaces the content of a file, so that a crash never leaves the file
+     * half written. The content is written to a temporary file next to the file, which is
+     * synced to disk and then renamed over the file.
+     * 
+     * <p>Stores which are written whole group concurrent changes before they get here, so
+     * each commit already holds every change waiting for the store.
+     * </p>
+     * 
+     * @param filePath - Path object to the file
+     * @param content  - Content to write to the file
+     * @return - Returns true if the content was written and committed, false otherwise
+     * @see GroupCommit
+     */
+    public static boolean commitFile(Path filePath, FileContent content) {
+        Path tempPath = Path.of(filePath + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                OutputStream output = new BufferedOutputStream(
+                        Channels.newOutputStream(channel));
+                content.writeTo(output);
+                output.flush();
+                channel.force(true);
+            }
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(filePath.getParent());
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Error writing to file");
+            System.out.println(e.getMessage());
+            deleteQuietly(tempPath);
+            return false;
+        }
+    }
+
+    /**
+     * This helper method syncs a directory, so a file renamed into it survives a crash.
+     * Not every platform can open a directory, in which case nothing is done.
+     * 
+     * @param directory - Path object to the directory, or null for the current directory
+     */
+    private static void syncDirectory(Path directory) {
+        Path path = directory == null ? Path.of("").toAbsolutePath() : directory;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // The rename is still atomic, it is only not guaranteed to be on disk yet
+        }
+    }
+
+    /**
+     * This method gets a stamp of a file, which changes whenever the file is written or
+     * replaced.
+     *
+     * @param filePath - Path object to the file
+     * @return - Returns the size and the last modified time of the file, or null if the
+     *         file can not be read
+     */
+    public static List<Long> getStamp(Path filePath) {
+        try {
+            return List.of(Files.size(filePath),
+                    Files.getLastModifiedTime(filePath).to(TimeUnit.NANOSECONDS));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * This method renames a file which is written and synced to disk already over another
+     * file, so the other file is replaced whole. The file is deleted if it could not be
+     * renamed.
+     *
+     * @param sourcePath - Path object to the written file
+     * @param filePath   - Path object to the file to replace
+     * @return - Returns true if the file was replaced, false otherwise
+     */
+    public static boolean moveAtomically(Path sourcePath, Path filePath) {
+        try {
+            Files.move(sourcePath, filePath, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            syncDirectory(filePath.getParent());
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error replacing file");
+            System.out.println(e.getMessage());
+            deleteQuietly(sourcePath);
+            return false;
+        }
+    }
+
+    static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * This method deletes a directory and the files in it, if it exists.
+     *
+     * @param directory - Path object to the directory
+     * @throws IOException if the directory can not be deleted
+     */
+    static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder())
+                    .collect(Collectors.toList())) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * This method reads data from a file, which may be compressed with GZIP.
+     * 
+     * @param <T>      - Generic type
+     * @param filePath - Path object to the file
+     * @param data     - Data to read from the file
+     * @param type     - Type object
+     * @return - Returns the data read from the file
+     */
+    public static <T> T readFile(Path filePath, T data, Type type) {
+        return readFile(filePath, data, type, false);
+    }
+
+    /**
+     * This method reads data from a file, where the recipes may be read with only their
+     * headers decoded.
+     * 
+     * @param <T>        - Generic type
+     * @param filePath   - Path object to the file
+     * @param data       - Data to read from the file
+     * @param type       - Type object
+     * @param lazyBodies - true to decode the bodies of recipes the first time they are used
+     * @return - Returns the data read from the file
+     * @see ModelTypeAdapterFactory#ModelTypeAdapterFactory(core.StringInterner, boolean)
+     */
+    public static <T> T readFile(Path filePath, T data, Type type, boolean lazyBodies) {
+        try (Reader reader = newReader(filePath)) {
+            data = (lazyBodies ? lazyGson : gson).fromJson(reader, type);
+        } catch (IOException e) {
+            System.out.println("Error reading from file");
+            System.out.println(e.getMessage());
+        }
+        return data;
+    }
+
+    /**
+     * This method reads data from a part of a file, without reading the rest of the file.
+     * The file can not be compressed, since a compressed file can not be read from the
+     * middle.
+     * 
+     * @param <T>      - Generic type
+     * @param filePath - Path object to the file
+     * @param offset   - Position in the file the data starts at, in bytes
+     * @param length   - Length of the data, in bytes
+     * @param type     - Type object
+     * @return - Returns the data read from the file, or null if it could not be read
+     */
+    public static <T> T readRange(Path filePath, long offset, int length, Type type) {
+        try {
+            byte[] bytes = readBytes(filePath, offset, length);
+            return gson.fromJson(new String(bytes, StandardCharsets.UTF_8), type);
+        } catch (IOException | JsonParseException e) {
+            System.out.println("Error reading from file");
+            System.out.println(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * This method reads bytes from a part of a file, without reading the rest of the file.
+     * 
+     * @param filePath - Path object to the file
+     * @param offset   - Position in the file to start reading at, in bytes
+     * @param length   - Number of bytes to read
+     * @return - Returns the bytes read
+     * @throws IOException if the file could not be read, or is too short
+     */
+    public static byte[] readBytes(Path filePath, long offset, int length) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(filePath.toFile(), "r")) {
+            byte[] bytes = new byte[length];
+            file.seek(offset);
+            file.readFully(bytes);
+            return bytes;
+        }
+    }
+
+    /**
+     * This method streams the elements of a JSON array in a file, one element at a time.
+     * Only the element being read is kept in memory, so the whole file is never parsed
+     * into one object graph. The array can either be the whole file, or a field with the
+     * given name in the object the file contains. The file may be compressed with GZIP.
+     * The file is opened before this method returns, and the stream keeps it open until
+     * it is closed, so it should be used in a try-with-resources statement.
+     * 
+     * @param <T>       - Generic type
+     * @param filePath  - Path object to the file
+     * @param arrayName - Name of the field holding the array, if the file contains an object
+     * @param type      - Type object of the elements
+     * @return - Returns a stream of the elements, which is empty if the file could not be read
+     */
+    public static <T> Stream<T> streamArray(Path filePath, String arrayName, Type type) {
+        JsonArrayIterator<T> iterator = new JsonArrayIterator<>(filePath, arrayName, type);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(iterator::close);
+    }
+
+    /**
+     * This class iterates over the elements of a JSON array in a file, reading one element
+     * ahead of the caller.
+     */
+    private static class JsonArrayIterator<T> implements Iterator<T>, Closeable {
+        private final Type type;
+        private JsonReader reader;
+        private T nextElement;
+
+        /**
+         * This constructor opens the file and moves to the start of the array.
+         * 
+         * @param filePath  - Path object to the file
+         * @param arrayName - Name of the field holding the array
+         * @param type      - Type object of the elements
+         */
+        JsonArrayIterator(Path filePath, String arrayName, Type type) {
+            this.type = type;
+            try {
+                reader = new JsonReader(newReader(filePath));
+                if (!moveToArray(arrayName)) {
+                    close();
+                }
+            } catch (EOFException e) {
+                close();
+            } catch (IOException | IllegalStateException e) {
+                System.out.println("Error reading from file");
+                System.out.println(e.getMessage());
+                close();
+            }
+        }
+
+        /**
+         * This helper method moves the reader into the array.
+         * 
+         * @param arrayName - Name of the field holding the array
+         * @return - Returns true if the array was found, false otherwise
+         * @throws IOException if the file could not be read
+         */
+        private boolean moveToArray(String arrayName) throws IOException {
+            if (reader.peek() == JsonToken.BEGIN_ARRAY) {
+                reader.beginArray();
+                return true;
+            }
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                return false;
+            }
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals(arrayName)
+                        && reader.peek() == JsonToken.BEGIN_ARRAY) {
+                    reader.beginArray();
+                    return true;
+                }
+                reader.skipValue();
+            }
+            return false;
+        }
+
+        /**
+         * This method checks if there are more elements, by reading the next one.
+         * If the file can not be read any further, the iteration ends.
+         * 
+         * @return - Returns true if there is another element, false otherwise
+         */
+        @Override
+        public boolean hasNext() {
+            while (nextElement == null && reader != null) {
+                try {
+                    if (!reader.hasNext()) {
+                        close();
+                    } else {
+                        nextElement = gson.fromJson(reader, type);
+                    }
+                } catch (IOException | JsonParseException | IllegalStateException e) {
+                    System.out.println("Error reading from file");
+                    System.out.println(e.getMessage());
+                    close();
+                }
+            }
+            return nextElement != null;
+        }
+
+        /**
+         * This method gets the next element of the array.
+         * 
+         * @return - The next element
+         * @throws NoSuchElementException if there are no more elements
+         */
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            T element = nextElement;
+            nextElement = null;
+            return element;
+        }
+
+        /**
+         * This method closes the file. It can be called more than once.
+         */
+        @Override
+        public void close() {
+            if (reader == null) {
+                return;
+            }
+            try {
+                reader.close();
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+            reader = null;
+        }
+    }
+}
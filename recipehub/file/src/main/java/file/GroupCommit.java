@@ -0,0 +1,159 @@
+package file;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * This class groups changes to a store which is read and written whole, like the recipe
+ * file. Changes which arrive while the store is being written wait for the lock of the
+ * store, and the first of them to get it makes all of them together: the store is read
+ * once, each change is made in the order they arrived, and the store is written and
+ * committed once. Many concurrent changes therefore only cost a few writes of the whole
+ * store, instead of one write each.
+ *
+ * <p>Each change gets its own result, so a change which fails is not reported as written
+ * with the others.
+ * </p>
+ *
+ * @param <T> - Type of the data in the store
+ * @see StoreLock
+ */
+final class GroupCommit<T> {
+    private final Supplier<StoreLock> storeLock;
+    private final Supplier<T> reader;
+    private final Predicate<T> writer;
+    private final AtomicLong commitCount = new AtomicLong();
+    private List<PendingChange<T>> pendingChanges = new ArrayList<>();
+
+    /**
+     * This constructor makes a group commit for a store.
+     *
+     * @param storeLock - Supplier of the lock of the store
+     * @param reader    - Supplier which reads the data in the store
+     * @param writer    - Predicate which writes the data to the store and returns if it
+     *                  was written
+     */
+    GroupCommit(Supplier<StoreLock> storeLock, Supplier<T> reader, Predicate<T> writer) {
+        this.storeLock = storeLock;
+        this.reader = reader;
+        this.writer = writer;
+    }
+
+    /**
+     * This method makes the change in the next commit of the store and waits for it.
+     *
+     * @param change - Consumer which changes the data read from the store
+     * @return - Returns true if the change was made and committed, false otherwise
+     * @see #apply(Consumer, Runnable)
+     */
+    boolean apply(Consumer<T> change) {
+        return apply(change, () -> {
+        });
+    }
+
+    /**
+     * This method makes the change in the next commit of the store and waits for it.
+     * If no other thread has committed the change when this thread gets the lock of the
+     * store, this thread commits every change waiting to be committed.
+     *
+     * @param change    - Consumer which changes the data read from the store
+     * @param committed - Runnable which is run with the lock still held once the change is
+     *                  committed, to keep what depends on the store in step with it
+     * @return - Returns true if the change was made and committed, false otherwise
+     */
+    boolean apply(Consumer<T> change, Runnable committed) {
+        PendingChange<T> pending = new PendingChange<>(change, committed);
+        synchronized (this) {
+            pendingChanges.add(pending);
+        }
+        storeLock.get().write(() -> {
+            if (!pending.result.isDone()) {
+                commit();
+            }
+            return null;
+        });
+        return pending.result.join();
+    }
+
+    /**
+     * This method gets the number of times the store has been written. Writes which
+     * failed are not counted.
+     *
+     * @return - The number of commits
+     */
+    long getCommitCount() {
+        return commitCount.get();
+    }
+
+    /**
+     * This helper method reads the store, makes every waiting change and writes the store.
+     * It is called with the lock of the store held.
+     */
+    private void commit() {
+        List<PendingChange<T>> batch;
+        synchronized (this) {
+            batch = pendingChanges;
+            pendingChanges = new ArrayList<>();
+        }
+        boolean[] made = new boolean[batch.size()];
+        boolean written = false;
+        try {
+            T data = reader.get();
+            for (int i = 0; i < batch.size(); i++) {
+                try {
+                    batch.get(i).change.accept(data);
+                    made[i] = true;
+                } catch (RuntimeException e) {
+                    System.out.println("Error changing store");
+                    System.out.println(e.getMessage());
+                }
+            }
+            written = writer.test(data);
+            if (written) {
+                commitCount.incrementAndGet();
+                runCommitted(batch, made);
+            }
+        } finally {
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(written && made[i]);
+            }
+        }
+    }
+
+    /**
+     * This helper method runs what depends on the store for each change which was made.
+     * A callback which fails does not keep the callbacks of the other changes from running,
+     * nor change the result of its change, since the store was written.
+     */
+    private static <T> void runCommitted(List<PendingChange<T>> batch, boolean[] made) {
+        for (int i = 0; i < batch.size(); i++) {
+            if (made[i]) {
+                try {
+                    batch.get(i).committed.run();
+                } catch (RuntimeException e) {
+                    System.out.println("Error after committing store");
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * A change which is waiting to be committed, and its result.
+     */
+    private static final class PendingChange<T> {
+        private final Consumer<T> change;
+        private final Runnable committed;
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private PendingChange(Consumer<T> change, Runnable committed) {
+            this.change = change;
+            this.committed = committed;
+        }
+    }
+}
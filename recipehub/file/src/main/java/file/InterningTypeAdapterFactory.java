@@ -0,0 +1,56 @@
+package file;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import core.StringInterner;
+import java.io.IOException;
+
+/**
+ * This class makes Gson read strings through a StringInterner, so equal short strings
+ * parsed from a file are the same String object instead of a new String each time.
+ *
+ * <p>Register it with {@code new GsonBuilder().registerTypeAdapterFactory(...)}. It is
+ * used for both strings in objects and the keys of maps.
+ * </p>
+ *
+ * @see StringInterner
+ */
+public final class InterningTypeAdapterFactory implements TypeAdapterFactory {
+    private final StringInterner interner;
+
+    /**
+     * This constructor makes a factory which interns the strings it reads.
+     *
+     * @param interner - StringInterner for the strings
+     */
+    public InterningTypeAdapterFactory(StringInterner interner) {
+        if (interner == null) {
+            throw new IllegalArgumentException("Interner cannot be null.");
+        }
+        this.interner = interner;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != String.class) {
+            return null;
+        }
+        TypeAdapter<String> delegate = (TypeAdapter<String>) gson.getDelegateAdapter(this, type);
+        return (TypeAdapter<T>) new TypeAdapter<String>() {
+            @Override
+            public void write(JsonWriter out, String value) throws IOException {
+                delegate.write(out, value);
+            }
+
+            @Override
+            public String read(JsonReader in) throws IOException {
+                return interner.intern(delegate.read(in));
+            }
+        };
+    }
+}
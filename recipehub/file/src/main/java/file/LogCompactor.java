@@ -0,0 +1,66 @@
+package file;
+
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+
+/**
+ * This class compacts append logs into snapshots on a background thread.
+ * Filehandlers in log-structured mode hand their compaction over to this class
+ * when their log has grown past a threshold, so that writers are never blocked
+ * by writing a snapshot, and reading on startup only has to replay a short log.
+ * LsmStore also merges its segments here.
+ */
+public class LogCompactor {
+    public static final long DEFAULT_THRESHOLD = 256 * 1024;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(
+            runnable -> {
+                Thread thread = new Thread(runnable, "recipehub-log-compactor");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private static final Set<Path> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * This method schedules a compaction of the given log if the log is larger than
+     * the threshold, and no compaction of the same log is already waiting.
+     *
+     * @param log        - AppendLog which may need compaction
+     * @param threshold  - Size of the log in bytes before it is compacted
+     * @param compaction - The compaction to run in the background
+     * @return - Returns true if a compaction was scheduled, false otherwise
+     */
+    public static boolean compactIfNeeded(AppendLog log, long threshold,
+            BooleanSupplier compaction) {
+        if (log.size() < threshold) {
+            return false;
+        }
+        return schedule(log.getLogPath(), compaction);
+    }
+
+    /**
+     * This method schedules a compaction in the background, unless a compaction with
+     * the same key is already waiting.
+     *
+     * @param key        - Path object to the file or directory being compacted
+     * @param compaction - The compaction to run in the background
+     * @return - Returns true if the compaction was scheduled, false otherwise
+     */
+    public static boolean schedule(Path key, BooleanSupplier compaction) {
+        if (!pending.add(key)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                compaction.getAsBoolean();
+            } finally {
+                pending.remove(key);
+            }
+        });
+        return true;
+    }
+}
@@ -0,0 +1,370 @@
+package file;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class keeps the recipes and profiles in two log-structured merge stores, instead of
+ * rewriting a JSON file for every change. Recipes are keyed by their author and name, and
+ * profiles by their username, so single recipes, the recipes of an author and single
+ * profiles are read without reading the rest.
+ *
+ * <p>The stores are kept in directories next to the recipe and profile files. When a
+ * store is new, the recipes or profiles in the file are moved into it. They are moved
+ * into a temporary store, which is renamed into place once every record is in it, so a
+ * crash while they are moved leaves no store, and they are moved again the next time.
+ * Recipes and profiles are returned sorted by their keys.
+ * </p>
+ *
+ * <p>Profiles are saved with references to the recipes in the recipe store, which are
+ * looked up by their keys when the profiles are loaded.
+ * </p>
+ *
+ * @see LsmStore
+ * @see ProfileReferences
+ */
+public class LsmRecipeHubAccess implements RecipeHubAccess, Closeable {
+    private static final Gson gson = ModelTypeAdapterFactory.newGsonBuilder().create();
+    private static final char SEPARATOR = '\u0000';
+
+    private final LsmStore recipes;
+    private final LsmStore profiles;
+    private final Map<LsmStore, String> migrationCursors = new ConcurrentHashMap<>();
+
+    /**
+     * This empty constructor opens the stores next to the current recipe and profile files.
+     * A new profile store is filled from the files of the users, which the other engines
+     * keep the profiles in.
+     *
+     * @see #LsmRecipeHubAccess(RecipeFilehandler, UserFilehandler)
+     * @see ShardedUserFilehandler
+     */
+    public LsmRecipeHubAccess() {
+        this(new RecipeFilehandler(), new ShardedUserFilehandler());
+    }
+
+    /**
+     * This constructor opens the stores next to the files of the given filehandlers. A store
+     * which does not exist is created, and filled from the recipes or profiles in the file
+     * of its filehandler.
+     *
+     * @param recipeSource - RecipeFilehandler of the recipe file the store belongs to
+     * @param userSource   - UserFilehandler of the profile file the store belongs to
+     * @throws IllegalStateException if a store can not be opened or filled
+     * @see #getStorePath(Path)
+     */
+    public LsmRecipeHubAccess(RecipeFilehandler recipeSource, UserFilehandler userSource) {
+        this(getStorePath(recipeSource.getDataPath()), getStorePath(userSource.getDataPath()),
+                recipeSource, userSource);
+    }
+
+    /**
+     * This constructor opens the stores in the given directories. A store which does not
+     * exist is created empty, since the directories need not belong to any file.
+     *
+     * @param recipeDirectory  - Path object to the directory of the recipe store
+     * @param profileDirectory - Path object to the directory of the profile store
+     */
+    public LsmRecipeHubAccess(Path recipeDirectory, Path profileDirectory) {
+        this(recipeDirectory, profileDirectory, null, null);
+    }
+
+    private LsmRecipeHubAccess(Path recipeDirectory, Path profileDirectory,
+            RecipeFilehandler recipeSource, UserFilehandler userSource) {
+        if (recipeSource != null) {
+            seed(recipeDirectory, recipeSource.getDataPath(), store -> {
+                try (Stream<Recipe> existing = recipeSource.streamRecipes()) {
+                    return existing.allMatch(recipe -> store.put(
+                            getKey(recipe.getAuthor(), recipe.getName()), gson.toJson(recipe)));
+                }
+            });
+        }
+        recipes = new LsmStore(recipeDirectory);
+        if (userSource != null) {
+            seed(profileDirectory, userSource.getDataPath(), store -> userSource.readProfiles()
+                    .stream().allMatch(profile -> store.put(profile.getUsername(), gson.toJson(
+                            ProfileReferences.toReferences(profile, this::loadRecipe)))));
+        }
+        profiles = new LsmStore(profileDirectory);
+    }
+
+    /**
+     * Helper method which creates a store filled from a file, if the store does not exist.
+     * This is done with the lock of the file held, so only one program fills the store.
+     *
+     * @param directory - Path object to the directory of the store
+     * @param filePath  - Path object to the file the records are read from
+     * @param filler    - Predicate which puts the records in the given store, and returns
+     *                  if every record was put
+     * @throws IllegalStateException if the store could not be filled
+     */
+    private static void seed(Path directory, Path filePath, Predicate<LsmStore> filler) {
+        if (!Files.isDirectory(directory) && !StoreLock.forFile(filePath)
+                .write(() -> createStore(directory, filePath, filler))) {
+            throw new IllegalStateException("The store in " + directory
+                    + " could not be filled");
+        }
+    }
+
+    /**
+     * Helper method which fills a store in a temporary directory, and renames it into
+     * place once the filler has put every record in it.
+     *
+     * @param directory - Path object to the directory of the store
+     * @param filePath  - Path object to the file the records are read from
+     * @param filler    - Predicate which puts the records in the given store
+     * @return - Returns true if the store exists, false otherwise
+     */
+    private static boolean createStore(Path directory, Path filePath,
+            Predicate<LsmStore> filler) {
+        if (Files.isDirectory(directory)) {
+            return true;
+        }
+        Path tempDirectory = Path.of(directory + ".tmp");
+        try {
+            FileUtil.deleteDirectory(tempDirectory);
+            try (LsmStore store = new LsmStore(tempDirectory)) {
+                if (!filler.test(store)) {
+                    throw new IOException("Could not move " + filePath.getFileName());
+                }
+                store.flush();
+            }
+            Files.move(tempDirectory, directory, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error creating store");
+            System.out.println(e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public RecipeLibrary getRecipeLibrary() {
+        try (Stream<Recipe> all = streamRecipes()) {
+            return new RecipeLibrary(all.collect(Collectors.toList()));
+        }
+    }
+
+    @Override
+    public Stream<Recipe> streamRecipes() {
+        return decode(recipes.scan(null, null).values(), Recipe.class);
+    }
+
+    @Override
+    public Recipe loadRecipe(String author, String name) {
+        if (author == null || name == null) {
+            return null;
+        }
+        return decode(recipes.get(getKey(author, name)), Recipe.class);
+    }
+
+    @Override
+    public List<Recipe> getRecipesByAuthor(String author) {
+        return decode(recipes.scanPrefix(author + SEPARATOR).values(), Recipe.class)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public boolean removeRecipe(Recipe recipe) {
+        if (recipe == null) {
+            return false;
+        }
+        return recipes.remove(getKey(recipe.getAuthor(), recipe.getName()));
+    }
+
+    @Override
+    public boolean saveRecipe(Recipe recipe) {
+        if (recipe == null) {
+            return false;
+        }
+        return recipes.put(getKey(recipe.getAuthor(), recipe.getName()), gson.toJson(recipe));
+    }
+
+    @Override
+    public boolean saveProfile(Profile profile) {
+        if (profile == null) {
+            return false;
+        }
+        return profiles.put(profile.getUsername(),
+                gson.toJson(ProfileReferences.toReferences(profile, this::loadRecipe)));
+    }
+
+    @Override
+    public List<Profile> getProfiles() {
+        return decode(profiles.scan(null, null).values(), Profile.class)
+                .map(profile -> ProfileReferences.resolve(profile, this::loadRecipe))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Profile loadProfile(String username) {
+        return ProfileReferences.resolve(decode(profiles.get(username), Profile.class),
+                this::loadRecipe);
+    }
+
+    @Override
+    public boolean profileExists(String username) {
+        return profiles.contains(username);
+    }
+
+    /**
+     * This method saves the given profiles. Profiles which are not in the list are kept,
+     * like in the other engines.
+     *
+     * @param profiles - List of the profiles to save
+     * @return - Returns true if all profiles were written, false otherwise
+     */
+    @Override
+    public boolean saveProfiles(List<Profile> profiles) {
+        if (profiles == null || profiles.isEmpty()) {
+            return false;
+        }
+        boolean written = true;
+        for (Profile profile : profiles) {
+            written &= saveProfile(profile);
+        }
+        return written;
+    }
+
+    /**
+     * This method upgrades recipes and profiles saved in an older version to the current
+     * version, recipes first. The records are upgraded as JSON, without decoding them, and
+     * each store is gone through a page at a time from where the last call stopped, so
+     * every record is read once over a pass. When a pass reaches the end of a store, the
+     * next call starts over from its first record, so records written in an older version
+     * since then are upgraded too.
+     *
+     * @param limit - Number of records to upgrade before stopping
+     * @return - Returns the number of records which were upgraded, 0 when none are left
+     * @see RecordVersions#migrate(Class, com.google.gson.JsonObject)
+     */
+    @Override
+    public int migrateRecords(int limit) {
+        int migrated = migrate(recipes, Recipe.class, limit);
+        if (migrated < limit) {
+            migrated += migrate(profiles, Profile.class, limit - migrated);
+        }
+        return migrated;
+    }
+
+    /**
+     * Helper method which upgrades up to the given number of outdated values in a store.
+     * A value which is changed while it is upgraded is left as it is, since it was written
+     * in the current version. One more value than the limit is read per page, so the end
+     * of the store is seen on the last page, and the cursor of the store is then reset.
+     */
+    private int migrate(LsmStore store, Class<?> type, int limit) {
+        RecordVersions versions = RecordVersions.getDefault();
+        int migrated = 0;
+        String cursor = migrationCursors.remove(store);
+        while (migrated < limit) {
+            Map<String, String> page = store.scan(cursor, null, limit + 1);
+            for (Map.Entry<String, String> entry : page.entrySet()) {
+                if (migrated == limit) {
+                    migrationCursors.put(store, entry.getKey());
+                    return migrated;
+                }
+                cursor = entry.getKey() + '\u0000';
+                if (!versions.isOutdated(type, entry.getValue())) {
+                    continue;
+                }
+                try {
+                    String upgraded = versions.migrate(type, JsonParser.parseString(
+                            entry.getValue()).getAsJsonObject()).toString();
+                    if (store.replace(entry.getKey(), entry.getValue(), upgraded)) {
+                        migrated++;
+                    }
+                } catch (JsonParseException | IllegalStateException e) {
+                    System.out.println("Error upgrading record in store");
+                    System.out.println(e.getMessage());
+                }
+            }
+            if (page.size() <= limit) {
+                return migrated;
+            }
+        }
+        migrationCursors.put(store, cursor);
+        return migrated;
+    }
+
+    /**
+     * This method closes the stores.
+     */
+    @Override
+    public void close() {
+        recipes.close();
+        profiles.close();
+    }
+
+    /**
+     * This method gets the directory of the store for the given file.
+     *
+     * @param filePath - Path object of the recipe or profile file
+     * @return - Path object of the store directory
+     */
+    public static Path getStorePath(Path filePath) {
+        return Path.of(filePath + ".lsm");
+    }
+
+    /**
+     * Helper method which makes the key of a recipe. The separator sorts before every
+     * other character, so the recipes of an author are next to each other.
+     */
+    private static String getKey(String author, String name) {
+        return author + SEPARATOR + name;
+    }
+
+    private static <T> Stream<T> decode(Collection<String> values, Class<T> type) {
+        return values.stream().map(value -> decode(value, type)).filter(Objects::nonNull);
+    }
+
+    private static <T> T decode(String value, Class<T> type) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return gson.fromJson(value, type);
+        } catch (JsonParseException e) {
+            System.out.println("Error reading from store");
+            System.out.println(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * This class registers the log-structured merge stores as the storage engine named
+     * {@value #NAME}.
+     *
+     * @see RecipeHubAccessProvider
+     */
+    public static final class Provider implements RecipeHubAccessProvider {
+        public static final String NAME = "lsm";
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public RecipeHubAccess create() {
+            return new LsmRecipeHubAccess();
+        }
+    }
+}
@@ -0,0 +1,895 @@
+package file;
+
+import com.google.gson.JsonObject;
+import file.AppendLog.LogRecord;
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class is a small log-structured merge store, which maps string keys to string
+ * values in a directory.
+ *
+ * <p>Writes are appended to a write-ahead log and put in a sorted memtable in memory.
+ * When the memtable has grown past a size, it is flushed to a new segment file, which is
+ * sorted by key and never changed. The keys of each segment are kept in memory, so that
+ * a lookup reads at most one value from each segment, starting with the newest. When
+ * there are enough segments, they are merged into one on a background thread.
+ * A flushed memtable is frozen, and read until its segment is written, so writes go on
+ * to a new memtable and a new write-ahead log while the segment is written.
+ * </p>
+ *
+ * <p>Only one store can have the directory open at a time, in this program or in another.
+ * The store holds a lock on the {@value #LOCK_FILE_NAME} file in the directory until it
+ * is closed.
+ * </p>
+ *
+ * <p>Removed keys are kept as tombstones, which hide older values until the segments are
+ * merged. Values can therefore not be empty strings. A merged segment replaces every
+ * segment older than it, so segments which were left behind by a crash during a merge
+ * are deleted when the store is opened.
+ * </p>
+ */
+public class LsmStore implements Closeable {
+    public static final long DEFAULT_MEMTABLE_SIZE = 1024 * 1024;
+    public static final int DEFAULT_MERGE_THRESHOLD = 4;
+    public static final String LOCK_FILE_NAME = "LOCK";
+
+    private static final String TOMBSTONE = "";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    private static final String MERGED_SUFFIX = ".merged" + SEGMENT_SUFFIX;
+    private static final byte[] MAGIC = {'R', 'H', 'S', 1};
+
+    private final Path directory;
+    private final long memtableSize;
+    private final int mergeThreshold;
+    private final AppendLog log;
+    private final FileChannel lockChannel;
+    private final Object writeLock = new Object();
+    private final ReadWriteLock segmentLock = new ReentrantReadWriteLock();
+    private final Lock flushLock = new ReentrantLock();
+    private final Lock mergeLock = new ReentrantLock();
+    private final AtomicLong nextSequence = new AtomicLong();
+    private volatile NavigableMap<String, String> memtable = new ConcurrentSkipListMap<>();
+    private volatile NavigableMap<String, String> frozen = new TreeMap<>();
+    private volatile List<Segment> segments = List.of();
+    private final AtomicLong memtableBytes = new AtomicLong();
+
+    /**
+     * This constructor opens the store in the given directory with the default memtable
+     * size and merge threshold.
+     *
+     * @param directory - Path object to the directory of the store
+     */
+    public LsmStore(Path directory) {
+        this(directory, DEFAULT_MEMTABLE_SIZE, DEFAULT_MERGE_THRESHOLD);
+    }
+
+    /**
+     * This constructor opens the store in the given directory, which is created if it does
+     * not exist. The directory is locked, the segments in it are opened, and the
+     * write-ahead log is replayed. A replayed memtable which is full is flushed.
+     *
+     * @param directory      - Path object to the directory of the store
+     * @param memtableSize   - Number of characters in the memtable before it is flushed
+     * @param mergeThreshold - Number of segments before they are merged
+     * @throws IllegalArgumentException if the sizes are not positive
+     * @throws IllegalStateException    if the store is open already, or can not be locked
+     */
+    public LsmStore(Path directory, long memtableSize, int mergeThreshold) {
+        if (memtableSize <= 0 || mergeThreshold < 2) {
+            throw new IllegalArgumentException("The memtable size must be positive, and at "
+                    + "least two segments must be merged");
+        }
+        this.directory = directory.toAbsolutePath();
+        this.memtableSize = memtableSize;
+        this.mergeThreshold = mergeThreshold;
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            System.out.println("Error creating store directory");
+            System.out.println(e.getMessage());
+        }
+        lockChannel = lockDirectory(this.directory);
+        segments = openSegments();
+        log = new AppendLog(this.directory.resolve("wal.log"));
+        for (LogRecord record : log.readRecords()) {
+            JsonObject entry = record.getValue(JsonObject.class);
+            String key = entry.get("key").getAsString();
+            if (AppendLog.PUT.equals(record.getOperation())) {
+                putInMemtable(key, entry.get("value").getAsString());
+            } else {
+                putInMemtable(key, TOMBSTONE);
+            }
+        }
+        flushIfFull();
+    }
+
+    /**
+     * This method puts a value for the key, replacing any value it had before.
+     *
+     * @param key   - Key of the value
+     * @param value - Value to put, which can not be empty
+     * @return - Returns true if the value was written, false otherwise
+     */
+    public boolean put(String key, String value) {
+        if (key == null || value == null || value.isEmpty()) {
+            return false;
+        }
+        boolean written = write(AppendLog.PUT, key, value);
+        flushIfFull();
+        return written;
+    }
+
+    /**
+     * This method puts a value for the key only if the key still has the expected value,
+     * so a value which was changed in the meantime is not overwritten.
+     *
+     * @param key      - Key of the value
+     * @param expected - Value the key must have
+     * @param value    - Value to put, which can not be empty
+     * @return - Returns true if the value was written, false otherwise
+     */
+    public boolean replace(String key, String expected, String value) {
+        if (key == null || expected == null || value == null || value.isEmpty()) {
+            return false;
+        }
+        boolean written;
+        synchronized (writeLock) {
+            written = expected.equals(get(key)) && write(AppendLog.PUT, key, value);
+        }
+        flushIfFull();
+        return written;
+    }
+
+    /**
+     * This method removes the value for the key.
+     *
+     * @param key - Key of the value to remove
+     * @return - Returns true if the removal was written, false otherwise
+     */
+    public boolean remove(String key) {
+        if (key == null) {
+            return false;
+        }
+        boolean written = write(AppendLog.REMOVE, key, TOMBSTONE);
+        flushIfFull();
+        return written;
+    }
+
+    /**
+     * This method gets the value for the key. The memtable is checked first, then the
+     * frozen memtable, and then the segments from the newest to the oldest.
+     *
+     * @param key - Key of the value
+     * @return - Returns the value, or null if the key has no value
+     */
+    public String get(String key) {
+        if (key == null) {
+            return null;
+        }
+        segmentLock.readLock().lock();
+        try {
+            String value = lookup(key);
+            return value == null || value.isEmpty() ? null : value;
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * This method checks if the key has a value.
+     *
+     * @param key - Key to check
+     * @return - Returns true if the key has a value, false otherwise
+     */
+    public boolean contains(String key) {
+        return get(key) != null;
+    }
+
+    /**
+     * This method gets the keys and values in a range of keys, sorted by key.
+     *
+     * @param fromKey - The lowest key to include, or null to start at the first key
+     * @param toKey   - The key to stop before, or null to include the last key
+     * @return - Returns a sorted map of the keys and values in the range
+     */
+    public NavigableMap<String, String> scan(String fromKey, String toKey) {
+        NavigableMap<String, String> result = new TreeMap<>();
+        segmentLock.readLock().lock();
+        try {
+            for (int i = segments.size() - 1; i >= 0; i--) {
+                segments.get(i).scan(fromKey, toKey, result);
+            }
+            result.putAll(range(frozen, fromKey, toKey));
+            result.putAll(range(memtable, fromKey, toKey));
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+        result.values().removeIf(String::isEmpty);
+        return result;
+    }
+
+    /**
+     * This method gets the first keys and values in a range of keys, sorted by key. Only
+     * the keys which can be among the first are looked at, and only their values are read,
+     * so a long range can be gone through a page at a time.
+     *
+     * @param fromKey - The lowest key to include, or null to start at the first key
+     * @param toKey   - The key to stop before, or null to include the last key
+     * @param limit   - Number of keys with a value to get at most
+     * @return - Returns a sorted map of at most limit keys and values in the range
+     */
+    public NavigableMap<String, String> scan(String fromKey, String toKey, int limit) {
+        NavigableMap<String, String> result = new TreeMap<>();
+        segmentLock.readLock().lock();
+        try {
+            String from = fromKey;
+            while (result.size() < limit) {
+                int wanted = limit - result.size();
+                TreeSet<String> keys = new TreeSet<>();
+                for (NavigableMap<String, String> table : List.of(memtable, frozen)) {
+                    for (String key : range(table, from, toKey).keySet()) {
+                        if (keys.size() == wanted) {
+                            break;
+                        }
+                        keys.add(key);
+                    }
+                }
+                for (Segment segment : segments) {
+                    segment.keys(from, toKey, wanted, keys);
+                }
+                if (keys.isEmpty()) {
+                    break;
+                }
+                for (int i = 0; i < wanted && !keys.isEmpty(); i++) {
+                    String key = keys.pollFirst();
+                    String value = lookup(key);
+                    if (value != null && !value.isEmpty()) {
+                        result.put(key, value);
+                    }
+                    from = key + '\u0000';
+                }
+            }
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+        return result;
+    }
+
+    /**
+     * This method gets the keys and values where the key starts with the given prefix.
+     *
+     * @param prefix - Prefix of the keys
+     * @return - Returns a sorted map of the keys and values with the prefix
+     */
+    public NavigableMap<String, String> scanPrefix(String prefix) {
+        if (prefix.isEmpty()) {
+            return scan(null, null);
+        }
+        char last = prefix.charAt(prefix.length() - 1);
+        String end = last == Character.MAX_VALUE ? null
+                : prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+        return scan(prefix, end);
+    }
+
+    /**
+     * This method writes the memtable to a new segment. Under the write lock, the memtable
+     * is only frozen and the write-ahead log sealed, so writes go on while the segment is
+     * written. The sealed log is deleted once the segment is in place. If the segment can
+     * not be written, the frozen values are put back in the memtable, and the sealed log
+     * is kept, so it is flushed with the memtable the next time.
+     * Merging is scheduled in the background if there are enough segments.
+     *
+     * @return - Returns true if the memtable was flushed, false if it was empty or failed
+     */
+    public boolean flush() {
+        flushLock.lock();
+        try {
+            NavigableMap<String, String> flushed;
+            long sequence;
+            synchronized (writeLock) {
+                if (memtable.isEmpty() || !log.seal()) {
+                    return false;
+                }
+                sequence = nextSequence.getAndIncrement();
+                segmentLock.writeLock().lock();
+                try {
+                    flushed = memtable;
+                    frozen = flushed;
+                    memtable = new ConcurrentSkipListMap<>();
+                    memtableBytes.set(0);
+                } finally {
+                    segmentLock.writeLock().unlock();
+                }
+            }
+            Path path = getSegmentPath(sequence);
+            Segment segment = FileUtil.commitFile(path,
+                    output -> writeSegment(output, flushed.entrySet().iterator()))
+                    ? Segment.open(path, sequence) : null;
+            if (segment == null) {
+                synchronized (writeLock) {
+                    segmentLock.writeLock().lock();
+                    try {
+                        flushed.forEach((key, value) -> {
+                            if (memtable.putIfAbsent(key, value) == null) {
+                                memtableBytes.addAndGet(key.length() + value.length());
+                            }
+                        });
+                        frozen = new TreeMap<>();
+                    } finally {
+                        segmentLock.writeLock().unlock();
+                    }
+                }
+                return false;
+            }
+            segmentLock.writeLock().lock();
+            try {
+                List<Segment> updated = new ArrayList<>(segments);
+                updated.add(0, segment);
+                segments = List.copyOf(updated);
+                frozen = new TreeMap<>();
+            } finally {
+                segmentLock.writeLock().unlock();
+            }
+            log.deleteSealed();
+            if (segments.size() >= mergeThreshold) {
+                LogCompactor.schedule(directory, this::merge);
+            }
+            return true;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * This method merges all segments into one, keeping only the newest value of each key.
+     * Since every segment is merged, tombstones are dropped. Reads and writes can continue
+     * while the merged segment is written.
+     * The segments and the sequence number of the merged segment are taken together while
+     * no flush is running, so a segment flushed during the merge is always newer than it.
+     *
+     * @return - Returns true if the segments were merged, false if there were less than
+     *         two, another merge was running, or it failed
+     */
+    public boolean merge() {
+        if (!mergeLock.tryLock()) {
+            return false;
+        }
+        try {
+            List<Segment> merged;
+            long sequence;
+            flushLock.lock();
+            try {
+                merged = segments;
+                if (merged.size() < 2) {
+                    return false;
+                }
+                sequence = nextSequence.getAndIncrement();
+            } finally {
+                flushLock.unlock();
+            }
+            Path path = directory.resolve(String.format("%016d%s", sequence, MERGED_SUFFIX));
+            if (!FileUtil.commitFile(path,
+                    output -> writeSegment(output, new MergeIterator(merged)))) {
+                return false;
+            }
+            Segment segment = Segment.open(path, sequence);
+            if (segment == null) {
+                return false;
+            }
+            segmentLock.writeLock().lock();
+            try {
+                List<Segment> updated = new ArrayList<>(segments);
+                updated.removeAll(merged);
+                updated.add(segment);
+                updated.sort(Comparator.comparingLong((Segment s) -> s.sequence).reversed());
+                segments = List.copyOf(updated);
+                for (Segment old : merged) {
+                    old.delete();
+                }
+            } finally {
+                segmentLock.writeLock().unlock();
+            }
+            return true;
+        } finally {
+            mergeLock.unlock();
+        }
+    }
+
+    /**
+     * This method gets the number of segments in the store.
+     *
+     * @return - The number of segments
+     */
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * This method gets the directory of the store.
+     *
+     * @return - Path object of the directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * This method closes the segment files and unlocks the directory. Writes which are not
+     * flushed are kept in the write-ahead log, and are read again when the store is opened.
+     */
+    @Override
+    public void close() {
+        flushLock.lock();
+        try {
+            synchronized (writeLock) {
+                segmentLock.writeLock().lock();
+                try {
+                    for (Segment segment : segments) {
+                        segment.close();
+                    }
+                    segments = List.of();
+                    lockChannel.close();
+                } catch (IOException e) {
+                    System.out.println("Error unlocking store");
+                    System.out.println(e.getMessage());
+                } finally {
+                    segmentLock.writeLock().unlock();
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Helper method which locks the directory of a store, by locking its lock file, which
+     * is created if it does not exist. The lock is held until the returned channel is
+     * closed.
+     *
+     * @throws IllegalStateException if the directory is locked already, or can not be
+     *                               locked
+     */
+    private static FileChannel lockDirectory(Path directory) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(directory.resolve(LOCK_FILE_NAME),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (channel.tryLock() != null) {
+                return channel;
+            }
+        } catch (IOException | OverlappingFileLockException e) {
+            System.out.println("Error locking store");
+            System.out.println(e.getMessage());
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+        throw new IllegalStateException("The store in " + directory
+                + " is open already, or can not be locked");
+    }
+
+    /**
+     * Helper method which flushes the memtable if it is full, unless a flush is running
+     * already. It is called after a write, without holding the write lock.
+     */
+    private void flushIfFull() {
+        if (memtableBytes.get() >= memtableSize && flushLock.tryLock()) {
+            try {
+                if (memtableBytes.get() >= memtableSize) {
+                    flush();
+                }
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Helper method which finds the newest value of a key, in the memtable, the frozen
+     * memtable or the segments. It is called with the segment lock held.
+     */
+    private String lookup(String key) {
+        String value = memtable.get(key);
+        if (value == null) {
+            value = frozen.get(key);
+        }
+        for (Iterator<Segment> it = segments.iterator(); value == null && it.hasNext();) {
+            value = it.next().get(key);
+        }
+        return value;
+    }
+
+    /**
+     * Helper method which appends a change to the write-ahead log before it is put in the
+     * memtable.
+     */
+    private boolean write(String operation, String key, String value) {
+        JsonObject entry = new JsonObject();
+        entry.addProperty("key", key);
+        if (!value.isEmpty()) {
+            entry.addProperty("value", value);
+        }
+        synchronized (writeLock) {
+            if (!log.append(operation, entry)) {
+                return false;
+            }
+            putInMemtable(key, value);
+            return true;
+        }
+    }
+
+    private void putInMemtable(String key, String value) {
+        memtable.put(key, value);
+        memtableBytes.addAndGet(key.length() + value.length());
+    }
+
+    /**
+     * Helper method which opens the segments in the directory, sorted from the newest to
+     * the oldest, and sets the next sequence number. Segments older than the newest merged
+     * segment were merged into it, so they are deleted.
+     */
+    private List<Segment> openSegments() {
+        List<Segment> opened = new ArrayList<>();
+        long merged = -1;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : files.collect(Collectors.toList())) {
+                String name = path.getFileName().toString();
+                if (!name.endsWith(SEGMENT_SUFFIX)) {
+                    continue;
+                }
+                String suffix = name.endsWith(MERGED_SUFFIX) ? MERGED_SUFFIX : SEGMENT_SUFFIX;
+                long sequence;
+                try {
+                    sequence = Long.parseLong(name.substring(0,
+                            name.length() - suffix.length()));
+                } catch (NumberFormatException e) {
+                    continue;
+                }
+                Segment segment = Segment.open(path, sequence);
+                if (segment != null) {
+                    opened.add(segment);
+                    if (suffix.equals(MERGED_SUFFIX)) {
+                        merged = Math.max(merged, sequence);
+                    }
+                }
+                nextSequence.set(Math.max(nextSequence.get(), sequence + 1));
+            }
+        } catch (IOException e) {
+            System.out.println("Error opening store");
+            System.out.println(e.getMessage());
+        }
+        List<Segment> current = new ArrayList<>();
+        for (Segment segment : opened) {
+            if (segment.sequence < merged) {
+                segment.delete();
+            } else {
+                current.add(segment);
+            }
+        }
+        current.sort(Comparator.comparingLong((Segment s) -> s.sequence).reversed());
+        return List.copyOf(current);
+    }
+
+    private Path getSegmentPath(long sequence) {
+        return directory.resolve(String.format("%016d%s", sequence, SEGMENT_SUFFIX));
+    }
+
+    private static Map<String, String> range(NavigableMap<String, String> map,
+            String fromKey, String toKey) {
+        if (fromKey != null && toKey != null) {
+            return map.subMap(fromKey, toKey);
+        } else if (fromKey != null) {
+            return map.tailMap(fromKey, true);
+        } else if (toKey != null) {
+            return map.headMap(toKey, false);
+        }
+        return map;
+    }
+
+    /**
+     * Helper method which writes sorted entries as a segment. The segment starts with a
+     * header, followed by the length and bytes of each key and value. Tombstones have a
+     * value length of -1.
+     */
+    private static void writeSegment(OutputStream output,
+            Iterator<Map.Entry<String, String>> entries) throws IOException {
+        DataOutputStream data = new DataOutputStream(output);
+        data.write(MAGIC);
+        while (entries.hasNext()) {
+            Map.Entry<String, String> entry = entries.next();
+            byte[] key = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            data.writeInt(key.length);
+            data.write(key);
+            if (entry.getValue().isEmpty()) {
+                data.writeInt(-1);
+            } else {
+                byte[] value = entry.getValue().getBytes(StandardCharsets.UTF_8);
+                data.writeInt(value.length);
+                data.write(value);
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * A sorted segment file. The keys, and where their values are, are kept in memory,
+     * while the values are read from the file when they are needed.
+     */
+    private static final class Segment {
+        private final Path path;
+        private final long sequence;
+        private final FileChannel channel;
+        private final String[] keys;
+        private final long[] offsets;
+        private final int[] lengths;
+
+        private Segment(Path path, long sequence, FileChannel channel, String[] keys,
+                long[] offsets, int[] lengths) {
+            this.path = path;
+            this.sequence = sequence;
+            this.channel = channel;
+            this.keys = keys;
+            this.offsets = offsets;
+            this.lengths = lengths;
+        }
+
+        /**
+         * This method opens a segment and reads its keys.
+         *
+         * @param path     - Path object to the segment file
+         * @param sequence - Sequence number of the segment
+         * @return - Returns the segment, or null if it could not be read
+         */
+        private static Segment open(Path path, long sequence) {
+            List<String> keys = new ArrayList<>();
+            List<long[]> locations = new ArrayList<>();
+            try (InputStream input = new BufferedInputStream(Files.newInputStream(path))) {
+                DataInputStream data = new DataInputStream(input);
+                byte[] magic = new byte[MAGIC.length];
+                data.readFully(magic);
+                if (!Arrays.equals(magic, MAGIC)) {
+                    System.out.println("Skipping unknown segment " + path.getFileName());
+                    return null;
+                }
+                long position = MAGIC.length;
+                while (true) {
+                    int keyLength;
+                    try {
+                        keyLength = data.readInt();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    byte[] key = new byte[keyLength];
+                    data.readFully(key);
+                    int valueLength = data.readInt();
+                    position += 8 + keyLength;
+                    keys.add(new String(key, StandardCharsets.UTF_8));
+                    locations.add(new long[] {position, valueLength});
+                    if (valueLength > 0) {
+                        data.readFully(new byte[valueLength]);
+                        position += valueLength;
+                    }
+                }
+            } catch (IOException | NegativeArraySizeException e) {
+                System.out.println("Error reading segment " + path.getFileName());
+                System.out.println(e.getMessage());
+                return null;
+            }
+            long[] offsets = new long[keys.size()];
+            int[] lengths = new int[keys.size()];
+            for (int i = 0; i < keys.size(); i++) {
+                offsets[i] = locations.get(i)[0];
+                lengths[i] = (int) locations.get(i)[1];
+            }
+            try {
+                FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+                return new Segment(path, sequence, channel, keys.toArray(new String[0]),
+                        offsets, lengths);
+            } catch (IOException e) {
+                System.out.println("Error opening segment " + path.getFileName());
+                System.out.println(e.getMessage());
+                return null;
+            }
+        }
+
+        /**
+         * This method gets the value of a key in the segment.
+         *
+         * @param key - Key of the value
+         * @return - Returns the value, an empty string for a tombstone, or null if the key
+         *         is not in the segment
+         */
+        private String get(String key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index < 0) {
+                return null;
+            }
+            try {
+                return readValue(index);
+            } catch (IOException e) {
+                System.out.println("Error reading from segment " + path.getFileName());
+                System.out.println(e.getMessage());
+                return null;
+            }
+        }
+
+        /**
+         * This method puts the keys and values in a range into the given map, replacing
+         * older values. Tombstones are put as empty strings.
+         */
+        private void scan(String fromKey, String toKey, Map<String, String> result) {
+            int index = fromKey == null ? 0 : insertionPoint(fromKey);
+            for (; index < keys.length; index++) {
+                if (toKey != null && keys[index].compareTo(toKey) >= 0) {
+                    break;
+                }
+                try {
+                    result.put(keys[index], readValue(index));
+                } catch (IOException e) {
+                    System.out.println("Error reading from segment " + path.getFileName());
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+
+        /**
+         * This method adds the first keys in a range, tombstones included, to the given set.
+         */
+        private void keys(String fromKey, String toKey, int count, Set<String> result) {
+            int index = fromKey == null ? 0 : insertionPoint(fromKey);
+            for (int end = Math.min(keys.length, index + count); index < end; index++) {
+                if (toKey != null && keys[index].compareTo(toKey) >= 0) {
+                    break;
+                }
+                result.add(keys[index]);
+            }
+        }
+
+        private int insertionPoint(String key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? -index - 1 : index;
+        }
+
+        private String readValue(int index) throws IOException {
+            if (lengths[index] < 0) {
+                return TOMBSTONE;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(lengths[index]);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offsets[index] + buffer.position()) < 0) {
+                    throw new EOFException("Segment ended before the value");
+                }
+            }
+            return new String(buffer.array(), StandardCharsets.UTF_8);
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+
+        private void delete() {
+            close();
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                System.out.println("Error deleting segment " + path.getFileName());
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * This class goes through the keys of several segments in order, and gives the value
+     * of each key from the newest segment which has it. Tombstones are skipped.
+     * A value which can not be read stops the merge, instead of being left out.
+     */
+    private static final class MergeIterator implements Iterator<Map.Entry<String, String>> {
+        private final List<Segment> segments;
+        private final int[] positions;
+        private final PriorityQueue<Integer> queue;
+        private Map.Entry<String, String> next;
+
+        /**
+         * This constructor starts at the first key of every segment.
+         *
+         * @param segments - The segments to merge, sorted from the newest to the oldest
+         */
+        private MergeIterator(List<Segment> segments) {
+            this.segments = segments;
+            this.positions = new int[segments.size()];
+            this.queue = new PriorityQueue<>(Comparator
+                    .comparing((Integer i) -> segments.get(i).keys[positions[i]])
+                    .thenComparing(i -> i));
+            for (int i = 0; i < segments.size(); i++) {
+                if (segments.get(i).keys.length > 0) {
+                    queue.add(i);
+                }
+            }
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && !queue.isEmpty()) {
+                int newest = queue.peek();
+                String key = segments.get(newest).keys[positions[newest]];
+                String value;
+                try {
+                    value = segments.get(newest).readValue(positions[newest]);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                while (!queue.isEmpty()
+                        && segments.get(queue.peek()).keys[positions[queue.peek()]].equals(key)) {
+                    int index = queue.poll();
+                    positions[index]++;
+                    if (positions[index] < segments.get(index).keys.length) {
+                        queue.add(index);
+                    }
+                }
+                if (!value.isEmpty()) {
+                    next = new SimpleEntry<>(key, value);
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Map.Entry<String, String> entry = next;
+            advance();
+            return entry;
+        }
+    }
+}
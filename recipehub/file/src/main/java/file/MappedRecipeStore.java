@@ -0,0 +1,407 @@
+package file;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import core.Recipe;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class reads single recipes from a recipe file mapped into memory.
+ * When it is opened, the file is scanned once for where each recipe starts and ends, and
+ * only the author, name and place of each recipe are kept on the heap. A recipe is then
+ * decoded straight from the mapped file when it is asked for, so the bulk of a large
+ * recipe file is held by the page cache of the operating system, not by the Java heap.
+ *
+ * <p>Both JSON and binary recipe files can be mapped.
+ * Since the recipe file is replaced, not changed, when it is written, the mapping always
+ * sees the file as it was when it was opened. The store remembers the size, modification
+ * time and file key of the file, so it can tell when it should be opened again. The file
+ * key changes when the file is replaced, even if the size and time do not.
+ * Files larger than 2 GB and compressed files are not mapped, and give an empty store
+ * which is not mapped.
+ * </p>
+ *
+ * <p>A mapping is only released when the buffer is collected, and while it lives the file
+ * can not be replaced on some platforms. Files up to {@value #MAX_READ_SIZE} bytes are
+ * therefore read into the heap through a file channel instead of being mapped, and a
+ * store which is no longer needed should be closed, so its buffer can be collected.
+ * </p>
+ *
+ * @see BinaryCodec
+ */
+public class MappedRecipeStore implements Closeable {
+    /**
+     * The largest recipe file which is read into the heap instead of being mapped.
+     */
+    public static final long MAX_READ_SIZE = 8 * 1024 * 1024;
+
+    private static final Gson gson = ModelTypeAdapterFactory.newGsonBuilder().create();
+    private static final char SEPARATOR = '\u0000';
+
+    private final Path dataPath;
+    private final long dataSize;
+    private final long dataModified;
+    private final Object dataKey;
+    private volatile ByteBuffer buffer;
+    private final boolean binary;
+    private volatile Map<String, int[]> locations;
+
+    /**
+     * This constructor makes a store of the recipes found in the mapped file.
+     *
+     * @param dataPath     - Path object to the recipe file
+     * @param dataSize     - Size of the recipe file when it was mapped
+     * @param dataModified - Modification time of the recipe file when it was mapped
+     * @param dataKey      - File key of the recipe file when it was mapped, or null
+     * @param buffer       - The mapped recipe file
+     */
+    private MappedRecipeStore(Path dataPath, long dataSize, long dataModified,
+            Object dataKey, ByteBuffer buffer) {
+        this.dataPath = dataPath;
+        this.dataSize = dataSize;
+        this.dataModified = dataModified;
+        this.dataKey = dataKey;
+        this.buffer = buffer;
+        this.binary = buffer.limit() >= BinaryCodec.HEADER_LENGTH
+                && BinaryCodec.isBinary(readBytes(buffer, BinaryCodec.HEADER_LENGTH));
+        this.locations = new HashMap<>();
+        if (binary) {
+            scanBinary();
+        } else {
+            scanJson();
+        }
+    }
+
+    /**
+     * This method maps the given recipe file into memory and finds the recipes in it.
+     * If the file does not exist or can not be mapped, the store is empty.
+     *
+     * @param dataPath - Path object to the recipe file
+     * @return - Returns the store for the recipe file
+     * @see #MAX_READ_SIZE
+     */
+    public static MappedRecipeStore open(Path dataPath) {
+        return open(dataPath, MAX_READ_SIZE);
+    }
+
+    /**
+     * This method maps the given recipe file into memory, or reads it if it is not larger
+     * than the given size, and finds the recipes in it.
+     *
+     * @param dataPath    - Path object to the recipe file
+     * @param maxReadSize - Largest file which is read instead of mapped
+     * @return - Returns the store for the recipe file
+     */
+    static MappedRecipeStore open(Path dataPath, long maxReadSize) {
+        long size = size(dataPath);
+        long modified = lastModified(dataPath);
+        Object key = fileKey(dataPath);
+        ByteBuffer buffer = ByteBuffer.allocate(0);
+        if (size > Integer.MAX_VALUE) {
+            System.out.println("Recipe file is too large to be mapped");
+        } else if (size > 0 && !FileUtil.isCompressed(dataPath)) {
+            try (FileChannel channel = FileChannel.open(dataPath, StandardOpenOption.READ)) {
+                buffer = channel.size() <= maxReadSize ? read(channel)
+                        : channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            } catch (IOException e) {
+                System.out.println("Error mapping recipe file");
+                System.out.println(e.getMessage());
+            }
+        }
+        return new MappedRecipeStore(dataPath, size, modified, key, buffer);
+    }
+
+    /**
+     * This helper method reads the whole file into a buffer on the heap.
+     *
+     * @param channel - Channel to the file
+     * @return - The buffer with the file
+     * @throws IOException if the file could not be read
+     */
+    private static ByteBuffer read(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, buffer.position()) < 0) {
+                throw new EOFException("Recipe file ended before it was read");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * This method checks if the store still matches the recipe file.
+     *
+     * @return - Returns true if the recipe file has not changed since it was mapped
+     */
+    public boolean isCurrent() {
+        return dataSize == size(dataPath) && dataModified == lastModified(dataPath)
+                && Objects.equals(dataKey, fileKey(dataPath));
+    }
+
+    /**
+     * This method checks if the whole recipe file was mapped. It is false if the file is
+     * too large, compressed or could not be mapped, in which case the store is empty.
+     *
+     * @return - Returns true if the store holds the whole recipe file
+     */
+    public boolean isMapped() {
+        return buffer.limit() == dataSize;
+    }
+
+    /**
+     * This method checks if the store holds a memory mapping of the recipe file, which
+     * is the case for files larger than the largest file which is read.
+     *
+     * @return - Returns true if the file is mapped, false if it was read or is closed
+     */
+    boolean holdsMapping() {
+        return buffer instanceof MappedByteBuffer;
+    }
+
+    /**
+     * This method closes the store, which drops the buffer of the file so it can be
+     * collected. The store is empty afterwards.
+     */
+    @Override
+    public void close() {
+        buffer = ByteBuffer.allocate(0);
+        locations = Map.of();
+    }
+
+    /**
+     * This method decodes the recipe with the given author and name from the mapped file.
+     * Only the recipe itself is read.
+     *
+     * @param author - Username of the author of the recipe
+     * @param name   - Name of the recipe
+     * @return - Returns the recipe, or null if it is not in the file or can not be read
+     */
+    public Recipe getRecipe(String author, String name) {
+        ByteBuffer current = buffer;
+        int[] location = locations.get(getKey(author, name));
+        if (location == null || location[0] + location[1] > current.limit()) {
+            return null;
+        }
+        ByteBuffer record = current.slice(location[0], location[1]);
+        Recipe recipe = binary ? BinaryCodec.decodeRecipe(record) : decodeJson(record);
+        if (recipe == null || !author.equals(recipe.getAuthor())
+                || !name.equals(recipe.getName())) {
+            return null;
+        }
+        return recipe;
+    }
+
+    /**
+     * This method checks if a recipe with the given author and name is in the file.
+     *
+     * @param author - Username of the author of the recipe
+     * @param name   - Name of the recipe
+     * @return - Returns true if the recipe is in the file, false otherwise
+     */
+    public boolean contains(String author, String name) {
+        return locations.containsKey(getKey(author, name));
+    }
+
+    /**
+     * This method gets the number of recipes in the store.
+     *
+     * @return - The number of recipes
+     */
+    public int getSize() {
+        return locations.size();
+    }
+
+    /**
+     * This method gets the path of the recipe file the store is for.
+     *
+     * @return - Path object of the recipe file
+     */
+    public Path getDataPath() {
+        return dataPath;
+    }
+
+    /**
+     * This helper method finds the recipes in a binary recipe file, by following the
+     * length in front of each record.
+     */
+    private void scanBinary() {
+        int position = BinaryCodec.HEADER_LENGTH;
+        while (position + Integer.BYTES <= buffer.limit()) {
+            int length = buffer.getInt(position);
+            int start = position + Integer.BYTES;
+            if (length < 0 || length > buffer.limit() - start) {
+                break;
+            }
+            List<String> key = BinaryCodec.readRecipeKey(buffer.slice(start, length));
+            if (key != null) {
+                locations.put(getKey(key.get(0), key.get(1)), new int[] {start, length});
+            }
+            position = start + length;
+        }
+    }
+
+    /**
+     * This helper method finds the recipes in a JSON recipe file, by finding where each
+     * element of the array of recipes starts and ends.
+     */
+    private void scanJson() {
+        int depth = 0;
+        int start = -1;
+        boolean inString = false;
+        boolean escaped = false;
+        for (int i = 0; i < buffer.limit(); i++) {
+            byte b = buffer.get(i);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '{' || b == '[') {
+                if (depth == 2 && b == '{') {
+                    start = i;
+                }
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+                if (depth == 2 && start >= 0) {
+                    putJsonLocation(start, i + 1 - start);
+                    start = -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * This helper method reads the author and name of the recipe at the given place in a
+     * JSON file, skipping everything else, and puts its place in the locations.
+     *
+     * @param start  - Position of the recipe in the file
+     * @param length - Length of the recipe in bytes
+     */
+    private void putJsonLocation(int start, int length) {
+        String author = null;
+        String name = null;
+        try (JsonReader reader = new JsonReader(toReader(buffer.slice(start, length)))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                String member = reader.nextName();
+                if (member.equals("name")) {
+                    name = reader.nextString();
+                } else if (member.equals("authorUsername")) {
+                    author = reader.nextString();
+                } else {
+                    reader.skipValue();
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            return;
+        }
+        if (author != null && name != null) {
+            locations.put(getKey(author, name), new int[] {start, length});
+        }
+    }
+
+    /**
+     * This helper method decodes a recipe from a part of a JSON file.
+     *
+     * @param record - The recipe as JSON
+     * @return - The recipe, or null if it could not be decoded
+     */
+    private static Recipe decodeJson(ByteBuffer record) {
+        try (Reader reader = toReader(record)) {
+            return gson.fromJson(reader, Recipe.class);
+        } catch (IOException | JsonParseException e) {
+            System.out.println("Error decoding recipe");
+            System.out.println(e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * This helper method makes a UTF-8 reader of the bytes in a buffer.
+     *
+     * @param bytes - Buffer to read, from its position to its limit
+     * @return - A reader of the buffer
+     */
+    private static Reader toReader(ByteBuffer bytes) {
+        return new InputStreamReader(new InputStream() {
+            @Override
+            public int read() {
+                return bytes.hasRemaining() ? bytes.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] target, int offset, int length) {
+                if (length == 0) {
+                    return 0;
+                }
+                if (!bytes.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(length, bytes.remaining());
+                bytes.get(target, offset, count);
+                return count;
+            }
+        }, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] readBytes(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(0, bytes);
+        return bytes;
+    }
+
+    private static String getKey(String author, String name) {
+        return author + SEPARATOR + name;
+    }
+
+    private static long size(Path path) {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.exists(path)
+                    ? Files.getLastModifiedTime(path).to(TimeUnit.NANOSECONDS) : 0;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static Object fileKey(Path path) {
+        try {
+            return Files.exists(path)
+                    ? Files.readAttributes(path, BasicFileAttributes.class).fileKey() : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,628 @@
+package file;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import core.Review;
+import core.StringInterner;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class gives Gson hand-written adapters for Recipe, Review, RecipeLibrary and
+ * Profile. They read and write the same JSON as Gson does by reflection, but straight
+ * from and to the stream, without looking up fields or building a tree first.
+ *
+ * <p>Strings are read through a StringInterner, if one is given, and map keys are
+ * interned as well. Members which are missing when reading get empty collections,
+ * and unknown members are skipped. Null members are only written if the writer is set
+ * to serialize nulls.
+ * </p>
+ *
+ * <p>With lazy bodies, only the header of each recipe is decoded when it is read. The
+ * steps, ingredients, units and reviews are kept as compact JSON bytes, and decoded the
+ * first time the recipe uses them. The reviews are still read once, to sum up their
+ * ratings and comments for the header.
+ * </p>
+ *
+ * <p>Recipes and profiles are written with their version first. A recipe or profile of
+ * an older version is read as a whole and upgraded before it is decoded, while records of
+ * the current version are read straight from the stream. The recipes inside a profile are
+ * part of the profile, and have no version of their own.
+ * </p>
+ *
+ * @see Recipe#isLoaded()
+ * @see RecordVersions
+ */
+public final class ModelTypeAdapterFactory implements TypeAdapterFactory {
+    private final StringInterner interner;
+    private final boolean lazyBodies;
+    private final RecordVersions versions;
+
+    /**
+     * This constructor makes a factory which interns the strings it reads.
+     *
+     * @param interner - StringInterner for the strings, or null to not intern them
+     */
+    public ModelTypeAdapterFactory(StringInterner interner) {
+        this(interner, false);
+    }
+
+    /**
+     * This constructor makes a factory which interns the strings it reads, and decides if
+     * the bodies of recipes are decoded when they are read or when they are used.
+     *
+     * @param interner   - StringInterner for the strings, or null to not intern them
+     * @param lazyBodies - true to decode the bodies of recipes the first time they are used
+     */
+    public ModelTypeAdapterFactory(StringInterner interner, boolean lazyBodies) {
+        this(interner, lazyBodies, RecordVersions.getDefault());
+    }
+
+    /**
+     * This constructor makes a factory which reads and writes records with the given
+     * versions and migrations.
+     *
+     * @param interner   - StringInterner for the strings, or null to not intern them
+     * @param lazyBodies - true to decode the bodies of recipes the first time they are used
+     * @param versions   - Versions of the records, and the migrations to upgrade them
+     */
+    public ModelTypeAdapterFactory(StringInterner interner, boolean lazyBodies,
+            RecordVersions versions) {
+        this.interner = interner;
+        this.lazyBodies = lazyBodies;
+        this.versions = versions;
+    }
+
+    /**
+     * This method makes a GsonBuilder with the adapters of this class and the shared
+     * StringInterner registered, which every Gson in the program reading recipes and
+     * profiles is made from.
+     *
+     * @return - Returns a new GsonBuilder
+     * @see StringInterner#getShared()
+     */
+    public static GsonBuilder newGsonBuilder() {
+        return newGsonBuilder(false);
+    }
+
+    /**
+     * This method makes a GsonBuilder with the adapters of this class and the shared
+     * StringInterner registered, where the bodies of recipes may be decoded lazily.
+     *
+     * @param lazyBodies - true to decode the bodies of recipes the first time they are used
+     * @return - Returns a new GsonBuilder
+     * @see #newGsonBuilder()
+     */
+    public static GsonBuilder newGsonBuilder(boolean lazyBodies) {
+        StringInterner interner = StringInterner.getShared();
+        return new GsonBuilder()
+                .registerTypeAdapterFactory(new ModelTypeAdapterFactory(interner, lazyBodies))
+                .registerTypeAdapterFactory(new InterningTypeAdapterFactory(interner));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> rawType = type.getRawType();
+        TypeAdapter<?> adapter;
+        if (rawType == Recipe.class) {
+            adapter = lazyBodies ? new LazyRecipeAdapter(true) : new RecipeAdapter(true);
+        } else if (rawType == Review.class) {
+            adapter = new ReviewAdapter();
+        } else if (rawType == RecipeLibrary.class) {
+            adapter = new RecipeLibraryAdapter(true);
+        } else if (rawType == Profile.class) {
+            adapter = new ProfileAdapter();
+        } else {
+            return null;
+        }
+        return (TypeAdapter<T>) adapter.nullSafe();
+    }
+
+    /**
+     * Helper method which reads a string, or null, and interns it.
+     */
+    private String readString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        String value = in.nextString();
+        return interner == null ? value : interner.intern(value);
+    }
+
+    private String readName(JsonReader in) throws IOException {
+        String name = in.nextName();
+        return interner == null ? name : interner.intern(name);
+    }
+
+    private static void writeString(JsonWriter out, String name, String value)
+            throws IOException {
+        if (value != null || out.getSerializeNulls()) {
+            out.name(name).value(value);
+        }
+    }
+
+    /**
+     * Helper method which begins reading an object, which is a record of the given type if
+     * record is true. A record older than the current version, or with its version after
+     * other members, is read as a whole and upgraded, and a reader of the upgraded record
+     * is given instead.
+     * The reader given is inside the object, after the version if the object is a record,
+     * and the caller reads the rest of the members and ends the object.
+     */
+    private JsonReader beginObject(JsonReader in, Class<?> type, boolean record)
+            throws IOException {
+        in.beginObject();
+        int current = versions.getCurrentVersion(type);
+        if (!record || current == 0) {
+            return in;
+        }
+        JsonObject old = new JsonObject();
+        if (in.hasNext()) {
+            String member = in.nextName();
+            if (member.equals(RecordVersions.VERSION_MEMBER) && in.peek() == JsonToken.NUMBER) {
+                int version = in.nextInt();
+                if (version >= current) {
+                    return in;
+                }
+                old.addProperty(member, version);
+            } else {
+                old.add(member, JsonParser.parseReader(in));
+            }
+        }
+        while (in.hasNext()) {
+            old.add(in.nextName(), JsonParser.parseReader(in));
+        }
+        in.endObject();
+        JsonReader upgraded = new JsonReader(new StringReader(
+                versions.migrate(type, old).toString()));
+        upgraded.beginObject();
+        upgraded.nextName();
+        upgraded.nextInt();
+        return upgraded;
+    }
+
+    /**
+     * Helper method which copies the next value, with everything in it, from the reader
+     * to the writer. Numbers are copied as they were written.
+     */
+    private static void copyValue(JsonReader in, JsonWriter out) throws IOException {
+        switch (in.peek()) {
+            case BEGIN_ARRAY:
+                in.beginArray();
+                out.beginArray();
+                while (in.hasNext()) {
+                    copyValue(in, out);
+                }
+                in.endArray();
+                out.endArray();
+                break;
+            case BEGIN_OBJECT:
+                in.beginObject();
+                out.beginObject();
+                while (in.hasNext()) {
+                    out.name(in.nextName());
+                    copyValue(in, out);
+                }
+                in.endObject();
+                out.endObject();
+                break;
+            case STRING:
+                out.value(in.nextString());
+                break;
+            case NUMBER:
+                out.jsonValue(in.nextString());
+                break;
+            case BOOLEAN:
+                out.value(in.nextBoolean());
+                break;
+            case NULL:
+                in.nextNull();
+                out.nullValue();
+                break;
+            default:
+                throw new JsonParseException("Unexpected " + in.peek() + " in recipe");
+        }
+    }
+
+    /**
+     * This class reads and writes a review with its rating, comment and reviewer.
+     */
+    private final class ReviewAdapter extends TypeAdapter<Review> {
+        @Override
+        public void write(JsonWriter out, Review review) throws IOException {
+            out.beginObject();
+            out.name("rating").value(review.getRating());
+            writeString(out, "comment", review.getComment());
+            writeString(out, "username", review.getReviewer());
+            out.endObject();
+        }
+
+        @Override
+        public Review read(JsonReader in) throws IOException {
+            double rating = 0;
+            String comment = null;
+            String username = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "rating":
+                        rating = in.nextDouble();
+                        break;
+                    case "comment":
+                        comment = readString(in);
+                        break;
+                    case "username":
+                        username = readString(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            try {
+                return new Review(rating, comment, username);
+            } catch (IllegalArgumentException e) {
+                throw new JsonParseException(e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * This class reads and writes a recipe with all of its values.
+     */
+    private final class RecipeAdapter extends TypeAdapter<Recipe> {
+        private final ReviewAdapter reviewAdapter = new ReviewAdapter();
+        private final boolean record;
+
+        /**
+         * This constructor makes an adapter for recipes which are records of their own,
+         * or part of another record.
+         *
+         * @param record - true if the recipes are records, with a version
+         */
+        RecipeAdapter(boolean record) {
+            this.record = record;
+        }
+
+        @Override
+        public void write(JsonWriter out, Recipe recipe) throws IOException {
+            out.beginObject();
+            if (record) {
+                out.name(RecordVersions.VERSION_MEMBER)
+                        .value(versions.getCurrentVersion(Recipe.class));
+            }
+            out.name("steps").beginArray();
+            for (String step : recipe.getStepsView()) {
+                out.value(step);
+            }
+            out.endArray();
+            out.name("portions").value(recipe.getPortions());
+            writeString(out, "name", recipe.getName());
+            writeString(out, "description", recipe.getDescription());
+            out.name("ingredients").beginObject();
+            for (String ingredient : recipe.getIngredientsView()) {
+                out.name(ingredient).value(recipe.getIngredientAmount(ingredient));
+            }
+            out.endObject();
+            out.name("ingredientUnits").beginObject();
+            for (Map.Entry<String, String> unit : recipe.getIngredientUnitsView().entrySet()) {
+                out.name(unit.getKey()).value(unit.getValue());
+            }
+            out.endObject();
+            writeString(out, "authorUsername", recipe.getAuthor());
+            out.name("isSaved").value(recipe.isSaved());
+            out.name("reviewList").beginArray();
+            for (Review review : recipe.getReviewsView()) {
+                reviewAdapter.write(out, review);
+            }
+            out.endArray();
+            out.endObject();
+        }
+
+        @Override
+        public Recipe read(JsonReader source) throws IOException {
+            JsonReader in = beginObject(source, Recipe.class, record);
+            List<String> steps = new ArrayList<>();
+            int portions = 0;
+            String name = null;
+            String description = null;
+            Map<String, Double> ingredients = new HashMap<>();
+            Map<String, String> ingredientUnits = new HashMap<>();
+            String authorUsername = null;
+            boolean isSaved = false;
+            List<Review> reviewList = new ArrayList<>();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "steps":
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            steps.add(readString(in));
+                        }
+                        in.endArray();
+                        break;
+                    case "portions":
+                        portions = in.nextInt();
+                        break;
+                    case "name":
+                        name = readString(in);
+                        break;
+                    case "description":
+                        description = readString(in);
+                        break;
+                    case "ingredients":
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            String ingredient = readName(in);
+                            if (in.peek() == JsonToken.NULL) {
+                                in.nextNull();
+                                ingredients.put(ingredient, null);
+                            } else {
+                                ingredients.put(ingredient, in.nextDouble());
+                            }
+                        }
+                        in.endObject();
+                        break;
+                    case "ingredientUnits":
+                        in.beginObject();
+                        while (in.hasNext()) {
+                            ingredientUnits.put(readName(in), readString(in));
+                        }
+                        in.endObject();
+                        break;
+                    case "authorUsername":
+                        authorUsername = readString(in);
+                        break;
+                    case "isSaved":
+                        isSaved = in.nextBoolean();
+                        break;
+                    case "reviewList":
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            reviewList.add(reviewAdapter.read(in));
+                        }
+                        in.endArray();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Recipe(name, portions, authorUsername, description, steps, ingredients,
+                    ingredientUnits, isSaved, reviewList);
+        }
+    }
+
+    /**
+     * This class reads the header of a recipe, and keeps the steps, ingredients, units and
+     * reviews as compact JSON which is decoded the first time the recipe uses them.
+     * Recipes are written in the same way as by RecipeAdapter.
+     */
+    private final class LazyRecipeAdapter extends TypeAdapter<Recipe> {
+        private final RecipeAdapter recipeAdapter;
+        private final RecipeAdapter bodyAdapter = new RecipeAdapter(false);
+        private final ReviewAdapter reviewAdapter = new ReviewAdapter();
+        private final boolean record;
+
+        /**
+         * This constructor makes an adapter for recipes which are records of their own,
+         * or part of another record.
+         *
+         * @param record - true if the recipes are records, with a version
+         */
+        LazyRecipeAdapter(boolean record) {
+            this.recipeAdapter = new RecipeAdapter(record);
+            this.record = record;
+        }
+
+        @Override
+        public void write(JsonWriter out, Recipe recipe) throws IOException {
+            recipeAdapter.write(out, recipe);
+        }
+
+        @Override
+        public Recipe read(JsonReader source) throws IOException {
+            int portions = 0;
+            String name = null;
+            String description = null;
+            String authorUsername = null;
+            boolean isSaved = false;
+            double ratingSum = 0;
+            int numberOfReviewers = 0;
+            int numberOfComments = 0;
+            StringWriter buffer = new StringWriter();
+            JsonWriter body = new JsonWriter(buffer);
+            body.beginObject();
+            JsonReader in = beginObject(source, Recipe.class, record);
+            while (in.hasNext()) {
+                String member = in.nextName();
+                switch (member) {
+                    case "steps":
+                    case "ingredients":
+                    case "ingredientUnits":
+                        copyValue(in, body.name(member));
+                        break;
+                    case "portions":
+                        portions = in.nextInt();
+                        break;
+                    case "name":
+                        name = readString(in);
+                        break;
+                    case "description":
+                        description = readString(in);
+                        break;
+                    case "authorUsername":
+                        authorUsername = readString(in);
+                        break;
+                    case "isSaved":
+                        isSaved = in.nextBoolean();
+                        break;
+                    case "reviewList":
+                        if (in.peek() == JsonToken.NULL) {
+                            in.skipValue();
+                            break;
+                        }
+                        body.name(member).beginArray();
+                        in.beginArray();
+                        while (in.hasNext()) {
+                            Review review = reviewAdapter.read(in);
+                            ratingSum += review.getRating();
+                            numberOfReviewers++;
+                            if (review.getComment() != null
+                                    && !review.getComment().isEmpty()) {
+                                numberOfComments++;
+                            }
+                            reviewAdapter.write(body, review);
+                        }
+                        in.endArray();
+                        body.endArray();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            body.endObject();
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            return new Recipe(name, portions, authorUsername, description, isSaved, ratingSum,
+                    numberOfReviewers, numberOfComments, () -> readBody(bytes));
+        }
+
+        /**
+         * Helper method which decodes the body of a recipe kept by read, or gives null if
+         * it can not be decoded.
+         */
+        private Recipe readBody(byte[] bytes) {
+            try {
+                return bodyAdapter.fromJson(new String(bytes, StandardCharsets.UTF_8));
+            } catch (IOException | JsonParseException | IllegalStateException e) {
+                System.out.println("Error decoding recipe");
+                System.out.println(e.getMessage());
+                return null;
+            }
+        }
+    }
+
+    /**
+     * This class reads and writes a recipelibrary as its list of recipes.
+     */
+    private final class RecipeLibraryAdapter extends TypeAdapter<RecipeLibrary> {
+        private final TypeAdapter<Recipe> recipeAdapter;
+
+        /**
+         * This constructor makes an adapter for recipelibraries where the recipes are
+         * records of their own, or part of another record.
+         *
+         * @param records - true if the recipes are records, with a version
+         */
+        RecipeLibraryAdapter(boolean records) {
+            this.recipeAdapter = lazyBodies ? new LazyRecipeAdapter(records)
+                    : new RecipeAdapter(records);
+        }
+
+        @Override
+        public void write(JsonWriter out, RecipeLibrary recipeLibrary) throws IOException {
+            out.beginObject();
+            out.name("recipes").beginArray();
+            for (Recipe recipe : recipeLibrary) {
+                recipeAdapter.write(out, recipe);
+            }
+            out.endArray();
+            out.endObject();
+        }
+
+        @Override
+        public RecipeLibrary read(JsonReader in) throws IOException {
+            RecipeLibrary recipeLibrary = new RecipeLibrary();
+            in.beginObject();
+            while (in.hasNext()) {
+                if (in.nextName().equals("recipes") && in.peek() != JsonToken.NULL) {
+                    List<Recipe> recipes = new ArrayList<>();
+                    in.beginArray();
+                    while (in.hasNext()) {
+                        recipes.add(recipeAdapter.read(in));
+                    }
+                    in.endArray();
+                    recipeLibrary.setRecipeLibrary(recipes);
+                } else {
+                    in.skipValue();
+                }
+            }
+            in.endObject();
+            return recipeLibrary;
+        }
+    }
+
+    /**
+     * This class reads and writes a profile with its username, hashed password, recipes
+     * and favorites. The password itself is never written.
+     */
+    private final class ProfileAdapter extends TypeAdapter<Profile> {
+        private final TypeAdapter<RecipeLibrary> libraryAdapter =
+                new RecipeLibraryAdapter(false).nullSafe();
+
+        @Override
+        public void write(JsonWriter out, Profile profile) throws IOException {
+            out.beginObject();
+            out.name(RecordVersions.VERSION_MEMBER)
+                    .value(versions.getCurrentVersion(Profile.class));
+            writeString(out, "username", profile.getUsername());
+            writeString(out, "hashedPassword", profile.getHashedPassword());
+            out.name("recipeLibrary");
+            libraryAdapter.write(out, profile.getRecipes());
+            out.name("favorites");
+            libraryAdapter.write(out, profile.getFavorites());
+            out.endObject();
+        }
+
+        @Override
+        public Profile read(JsonReader source) throws IOException {
+            JsonReader in = beginObject(source, Profile.class, true);
+            String username = null;
+            String hashedPassword = null;
+            RecipeLibrary recipeLibrary = null;
+            RecipeLibrary favorites = null;
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "username":
+                        username = readString(in);
+                        break;
+                    case "hashedPassword":
+                        hashedPassword = readString(in);
+                        break;
+                    case "recipeLibrary":
+                        recipeLibrary = libraryAdapter.read(in);
+                        break;
+                    case "favorites":
+                        favorites = libraryAdapter.read(in);
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Profile(username, hashedPassword,
+                    recipeLibrary == null ? new RecipeLibrary() : recipeLibrary,
+                    favorites == null ? new RecipeLibrary() : favorites);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package file;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+/**
+ * This class lets profiles be saved with references to the recipes in the recipe store,
+ * instead of full copies of them. A reference is a recipe with only its name and author.
+ * When a profile is loaded, each reference is replaced by the recipe in the store, so a
+ * recipe which is changed or reviewed only has to be saved once, and not in every profile
+ * which has it.
+ *
+ * <p>Recipes which are not in the store when the profile is saved are kept as full
+ * copies, as before. When a profile is loaded, a reference to a recipe which has been
+ * removed from the store is dropped, while a full copy is kept.
+ * Profiles saved before references were used are read as they are, and each recipe in
+ * them which is in the store is replaced by the one in the store.
+ * </p>
+ */
+public final class ProfileReferences {
+    private static final Gson gson = ModelTypeAdapterFactory.newGsonBuilder().create();
+    private static final String[] LIBRARIES = {"recipeLibrary", "favorites"};
+
+    private ProfileReferences() {
+    }
+
+    /**
+     * This method makes a copy of the profile to save, where every recipe which is in the
+     * store is a reference. If none of its recipes are in the store, the profile itself is
+     * returned.
+     *
+     * @param profile - Profile to save
+     * @param lookup  - Function from the author and name of a recipe to the recipe in the
+     *                store, or null if it is not there
+     * @return - Returns the profile to save, or null if the profile is null
+     */
+    public static Profile toReferences(Profile profile,
+            BiFunction<String, String, Recipe> lookup) {
+        if (profile == null || !hasStoredRecipe(profile, lookup)) {
+            return profile;
+        }
+        JsonObject tree = gson.toJsonTree(profile).getAsJsonObject();
+        for (String library : LIBRARIES) {
+            JsonArray recipes = getRecipes(tree, library);
+            if (recipes == null) {
+                continue;
+            }
+            for (int i = 0; i < recipes.size(); i++) {
+                JsonObject recipe = recipes.get(i).getAsJsonObject();
+                String author = getString(recipe, "authorUsername");
+                String name = getString(recipe, "name");
+                if (lookup.apply(author, name) != null) {
+                    JsonObject reference = new JsonObject();
+                    reference.addProperty("name", name);
+                    reference.addProperty("authorUsername", author);
+                    recipes.set(i, reference);
+                }
+            }
+        }
+        return gson.fromJson(tree, Profile.class);
+    }
+
+    /**
+     * This method makes the list of profiles to save, where every recipe which is in the
+     * store is a reference. If no profile has a recipe in the store, the list itself is
+     * returned.
+     *
+     * @param profiles - List of profiles to save
+     * @param lookup   - Function from the author and name of a recipe to the recipe in the
+     *                 store, or null if it is not there
+     * @return - Returns the list of profiles to save, or null if the list is null
+     * @see #toReferences(Profile, BiFunction)
+     */
+    public static List<Profile> toReferences(List<Profile> profiles,
+            BiFunction<String, String, Recipe> lookup) {
+        if (profiles == null) {
+            return null;
+        }
+        List<Profile> saved = new ArrayList<>();
+        boolean changed = false;
+        for (Profile profile : profiles) {
+            Profile reference = toReferences(profile, lookup);
+            changed |= reference != profile;
+            saved.add(reference);
+        }
+        return changed ? saved : profiles;
+    }
+
+    /**
+     * This method replaces the recipes of the loaded profile with the ones in the store.
+     * References to recipes which are not in the store are removed. The profile is changed
+     * and returned.
+     *
+     * @param profile - Profile which was loaded
+     * @param lookup  - Function from the author and name of a recipe to the recipe in the
+     *                store, or null if it is not there
+     * @return - Returns the profile, or null if the profile is null
+     */
+    public static Profile resolve(Profile profile, BiFunction<String, String, Recipe> lookup) {
+        if (profile == null) {
+            return null;
+        }
+        resolve(profile.getRecipes(), lookup);
+        resolve(profile.getFavorites(), lookup);
+        return profile;
+    }
+
+    /**
+     * This method checks if the recipe is a reference, and not a full recipe. A reference
+     * has no portions, which every full recipe has.
+     *
+     * @param recipe - Recipe to check
+     * @return - Returns true if the recipe only has a name and author, false otherwise
+     */
+    public static boolean isReference(Recipe recipe) {
+        return recipe.getPortions() < 1;
+    }
+
+    private static void resolve(RecipeLibrary library,
+            BiFunction<String, String, Recipe> lookup) {
+        if (library == null) {
+            return;
+        }
+        List<Recipe> resolved = new ArrayList<>();
+        for (Recipe recipe : library) {
+            Recipe stored = lookup.apply(recipe.getAuthor(), recipe.getName());
+            if (stored != null) {
+                resolved.add(stored);
+            } else if (!isReference(recipe)) {
+                resolved.add(recipe);
+            }
+        }
+        library.setRecipeLibrary(resolved);
+    }
+
+    private static boolean hasStoredRecipe(Profile profile,
+            BiFunction<String, String, Recipe> lookup) {
+        return Stream.of(profile.getRecipes(), profile.getFavorites())
+                .filter(Objects::nonNull)
+                .flatMap(RecipeLibrary::stream)
+                .anyMatch(recipe -> lookup.apply(recipe.getAuthor(), recipe.getName()) != null);
+    }
+
+    private static JsonArray getRecipes(JsonObject profile, String library) {
+        JsonElement recipeLibrary = profile.get(library);
+        if (recipeLibrary == null || !recipeLibrary.isJsonObject()) {
+            return null;
+        }
+        JsonElement recipes = recipeLibrary.getAsJsonObject().get("recipes");
+        return recipes != null && recipes.isJsonArray() ? recipes.getAsJsonArray() : null;
+    }
+
+    private static String getString(JsonObject object, String member) {
+        JsonElement element = object.get(member);
+        return element == null || element.isJsonNull() ? null : element.getAsString();
+    }
+}
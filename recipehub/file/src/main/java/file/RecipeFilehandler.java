@@ -1,45 +1,225 @@
 package file;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import core.Recipe;
 import core.RecipeLibrary;
+import core.RecipeSummary;
+import file.AppendLog.LogRecord;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
 
 /**
  * This class handles file operations for recipes.
+ *
+ * <p>A filehandler either has a recipe file of its own, or uses the file with the default
+ * file name in the home directory.
+ * </p>
  */
 public class RecipeFilehandler {
-    private static String fileName = "recipes.json";
+    public static final String DEFAULT_FILE_NAME = "recipes.json";
+    private static final int MIGRATION_ATTEMPTS = 3;
+    private static String fileName = DEFAULT_FILE_NAME;
+
+    private final Path filePath;
+
+    private final boolean logStructured;
+    private final StorageFormat storageFormat;
+    private final GroupCommit<RecipeLibrary> groupCommit = new GroupCommit<>(this::getLock,
+            this::readRecipeLibrary, this::commitSnapshot);
+    private long compactionThreshold = LogCompactor.DEFAULT_THRESHOLD;
+    private boolean lazyLoading;
+    private volatile RecipeSummaryIndex summaryIndex;
+    private volatile MappedRecipeStore mappedStore;
+    private final Object mappedStoreLock = new Object();
 
     /**
      * This constructor initializes the filePath.
      */
     public RecipeFilehandler() {
-        FileUtil.createFile(getFilePath());
+        this(false);
+    }
+
+    /**
+     * This constructor initializes the filePath and decides how changes are saved.
+     * In log-structured mode every write or removal is appended as one record to a log
+     * next to the recipe file, instead of rewriting the whole file.
+     * The recipe file is then used as a snapshot the log is replayed on, and is
+     * rewritten in the background when the log grows past the compaction threshold.
+     *
+     * @param logStructured - true to append changes to a log, false to rewrite the file
+     */
+    public RecipeFilehandler(boolean logStructured) {
+        this(logStructured, StorageFormat.JSON);
+    }
+
+    /**
+     * This constructor initializes the filePath, decides how changes are saved and
+     * which format the recipe file is written in.
+     * The recipe file can always be read whatever format it is in, so an existing
+     * file is converted to the given format the next time it is written.
+     *
+     * @param logStructured - true to append changes to a log, false to rewrite the file
+     * @param storageFormat - Format to write the recipe file in
+     * @see BinaryCodec
+     */
+    public RecipeFilehandler(boolean logStructured, StorageFormat storageFormat) {
+        this(null, logStructured, storageFormat);
     }
 
     /**
-     * This method writes a recipe to the file.
-     * 
+     * This constructor makes a filehandler for its own recipe file, which does not change
+     * when the default file name is set. Filehandlers for different files are independent
+     * of each other, so several stores can be used at the same time.
+     * The file, and the directories it is in, are created if they do not exist.
+     *
+     * @param filePath      - Path object to the recipe file, or null to use the file with the
+     *                      default file name in the home directory
+     * @param logStructured - true to append changes to a log, false to rewrite the file
+     * @param storageFormat - Format to write the recipe file in
+     * @see #setFileName(String)
+     */
+    public RecipeFilehandler(Path filePath, boolean logStructured, StorageFormat storageFormat) {
+        this.filePath = filePath;
+        this.logStructured = logStructured;
+        this.storageFormat = storageFormat;
+        FileUtil.createFile(getDataPath());
+    }
+
+    /**
+     * This method writes a recipe to the file. The file is locked while it is read and
+     * written, so that no other write is lost. Unless the filehandler is log-structured,
+     * recipes written or removed at the same time are written to the file together.
+     * The summary of the recipe is updated in the summary index.
+     *
      * @param recipe - Recipe object to save to file
      * @return - Returns true if the recipe was written, false if null or not written
+     * @see StoreLock#write(java.util.function.Supplier)
+     * @see GroupCommit
      */
     public boolean writeRecipe(Recipe recipe) {
         if (recipe == null) {
             return false;
         }
-        RecipeLibrary recipeLibrary = readRecipeLibrary();
-        recipeLibrary.putRecipe(recipe);
-        return FileUtil.writeFile(getFilePath(), recipeLibrary);
+        if (!logStructured) {
+            return groupCommit.apply(recipeLibrary -> recipeLibrary.putRecipe(recipe),
+                    () -> summaryIndex.put(recipe));
+        }
+        return getLock().write(() -> {
+            RecipeSummaryIndex index = getSummaryIndex();
+            boolean written = append(AppendLog.PUT, recipe);
+            if (written) {
+                index.put(recipe);
+            }
+            return written;
+        });
     }
 
     /**
      * This method reads recipes from the file.
-     * 
+     * In log-structured mode the log is replayed on top of the recipes in the file.
+     *
      * @return - Returns a RecipeLibrary object
      */
     public RecipeLibrary readRecipeLibrary() {
+        return getLock().read(() -> {
+            if (logStructured) {
+                AppendLog log = new AppendLog(getLogPath(getDataPath()));
+                return log.read(() -> {
+                    RecipeLibrary recipeLibrary = readSnapshot();
+                    replay(recipeLibrary, log.readRecords());
+                    return recipeLibrary;
+                });
+            }
+            return readSnapshot();
+        });
+    }
+
+    /**
+     * This method streams the recipes from the file, one recipe at a time, in the same
+     * order as {@link #readRecipeLibrary()}. Only the recipe being read is kept in memory,
+     * so it can be used to go through large recipe files.
+     * In log-structured mode the recipes changed in the log are left out of the recipe
+     * file, and the latest version of them is streamed after the rest.
+     *
+     * <p>The recipe file is opened, and the log read, while the lock of the recipe file is
+     * held, and the stream keeps the recipe file open until it is closed. The recipe file is
+     * only ever replaced by renaming a new file over it, so the stream goes on reading the
+     * recipes as they were when it was made, even if they are written before it is closed.
+     * The lock is not held until the stream is closed, so writing while streaming, or a
+     * stream which is never closed, does not block the writers.
+     * </p>
+     *
+     * @return - Returns a stream of recipes
+     * @see FileUtil#streamArray(Path, String, java.lang.reflect.Type)
+     */
+    public Stream<Recipe> streamRecipes() {
+        return getLock().read(() -> logStructured ? streamLog() : streamSnapshot());
+    }
+
+    /**
+     * This helper method streams the recipes in log-structured mode.
+     *
+     * @return - Returns a stream of recipes
+     */
+    private Stream<Recipe> streamLog() {
+        AppendLog log = new AppendLog(getLogPath(getDataPath()));
+        return log.read(() -> {
+            List<LogRecord> records = log.readRecords();
+            Set<List<String>> changed = new HashSet<>();
+            for (LogRecord record : records) {
+                changed.add(getKey(record.getValue(Recipe.class)));
+            }
+            RecipeLibrary changedRecipes = new RecipeLibrary();
+            replay(changedRecipes, records);
+            Stream<Recipe> snapshot = streamSnapshot();
+            return Stream.concat(snapshot.filter(recipe -> !changed.contains(getKey(recipe))),
+                    changedRecipes.stream());
+        });
+    }
+
+    /**
+     * This helper method gets the key a recipe is identified by, which is its author
+     * and its name.
+     *
+     * @param recipe - Recipe to get the key of
+     * @return - List with the author and the name of the recipe
+     */
+    private static List<String> getKey(Recipe recipe) {
+        return List.of(recipe.getAuthor(), recipe.getName());
+    }
+
+    /**
+     * This helper method streams the recipes saved in the recipe file itself. The file is
+     * opened before the stream is returned, so it must be called with the lock held.
+     *
+     * @return - Returns a stream of recipes
+     */
+    private Stream<Recipe> streamSnapshot() {
+        if (BinaryCodec.isBinary(getDataPath())) {
+            return BinaryCodec.streamRecipes(getDataPath());
+        }
+        return FileUtil.streamArray(getDataPath(), "recipes", Recipe.class);
+    }
+
+    /**
+     * This helper method reads the recipes saved in the recipe file itself.
+     *
+     * @return - Returns a RecipeLibrary object
+     */
+    private RecipeLibrary readSnapshot() {
+        if (BinaryCodec.isBinary(getDataPath())) {
+            return new RecipeLibrary(lazyLoading ? BinaryCodec.readRecipeHeaders(getDataPath())
+                    : BinaryCodec.readRecipes(getDataPath()));
+        }
         RecipeLibrary recipeLibrary = null;
-        recipeLibrary = FileUtil.readFile(getFilePath(), recipeLibrary, RecipeLibrary.class);
+        recipeLibrary = FileUtil.readFile(getDataPath(), recipeLibrary, RecipeLibrary.class,
+                lazyLoading);
         if (recipeLibrary == null) {
             return new RecipeLibrary();
         }
@@ -47,23 +227,467 @@ public class RecipeFilehandler {
     }
 
     /**
-     * This method removes a recipe from the file.
-     * 
+     * This helper method writes the recipes to the given file, in the storage format
+     * of the filehandler.
+     *
+     * @param filePath      - Path object to the file
+     * @param recipeLibrary - RecipeLibrary to write
+     * @return - Returns true if the recipes were written, false otherwise
+     */
+    private boolean writeSnapshot(Path filePath, RecipeLibrary recipeLibrary) {
+        if (storageFormat == StorageFormat.BINARY) {
+            return BinaryCodec.writeRecipes(filePath, recipeLibrary);
+        }
+        return FileUtil.writeFile(filePath, recipeLibrary,
+                storageFormat == StorageFormat.COMPRESSED_JSON);
+    }
+
+    /**
+     * This method removes a recipe from the file. Unless the filehandler is
+     * log-structured, recipes written or removed at the same time are written to the file
+     * together.
+     *
      * @param recipe - Recipe object to remove
      * @return - Returns true if the recipe was removed, false if null or not removed
+     * @see GroupCommit
      */
     public boolean removeRecipe(Recipe recipe) {
         if (recipe == null) {
             return false;
         }
-        RecipeLibrary recipeLibrary = readRecipeLibrary();
-        recipeLibrary.removeRecipe(recipe);
-        return FileUtil.writeFile(getFilePath(), recipeLibrary);
+        if (!logStructured) {
+            return groupCommit.apply(recipeLibrary -> recipeLibrary.removeRecipe(recipe),
+                    () -> summaryIndex.remove(recipe));
+        }
+        return getLock().write(() -> {
+            RecipeSummaryIndex index = getSummaryIndex();
+            boolean removed = append(AppendLog.REMOVE, getKeyRecord(recipe));
+            if (removed) {
+                index.remove(recipe);
+            }
+            return removed;
+        });
+    }
+
+    /**
+     * This helper method writes the recipes changed by a group commit to the recipe file.
+     * The summary index is loaded before the file is written, so the changes can be put in
+     * it afterwards.
+     *
+     * @param recipeLibrary - RecipeLibrary to write
+     * @return - Returns true if the recipes were written, false otherwise
+     */
+    private boolean commitSnapshot(RecipeLibrary recipeLibrary) {
+        getSummaryIndex();
+        closeMappedStore();
+        return writeSnapshot(getDataPath(), recipeLibrary);
+    }
+
+    /**
+     * This method gets the number of times recipes written or removed have been committed
+     * to the recipe file, which is less than the number of writes when they were grouped.
+     *
+     * @return - The number of commits
+     */
+    long getCommitCount() {
+        return groupCommit.getCommitCount();
+    }
+
+    /**
+     * This method loads the recipe with the given author and name.
+     * Unless the filehandler is log-structured, the recipe file is mapped into memory and
+     * only the recipe itself is decoded, straight from the mapped file. Otherwise, or if the
+     * file could not be mapped, the recipes are streamed until it is found.
+     *
+     * @param author - Username of the author of the recipe
+     * @param name   - Name of the recipe
+     * @return - Returns the recipe, or null if it does not exist
+     * @see MappedRecipeStore#getRecipe(String, String)
+     */
+    public Recipe loadRecipe(String author, String name) {
+        if (author == null || name == null) {
+            return null;
+        }
+        return getLock().read(() -> {
+            if (!logStructured) {
+                MappedRecipeStore store = getMappedStore();
+                if (store.isMapped()) {
+                    Recipe recipe = store.getRecipe(author, name);
+                    if (recipe != null || store.isMapped()) {
+                        return recipe;
+                    }
+                }
+            }
+            try (Stream<Recipe> recipes = streamRecipes()) {
+                return recipes.filter(recipe -> author.equals(recipe.getAuthor())
+                        && name.equals(recipe.getName())).findFirst().orElse(null);
+            }
+        });
+    }
+
+    /**
+     * This helper method gets the mapped recipe file, and maps it again if the file has
+     * changed. Readers only hold the read lock, so the file is mapped again by one reader at
+     * a time, which closes the store it replaces. A reader still using the replaced store
+     * finds it no longer mapped, and streams the recipes instead.
+     *
+     * @return - The current mapped recipe store
+     */
+    private MappedRecipeStore getMappedStore() {
+        MappedRecipeStore store = mappedStore;
+        if (isCurrent(store)) {
+            return store;
+        }
+        synchronized (mappedStoreLock) {
+            store = mappedStore;
+            if (!isCurrent(store)) {
+                MappedRecipeStore replaced = store;
+                store = MappedRecipeStore.open(getDataPath());
+                mappedStore = store;
+                if (replaced != null) {
+                    replaced.close();
+                }
+            }
+            return store;
+        }
+    }
+
+    /**
+     * This helper method checks if the mapped store is for the recipe file as it is now.
+     *
+     * @param store - The mapped store, or null
+     * @return - Returns true if the store matches the recipe file
+     */
+    private boolean isCurrent(MappedRecipeStore store) {
+        return store != null && store.getDataPath().equals(getDataPath()) && store.isCurrent();
+    }
+
+    /**
+     * This helper method closes the mapped recipe file before the file is written, so the
+     * old store does not keep the file it replaces. It is called with the write lock held,
+     * so no read is using the store.
+     */
+    private void closeMappedStore() {
+        synchronized (mappedStoreLock) {
+            MappedRecipeStore store = mappedStore;
+            mappedStore = null;
+            if (store != null) {
+                store.close();
+            }
+        }
+    }
+
+    /**
+     * This method reads the summaries of the recipes, which are their names, authors and
+     * a summary of their reviews, in the same order as {@link #readRecipeLibrary()}.
+     * They are read from the summary index next to the recipe file, so the recipes
+     * themselves are only read if the index has to be made again.
+     *
+     * @return - Returns a list of the summaries
+     * @see RecipeSummaryIndex
+     */
+    public List<RecipeSummary> readRecipeSummaries() {
+        return getLock().read(() -> getSummaryIndex().getSummaries());
+    }
+
+    /**
+     * This helper method gets the summary index of the recipe files, and loads it again
+     * if the files have changed.
+     *
+     * @return - The current summary index
+     */
+    private RecipeSummaryIndex getSummaryIndex() {
+        RecipeSummaryIndex index = summaryIndex;
+        if (index == null || !index.getDataPaths().equals(getStoragePaths())
+                || !index.isCurrent()) {
+            index = RecipeSummaryIndex.load(getStoragePaths(),
+                    () -> readRecipeLibrary().getRecipes());
+            summaryIndex = index;
+        }
+        return index;
     }
 
     /**
-     * This method sets the filePath.
-     * 
+     * This helper method makes the value of a remove record, which only has the author
+     * and name the recipe is identified by. It is read as a recipe without steps,
+     * ingredients or reviews.
+     *
+     * @param recipe - Recipe to make the key of
+     * @return - JsonObject with the version, author and name of the recipe
+     */
+    private static JsonObject getKeyRecord(Recipe recipe) {
+        JsonObject key = new JsonObject();
+        key.addProperty(RecordVersions.VERSION_MEMBER,
+                RecordVersions.getDefault().getCurrentVersion(Recipe.class));
+        key.addProperty("name", recipe.getName());
+        key.addProperty("authorUsername", recipe.getAuthor());
+        return key;
+    }
+
+    /**
+     * This helper method gets what identifies the recipe of a record, which is its author
+     * and name.
+     *
+     * @param record - JSON of the recipe
+     * @return - The author and name of the recipe
+     */
+    private static List<JsonElement> getKey(JsonObject record) {
+        return Arrays.asList(record.get("authorUsername"), record.get("name"));
+    }
+
+    /**
+     * This helper method appends a record to the log, and schedules a compaction in the
+     * background if the log has grown past the compaction threshold.
+     *
+     * @param operation - The operation to append
+     * @param recipe    - Recipe, or key of the recipe, the operation was done on
+     * @return - Returns true if the record was appended, false otherwise
+     */
+    private boolean append(String operation, Object recipe) {
+        AppendLog log = new AppendLog(getLogPath(getDataPath()));
+        if (!log.append(operation, recipe)) {
+            return false;
+        }
+        LogCompactor.compactIfNeeded(log, compactionThreshold, this::compact);
+        return true;
+    }
+
+    /**
+     * This method compacts the log into a new snapshot in the recipe file.
+     * Only used in log-structured mode.
+     * The summary index is kept matching the recipe files while they are compacted, and
+     * its own log is compacted afterwards.
+     *
+     * @return - Returns true if the log was compacted, false otherwise
+     * @see AppendLog#compact(Path, StoreLock, java.util.function.BiPredicate,
+     *      java.util.function.Predicate)
+     * @see RecipeSummaryIndex#compact()
+     */
+    public boolean compact() {
+        if (!logStructured) {
+            return false;
+        }
+        AppendLog log = new AppendLog(getLogPath(getDataPath()));
+        boolean compacted = log.compact(getDataPath(), getLock(), (snapshotPath, records) -> {
+            RecipeLibrary recipeLibrary = readSnapshot();
+            replay(recipeLibrary, records);
+            return writeSnapshot(snapshotPath, recipeLibrary);
+        }, this::keepSummaryIndex);
+        RecipeSummaryIndex index = summaryIndex;
+        if (compacted && index != null) {
+            index.compact();
+        }
+        return compacted;
+    }
+
+    /**
+     * This helper method runs a change to the recipe files which does not change what
+     * recipes they have, and makes the summary index match the files again if it matched
+     * them before, so it is not made again from the recipes. It is called with the write
+     * lock held.
+     *
+     * @param change - The change to the recipe files
+     * @return - Returns true if the change was made, false otherwise
+     */
+    private boolean keepSummaryIndex(BooleanSupplier change) {
+        RecipeSummaryIndex index = summaryIndex;
+        boolean current = index != null && index.getDataPaths().equals(getStoragePaths())
+                && index.isCurrent();
+        boolean changed = change.getAsBoolean();
+        if (changed && current) {
+            index.restamp();
+        }
+        return changed;
+    }
+
+    /**
+     * This method upgrades the recipes saved in an older version to the current version.
+     * The recipes are read in the current version already, so this only spares later reads
+     * from upgrading them.
+     * In log-structured mode, at most the given number of outdated recipes in the recipe
+     * file are appended to the log in the current version, and they are written to the
+     * recipe file when the log is compacted. Recipes which are in the log already are
+     * skipped, since the log replaces them.
+     * Otherwise the recipe file can only be written whole, so it is written once with all
+     * recipes upgraded, and only if some recipe is outdated. The limit is not used then.
+     * The upgraded file is written next to the recipe file without holding the lock of the
+     * store, and renamed over it under the lock, the way a compaction is committed. If the
+     * recipes were saved in the meantime, the upgraded file is thrown away and written
+     * again, a few times at most.
+     *
+     * @param limit - Number of recipes to upgrade in log-structured mode
+     * @return - Returns the number of recipes which were upgraded
+     * @see RecordVersions#migrateOutdated(Path, String, Class, java.util.function.Predicate,
+     *      long)
+     */
+    public long migrateRecords(long limit) {
+        if (!logStructured) {
+            return migrateSnapshot();
+        }
+        return getLock().write(() -> {
+            AppendLog log = new AppendLog(getLogPath(getDataPath()));
+            Set<List<JsonElement>> logged = new HashSet<>();
+            for (LogRecord record : log.readRecords()) {
+                logged.add(getKey(record.getValue(JsonObject.class)));
+            }
+            long[] migrated = new long[1];
+            keepSummaryIndex(() -> {
+                for (JsonObject record : RecordVersions.getDefault().migrateOutdated(
+                        getDataPath(), "recipes", Recipe.class,
+                        outdated -> !logged.contains(getKey(outdated)), limit)) {
+                    if (!log.append(AppendLog.PUT, record)) {
+                        break;
+                    }
+                    migrated[0]++;
+                }
+                return migrated[0] > 0;
+            });
+            LogCompactor.compactIfNeeded(log, compactionThreshold, this::compact);
+            return migrated[0];
+        });
+    }
+
+    /**
+     * This helper method upgrades the whole recipe file when the filehandler is not
+     * log-structured. The recipes are read under the read lock, so saves can only go on
+     * while the upgraded file is written, and the recipe file is replaced under the write
+     * lock only if its stamp is still the one it had before the recipes were read.
+     *
+     * @return - Returns the number of recipes which were upgraded
+     */
+    private long migrateSnapshot() {
+        Path tempPath = Path.of(getDataPath() + ".migrate.tmp");
+        for (int attempt = 0; attempt < MIGRATION_ATTEMPTS; attempt++) {
+            List<Long> stamp = FileUtil.getStamp(getDataPath());
+            long outdated = getLock().read(() -> RecordVersions.getDefault()
+                    .countOutdated(getDataPath(), "recipes", Recipe.class));
+            if (stamp == null || outdated == 0) {
+                return 0;
+            }
+            if (!writeSnapshot(tempPath, getLock().read(this::readSnapshot))) {
+                return 0;
+            }
+            long migrated = getLock().write(() -> {
+                if (!stamp.equals(FileUtil.getStamp(getDataPath()))) {
+                    return -1L;
+                }
+                getSummaryIndex();
+                closeMappedStore();
+                if (!keepSummaryIndex(() -> FileUtil.moveAtomically(tempPath, getDataPath()))) {
+                    return 0L;
+                }
+                return outdated;
+            });
+            if (migrated >= 0) {
+                return migrated;
+            }
+        }
+        FileUtil.deleteQuietly(tempPath);
+        return 0;
+    }
+
+    /**
+     * This method sets how large the log can grow before it is compacted.
+     *
+     * @param compactionThreshold - Size of the log in bytes
+     */
+    public void setCompactionThreshold(long compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * This method decides if the recipes read by {@link #readRecipeLibrary()} are decoded
+     * at once, or only with their headers. In lazy loading mode the steps, ingredients and
+     * reviews of each recipe are kept as they were read from the file, and decoded the
+     * first time the recipe uses them, so a long list of recipes can be shown with only
+     * their names, authors and ratings in memory. Recipes in the log are always decoded
+     * at once.
+     *
+     * @param lazyLoading - true to decode only the headers of the recipes when reading
+     * @see core.Recipe#isLoaded()
+     */
+    public void setLazyLoading(boolean lazyLoading) {
+        this.lazyLoading = lazyLoading;
+    }
+
+    /**
+     * This method checks if the filehandler reads only the headers of the recipes.
+     *
+     * @return - Returns true if the filehandler is in lazy loading mode, false otherwise
+     */
+    public boolean isLazyLoading() {
+        return lazyLoading;
+    }
+
+    /**
+     * This helper method applies the records of a log to a recipe library, in order.
+     *
+     * @param recipeLibrary - RecipeLibrary to apply the records to
+     * @param records       - List of records to apply
+     */
+    private static void replay(RecipeLibrary recipeLibrary, List<LogRecord> records) {
+        for (LogRecord record : records) {
+            Recipe recipe = record.getValue(Recipe.class);
+            if (AppendLog.REMOVE.equals(record.getOperation())) {
+                recipeLibrary.removeRecipe(recipe);
+            } else {
+                recipeLibrary.putRecipe(recipe);
+            }
+        }
+    }
+
+    /**
+     * This method checks if the filehandler appends changes to a log.
+     *
+     * @return - Returns true if the filehandler is log-structured, false otherwise
+     */
+    public boolean isLogStructured() {
+        return logStructured;
+    }
+
+    /**
+     * This method gets the format the filehandler writes the recipe file in.
+     *
+     * @return - The storage format
+     */
+    public StorageFormat getStorageFormat() {
+        return storageFormat;
+    }
+
+    /**
+     * This helper method gets the lock of the recipe file of the filehandler.
+     *
+     * @return - The lock of the recipe file
+     */
+    private StoreLock getLock() {
+        return StoreLock.forFile(getDataPath());
+    }
+
+    /**
+     * This method gets the recipe file of the filehandler. Filehandlers made without a
+     * file of their own use the file with the default file name, as it is when this is
+     * called.
+     *
+     * @return - Path object of the recipe file
+     */
+    public Path getDataPath() {
+        return filePath != null ? filePath : getFilePath();
+    }
+
+    /**
+     * This method gets the files the recipes are read from, which are the recipe file
+     * and its log.
+     *
+     * @return - Returns a list of the paths
+     */
+    public List<Path> getStoragePaths() {
+        return List.of(getDataPath(), getLogPath(getDataPath()));
+    }
+
+    /**
+     * This method sets the default file name, which is used by the filehandlers made
+     * without a recipe file of their own. The file is kept in the home directory.
+     *
      * @param file - File to write to
      * @throws IllegalArgumentException if the filename is empty
      */
@@ -83,4 +707,25 @@ public class RecipeFilehandler {
         return Path.of(System.getProperty("user.home")
                 + System.getProperty("file.separator") + fileName);
     }
+
+    /**
+     * This method gets the path of the log used in log-structured mode for the file with
+     * the default file name.
+     *
+     * @return - Path object of the log file
+     */
+    public static Path getLogPath() {
+        return getLogPath(getFilePath());
+    }
+
+    /**
+     * This method gets the path of the log used in log-structured mode for the given
+     * recipe file.
+     *
+     * @param filePath - Path object to the recipe file
+     * @return - Path object of the log file
+     */
+    public static Path getLogPath(Path filePath) {
+        return Path.of(filePath + ".log");
+    }
 }
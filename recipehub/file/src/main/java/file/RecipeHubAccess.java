@@ -3,7 +3,10 @@ package file;
 import core.Profile;
 import core.Recipe;
 import core.RecipeLibrary;
+import core.RecipeSummary;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Interface for centralizing access to data.
@@ -13,6 +16,59 @@ public interface RecipeHubAccess {
 
     RecipeLibrary getRecipeLibrary();
 
+    /**
+     * Streams all recipes, one at a time.
+     * Implementations can override this to avoid loading every recipe at once.
+     * The stream should be closed when it is no longer used.
+     *
+     * @return stream of all recipes
+     */
+    default Stream<Recipe> streamRecipes() {
+        return getRecipeLibrary().stream();
+    }
+
+    /**
+     * Loads the recipe with the given author and name.
+     * Implementations can override this to find the recipe without reading the others.
+     *
+     * @param author - Username of the author of the recipe
+     * @param name - Name of the recipe
+     * @return the recipe, or null if it does not exist
+     */
+    default Recipe loadRecipe(String author, String name) {
+        try (Stream<Recipe> recipes = streamRecipes()) {
+            return recipes.filter(recipe -> recipe.getAuthor().equals(author)
+                    && recipe.getName().equals(name)).findFirst().orElse(null);
+        }
+    }
+
+    /**
+     * Gets all recipes written by the given author.
+     * Implementations can override this to read only the recipes of the author.
+     *
+     * @param author - Username of the author
+     * @return list of the recipes of the author
+     */
+    default List<Recipe> getRecipesByAuthor(String author) {
+        try (Stream<Recipe> recipes = streamRecipes()) {
+            return recipes.filter(recipe -> recipe.getAuthor().equals(author))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Gets the summaries of all recipes, which are their names, authors and a summary of
+     * their reviews, in the same order as the recipelibrary.
+     * Implementations can override this to get the summaries without reading the recipes.
+     *
+     * @return list of the summaries of all recipes
+     */
+    default List<RecipeSummary> getRecipeSummaries() {
+        try (Stream<Recipe> recipes = streamRecipes()) {
+            return recipes.map(RecipeSummary::of).collect(Collectors.toList());
+        }
+    }
+
     boolean removeRecipe(Recipe recipe);
 
     boolean saveRecipe(Recipe recipe);
@@ -23,5 +79,30 @@ public interface RecipeHubAccess {
 
     Profile loadProfile(String username);
 
+    /**
+     * Checks if a profile with the given username exists.
+     * Implementations can override this to answer without loading the profile.
+     *
+     * @param username - Username to check
+     * @return true if the profile exists, false otherwise
+     */
+    default boolean profileExists(String username) {
+        return loadProfile(username) != null;
+    }
+
     boolean saveProfiles(List<Profile> profiles);
+
+    /**
+     * Upgrades records saved in an older version to the current version, up to about the
+     * given number of records. Records are read in the current version either way, so this
+     * only spares later reads from upgrading them.
+     * Implementations which save records should override this, the default upgrades none.
+     *
+     * @param limit - Number of records to upgrade before stopping
+     * @return the number of records which were upgraded, 0 when none are left
+     * @see RecordVersions
+     */
+    default int migrateRecords(int limit) {
+        return 0;
+    }
 }
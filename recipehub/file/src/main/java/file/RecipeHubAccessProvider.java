@@ -0,0 +1,82 @@
+package file;
+
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+/**
+ * Interface for the storage engines the app and the server can keep their recipes and
+ * profiles in. Each engine registers a provider, which is found with a
+ * {@link ServiceLoader}, so the engine is picked by its name in the configuration
+ * instead of in the code. An engine in another module is added by providing this
+ * interface in its module-info, or in META-INF/services when it is on the classpath.
+ *
+ * <p>The engine is picked with the {@value #STORAGE_PROPERTY} system property.
+ * The engines of this module are named {@value DirectRecipeHubAccess.Provider#NAME},
+ * {@value CachingRecipeHubAccess.Provider#NAME}, {@value LsmRecipeHubAccess.Provider#NAME}
+ * and {@value RemoteRecipeHubAccess.Provider#NAME}.
+ * </p>
+ */
+public interface RecipeHubAccessProvider {
+    /**
+     * The system property holding the name of the storage engine to use.
+     */
+    String STORAGE_PROPERTY = "recipehub.storage";
+
+    /**
+     * Gets the name the engine is picked by.
+     *
+     * @return the name of the engine
+     */
+    String getName();
+
+    /**
+     * Makes an access to the recipes and profiles kept by the engine.
+     *
+     * @return a new access
+     */
+    RecipeHubAccess create();
+
+    /**
+     * Finds all registered storage engines.
+     *
+     * @return list of the providers of the engines, in the order they were found
+     */
+    static List<RecipeHubAccessProvider> getProviders() {
+        return ServiceLoader.load(RecipeHubAccessProvider.class).stream()
+                .map(ServiceLoader.Provider::get).collect(Collectors.toList());
+    }
+
+    /**
+     * Finds the storage engine with the given name, ignoring case.
+     *
+     * @param name - Name of the engine
+     * @return the provider of the engine, or null if no engine has the name
+     */
+    static RecipeHubAccessProvider getProvider(String name) {
+        return getProviders().stream().filter(provider -> provider.getName()
+                .equalsIgnoreCase(name)).findFirst().orElse(null);
+    }
+
+    /**
+     * Makes an access with the engine named in the {@value #STORAGE_PROPERTY} system
+     * property, or the given engine if the property is not set. An unknown name is
+     * printed, and the given engine is used instead.
+     *
+     * @param defaultName - Name of the engine to use if none is configured
+     * @return a new access
+     * @throws IllegalArgumentException if the given engine is not registered either
+     */
+    static RecipeHubAccess createSelected(String defaultName) {
+        String name = System.getProperty(STORAGE_PROPERTY, defaultName);
+        RecipeHubAccessProvider provider = getProvider(name);
+        if (provider == null) {
+            System.out.println("Unknown storage engine: " + name);
+            provider = getProvider(defaultName);
+        }
+        if (provider == null) {
+            throw new IllegalArgumentException("Unknown storage engine: " + defaultName);
+        }
+        return provider.create();
+    }
+}
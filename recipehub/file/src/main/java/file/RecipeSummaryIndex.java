@@ -0,0 +1,468 @@
+package file;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import core.Recipe;
+import core.RecipeSummary;
+import file.AppendLog.LogRecord;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * This class is an index of the summaries of the recipes in the recipe file, which are
+ * the name, author and a summary of the reviews of each recipe. It is saved next to the
+ * recipe file, so a list of recipes can be shown without reading the recipes themselves.
+ *
+ * <p>The index is changed one recipe at a time when a recipe is written or removed, by
+ * appending the change to a log next to the index, so a change costs the same however
+ * many recipes there are. Each change remembers the size and modification time of the
+ * recipe file and its log as they were after the recipe was written. If they have changed
+ * since, for instance by another program which did not change the index, the index is
+ * made again from the recipes.
+ * The summaries are kept in the same order as the recipes in the recipelibrary.
+ * </p>
+ *
+ * <p>The log of the index is compacted into the index file when the log of the recipes
+ * is compacted, on the same background thread.
+ * </p>
+ */
+public class RecipeSummaryIndex {
+    private static final byte[] MAGIC = {'R', 'H', 'S'};
+    private static final int VERSION = 1;
+    private static final String STAMP = "stamp";
+    private static final Map<Path, Lock> loadLocks = new ConcurrentHashMap<>();
+
+    private final List<Path> dataPaths;
+    private volatile long[] dataStamps;
+    private final Map<List<String>, RecipeSummary> summaries;
+
+    /**
+     * This constructor makes an index of the given summaries.
+     *
+     * @param dataPaths  - Paths to the recipe file and its log
+     * @param dataStamps - Size and modification time of each file when the index was made
+     * @param summaries  - Map from the author and name of each recipe to its summary
+     */
+    private RecipeSummaryIndex(List<Path> dataPaths, long[] dataStamps,
+            Map<List<String>, RecipeSummary> summaries) {
+        this.dataPaths = List.copyOf(dataPaths);
+        this.dataStamps = dataStamps;
+        this.summaries = summaries;
+    }
+
+    /**
+     * This method loads the index for the given recipe files.
+     * If the saved index does not match the files, a new index is made from the recipes
+     * and saved.
+     *
+     * <p>The index of each recipe file is loaded by one thread at a time, since it is
+     * loaded by readers of the recipe file, which only hold its read lock. A thread which
+     * waited for another to make the index again reads the index that thread saved.
+     * Indexes of different recipe files are loaded at the same time.
+     * </p>
+     *
+     * @param dataPaths - Paths to the recipe file and its log, the first being the index's
+     * @param recipes   - Supplier of the recipes in the files, in order
+     * @return - Returns the index for the recipe files
+     */
+    public static RecipeSummaryIndex load(List<Path> dataPaths,
+            Supplier<List<Recipe>> recipes) {
+        Lock loadLock = loadLocks.computeIfAbsent(getIndexPath(dataPaths.get(0))
+                .toAbsolutePath(), path -> new ReentrantLock());
+        loadLock.lock();
+        try {
+            return loadIndex(dataPaths, recipes);
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /**
+     * This helper method loads the index for the given recipe files, or makes it again.
+     * It is called with the load lock of the index held.
+     *
+     * @param dataPaths - Paths to the recipe file and its log
+     * @param recipes   - Supplier of the recipes in the files, in order
+     * @return - Returns the index for the recipe files
+     */
+    private static RecipeSummaryIndex loadIndex(List<Path> dataPaths,
+            Supplier<List<Recipe>> recipes) {
+        AppendLog log = new AppendLog(getIndexLogPath(dataPaths.get(0)));
+        RecipeSummaryIndex index = log.read(() -> {
+            RecipeSummaryIndex saved = readIndexFile(dataPaths);
+            if (saved != null) {
+                saved.replay(log.readRecords());
+            }
+            return saved;
+        });
+        if (index != null && index.isCurrent()) {
+            return index;
+        }
+        Map<List<String>, RecipeSummary> summaries = new LinkedHashMap<>();
+        long[] stamps = stamp(dataPaths);
+        for (Recipe recipe : recipes.get()) {
+            summaries.put(getKey(recipe), RecipeSummary.of(recipe));
+        }
+        index = new RecipeSummaryIndex(dataPaths, stamps, summaries);
+        index.save();
+        return index;
+    }
+
+    /**
+     * This method checks if the index still matches the recipe files.
+     *
+     * @return - Returns true if the files have not changed since the index was saved
+     */
+    public boolean isCurrent() {
+        return Arrays.equals(dataStamps, stamp(dataPaths));
+    }
+
+    /**
+     * This method puts the summary of the recipe in the index, in place of the summary of
+     * the recipe with the same author and name. Like in the recipelibrary, the summary is
+     * moved to the end. It must be called after the recipe file is written, since the
+     * change is appended to the log of the index for the recipe files as they are now.
+     *
+     * @param recipe - Recipe which was written
+     * @return - Returns true if the change was appended to the log, false otherwise
+     */
+    public synchronized boolean put(Recipe recipe) {
+        SummaryRecord record = new SummaryRecord(RecipeSummary.of(recipe), stamp(dataPaths));
+        apply(AppendLog.PUT, record);
+        return getLog().append(AppendLog.PUT, record.toJson());
+    }
+
+    /**
+     * This method removes the summary of the recipe with the same author and name from
+     * the index. It must be called after the recipe file is written, since the change is
+     * appended to the log of the index for the recipe files as they are now.
+     *
+     * @param recipe - Recipe which was removed
+     * @return - Returns true if the change was appended to the log, false otherwise
+     */
+    public synchronized boolean remove(Recipe recipe) {
+        SummaryRecord record = new SummaryRecord(new RecipeSummary(recipe.getName(),
+                recipe.getAuthor(), 0, 0, 0), stamp(dataPaths));
+        apply(AppendLog.REMOVE, record);
+        return getLog().append(AppendLog.REMOVE, record.toJson());
+    }
+
+    /**
+     * This method makes the index match the recipe files as they are now, without changing
+     * the summaries. It is used when the recipe files are written without changing what
+     * recipes they have, like when they are compacted or upgraded, and must be called with
+     * the lock of the recipe files held, only if the index was current before they were
+     * written.
+     *
+     * @return - Returns true if the change was appended to the log, false otherwise
+     */
+    public synchronized boolean restamp() {
+        SummaryRecord record = new SummaryRecord(null, stamp(dataPaths));
+        apply(STAMP, record);
+        return getLog().append(STAMP, record.toJson());
+    }
+
+    /**
+     * This method compacts the log of the index into the index file, while changes can
+     * still be appended. The index file is replaced under the lock of the recipe files.
+     *
+     * @return - Returns true if the log was compacted, false otherwise
+     * @see AppendLog#compact(Path, StoreLock, java.util.function.BiPredicate,
+     *      java.util.function.Predicate)
+     */
+    public boolean compact() {
+        return getLog().compact(getIndexPath(dataPaths.get(0)),
+                StoreLock.forFile(dataPaths.get(0)), (snapshotPath, records) -> {
+                    RecipeSummaryIndex saved = readIndexFile(dataPaths);
+                    if (saved == null) {
+                        return false;
+                    }
+                    saved.replay(records);
+                    return writeIndexFile(snapshotPath, saved.dataStamps,
+                            saved.summaries.values());
+                }, BooleanSupplier::getAsBoolean);
+    }
+
+    /**
+     * This method gets the summaries in the index, in the order of the recipes.
+     *
+     * @return - Returns a list of the summaries
+     */
+    public synchronized List<RecipeSummary> getSummaries() {
+        return new ArrayList<>(summaries.values());
+    }
+
+    /**
+     * This method gets the paths of the recipe files the index is for.
+     *
+     * @return - List of the paths
+     */
+    public List<Path> getDataPaths() {
+        return dataPaths;
+    }
+
+    /**
+     * This method saves the whole index next to the recipe file, for the recipe files as
+     * they are now, and clears the log of the index.
+     *
+     * @return - Returns true if the index was saved, false otherwise
+     */
+    public synchronized boolean save() {
+        dataStamps = stamp(dataPaths);
+        return writeIndexFile(getIndexPath(dataPaths.get(0)), dataStamps, summaries.values())
+                && getLog().clear();
+    }
+
+    /**
+     * This helper method writes an index file with the given summaries.
+     *
+     * @param indexPath  - Path object to the index file
+     * @param dataStamps - Size and modification time of each recipe file
+     * @param summaries  - Summaries in the order of the recipes
+     * @return - Returns true if the index file was written, false otherwise
+     */
+    private static boolean writeIndexFile(Path indexPath, long[] dataStamps,
+            Collection<RecipeSummary> summaries) {
+        return FileUtil.commitFile(indexPath, output -> {
+            DataOutputStream data = new DataOutputStream(output);
+            data.write(MAGIC);
+            data.writeByte(VERSION);
+            data.writeInt(dataStamps.length);
+            for (long stamp : dataStamps) {
+                data.writeLong(stamp);
+            }
+            data.writeInt(summaries.size());
+            for (RecipeSummary summary : summaries) {
+                data.writeUTF(summary.getName());
+                data.writeUTF(summary.getAuthor());
+                data.writeDouble(summary.getRatingSum());
+                data.writeInt(summary.getNumberOfReviewers());
+                data.writeInt(summary.getNumberOfComments());
+            }
+            data.flush();
+        });
+    }
+
+    /**
+     * This helper method applies the records of the log of the index, in order.
+     *
+     * @param records - List of records to apply
+     */
+    private void replay(List<LogRecord> records) {
+        for (LogRecord record : records) {
+            apply(record.getOperation(),
+                    SummaryRecord.fromJson(record.getValue(JsonObject.class)));
+        }
+    }
+
+    /**
+     * This helper method applies one record of the log of the index.
+     *
+     * @param operation - The operation of the record
+     * @param record    - The value of the record
+     */
+    private void apply(String operation, SummaryRecord record) {
+        if (record.stamps != null) {
+            dataStamps = record.stamps;
+        }
+        if (record.name == null || record.author == null) {
+            return;
+        }
+        List<String> key = List.of(record.author, record.name);
+        summaries.remove(key);
+        if (AppendLog.PUT.equals(operation)) {
+            summaries.put(key, new RecipeSummary(record.name, record.author,
+                    record.ratingSum, record.numberOfReviewers, record.numberOfComments));
+        }
+    }
+
+    /**
+     * This helper method gets the log of the index.
+     *
+     * @return - The log next to the index file
+     */
+    private AppendLog getLog() {
+        return new AppendLog(getIndexLogPath(dataPaths.get(0)));
+    }
+
+    /**
+     * This method gets the path of the index for the given recipe file.
+     *
+     * @param dataPath - Path object to the recipe file
+     * @return - Path object of the index file
+     */
+    public static Path getIndexPath(Path dataPath) {
+        return Path.of(dataPath + ".sum");
+    }
+
+    /**
+     * This method gets the path of the log of the index for the given recipe file.
+     *
+     * @param dataPath - Path object to the recipe file
+     * @return - Path object of the log of the index
+     */
+    public static Path getIndexLogPath(Path dataPath) {
+        return Path.of(getIndexPath(dataPath) + ".log");
+    }
+
+    /**
+     * This helper method reads a saved index.
+     *
+     * @param dataPaths - Paths to the recipe file and its log
+     * @return - The saved index, or null if there is no readable index
+     */
+    private static RecipeSummaryIndex readIndexFile(List<Path> dataPaths) {
+        Path indexPath = getIndexPath(dataPaths.get(0));
+        if (!Files.exists(indexPath)) {
+            return null;
+        }
+        try (DataInputStream data = new DataInputStream(new BufferedInputStream(
+                Files.newInputStream(indexPath)))) {
+            if (!Arrays.equals(MAGIC, data.readNBytes(MAGIC.length))
+                    || data.readByte() != VERSION) {
+                return null;
+            }
+            long[] stamps = new long[data.readInt()];
+            for (int i = 0; i < stamps.length; i++) {
+                stamps[i] = data.readLong();
+            }
+            int size = data.readInt();
+            Map<List<String>, RecipeSummary> summaries = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                RecipeSummary summary = new RecipeSummary(data.readUTF(), data.readUTF(),
+                        data.readDouble(), data.readInt(), data.readInt());
+                summaries.put(List.of(summary.getAuthor(), summary.getName()), summary);
+            }
+            return new RecipeSummaryIndex(dataPaths, stamps, summaries);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * This helper method gets the key a recipe is identified by, which is its author and
+     * its name.
+     *
+     * @param recipe - Recipe to get the key of
+     * @return - List with the author and the name of the recipe
+     */
+    private static List<String> getKey(Recipe recipe) {
+        return List.of(recipe.getAuthor(), recipe.getName());
+    }
+
+    /**
+     * This helper method gets the size and modification time of each file.
+     *
+     * @param paths - Paths to the files
+     * @return - Array with the size and modification time of each file, one after another
+     */
+    private static long[] stamp(List<Path> paths) {
+        long[] stamps = new long[paths.size() * 2];
+        for (int i = 0; i < paths.size(); i++) {
+            Path path = paths.get(i);
+            try {
+                boolean exists = Files.exists(path);
+                stamps[2 * i] = exists ? Files.size(path) : 0;
+                stamps[2 * i + 1] = exists
+                        ? Files.getLastModifiedTime(path).to(TimeUnit.NANOSECONDS) : 0;
+            } catch (IOException e) {
+                stamps[2 * i] = -1;
+                stamps[2 * i + 1] = -1;
+            }
+        }
+        return stamps;
+    }
+
+    /**
+     * A change in the log of the index. A put has the whole summary, a remove only the
+     * name and author, and a record which only makes the index match the recipe files
+     * again has neither. It is written to the log as a JsonObject, like the entries of
+     * {@link LsmStore}, so it is not read by reflection.
+     */
+    private static final class SummaryRecord {
+        private String name;
+        private String author;
+        private double ratingSum;
+        private int numberOfReviewers;
+        private int numberOfComments;
+        private long[] stamps;
+
+        private SummaryRecord(RecipeSummary summary, long[] stamps) {
+            if (summary != null) {
+                this.name = summary.getName();
+                this.author = summary.getAuthor();
+                this.ratingSum = summary.getRatingSum();
+                this.numberOfReviewers = summary.getNumberOfReviewers();
+                this.numberOfComments = summary.getNumberOfComments();
+            }
+            this.stamps = stamps;
+        }
+
+        /**
+         * This method converts the record to the JsonObject written to the log.
+         *
+         * @return - JsonObject with the fields of the record which are set
+         */
+        private JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            if (name != null && author != null) {
+                json.addProperty("name", name);
+                json.addProperty("author", author);
+                json.addProperty("ratingSum", ratingSum);
+                json.addProperty("numberOfReviewers", numberOfReviewers);
+                json.addProperty("numberOfComments", numberOfComments);
+            }
+            if (stamps != null) {
+                JsonArray array = new JsonArray();
+                for (long stamp : stamps) {
+                    array.add(stamp);
+                }
+                json.add("stamps", array);
+            }
+            return json;
+        }
+
+        /**
+         * This method reads a record from a JsonObject in the log.
+         *
+         * @param json - JsonObject written by {@link #toJson()}
+         * @return - The record
+         */
+        private static SummaryRecord fromJson(JsonObject json) {
+            SummaryRecord record = new SummaryRecord(null, null);
+            if (json.has("name") && json.has("author")) {
+                record.name = json.get("name").getAsString();
+                record.author = json.get("author").getAsString();
+                record.ratingSum = json.get("ratingSum").getAsDouble();
+                record.numberOfReviewers = json.get("numberOfReviewers").getAsInt();
+                record.numberOfComments = json.get("numberOfComments").getAsInt();
+            }
+            if (json.has("stamps")) {
+                JsonArray array = json.getAsJsonArray("stamps");
+                record.stamps = new long[array.size()];
+                int i = 0;
+                for (JsonElement stamp : array) {
+                    record.stamps[i++] = stamp.getAsLong();
+                }
+            }
+            return record;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package file;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import core.Profile;
+import core.Recipe;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class keeps the versions of the records saved to file, which are recipes and
+ * profiles, and the migrations which upgrade a record from one version to the next.
+ *
+ * <p>Every record is written with its version as its first member, but records with the
+ * version anywhere else, such as records written by hand, are read as well. A record
+ * written before records had versions is version {@value #UNVERSIONED}, since that version
+ * only added the version to records, so such records are not upgraded until a later
+ * version changes them. When an older record is read, the migrations from its version up
+ * to the current version are run on its JSON before it is decoded, so the rest of the
+ * program only ever sees records in the current version.
+ * Records are upgraded on file when they are written again, which the
+ * {@link BackgroundMigrator} does in the background.
+ * </p>
+ *
+ * <p>The recipes inside a profile are part of the profile record, and are upgraded by the
+ * migrations of profiles. A new version is added by adding a migration to
+ * {@link #getDefault()}.
+ * </p>
+ */
+public final class RecordVersions {
+    /**
+     * The name of the member holding the version of a record.
+     */
+    public static final String VERSION_MEMBER = "version";
+
+    /**
+     * The version of records without a version, which were written before records had
+     * versions.
+     */
+    public static final int UNVERSIONED = 1;
+
+    private static final RecordVersions DEFAULT = new RecordVersions(Map.of())
+            .with(Recipe.class, UnaryOperator.identity())
+            .with(Profile.class, UnaryOperator.identity());
+
+    private final Map<Class<?>, List<UnaryOperator<JsonObject>>> migrations;
+
+    /**
+     * This constructor makes versions with the given migrations.
+     *
+     * @param migrations - Map from each type to its migrations, in order
+     */
+    private RecordVersions(Map<Class<?>, List<UnaryOperator<JsonObject>>> migrations) {
+        this.migrations = migrations;
+    }
+
+    /**
+     * This method gets the versions and migrations of the records written by this program.
+     *
+     * <p>Version 1 of recipes and profiles only adds the version, since the records saved
+     * before records had versions are read as they are. Records without a version are
+     * therefore version 1 already. Later versions add their migrations after these.
+     * </p>
+     *
+     * @return - Returns the versions used for all files
+     */
+    public static RecordVersions getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * This method makes new versions with one more migration for the given type, which
+     * upgrades a record of the current version to the next version.
+     *
+     * @param type      - Type of the records
+     * @param migration - Function which changes the JSON of a record to the next version
+     * @return - Returns the new versions, these versions are not changed
+     */
+    public RecordVersions with(Class<?> type, UnaryOperator<JsonObject> migration) {
+        Map<Class<?>, List<UnaryOperator<JsonObject>>> copy = new HashMap<>(migrations);
+        List<UnaryOperator<JsonObject>> steps = new ArrayList<>(
+                migrations.getOrDefault(type, List.of()));
+        steps.add(migration);
+        copy.put(type, List.copyOf(steps));
+        return new RecordVersions(Map.copyOf(copy));
+    }
+
+    /**
+     * This method gets the version records of the given type are written in.
+     *
+     * @param type - Type of the records
+     * @return - Returns the current version, which is 0 for types without migrations
+     */
+    public int getCurrentVersion(Class<?> type) {
+        return migrations.getOrDefault(type, List.of()).size();
+    }
+
+    /**
+     * This method checks if some type has a version after {@value #UNVERSIONED}. Until one
+     * has, every record this program writes or has written is of the current version, so
+     * there is nothing to upgrade on file.
+     *
+     * @return - Returns true if records on file can be outdated, false otherwise
+     */
+    public boolean hasUpgrades() {
+        return migrations.values().stream().anyMatch(steps -> steps.size() > UNVERSIONED);
+    }
+
+    /**
+     * This method gets the version of a record.
+     *
+     * @param record - JSON of the record
+     * @return - Returns the version, or {@value #UNVERSIONED} if the record has none
+     */
+    public static int getVersion(JsonObject record) {
+        JsonElement version = record.get(VERSION_MEMBER);
+        if (version == null || !version.isJsonPrimitive()
+                || !version.getAsJsonPrimitive().isNumber()) {
+            return UNVERSIONED;
+        }
+        return version.getAsInt();
+    }
+
+    /**
+     * This method checks if a record has a version older than the current version.
+     *
+     * @param type   - Type of the record
+     * @param record - JSON of the record
+     * @return - Returns true if the record should be upgraded, false otherwise
+     */
+    public boolean isOutdated(Class<?> type, JsonObject record) {
+        return getVersion(record) < getCurrentVersion(type);
+    }
+
+    /**
+     * This method checks if a record written as JSON has a version older than the current
+     * version. The members are read until the version is found, so only the first member
+     * is read in the records written by this program.
+     *
+     * @param type - Type of the record
+     * @param json - JSON of the record
+     * @return - Returns true if the record should be upgraded, false otherwise
+     */
+    public boolean isOutdated(Class<?> type, String json) {
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals(VERSION_MEMBER)
+                        && reader.peek() == JsonToken.NUMBER) {
+                    return reader.nextInt() < getCurrentVersion(type);
+                }
+                reader.skipValue();
+            }
+            return UNVERSIONED < getCurrentVersion(type);
+        } catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * This method counts the records in a JSON file which have a version older than the
+     * current version. The records are read one at a time as JSON, without decoding them.
+     * Binary files are upgraded as a whole by the version in their header, so they have no
+     * outdated records.
+     *
+     * @param filePath  - Path object to the file
+     * @param arrayName - Name of the field holding the array of records, or null if the
+     *                  file is the array
+     * @param type      - Type of the records
+     * @return - Returns the number of outdated records in the file
+     */
+    public long countOutdated(Path filePath, String arrayName, Class<?> type) {
+        if (getCurrentVersion(type) == 0 || BinaryCodec.isBinary(filePath)) {
+            return 0;
+        }
+        try (Stream<JsonObject> records = FileUtil.streamArray(filePath, arrayName,
+                JsonObject.class)) {
+            return records.filter(record -> isOutdated(type, record)).count();
+        }
+    }
+
+    /**
+     * This method finds the outdated records in a JSON file and upgrades them, up to the
+     * given number of records. The records are read one at a time as JSON, and outdated
+     * records which the filter does not accept are skipped.
+     * Binary files have no outdated records, as described in
+     * {@link #countOutdated(Path, String, Class)}.
+     *
+     * @param filePath  - Path object to the file
+     * @param arrayName - Name of the field holding the array of records, or null if the
+     *                  file is the array
+     * @param type      - Type of the records
+     * @param filter    - Predicate which accepts the outdated records to upgrade
+     * @param limit     - Largest number of records to upgrade
+     * @return - Returns the JSON of the upgraded records, in the order of the file
+     * @see #migrate(Class, JsonObject)
+     */
+    public List<JsonObject> migrateOutdated(Path filePath, String arrayName, Class<?> type,
+            Predicate<JsonObject> filter, long limit) {
+        if (getCurrentVersion(type) == 0 || BinaryCodec.isBinary(filePath)) {
+            return List.of();
+        }
+        try (Stream<JsonObject> records = FileUtil.streamArray(filePath, arrayName,
+                JsonObject.class)) {
+            return records.filter(record -> isOutdated(type, record))
+                    .filter(filter)
+                    .limit(limit)
+                    .map(record -> migrate(type, record))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * This method upgrades a record to the current version, by running the migrations
+     * from its version. Records of the current version, or a newer one, are not changed,
+     * unless their version is not the first member, in which case it is moved first, or
+     * they have no version, in which case it is added first.
+     *
+     * @param type   - Type of the record
+     * @param record - JSON of the record, which may be changed
+     * @return - Returns the JSON of the upgraded record, with the version as first member
+     */
+    public JsonObject migrate(Class<?> type, JsonObject record) {
+        List<UnaryOperator<JsonObject>> steps = migrations.getOrDefault(type, List.of());
+        int version = getVersion(record);
+        if (version >= steps.size() && record.has(VERSION_MEMBER)
+                && record.keySet().iterator().next().equals(VERSION_MEMBER)) {
+            return record;
+        }
+        JsonObject migrated = record;
+        for (int i = version; i < steps.size(); i++) {
+            migrated = steps.get(i).apply(migrated);
+        }
+        JsonObject tagged = new JsonObject();
+        tagged.addProperty(VERSION_MEMBER, Math.max(version, steps.size()));
+        for (Entry<String, JsonElement> member : migrated.entrySet()) {
+            if (!member.getKey().equals(VERSION_MEMBER)) {
+                tagged.add(member.getKey(), member.getValue());
+            }
+        }
+        return tagged;
+    }
+}
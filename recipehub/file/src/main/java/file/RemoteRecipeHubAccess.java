@@ -1,18 +1,20 @@
 package file;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.reflect.TypeToken;
 import core.Profile;
 import core.Recipe;
 import core.RecipeLibrary;
+import core.RecipeSummary;
 import java.io.IOException;
 import java.lang.reflect.Type;
 import java.net.URI;
+import java.net.URLEncoder;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpRequest.BodyPublishers;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 /**
@@ -38,7 +40,7 @@ public class RemoteRecipeHubAccess implements RecipeHubAccess {
      */
     public RemoteRecipeHubAccess(URI endpointBaseUri) {
         this.endpointBaseUri = endpointBaseUri;
-        this.gson = new GsonBuilder().setPrettyPrinting().create();
+        this.gson = ModelTypeAdapterFactory.newGsonBuilder().setPrettyPrinting().create();
     }
 
     /**
@@ -67,6 +69,64 @@ public class RemoteRecipeHubAccess implements RecipeHubAccess {
         }
     }
 
+    /**
+     * Retrieves the summaries of all recipes from the remote server, without the recipes
+     * themselves.
+     *
+     * @return List of the summaries of all recipes
+     * @throws RuntimeException if an error occurs during the HTTP request.
+     */
+    @Override
+    public List<RecipeSummary> getRecipeSummaries() {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(recipeSummariesUri())
+                    .header(ACCEPT_HEADER, APPLICATION_JSON)
+                    .GET()
+                    .build();
+            final HttpResponse<String> response = HttpClient.newBuilder().build().send(request,
+                    HttpResponse.BodyHandlers.ofString());
+
+            String responseBody = response.body();
+            Type listType = new TypeToken<List<RecipeSummary>>() {
+            }.getType();
+            List<RecipeSummary> summaries = gson.fromJson(responseBody, listType);
+
+            return summaries;
+
+        } catch (IOException | InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Loads the recipe with the given author and name from the remote server, without the
+     * other recipes.
+     *
+     * @param author - Username of the author of the recipe
+     * @param name - Name of the recipe
+     * @return the recipe, or null if it does not exist or could not be loaded
+     */
+    @Override
+    public Recipe loadRecipe(String author, String name) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(recipeUri(author, name))
+                    .header(ACCEPT_HEADER, APPLICATION_JSON)
+                    .GET()
+                    .build();
+            final HttpResponse<String> response = HttpClient.newBuilder().build().send(request,
+                    HttpResponse.BodyHandlers.ofString());
+
+            String responseBody = response.body();
+
+            Recipe recipe = gson.fromJson(responseBody, Recipe.class);
+
+            return recipe;
+
+        } catch (IOException | InterruptedException | IllegalStateException e) {
+            return null;
+        }
+    }
+
     /**
      * Removes the given recipe from the remote server.
      *
@@ -179,6 +239,37 @@ public class RemoteRecipeHubAccess implements RecipeHubAccess {
         return endpointBaseUri.resolve("recipelibrary");
     }
 
+    /**
+     * Generates the URI for accessing the summaries of the recipes on the remote server.
+     *
+     * @return URI for the recipe summaries.
+     */
+    private URI recipeSummariesUri() {
+        return endpointBaseUri.resolve("recipesummaries");
+    }
+
+    /**
+     * Generates the URI for accessing the recipe with the given author and name on the
+     * remote server.
+     *
+     * @param author - String with the username of the author
+     * @param name - String with the name of the recipe
+     * @return URI for the recipe.
+     */
+    private URI recipeUri(String author, String name) {
+        return endpointBaseUri.resolve("recipes/" + encode(author) + "/" + encode(name));
+    }
+
+    /**
+     * Encodes a value as one segment of the path of a URI.
+     *
+     * @param value - String to encode
+     * @return the encoded value
+     */
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
     /**
      * Generates the URI for accessing the profile with the given username on the remote server.
      * 
@@ -242,4 +333,28 @@ public class RemoteRecipeHubAccess implements RecipeHubAccess {
             return null;
         }
     }
+
+    /**
+     * This class registers the REST API as the storage engine named {@value #NAME}.
+     * The server is found at the URI in the {@value #URI_PROPERTY} system property, or at
+     * {@value #DEFAULT_URI} if it is not set.
+     *
+     * @see RecipeHubAccessProvider
+     */
+    public static final class Provider implements RecipeHubAccessProvider {
+        public static final String NAME = "remote";
+        public static final String URI_PROPERTY = "recipehub.remote.uri";
+        public static final String DEFAULT_URI = "http://localhost:8080/recipehub/";
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public RecipeHubAccess create() {
+            return new RemoteRecipeHubAccess(URI.create(System.getProperty(URI_PROPERTY,
+                    DEFAULT_URI)));
+        }
+    }
 }
@@ -0,0 +1,376 @@
+package file;
+
+import core.Profile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class handles file operations for users, with one file per user.
+ * Loading or writing a profile only touches the file of that user, so the time it takes
+ * does not depend on how many users there are.
+ *
+ * <p>The files are kept in a directory next to the profile file, named after the profile
+ * file without its extension. If the directory does not exist when the filehandler is made,
+ * the profiles already in the profile file, and its log, are moved into it. The profile
+ * file and its log are then renamed with the suffix {@value #MOVED_SUFFIX}, and an empty
+ * profile file is left in their place, so the moved profiles are not read from them again.
+ * Each file has a {@link StoreLock} of its own, so users are read and written at the same
+ * time by threads and programs, while each user is only written by one at a time.
+ * </p>
+ */
+public class ShardedUserFilehandler extends UserFilehandler {
+    private static final Pattern VALID_USERNAME = Pattern.compile("^[a-zA-Z0-9]+$");
+    private static final String SHARD_SUFFIX = ".json";
+    private static final String MOVED_SUFFIX = ".moved";
+
+    /**
+     * This constructor creates the directory for the profiles, and moves the profiles
+     * from the profile file into it if the directory is new.
+     */
+    public ShardedUserFilehandler() {
+        this(null);
+    }
+
+    /**
+     * This constructor makes a filehandler with its own profile file, and creates the
+     * directory for the profiles next to it. The profiles in the profile file are moved
+     * into the directory if the directory is new.
+     *
+     * @param filePath - Path object to the profile file, or null to use the file with the
+     *                 default file name in the home directory
+     * @see UserFilehandler#UserFilehandler(Path, boolean, StorageFormat)
+     */
+    public ShardedUserFilehandler(Path filePath) {
+        super(filePath, false, StorageFormat.JSON);
+        ensureDirectory();
+    }
+
+    /**
+     * This helper method creates the directory for the profiles if it does not exist,
+     * for instance when the default file name has changed since the filehandler was made,
+     * and retires the profile file once its profiles are moved.
+     *
+     * @return - Returns true if the directory exists, false otherwise
+     */
+    private boolean ensureDirectory() {
+        return Files.isDirectory(getDirectory()) && isRetired()
+                || StoreLock.forFile(getDataPath()).write(this::createDirectory);
+    }
+
+    /**
+     * This helper method creates the directory for the profiles with the profiles from the
+     * profile file and its log in it. The profiles are written to a temporary directory,
+     * which is then renamed into place, so a crash while they are moved leaves no directory,
+     * and they are moved again the next time. The profile file is retired after the
+     * directory is in place, also if a crash came between the two the last time. It is
+     * called with the lock of the profile file held, so only one program moves them.
+     *
+     * @return - Returns true if the directory exists, false otherwise
+     */
+    private boolean createDirectory() {
+        Path directory = getDirectory();
+        try {
+            if (!Files.isDirectory(directory)) {
+                Path tempDirectory = Path.of(directory + ".tmp");
+                FileUtil.deleteDirectory(tempDirectory);
+                Files.createDirectories(tempDirectory);
+                List<Profile> profiles = new UserFilehandler(getDataPath(),
+                        Files.exists(getLogPath(getDataPath())), StorageFormat.JSON)
+                        .readProfiles();
+                for (Profile profile : profiles) {
+                    if (isValidUsername(profile.getUsername()) && !FileUtil.writeFile(
+                            getShardPath(tempDirectory, profile.getUsername()), profile)) {
+                        throw new IOException("Could not move " + profile.getUsername());
+                    }
+                }
+                Files.move(tempDirectory, directory, StandardCopyOption.ATOMIC_MOVE);
+            }
+            retire();
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error creating profile directory");
+            System.out.println(e.getMessage());
+            return Files.isDirectory(directory);
+        }
+    }
+
+    /**
+     * This helper method renames the profile file and its log, whose profiles have been
+     * moved into the directory, and leaves an empty profile file in their place. The log
+     * is renamed first, so the renamed profile file marks that both are retired.
+     *
+     * @throws IOException if a file can not be renamed
+     */
+    private void retire() throws IOException {
+        if (isRetired()) {
+            return;
+        }
+        Path logPath = getLogPath(getDataPath());
+        if (Files.exists(logPath)) {
+            Files.move(logPath, Path.of(logPath + MOVED_SUFFIX),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        if (Files.exists(getDataPath())) {
+            Files.move(getDataPath(), getMovedPath(getDataPath()),
+                    StandardCopyOption.REPLACE_EXISTING);
+        }
+        FileUtil.createFile(getDataPath());
+    }
+
+    /**
+     * This helper method checks if the profile file has been retired.
+     *
+     * @return - Returns true if the profiles in the profile file have been moved
+     */
+    private boolean isRetired() {
+        return Files.exists(getMovedPath(getDataPath()));
+    }
+
+    /**
+     * This method writes a profile to its own file. If the profile already exists,
+     * it will be overwritten to update the profile.
+     *
+     * @param profile - Profile object to write
+     * @return - Returns true if the profile was written, false if null or not written
+     */
+    @Override
+    public boolean writeProfile(Profile profile) {
+        if (profile == null || !isValidUsername(profile.getUsername()) || !ensureDirectory()) {
+            return false;
+        }
+        Path shardPath = getShard(profile.getUsername());
+        return StoreLock.forFile(shardPath).write(() -> FileUtil.writeFile(shardPath, profile));
+    }
+
+    /**
+     * This method reads all profiles, ordered by the name of their files.
+     *
+     * @return - Returns a list of profiles
+     */
+    @Override
+    public List<Profile> readProfiles() {
+        List<Profile> profiles = new ArrayList<>();
+        for (Path shardPath : listShards()) {
+            Profile profile = readShard(shardPath);
+            if (profile != null) {
+                profiles.add(profile);
+            }
+        }
+        return profiles;
+    }
+
+    /**
+     * This method writes all profiles, each to its own file. If the list of profiles is
+     * empty or null, nothing is written.
+     *
+     * @param profiles - List of profiles to write
+     * @return - Returns true if the profiles were written, false if null or not written
+     */
+    @Override
+    public boolean writeAllProfiles(List<Profile> profiles) {
+        if (profiles == null || profiles.isEmpty()) {
+            return false;
+        }
+        boolean written = true;
+        for (Profile profile : profiles) {
+            written &= writeProfile(profile);
+        }
+        return written;
+    }
+
+    /**
+     * This method checks if a profile with the given username exists, by checking if
+     * the file of the user exists.
+     *
+     * @param username - Username to check
+     * @return - Returns true if the profile exists, false otherwise
+     */
+    @Override
+    public boolean userExists(String username) {
+        return isValidUsername(username) && Files.exists(getShard(username));
+    }
+
+    /**
+     * This method loads a profile by reading only the file of the given user.
+     *
+     * @param username - Username of the profile to load
+     * @return Returns the profile, or null if it does not exist
+     */
+    @Override
+    public Profile loadProfile(String username) {
+        if (!isValidUsername(username)) {
+            return null;
+        }
+        return readShard(getShard(username));
+    }
+
+    /**
+     * This method upgrades the profiles saved in an older version to the current version,
+     * one file at a time, up to the given number of profiles. Only the version at the start
+     * of each file is read to find the outdated profiles, and each file is rewritten with
+     * its own lock held, so the other users can be read and written meanwhile.
+     *
+     * @param limit - Number of profiles to upgrade
+     * @return - Returns the number of profiles which were upgraded
+     * @see RecordVersions#isOutdated(Class, String)
+     */
+    @Override
+    public long migrateRecords(long limit) {
+        long migrated = 0;
+        for (Path shardPath : listShards()) {
+            if (migrated >= limit) {
+                break;
+            }
+            boolean upgraded = StoreLock.forFile(shardPath).write(() -> {
+                try {
+                    if (!RecordVersions.getDefault().isOutdated(Profile.class,
+                            Files.readString(shardPath))) {
+                        return false;
+                    }
+                } catch (IOException e) {
+                    return false;
+                }
+                Profile profile = FileUtil.readFile(shardPath, null, Profile.class);
+                return profile != null && FileUtil.writeFile(shardPath, profile);
+            });
+            if (upgraded) {
+                migrated++;
+            }
+        }
+        return migrated;
+    }
+
+    /**
+     * This helper method reads the profile in a file, while the file is not written.
+     *
+     * @param shardPath - Path object to the file of the profile
+     * @return - Returns the profile, or null if the file does not exist
+     */
+    private static Profile readShard(Path shardPath) {
+        return StoreLock.forFile(shardPath).read(() -> Files.exists(shardPath)
+                ? FileUtil.readFile(shardPath, null, Profile.class) : null);
+    }
+
+    /**
+     * This helper method lists the files of the profiles, ordered by their names.
+     *
+     * @return - Returns a list of the paths of the files
+     */
+    private List<Path> listShards() {
+        try (Stream<Path> files = Files.list(getDirectory())) {
+            return files.filter(f -> f.toString().endsWith(SHARD_SUFFIX)).sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            System.out.println("Error reading profile directory");
+            System.out.println(e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * This helper method checks if the username can be used as part of a file name.
+     * Usernames of valid profiles only contain letters and numbers.
+     *
+     * @param username - Username to check
+     * @return - Returns true if the username is valid, false otherwise
+     * @see Profile#isValidUsername(String)
+     */
+    private static boolean isValidUsername(String username) {
+        return username != null && VALID_USERNAME.matcher(username).matches();
+    }
+
+    /**
+     * This method gets the directory the profile files are kept in, since the profiles
+     * are read from the files in it.
+     *
+     * @return - Returns a list with the path of the directory
+     */
+    @Override
+    public List<Path> getStoragePaths() {
+        return List.of(getDirectory());
+    }
+
+    /**
+     * This method gets the path of the directory the profile files are kept in, for the
+     * file with the default file name.
+     *
+     * @return - Path object of the directory
+     */
+    public static Path getDirectoryPath() {
+        return getDirectoryPath(getFilePath());
+    }
+
+    /**
+     * This method gets the path of the directory the profile files are kept in, for the
+     * given profile file.
+     *
+     * @param filePath - Path object to the profile file
+     * @return - Path object of the directory
+     */
+    public static Path getDirectoryPath(Path filePath) {
+        String fileName = filePath.getFileName().toString();
+        if (fileName.endsWith(SHARD_SUFFIX)) {
+            fileName = fileName.substring(0, fileName.length() - SHARD_SUFFIX.length());
+        }
+        return filePath.resolveSibling(fileName);
+    }
+
+    /**
+     * This method gets the path of the file for the given username.
+     * Upper case letters are written as an underscore followed by the lower case letter,
+     * so that usernames which only differ in case get different files on file systems
+     * which ignore case.
+     *
+     * @param username - Username of the profile
+     * @return - Path object of the file
+     */
+    public static Path getShardPath(String username) {
+        return getShardPath(getDirectoryPath(), username);
+    }
+
+    /**
+     * This method gets the path of the file for the given username in the given directory.
+     *
+     * @param directory - Path object to the directory the profile files are kept in
+     * @param username  - Username of the profile
+     * @return - Path object of the file
+     * @see #getShardPath(String)
+     */
+    public static Path getShardPath(Path directory, String username) {
+        StringBuilder name = new StringBuilder();
+        for (char c : username.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                name.append('_').append(Character.toLowerCase(c));
+            } else {
+                name.append(c);
+            }
+        }
+        return directory.resolve(name + SHARD_SUFFIX);
+    }
+
+    /**
+     * This method gets the path the given profile file is renamed to once its profiles
+     * have been moved into the directory.
+     *
+     * @param filePath - Path object to the profile file
+     * @return - Path object of the renamed profile file
+     */
+    public static Path getMovedPath(Path filePath) {
+        return Path.of(filePath + MOVED_SUFFIX);
+    }
+
+    private Path getDirectory() {
+        return getDirectoryPath(getDataPath());
+    }
+
+    private Path getShard(String username) {
+        return getShardPath(getDirectory(), username);
+    }
+}
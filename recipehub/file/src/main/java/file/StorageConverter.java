@@ -0,0 +1,67 @@
+package file;
+
+import com.google.gson.reflect.TypeToken;
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * This class converts recipe and profile files between the storage formats.
+ * The file to convert can be in either format, and can be converted in place, since
+ * the converted file replaces the target atomically.
+ *
+ * @see StorageFormat
+ */
+public class StorageConverter {
+
+    /**
+     * This method converts a recipe file to the given format.
+     *
+     * @param source - Path object to the recipe file to convert
+     * @param target - Path object to write the converted file to, which can be the source
+     * @param format - Format to convert to
+     * @return - Returns true if the file was converted, false otherwise
+     */
+    public static boolean convertRecipes(Path source, Path target, StorageFormat format) {
+        List<Recipe> recipes;
+        if (BinaryCodec.isBinary(source)) {
+            recipes = BinaryCodec.readRecipes(source);
+        } else {
+            RecipeLibrary recipeLibrary = FileUtil.readFile(source, null, RecipeLibrary.class);
+            if (recipeLibrary == null) {
+                return false;
+            }
+            recipes = recipeLibrary.getRecipes();
+        }
+        return format == StorageFormat.BINARY ? BinaryCodec.writeRecipes(target, recipes)
+                : FileUtil.writeFile(target, new RecipeLibrary(recipes),
+                        format == StorageFormat.COMPRESSED_JSON);
+    }
+
+    /**
+     * This method converts a profile file to the given format.
+     *
+     * @param source - Path object to the profile file to convert
+     * @param target - Path object to write the converted file to, which can be the source
+     * @param format - Format to convert to
+     * @return - Returns true if the file was converted, false otherwise
+     */
+    public static boolean convertProfiles(Path source, Path target, StorageFormat format) {
+        List<Profile> profiles;
+        if (BinaryCodec.isBinary(source)) {
+            profiles = BinaryCodec.readProfiles(source);
+        } else {
+            Type profileListType = new TypeToken<List<Profile>>() {
+            }.getType();
+            profiles = FileUtil.readFile(source, null, profileListType);
+            if (profiles == null) {
+                return false;
+            }
+        }
+        return format == StorageFormat.BINARY ? BinaryCodec.writeProfiles(target, profiles)
+                : FileUtil.writeFile(target, profiles, format == StorageFormat.COMPRESSED_JSON);
+    }
+}
@@ -0,0 +1,29 @@
+package file;
+
+/**
+ * The formats recipes and profiles can be saved to file in.
+ * Files in either format can always be read, so changing the format of a filehandler
+ * converts its file the next time it is written.
+ */
+public enum StorageFormat {
+    /**
+     * Pretty-printed JSON, readable and editable by hand.
+     */
+    JSON,
+
+    /**
+     * JSON compressed with GZIP, which is several times smaller than pretty-printed JSON.
+     * A compressed file is read as a whole, so profiles and recipes can not be read from
+     * the middle of it.
+     *
+     * @see FileUtil#writeFile(java.nio.file.Path, Object, boolean)
+     */
+    COMPRESSED_JSON,
+
+    /**
+     * Compact binary records.
+     *
+     * @see BinaryCodec
+     */
+    BINARY
+}
@@ -0,0 +1,148 @@
+package file;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * This class lets readers of a store file run at the same time, while a writer runs alone.
+ * Threads in this program are ordered by a ReadWriteLock, and other programs by a lock on
+ * a lock file next to the store file, which readers share and writers hold alone.
+ * The store file itself is not locked, since it is replaced on every write.
+ *
+ * <p>A thread which is writing can read without locking again, so a write can read the
+ * file before changing it. A thread which is reading can not start writing.
+ * </p>
+ */
+public final class StoreLock {
+    private static final Map<Path, StoreLock> locks = new ConcurrentHashMap<>();
+
+    private final Path lockPath;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private FileChannel sharedChannel;
+    private int readers;
+
+    private StoreLock(Path filePath) {
+        this.lockPath = getLockPath(filePath);
+    }
+
+    /**
+     * This method gets the lock of the given store file. Every caller in the program gets
+     * the same lock for the same file.
+     *
+     * @param filePath - Path object to the store file
+     * @return - The lock of the file
+     */
+    public static StoreLock forFile(Path filePath) {
+        return locks.computeIfAbsent(filePath.toAbsolutePath(), StoreLock::new);
+    }
+
+    /**
+     * This method runs the given reader while no one is writing to the file.
+     *
+     * @param <T>    - Generic type
+     * @param reader - Supplier which reads the file
+     * @return - Returns the result of the reader
+     */
+    public <T> T read(Supplier<T> reader) {
+        if (lock.isWriteLockedByCurrentThread()) {
+            return reader.get();
+        }
+        lock.readLock().lock();
+        try {
+            lockShared();
+            try {
+                return reader.get();
+            } finally {
+                unlockShared();
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * This method runs the given writer while no one else is reading or writing the file.
+     *
+     * @param <T>    - Generic type
+     * @param writer - Supplier which writes the file
+     * @return - Returns the result of the writer
+     */
+    public <T> T write(Supplier<T> writer) {
+        lock.writeLock().lock();
+        FileChannel channel = null;
+        try {
+            if (lock.getWriteHoldCount() == 1) {
+                channel = lockFile(false);
+            }
+            return writer.get();
+        } finally {
+            close(channel);
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * This method gets the path of the lock file used for the given store file.
+     *
+     * @param filePath - Path object to the store file
+     * @return - Path object of the lock file
+     */
+    public static Path getLockPath(Path filePath) {
+        return Path.of(filePath + ".lock");
+    }
+
+    /**
+     * Helper method which locks the lock file for reading when the first reader in the
+     * program starts. The other readers share that lock.
+     */
+    private synchronized void lockShared() {
+        if (readers++ == 0) {
+            sharedChannel = lockFile(true);
+        }
+    }
+
+    private synchronized void unlockShared() {
+        if (--readers == 0) {
+            close(sharedChannel);
+            sharedChannel = null;
+        }
+    }
+
+    /**
+     * Helper method which opens the lock file and waits for a lock on it. The lock is
+     * released when the channel is closed. If the file can not be locked, only threads
+     * in this program are ordered.
+     */
+    private FileChannel lockFile(boolean shared) {
+        FileChannel channel = null;
+        try {
+            channel = FileChannel.open(lockPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            FileLock fileLock = channel.lock(0, Long.MAX_VALUE, shared);
+            return fileLock.channel();
+        } catch (IOException e) {
+            System.out.println("Error locking file");
+            System.out.println(e.getMessage());
+            close(channel);
+            return null;
+        }
+    }
+
+    private static void close(FileChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -1,45 +1,129 @@
 package file;
 
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
 import com.google.gson.reflect.TypeToken;
 import core.Profile;
+import file.AppendLog.LogRecord;
 import java.lang.reflect.Type;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * This class handles file operations for users.
+ *
+ * <p>A filehandler either has a profile file of its own, or uses the file with the default
+ * file name in the home directory.
+ * </p>
  */
 public class UserFilehandler {
-    private static String fileName = "userInfo.json";
+    public static final String DEFAULT_FILE_NAME = "userInfo.json";
+    private static final int MIGRATION_ATTEMPTS = 3;
+    private static String fileName = DEFAULT_FILE_NAME;
+
+    private final Path filePath;
+
+    private final boolean logStructured;
+    private final StorageFormat storageFormat;
+    private final GroupCommit<List<Profile>> groupCommit = new GroupCommit<>(this::getLock,
+            this::readProfiles, profiles -> writeSnapshot(getDataPath(), profiles));
+    private long compactionThreshold = LogCompactor.DEFAULT_THRESHOLD;
+    private volatile UsernameIndex usernameIndex;
 
     /**
      * This constructor initializes the filePath.
      */
     public UserFilehandler() {
-        FileUtil.createFile(getFilePath());
+        this(false);
+    }
+
+    /**
+     * This constructor initializes the filePath and decides how changes are saved.
+     * In log-structured mode every written profile is appended as one record to a log
+     * next to the profile file, instead of rewriting the whole file.
+     * The profile file is then used as a snapshot the log is replayed on, and is
+     * rewritten in the background when the log grows past the compaction threshold.
+     *
+     * @param logStructured - true to append changes to a log, false to rewrite the file
+     */
+    public UserFilehandler(boolean logStructured) {
+        this(logStructured, StorageFormat.JSON);
+    }
+
+    /**
+     * This constructor initializes the filePath, decides how changes are saved and
+     * which format the profile file is written in.
+     * The profile file can always be read whatever format it is in, so an existing
+     * file is converted to the given format the next time it is written.
+     *
+     * @param logStructured - true to append changes to a log, false to rewrite the file
+     * @param storageFormat - Format to write the profile file in
+     * @see BinaryCodec
+     */
+    public UserFilehandler(boolean logStructured, StorageFormat storageFormat) {
+        this(null, logStructured, storageFormat);
+    }
+
+    /**
+     * This constructor makes a filehandler for its own profile file, which does not change
+     * when the default file name is set. Filehandlers for different files are independent
+     * of each other, so several stores can be used at the same time.
+     * The file, and the directories it is in, are created if they do not exist.
+     *
+     * @param filePath      - Path object to the profile file, or null to use the file with the
+     *                      default file name in the home directory
+     * @param logStructured - true to append changes to a log, false to rewrite the file
+     * @param storageFormat - Format to write the profile file in
+     * @see #setFileName(String)
+     */
+    public UserFilehandler(Path filePath, boolean logStructured, StorageFormat storageFormat) {
+        this.filePath = filePath;
+        this.logStructured = logStructured;
+        this.storageFormat = storageFormat;
+        FileUtil.createFile(getDataPath());
     }
 
     /**
      * This method writes a profile to the file. If the profile already exists,
      * it will be overwritten to update the profile.
      * 
+     * The file is locked while it is read and written, so that no other write is lost.
+     * Unless the filehandler is log-structured, profiles written at the same time are
+     * written to the file together.
+     * 
      * @param profile - Profile object to write
      * @return - Returns true if the profile was written, false if null or not written
+     * @see StoreLock#write(java.util.function.Supplier)
+     * @see GroupCommit
      */
     public boolean writeProfile(Profile profile) {
         if (profile == null) {
             return false;
         }
-        List<Profile> profiles = readProfiles();
+        if (logStructured) {
+            return getLock().write(() -> append(List.of(profile)));
+        }
+        return groupCommit.apply(profiles -> {
+            profiles.remove(profiles.stream()
+                    .filter(p -> p.getUsername().equals(profile.getUsername()))
+                    .findFirst()
+                    .orElse(null));
 
-        profiles.remove(profiles.stream()
-                .filter(p -> p.getUsername().equals(profile.getUsername()))
-                .findFirst()
-                .orElse(null));
+            profiles.add(profile);
+        });
+    }
 
-        profiles.add(profile);
-        return FileUtil.writeFile(getFilePath(), profiles);
+    /**
+     * This method gets the number of times profiles written have been committed to the
+     * profile file, which is less than the number of writes when they were grouped.
+     *
+     * @return - The number of commits
+     */
+    long getCommitCount() {
+        return groupCommit.getCommitCount();
     }
 
     /**
@@ -48,19 +132,68 @@ public class UserFilehandler {
      * @return - Returns a list of profiles
      */
     public List<Profile> readProfiles() {
+        return getLock().read(() -> {
+            if (logStructured) {
+                AppendLog log = new AppendLog(getLogPath(getDataPath()));
+                return log.read(() -> {
+                    List<Profile> profiles = readSnapshot();
+                    replay(profiles, log.readRecords());
+                    return profiles;
+                });
+            }
+            return readSnapshot();
+        });
+    }
+
+    /**
+     * This helper method reads the profiles saved in the profile file itself.
+     *
+     * @return - Returns a list of profiles
+     */
+    private List<Profile> readSnapshot() {
+        if (BinaryCodec.isBinary(getDataPath())) {
+            return BinaryCodec.readProfiles(getDataPath());
+        }
         List<Profile> profiles = new ArrayList<>();
         Type profileListType = new TypeToken<List<Profile>>() {
         }.getType();
-        profiles = FileUtil.readFile(getFilePath(), profiles, profileListType);
+        profiles = FileUtil.readFile(getDataPath(), profiles, profileListType);
         if (profiles == null) {
             return new ArrayList<>();
         }
         return profiles;
     }
 
+    /**
+     * This helper method writes the profiles to the given file, in the storage format
+     * of the filehandler.
+     * When the profile file itself is written uncompressed, the username index is made
+     * from where each profile was written, so it does not have to be made again by
+     * scanning the file.
+     *
+     * @param filePath - Path object to the file
+     * @param profiles - List of profiles to write
+     * @return - Returns true if the profiles were written, false otherwise
+     * @see UsernameIndex#write(Path, List, boolean)
+     */
+    private boolean writeSnapshot(Path filePath, List<Profile> profiles) {
+        if (storageFormat != StorageFormat.COMPRESSED_JSON && filePath.equals(getDataPath())) {
+            UsernameIndex index = UsernameIndex.write(filePath, profiles,
+                    storageFormat == StorageFormat.BINARY);
+            usernameIndex = index;
+            return index != null;
+        }
+        if (storageFormat == StorageFormat.BINARY) {
+            return BinaryCodec.writeProfiles(filePath, profiles);
+        }
+        return FileUtil.writeFile(filePath, profiles,
+                storageFormat == StorageFormat.COMPRESSED_JSON);
+    }
+
     /**
      * This method writes all profiles to the file. If the list of profiles is emty
      * or null, nothing is written.
+     * In log-structured mode each profile is appended to the log as an update.
      * 
      * @param profiles - List of profiles to write
      * @return - Returns true if the profiles were written, false if null or not written
@@ -69,25 +202,275 @@ public class UserFilehandler {
         if (profiles == null || profiles.isEmpty()) {
             return false;
         }
-        return FileUtil.writeFile(getFilePath(), profiles);
+        return getLock().write(() -> logStructured ? append(profiles)
+                : writeSnapshot(getDataPath(), profiles));
+    }
+
+    /**
+     * This method checks if a profile with the given username exists.
+     * Unless the filehandler is log-structured or the profile file is compressed, this is
+     * answered by the username index without parsing any profile.
+     * 
+     * @param username - Username to check
+     * @return - Returns true if the profile exists, false otherwise
+     * @see UsernameIndex#contains(String)
+     */
+    public boolean userExists(String username) {
+        return getLock().read(() -> isIndexed() ? getUsernameIndex().contains(username)
+                : loadProfile(username) != null);
     }
 
     /**
      * This method loads a profile from the file.
+     * Unless the filehandler is log-structured or the profile file is compressed, the
+     * username index is used to read only the part of the file with the given profile.
      * 
      * @param username - Username of the profile to load
      * @return Returns the profile
      */
     public Profile loadProfile(String username) {
-        List<Profile> profiles = readProfiles();
-        return profiles.stream()
-                .filter(p -> p.getUsername().equals(username))
-                .findFirst()
-                .orElse(null);
+        return getLock().read(() -> {
+            if (isIndexed()) {
+                long[] location = getUsernameIndex().getLocation(username);
+                if (location == null) {
+                    return null;
+                }
+                Profile profile = BinaryCodec.isBinary(getDataPath())
+                        ? BinaryCodec.readProfile(getDataPath(), location[0],
+                                (int) location[1])
+                        : FileUtil.readRange(getDataPath(), location[0], (int) location[1],
+                                Profile.class);
+                if (profile != null && profile.getUsername().equals(username)) {
+                    return profile;
+                }
+            }
+            List<Profile> profiles = readProfiles();
+            return profiles.stream()
+                    .filter(p -> p.getUsername().equals(username))
+                    .findFirst()
+                    .orElse(null);
+        });
     }
 
     /**
-     * This method sets the filename.
+     * This helper method checks if profiles can be found with the username index, which
+     * needs the profiles to be in the profile file itself, uncompressed.
+     * 
+     * @return - Returns true if the username index can be used, false otherwise
+     */
+    private boolean isIndexed() {
+        return !logStructured && !FileUtil.isCompressed(getDataPath());
+    }
+
+    /**
+     * This helper method gets the username index of the profile file, and loads it again
+     * if the profile file has changed.
+     * 
+     * @return - The current username index
+     */
+    private UsernameIndex getUsernameIndex() {
+        UsernameIndex index = usernameIndex;
+        if (index == null || !index.getDataPath().equals(getDataPath()) || !index.isCurrent()) {
+            index = UsernameIndex.load(getDataPath());
+            usernameIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * This helper method appends the profiles to the log, and schedules a compaction in
+     * the background if the log has grown past the compaction threshold.
+     *
+     * @param profiles - List of profiles to append
+     * @return - Returns true if all profiles were appended, false otherwise
+     */
+    private boolean append(List<Profile> profiles) {
+        AppendLog log = new AppendLog(getLogPath(getDataPath()));
+        for (Profile profile : profiles) {
+            if (!log.append(AppendLog.PUT, profile)) {
+                return false;
+            }
+        }
+        LogCompactor.compactIfNeeded(log, compactionThreshold, this::compact);
+        return true;
+    }
+
+    /**
+     * This method compacts the log into a new snapshot in the profile file.
+     * Only used in log-structured mode.
+     *
+     * @return - Returns true if the log was compacted, false otherwise
+     * @see AppendLog#compact(Path, java.util.function.BiPredicate)
+     */
+    public boolean compact() {
+        if (!logStructured) {
+            return false;
+        }
+        AppendLog log = new AppendLog(getLogPath(getDataPath()));
+        return log.compact(getDataPath(), (snapshotPath, records) -> {
+            List<Profile> profiles = readSnapshot();
+            replay(profiles, records);
+            return writeSnapshot(snapshotPath, profiles);
+        });
+    }
+
+    /**
+     * This method upgrades the profiles saved in an older version to the current version.
+     * The profiles are read in the current version already, so this only spares later
+     * reads from upgrading them.
+     * In log-structured mode, at most the given number of outdated profiles in the profile
+     * file are appended to the log in the current version, and they are written to the
+     * profile file when the log is compacted. Profiles which are in the log already are
+     * skipped, since the log replaces them.
+     * Otherwise the profile file can only be written whole, so it is written once with all
+     * profiles upgraded, and only if some profile is outdated. The limit is not used then.
+     * The upgraded file is written next to the profile file without holding the lock of
+     * the store, and renamed over it under the lock, the way a compaction is committed. If
+     * the profiles were saved in the meantime, the upgraded file is thrown away and written
+     * again, a few times at most.
+     *
+     * @param limit - Number of profiles to upgrade in log-structured mode
+     * @return - Returns the number of profiles which were upgraded
+     * @see RecordVersions#migrateOutdated(Path, String, Class, java.util.function.Predicate,
+     *      long)
+     */
+    public long migrateRecords(long limit) {
+        if (!logStructured) {
+            return migrateSnapshot();
+        }
+        return getLock().write(() -> {
+            AppendLog log = new AppendLog(getLogPath(getDataPath()));
+            Set<JsonElement> logged = new HashSet<>();
+            for (LogRecord record : log.readRecords()) {
+                logged.add(record.getValue(JsonObject.class).get("username"));
+            }
+            long migrated = 0;
+            for (JsonObject record : RecordVersions.getDefault().migrateOutdated(
+                    getDataPath(), null, Profile.class,
+                    outdated -> !logged.contains(outdated.get("username")), limit)) {
+                if (!log.append(AppendLog.PUT, record)) {
+                    break;
+                }
+                migrated++;
+            }
+            LogCompactor.compactIfNeeded(log, compactionThreshold, this::compact);
+            return migrated;
+        });
+    }
+
+    /**
+     * This helper method upgrades the whole profile file when the filehandler is not
+     * log-structured. The profiles are read under the read lock, so saves can only go on
+     * while the upgraded file is written, and the profile file is replaced under the write
+     * lock only if its stamp is still the one it had before the profiles were read.
+     * The username index is made again from the new file the next time it is used.
+     *
+     * @return - Returns the number of profiles which were upgraded
+     */
+    private long migrateSnapshot() {
+        Path tempPath = Path.of(getDataPath() + ".migrate.tmp");
+        for (int attempt = 0; attempt < MIGRATION_ATTEMPTS; attempt++) {
+            List<Long> stamp = FileUtil.getStamp(getDataPath());
+            long outdated = getLock().read(() -> RecordVersions.getDefault()
+                    .countOutdated(getDataPath(), null, Profile.class));
+            if (stamp == null || outdated == 0) {
+                return 0;
+            }
+            if (!writeSnapshot(tempPath, getLock().read(this::readSnapshot))) {
+                return 0;
+            }
+            long migrated = getLock().write(() -> {
+                if (!stamp.equals(FileUtil.getStamp(getDataPath()))) {
+                    return -1L;
+                }
+                usernameIndex = null;
+                return FileUtil.moveAtomically(tempPath, getDataPath()) ? outdated : 0L;
+            });
+            if (migrated >= 0) {
+                return migrated;
+            }
+        }
+        FileUtil.deleteQuietly(tempPath);
+        return 0;
+    }
+
+    /**
+     * This method sets how large the log can grow before it is compacted.
+     *
+     * @param compactionThreshold - Size of the log in bytes
+     */
+    public void setCompactionThreshold(long compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * This helper method applies the records of a log to a list of profiles, in order.
+     * A written profile replaces the profile with the same username.
+     *
+     * @param profiles - List of profiles to apply the records to
+     * @param records  - List of records to apply
+     */
+    private static void replay(List<Profile> profiles, List<LogRecord> records) {
+        for (LogRecord record : records) {
+            Profile profile = record.getValue(Profile.class);
+            profiles.removeIf(p -> p.getUsername().equals(profile.getUsername()));
+            if (!AppendLog.REMOVE.equals(record.getOperation())) {
+                profiles.add(profile);
+            }
+        }
+    }
+
+    /**
+     * This method checks if the filehandler appends changes to a log.
+     *
+     * @return - Returns true if the filehandler is log-structured, false otherwise
+     */
+    public boolean isLogStructured() {
+        return logStructured;
+    }
+
+    /**
+     * This method gets the format the filehandler writes the profile file in.
+     *
+     * @return - The storage format
+     */
+    public StorageFormat getStorageFormat() {
+        return storageFormat;
+    }
+
+    /**
+     * This helper method gets the lock of the profile file of the filehandler.
+     *
+     * @return - The lock of the profile file
+     */
+    private StoreLock getLock() {
+        return StoreLock.forFile(getDataPath());
+    }
+
+    /**
+     * This method gets the profile file of the filehandler. Filehandlers made without a
+     * file of their own use the file with the default file name, as it is when this is
+     * called.
+     *
+     * @return - Path object of the profile file
+     */
+    public Path getDataPath() {
+        return filePath != null ? filePath : getFilePath();
+    }
+
+    /**
+     * This method gets the files the profiles are read from, which are the profile file
+     * and its log.
+     *
+     * @return - Returns a list of the paths
+     */
+    public List<Path> getStoragePaths() {
+        return List.of(getDataPath(), getLogPath(getDataPath()));
+    }
+
+    /**
+     * This method sets the default file name, which is used by the filehandlers made
+     * without a profile file of their own. The file is kept in the home directory.
      * 
      * @param file - File to write to
      * @throws IllegalArgumentException if the filename is empty
@@ -118,4 +501,25 @@ public class UserFilehandler {
         return Path.of(System.getProperty("user.home")
                 + System.getProperty("file.separator") + fileName);
     }
+
+    /**
+     * This method gets the path of the log used in log-structured mode for the file with
+     * the default file name.
+     *
+     * @return - Path object of the log file
+     */
+    public static Path getLogPath() {
+        return getLogPath(getFilePath());
+    }
+
+    /**
+     * This method gets the path of the log used in log-structured mode for the given
+     * profile file.
+     *
+     * @param filePath - Path object to the profile file
+     * @return - Path object of the log file
+     */
+    public static Path getLogPath(Path filePath) {
+        return Path.of(filePath + ".log");
+    }
 }
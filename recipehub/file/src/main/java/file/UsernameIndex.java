@@ -0,0 +1,367 @@
+package file;
+
+import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import core.Profile;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class is an index from usernames to where their profiles are in the profile file.
+ * It is saved next to the profile file, so checking if a user exists does not parse any
+ * profile, and loading a profile only reads that profile.
+ *
+ * <p>Both JSON and binary profile files can be indexed. Compressed profile files can
+ * not be read from the middle, so they give an empty index.
+ * The index remembers the size and modification time of the profile file it was made
+ * for. Profiles written with {@link #write(Path, List, boolean)} get their index from
+ * where each profile was written. If the profile file has been changed in another way,
+ * the index is made again by scanning the file for where each profile starts and ends.
+ * </p>
+ */
+public class UsernameIndex {
+    private static final Gson gson = ModelTypeAdapterFactory.newGsonBuilder()
+            .setPrettyPrinting().create();
+
+    private final Path dataPath;
+    private final long dataSize;
+    private final long dataModified;
+    private final Map<String, long[]> locations;
+
+    /**
+     * This constructor makes an index from locations found in the given profile file.
+     *
+     * @param dataPath     - Path object to the profile file
+     * @param dataSize     - Size of the profile file when the index was made
+     * @param dataModified - Modification time of the profile file when the index was made
+     * @param locations    - Map from username to the offset and length of the profile
+     */
+    private UsernameIndex(Path dataPath, long dataSize, long dataModified,
+            Map<String, long[]> locations) {
+        this.dataPath = dataPath;
+        this.dataSize = dataSize;
+        this.dataModified = dataModified;
+        this.locations = locations;
+    }
+
+    /**
+     * This method loads the index for the given profile file.
+     * If the saved index does not match the profile file, a new index is made and saved.
+     *
+     * @param dataPath - Path object to the profile file
+     * @return - Returns the index for the profile file
+     */
+    public static UsernameIndex load(Path dataPath) {
+        UsernameIndex index = readIndexFile(dataPath);
+        if (index != null && index.isCurrent()) {
+            return index;
+        }
+        index = build(dataPath);
+        index.save();
+        return index;
+    }
+
+    /**
+     * This method writes the profiles to the profile file, as JSON or in the binary format,
+     * and makes the index from where each profile was written, so the file does not have
+     * to be scanned again. The new index is saved next to the profile file.
+     * The JSON is written the same way as {@link FileUtil#writeFile(Path, Object)} does.
+     *
+     * @param dataPath - Path object to the profile file
+     * @param profiles - List of profiles to write
+     * @param binary   - true to write the binary format, false to write JSON
+     * @return - Returns the index for the written file, or null if it was not written
+     * @see BinaryCodec
+     */
+    public static UsernameIndex write(Path dataPath, List<Profile> profiles, boolean binary) {
+        Map<String, long[]> locations = new LinkedHashMap<>();
+        boolean written = FileUtil.commitFile(dataPath, stream -> {
+            locations.clear();
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(stream));
+            if (binary) {
+                BinaryCodec.writeHeader(output);
+            } else {
+                output.write('[');
+            }
+            for (int i = 0; i < profiles.size(); i++) {
+                Profile profile = profiles.get(i);
+                byte[] record;
+                if (binary) {
+                    record = BinaryCodec.encodeProfile(profile);
+                    output.writeInt(record.length);
+                } else {
+                    record = gson.toJson(profile).replace("\n", "\n  ")
+                            .getBytes(StandardCharsets.UTF_8);
+                    output.write((i == 0 ? "\n  " : ",\n  ").getBytes(StandardCharsets.UTF_8));
+                }
+                locations.putIfAbsent(profile.getUsername(),
+                        new long[] {output.size(), record.length});
+                output.write(record);
+            }
+            if (!binary) {
+                output.write((profiles.isEmpty() ? "]" : "\n]").getBytes(StandardCharsets.UTF_8));
+            }
+            output.flush();
+        });
+        if (!written) {
+            return null;
+        }
+        UsernameIndex index = new UsernameIndex(dataPath, size(dataPath),
+                lastModified(dataPath), locations);
+        index.save();
+        return index;
+    }
+
+    /**
+     * This method checks if the index still matches the profile file.
+     *
+     * @return - Returns true if the profile file has not changed since the index was made
+     */
+    public boolean isCurrent() {
+        return dataSize == size(dataPath) && dataModified == lastModified(dataPath);
+    }
+
+    /**
+     * This method checks if a profile with the given username is in the profile file.
+     *
+     * @param username - Username to check
+     * @return - Returns true if the profile exists, false otherwise
+     */
+    public boolean contains(String username) {
+        return username != null && locations.containsKey(username);
+    }
+
+    /**
+     * This method gets where the profile with the given username is in the profile file.
+     *
+     * @param username - Username of the profile
+     * @return - Array with the offset and the length in bytes, or null if not found
+     */
+    public long[] getLocation(String username) {
+        if (!contains(username)) {
+            return null;
+        }
+        return locations.get(username).clone();
+    }
+
+    /**
+     * This method gets the number of profiles in the index.
+     *
+     * @return - The number of profiles
+     */
+    public int getSize() {
+        return locations.size();
+    }
+
+    /**
+     * This method gets the path of the profile file the index is for.
+     *
+     * @return - Path object of the profile file
+     */
+    public Path getDataPath() {
+        return dataPath;
+    }
+
+    /**
+     * This method saves the index next to the profile file.
+     *
+     * @return - Returns true if the index was saved, false otherwise
+     */
+    public boolean save() {
+        return FileUtil.commitFile(getIndexPath(dataPath), output -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output,
+                    StandardCharsets.UTF_8));
+            writer.write(dataSize + " " + dataModified + "\n");
+            for (Map.Entry<String, long[]> entry : locations.entrySet()) {
+                writer.write(entry.getKey() + " " + entry.getValue()[0] + " "
+                        + entry.getValue()[1] + "\n");
+            }
+            writer.flush();
+        });
+    }
+
+    /**
+     * This method gets the path of the index for the given profile file.
+     *
+     * @param dataPath - Path object to the profile file
+     * @return - Path object of the index file
+     */
+    public static Path getIndexPath(Path dataPath) {
+        return Path.of(dataPath + ".idx");
+    }
+
+    /**
+     * This method makes a new index by scanning the profile file.
+     * The scan finds where each profile starts and ends, and only reads the username
+     * of each profile.
+     *
+     * @param dataPath - Path object to the profile file
+     * @return - Returns the new index
+     */
+    static UsernameIndex build(Path dataPath) {
+        long size = size(dataPath);
+        long modified = lastModified(dataPath);
+        Map<String, long[]> locations = new LinkedHashMap<>();
+        byte[] bytes;
+        try {
+            bytes = Files.exists(dataPath) ? Files.readAllBytes(dataPath) : new byte[0];
+        } catch (IOException e) {
+            System.out.println("Error reading profile file");
+            System.out.println(e.getMessage());
+            bytes = new byte[0];
+        }
+        if (BinaryCodec.isBinary(bytes)) {
+            scanBinary(bytes, locations);
+        } else if (!FileUtil.isCompressed(bytes)) {
+            scanJson(bytes, locations);
+        }
+        return new UsernameIndex(dataPath, size, modified, locations);
+    }
+
+    /**
+     * This helper method finds the profiles in a JSON profile file, by finding where
+     * each element of the top-level array starts and ends.
+     *
+     * @param bytes     - The profile file
+     * @param locations - Map to put the username, offset and length of each profile in
+     */
+    private static void scanJson(byte[] bytes, Map<String, long[]> locations) {
+        int depth = 0;
+        int start = -1;
+        boolean inString = false;
+        boolean escaped = false;
+        for (int i = 0; i < bytes.length; i++) {
+            byte b = bytes[i];
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (b == '\\') {
+                    escaped = true;
+                } else if (b == '"') {
+                    inString = false;
+                }
+            } else if (b == '"') {
+                inString = true;
+            } else if (b == '{' || b == '[') {
+                if (depth == 1) {
+                    start = i;
+                }
+                depth++;
+            } else if (b == '}' || b == ']') {
+                depth--;
+                if (depth == 1 && start >= 0) {
+                    String json = new String(bytes, start, i + 1 - start, StandardCharsets.UTF_8);
+                    String username = readUsername(json);
+                    if (username != null) {
+                        locations.putIfAbsent(username, new long[] {start, i + 1 - start});
+                    }
+                    start = -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * This helper method finds the profiles in a binary profile file, by following the
+     * length in front of each record.
+     *
+     * @param bytes     - The profile file
+     * @param locations - Map to put the username, offset and length of each profile in
+     * @see BinaryCodec
+     */
+    private static void scanBinary(byte[] bytes, Map<String, long[]> locations) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int position = BinaryCodec.HEADER_LENGTH;
+        while (position + Integer.BYTES <= bytes.length) {
+            int length = buffer.getInt(position);
+            int start = position + Integer.BYTES;
+            if (length < 0 || start + length > bytes.length) {
+                break;
+            }
+            String username = BinaryCodec.readUsername(bytes, start, length);
+            if (username != null) {
+                locations.putIfAbsent(username, new long[] {start, length});
+            }
+            position = start + length;
+        }
+    }
+
+    /**
+     * This helper method reads the username of a profile, skipping everything else.
+     *
+     * @param json - The profile as JSON
+     * @return - The username, or null if the profile has none
+     */
+    private static String readUsername(String json) {
+        try (JsonReader reader = new JsonReader(new StringReader(json))) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                if (reader.nextName().equals("username")) {
+                    return reader.nextString();
+                }
+                reader.skipValue();
+            }
+        } catch (IOException | IllegalStateException e) {
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * This helper method reads a saved index.
+     *
+     * @param dataPath - Path object to the profile file
+     * @return - The saved index, or null if there is no readable index
+     */
+    private static UsernameIndex readIndexFile(Path dataPath) {
+        Path indexPath = getIndexPath(dataPath);
+        if (!Files.exists(indexPath)) {
+            return null;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(indexPath, StandardCharsets.UTF_8)) {
+            String[] header = reader.readLine().split(" ");
+            Map<String, long[]> locations = new LinkedHashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(" ");
+                locations.put(parts[0],
+                        new long[] {Long.parseLong(parts[1]), Long.parseLong(parts[2])});
+            }
+            return new UsernameIndex(dataPath, Long.parseLong(header[0]),
+                    Long.parseLong(header[1]), locations);
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static long size(Path path) {
+        try {
+            return Files.exists(path) ? Files.size(path) : 0;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.exists(path)
+                    ? Files.getLastModifiedTime(path).to(TimeUnit.NANOSECONDS) : 0;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
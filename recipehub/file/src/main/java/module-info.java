@@ -3,4 +3,9 @@ module file {
     requires com.google.gson;
     requires java.net.http;
     exports file; 
+
+    uses file.RecipeHubAccessProvider;
+    provides file.RecipeHubAccessProvider with file.DirectRecipeHubAccess.Provider,
+            file.CachingRecipeHubAccess.Provider, file.LsmRecipeHubAccess.Provider,
+            file.RemoteRecipeHubAccess.Provider;
 }
@@ -0,0 +1,141 @@
+package file;
+
+import core.Profile;
+import core.Recipe;
+import file.AppendLog.LogRecord;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for AppendLog.
+ */
+public class AppendLogTest {
+    private Path logPath = Path.of("test.log");
+    private Path snapshotPath = Path.of("testSnapshot.json");
+
+    /**
+     * Tests if records are appended to and read from the log in order.
+     *
+     * @see AppendLog#append(String, Object)
+     * @see AppendLog#readRecords()
+     */
+    @Test
+    @DisplayName("Test append and readRecords")
+    public void testAppendAndRead() {
+        AppendLog log = new AppendLog(logPath);
+        Assertions.assertTrue(Files.exists(logPath), "The log file should be created.");
+        Assertions.assertEquals(0, log.readRecords().size(), "A new log should be empty.");
+
+        Recipe recipe = new Recipe("Pancakes", 2, new Profile("Username1", "Password1"));
+        Assertions.assertTrue(log.append(AppendLog.PUT, recipe));
+        Assertions.assertTrue(log.append(AppendLog.REMOVE, recipe));
+
+        List<LogRecord> records = log.readRecords();
+        Assertions.assertEquals(2, records.size(), "The log should contain two records.");
+        Assertions.assertEquals(AppendLog.PUT, records.get(0).getOperation());
+        Assertions.assertEquals(AppendLog.REMOVE, records.get(1).getOperation());
+        Assertions.assertEquals("Pancakes", records.get(0).getValue(Recipe.class).getName(),
+                "The value of the record should be the appended recipe.");
+    }
+
+    /**
+     * Tests if a record that was only partly written is skipped, and if records appended
+     * after it are started on a new line and still read.
+     *
+     * @throws IOException if the log cannot be written to directly
+     * @see AppendLog#readRecords()
+     */
+    @Test
+    @DisplayName("Test that an incomplete last record is skipped")
+    public void testIncompleteRecord() throws IOException {
+        AppendLog log = new AppendLog(logPath);
+        log.append(AppendLog.PUT, "first");
+        Files.writeString(logPath, "{\"op\":\"put\",\"val", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+        List<LogRecord> records = log.readRecords();
+        Assertions.assertEquals(1, records.size(), "Only the complete record should be read.");
+        Assertions.assertEquals("first", records.get(0).getValue(String.class));
+
+        Assertions.assertTrue(log.append(AppendLog.PUT, "second"));
+        records = log.readRecords();
+        Assertions.assertEquals(2, records.size(),
+                "Records appended after the crash should not be lost.");
+        Assertions.assertEquals("second", records.get(1).getValue(String.class));
+    }
+
+    /**
+     * Tests if compaction writes a snapshot from the sealed records and leaves an empty
+     * log behind, and that records appended afterwards end up in the new log.
+     *
+     * @see AppendLog#compact(Path, java.util.function.Function)
+     */
+    @Test
+    @DisplayName("Test compact")
+    public void testCompact() {
+        AppendLog log = new AppendLog(logPath);
+        Assertions.assertFalse(log.compact(snapshotPath, records -> records.size()),
+                "An empty log should not be compacted.");
+
+        log.append(AppendLog.PUT, "first");
+        log.append(AppendLog.PUT, "second");
+        Assertions.assertTrue(log.compact(snapshotPath, records -> records.size()));
+        Assertions.assertEquals(2, FileUtil.readFile(snapshotPath, 0, Integer.class),
+                "The snapshot should be built from both records.");
+        Assertions.assertEquals(0, log.size(), "The log should be empty after compaction.");
+        Assertions.assertFalse(Files.exists(Path.of(logPath + ".compacting")),
+                "The sealed log should be deleted after compaction.");
+
+        log.append(AppendLog.PUT, "third");
+        Assertions.assertEquals(1, log.readRecords().size(),
+                "Only records appended after the compaction should be in the log.");
+    }
+
+    /**
+     * Tests if compaction waits for the lock of the snapshot file before it seals the log,
+     * so it can not change the files while another writer or reader holds the lock.
+     *
+     * @throws Exception if the compaction fails
+     * @see AppendLog#compact(Path, java.util.function.BiPredicate)
+     */
+    @Test
+    @DisplayName("Test that compaction takes the store lock")
+    public void testCompactLocks() throws Exception {
+        AppendLog log = new AppendLog(logPath);
+        log.append(AppendLog.PUT, "first");
+        CompletableFuture<Boolean> compaction = StoreLock.forFile(snapshotPath).write(() -> {
+            CompletableFuture<Boolean> started = CompletableFuture.supplyAsync(
+                    () -> log.compact(snapshotPath, records -> records.size()));
+            Assertions.assertThrows(TimeoutException.class,
+                    () -> started.get(200, TimeUnit.MILLISECONDS));
+            Assertions.assertEquals(1, log.readRecords().size());
+            return started;
+        });
+        Assertions.assertTrue(compaction.get(10, TimeUnit.SECONDS));
+        Assertions.assertEquals(0, log.readRecords().size());
+    }
+
+    /**
+     * Deletes the log and snapshot files after each test.
+     */
+    @AfterEach
+    public void cleanUp() {
+        try {
+            Files.deleteIfExists(logPath);
+            Files.deleteIfExists(snapshotPath);
+            Files.deleteIfExists(StoreLock.getLockPath(snapshotPath));
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
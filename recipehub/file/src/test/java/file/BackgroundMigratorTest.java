@@ -0,0 +1,153 @@
+package file;
+
+import core.PasswordHasher;
+import core.Profile;
+import core.Recipe;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for BackgroundMigrator.
+ */
+public class BackgroundMigratorTest {
+    private static final String HASH = PasswordHasher.hashPassword("Password123");
+    private final Path directory = Path.of("testMigrator");
+
+    /**
+     * Tests if recipes and profiles saved in an older version are upgraded on file in the
+     * background, in batches, and are read the same afterwards, and if files saved before
+     * records had versions are not rewritten.
+     *
+     * @throws Exception if the files can not be written, or the migration fails
+     * @see BackgroundMigrator#start()
+     */
+    @Test
+    @DisplayName("Test upgrading files in the background")
+    public void testMigrateFiles() throws Exception {
+        Files.createDirectories(directory);
+        Path recipePath = directory.resolve(RecipeFilehandler.DEFAULT_FILE_NAME);
+        Path profilePath = directory.resolve(UserFilehandler.DEFAULT_FILE_NAME);
+        Files.writeString(recipePath, "{\"recipes\":[{\"name\":\"Pasta\",\"portions\":2,"
+                + "\"authorUsername\":\"Annabelle\",\"steps\":[\"Boil\"]},{\"name\":\"Cake\","
+                + "\"portions\":8,\"authorUsername\":\"Annabelle\"}]}");
+        Files.writeString(profilePath, "[{\"username\":\"Annabelle\",\"hashedPassword\":"
+                + "\"" + HASH + "\",\"recipeLibrary\":{\"recipes\":[]},"
+                + "\"favorites\":{\"recipes\":[]}}]");
+        DirectRecipeHubAccess access = new DirectRecipeHubAccess(directory, false);
+        String unversioned = Files.readString(recipePath);
+        Assertions.assertEquals(0, access.migrateRecords(10));
+        Assertions.assertEquals(unversioned, Files.readString(recipePath),
+                "Records without a version should not be rewritten.");
+
+        Files.writeString(recipePath,
+                unversioned.replace("{\"name\"", "{\"version\":0,\"name\""));
+        Path shardPath = downgradeProfile(profilePath, "Annabelle");
+        Assertions.assertEquals(HASH, access.loadProfile("Annabelle").getHashedPassword(),
+                "Profiles should be read before they are migrated.");
+
+        try (BackgroundMigrator migrator = new BackgroundMigrator(access, 1,
+                Duration.ofMillis(1))) {
+            Assertions.assertEquals(3, migrator.start().get(10, TimeUnit.SECONDS));
+        }
+        RecordVersions versions = RecordVersions.getDefault();
+        Assertions.assertEquals(0, versions.countOutdated(recipePath, "recipes", Recipe.class));
+        Assertions.assertFalse(versions.isOutdated(Profile.class, Files.readString(shardPath)));
+        Assertions.assertTrue(Files.readString(shardPath).contains("\"version\": 1"));
+        Assertions.assertEquals("Boil", access.loadRecipe("Annabelle", "Pasta")
+                .getSteps().get(0));
+        Assertions.assertEquals(HASH, access.loadProfile("Annabelle").getHashedPassword());
+        Assertions.assertEquals(0, access.migrateRecords(10));
+    }
+
+    /**
+     * Tests if log-structured files are upgraded in batches of at most the given number of
+     * records, by appending the upgraded records to the logs.
+     *
+     * @throws IOException if the files can not be written
+     * @see DirectRecipeHubAccess#migrateRecords(int)
+     */
+    @Test
+    @DisplayName("Test upgrading log-structured files in batches")
+    public void testMigrateLogs() throws IOException {
+        Files.createDirectories(directory);
+        Path recipePath = directory.resolve(RecipeFilehandler.DEFAULT_FILE_NAME);
+        Path profilePath = directory.resolve(UserFilehandler.DEFAULT_FILE_NAME);
+        Files.writeString(recipePath, "{\"recipes\":[{\"version\":0,\"name\":\"Pasta\","
+                + "\"portions\":2,\"authorUsername\":\"Annabelle\"},{\"version\":0,"
+                + "\"name\":\"Cake\",\"portions\":8,\"authorUsername\":\"Annabelle\"}]}");
+        Files.writeString(profilePath, "[{\"version\":0,\"username\":\"Annabelle\","
+                + "\"hashedPassword\":\"" + HASH + "\"}]");
+        DirectRecipeHubAccess access = new DirectRecipeHubAccess(directory, true);
+        downgradeProfile(profilePath, "Annabelle");
+
+        Assertions.assertEquals(1, access.migrateRecords(1));
+        Assertions.assertTrue(Files.size(RecipeFilehandler.getLogPath(recipePath)) > 0);
+        Assertions.assertEquals(2, access.migrateRecords(5),
+                "Recipes in the log should not be upgraded again.");
+        Assertions.assertEquals(0, access.migrateRecords(5));
+        Assertions.assertEquals(8, access.loadRecipe("Annabelle", "Cake").getPortions());
+        Assertions.assertEquals(HASH, access.loadProfile("Annabelle").getHashedPassword());
+    }
+
+    /**
+     * Tests if closing the migrator stops the migration between batches.
+     *
+     * @throws Exception if the migration fails
+     * @see BackgroundMigrator#close()
+     */
+    @Test
+    @DisplayName("Test stopping the migration")
+    public void testClose() throws Exception {
+        RecipeHubAccess endless = new DirectRecipeHubAccess(directory, false) {
+            @Override
+            public int migrateRecords(int limit) {
+                return limit;
+            }
+        };
+        BackgroundMigrator migrator = new BackgroundMigrator(endless, 5, Duration.ofHours(1));
+        migrator.start();
+        migrator.close();
+        Assertions.assertEquals(5, migrator.getResult().get(10, TimeUnit.SECONDS),
+                "The batch being upgraded should be finished before stopping.");
+
+        BackgroundMigrator closed = new BackgroundMigrator(endless);
+        closed.close();
+        Assertions.assertEquals(0, closed.start().get(10, TimeUnit.SECONDS));
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> new BackgroundMigrator(endless, 0, Duration.ZERO));
+    }
+
+    /**
+     * Helper method which saves the profile moved into its own file in an older version.
+     *
+     * @param profilePath - Path object to the profile file the profile was moved from
+     * @param username    - Username of the profile
+     * @return - Path object of the file of the profile
+     * @throws IOException if the file can not be written
+     */
+    private static Path downgradeProfile(Path profilePath, String username)
+            throws IOException {
+        Path shardPath = ShardedUserFilehandler.getShardPath(
+                ShardedUserFilehandler.getDirectoryPath(profilePath), username);
+        Files.writeString(shardPath, Files.readString(shardPath)
+                .replaceFirst("\"version\": *\\d+", "\"version\": 0"));
+        return shardPath;
+    }
+
+    /**
+     * Deletes the test directory after each test.
+     *
+     * @throws IOException if the files can not be deleted
+     */
+    @AfterEach
+    public void cleanUp() throws IOException {
+        LsmStoreTest.deleteDirectory(directory);
+    }
+}
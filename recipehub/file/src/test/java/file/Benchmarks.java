@@ -0,0 +1,111 @@
+package file;
+
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import core.Review;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * This class has the timing, memory and data helpers shared by the benchmarks of the file
+ * module, which are left out of the build by their names and run with
+ * {@code mvn -pl file test -Dtest=<name>}.
+ */
+final class Benchmarks {
+
+    private Benchmarks() {
+    }
+
+    /**
+     * This method runs a task a number of times after warming up.
+     *
+     * @param warmupRounds - Number of times to run the task before it is timed
+     * @param rounds       - Number of times to run the task while it is timed
+     * @param task         - Task to time
+     * @return - Returns the average time of one round in milliseconds
+     */
+    static double time(int warmupRounds, int rounds, Runnable task) {
+        for (int i = 0; i < warmupRounds; i++) {
+            task.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            task.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / rounds;
+    }
+
+    /**
+     * This method gets the used heap after a few garbage collections. It depends on the
+     * garbage collector, so it is only a rough number.
+     *
+     * @return - Returns the used heap in bytes
+     */
+    static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * This method gets the bytes allocated by the current thread so far. The counter is
+     * found by reflection, since the file module does not read the management modules.
+     *
+     * @return - Returns the allocated bytes, or -1 if the JVM does not count them
+     */
+    static long allocatedBytes() {
+        try {
+            Object threads = Class.forName("java.lang.management.ManagementFactory")
+                    .getMethod("getThreadMXBean").invoke(null);
+            return (Long) Class.forName("com.sun.management.ThreadMXBean")
+                    .getMethod("getCurrentThreadAllocatedBytes").invoke(threads);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * This method gets the size of a file.
+     *
+     * @param path - Path of the file
+     * @return - Returns the size in bytes, or -1 if it can not be read
+     */
+    static long size(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * This method makes recipes similar to the ones made in the app, each with a
+     * description, eight ingredients, six steps and three reviews.
+     *
+     * @param count - Number of recipes to make
+     * @return - Returns a RecipeLibrary with the recipes
+     */
+    static RecipeLibrary createRecipes(int count) {
+        Profile author = new Profile("Benchmark", "Password123");
+        RecipeLibrary recipeLibrary = new RecipeLibrary();
+        for (int i = 0; i < count; i++) {
+            Recipe recipe = new Recipe("Recipe " + i, 4, author);
+            recipe.setDescription("A description of recipe number " + i);
+            for (int j = 0; j < 8; j++) {
+                recipe.addIngredient("Ingredient " + j, 1.5 * j + 1, j % 2 == 0 ? "g" : "dL");
+            }
+            for (int j = 0; j < 6; j++) {
+                recipe.addStep("Step " + j + " of making recipe number " + i);
+            }
+            for (int j = 0; j < 3; j++) {
+                recipe.addReview(new Review(1 + j, "Comment " + j, "Reviewer" + j));
+            }
+            recipeLibrary.putRecipe(recipe);
+        }
+        return recipeLibrary;
+    }
+}
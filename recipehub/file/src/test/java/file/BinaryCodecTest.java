@@ -0,0 +1,179 @@
+package file;
+
+import core.Profile;
+import core.Recipe;
+import core.Review;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for BinaryCodec.
+ */
+public class BinaryCodecTest {
+    private Path filePath = Path.of("testBinary.bin");
+    private Profile profile;
+    private Recipe recipe;
+
+    /**
+     * Sets up a profile with a recipe which uses every field.
+     */
+    @BeforeEach
+    public void setup() {
+        profile = new Profile("Testuser", "Password123");
+        recipe = new Recipe("Pancakes", 4, profile);
+        recipe.setDescription("Thin pancakes æøå");
+        recipe.addIngredient("Flour", 2.5, "dL");
+        recipe.addIngredient("Eggs", 3.0, "pcs");
+        recipe.addStep("Mix");
+        recipe.addStep("Fry");
+        recipe.addReview(new Review(4.5, "Good", "Reviewer1"));
+        recipe.setSaved(true);
+        profile.addFavorite(recipe);
+    }
+
+    /**
+     * Tests if a recipe is the same after being encoded and decoded.
+     *
+     * @see BinaryCodec#encodeRecipe(Recipe)
+     * @see BinaryCodec#decodeRecipe(byte[])
+     */
+    @Test
+    @DisplayName("Test encoding and decoding a recipe")
+    public void testRecipe() {
+        Recipe decoded = BinaryCodec.decodeRecipe(BinaryCodec.encodeRecipe(recipe));
+        Assertions.assertEquals("Pancakes", decoded.getName());
+        Assertions.assertEquals("Thin pancakes æøå", decoded.getDescription());
+        Assertions.assertEquals("Testuser", decoded.getAuthor());
+        Assertions.assertEquals(4, decoded.getPortions());
+        Assertions.assertTrue(decoded.isSaved());
+        Assertions.assertEquals(List.of("Mix", "Fry"), decoded.getSteps());
+        Assertions.assertEquals(2.5, decoded.getIngredientAmount("Flour"));
+        Assertions.assertEquals("pcs", decoded.getIngredientUnit("Eggs"));
+        Assertions.assertEquals(4.5, decoded.getAverageRating());
+        Assertions.assertEquals("Reviewer1", decoded.getReviews().get(0).getReviewer());
+
+        Recipe plain = new Recipe("Plain", 1, profile);
+        Assertions.assertNull(BinaryCodec.decodeRecipe(BinaryCodec.encodeRecipe(plain))
+                .getDescription(), "A missing description should stay missing.");
+        Assertions.assertNull(BinaryCodec.decodeRecipe(new byte[] {1, 2}),
+                "A broken record should not be decoded.");
+    }
+
+    /**
+     * Tests if a recipe decoded from its header has the same values as the recipe, and
+     * only decodes its steps, ingredients and reviews when they are used.
+     *
+     * @see BinaryCodec#decodeRecipeHeader(byte[])
+     */
+    @Test
+    @DisplayName("Test decoding the header of a recipe")
+    public void testRecipeHeader() {
+        recipe.addReview(new Review(2.0, "", "Reviewer2"));
+        Recipe decoded = BinaryCodec.decodeRecipeHeader(BinaryCodec.encodeRecipe(recipe));
+        Assertions.assertFalse(decoded.isLoaded());
+        Assertions.assertEquals("Pancakes", decoded.getName());
+        Assertions.assertEquals("Thin pancakes æøå", decoded.getDescription());
+        Assertions.assertEquals("Testuser", decoded.getAuthor());
+        Assertions.assertEquals(4, decoded.getPortions());
+        Assertions.assertTrue(decoded.isSaved());
+        Assertions.assertEquals(3.25, decoded.getAverageRating());
+        Assertions.assertEquals(2, decoded.getNumberOfReviewers());
+        Assertions.assertEquals(1, decoded.getNumberOfComments());
+        Assertions.assertFalse(decoded.isLoaded());
+
+        Assertions.assertEquals(List.of("Mix", "Fry"), decoded.getSteps());
+        Assertions.assertEquals(2.5, decoded.getIngredientAmount("Flour"));
+        Assertions.assertEquals("pcs", decoded.getIngredientUnit("Eggs"));
+        Assertions.assertEquals("Reviewer2", decoded.getReviews().get(1).getReviewer());
+        Assertions.assertEquals(3.25, decoded.getAverageRating());
+        Assertions.assertTrue(decoded.isLoaded());
+        Assertions.assertNull(BinaryCodec.decodeRecipeHeader(new byte[] {1, 2}),
+                "A broken record should not be decoded.");
+    }
+
+    /**
+     * Tests if a profile, with its recipes and favorites, is the same after being encoded
+     * and decoded.
+     *
+     * @see BinaryCodec#encodeProfile(Profile)
+     * @see BinaryCodec#decodeProfile(byte[])
+     */
+    @Test
+    @DisplayName("Test encoding and decoding a profile")
+    public void testProfile() {
+        Profile decoded = BinaryCodec.decodeProfile(BinaryCodec.encodeProfile(profile));
+        Assertions.assertEquals("Testuser", decoded.getUsername());
+        Assertions.assertEquals(profile.getHashedPassword(), decoded.getHashedPassword());
+        Assertions.assertEquals(1, decoded.getRecipes().getSize());
+        Assertions.assertEquals("Pancakes", decoded.getFavorites().getRecipe(0).getName());
+    }
+
+    /**
+     * Tests if files are written with a header, read back, and if a record which was only
+     * partly written is skipped.
+     *
+     * @see BinaryCodec#writeRecipes(Path, Iterable)
+     * @see BinaryCodec#readRecipes(Path)
+     * @throws IOException if the test file can not be changed
+     */
+    @Test
+    @DisplayName("Test writing and reading a binary file")
+    public void testWriteAndReadFile() throws IOException {
+        Assertions.assertFalse(BinaryCodec.isBinary(filePath));
+        Assertions.assertEquals(0, BinaryCodec.readRecipes(filePath).size());
+        Recipe other = new Recipe("Waffles", 2, profile);
+        Assertions.assertTrue(BinaryCodec.writeRecipes(filePath, List.of(recipe, other)));
+        Assertions.assertTrue(BinaryCodec.isBinary(filePath));
+        Assertions.assertEquals(2, BinaryCodec.readRecipes(filePath).size());
+
+        Files.write(filePath, new byte[] {0, 0, 0, 100, 1, 2}, StandardOpenOption.APPEND);
+        List<Recipe> recipes = BinaryCodec.readRecipes(filePath);
+        Assertions.assertEquals(2, recipes.size(), "Only the complete records should be read.");
+        Assertions.assertEquals("Waffles", recipes.get(1).getName());
+
+        Assertions.assertTrue(BinaryCodec.writeProfiles(filePath, List.of(profile)));
+        Assertions.assertEquals("Testuser", BinaryCodec.readProfiles(filePath).get(0)
+                .getUsername());
+    }
+
+    /**
+     * Tests if files with an unknown header or a newer version are not read.
+     *
+     * @see BinaryCodec#readRecipes(Path)
+     * @throws IOException if the test file can not be written
+     */
+    @Test
+    @DisplayName("Test reading files which can not be read")
+    public void testUnreadableFile() throws IOException {
+        Files.writeString(filePath, "{\"recipes\": []}");
+        Assertions.assertFalse(BinaryCodec.isBinary(filePath));
+        Assertions.assertEquals(0, BinaryCodec.readRecipes(filePath).size());
+
+        BinaryCodec.writeRecipes(filePath, List.of(recipe));
+        byte[] bytes = Files.readAllBytes(filePath);
+        bytes[BinaryCodec.HEADER_LENGTH - 1] = BinaryCodec.VERSION + 1;
+        Files.write(filePath, bytes);
+        Assertions.assertEquals(0, BinaryCodec.readRecipes(filePath).size(),
+                "A file with a newer version should not be read.");
+    }
+
+    /**
+     * Deletes the test file after each test.
+     */
+    @AfterEach
+    public void cleanUp() {
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
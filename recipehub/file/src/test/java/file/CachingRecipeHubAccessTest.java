@@ -0,0 +1,169 @@
+package file;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for CachingRecipeHubAccess.
+ */
+public class CachingRecipeHubAccessTest {
+    private Path watchedPath = Path.of("testWatched.json");
+    private CachingRecipeHubAccess access;
+
+    private String recipeFileName;
+    private String userFileName;
+
+    /**
+     * Sets the filenames, so that the files of the application are not changed.
+     */
+    @BeforeEach
+    public void setup() {
+        recipeFileName = RecipeFilehandler.getFileName();
+        userFileName = UserFilehandler.getFileName();
+        RecipeFilehandler.setFileName("testCacheRecipes.json");
+        UserFilehandler.setFileName("testCacheUsers.json");
+    }
+
+    /**
+     * Tests if the files are only read once, and read again after writing, and if a single
+     * profile is loaded by itself instead of reading every profile after a write.
+     *
+     * @see CachingRecipeHubAccess#getRecipeLibrary()
+     * @see CachingRecipeHubAccess#getProfiles()
+     */
+    @Test
+    @DisplayName("Test serving reads from the cache")
+    public void testCachedReads() {
+        UserFilehandler userFilehandler = mock(UserFilehandler.class);
+        RecipeFilehandler recipeFilehandler = mock(RecipeFilehandler.class);
+        Profile profile = new Profile("Username1", "Password1");
+        when(recipeFilehandler.readRecipeLibrary()).thenReturn(new RecipeLibrary());
+        when(userFilehandler.readProfiles()).thenReturn(new ArrayList<>(List.of(profile)));
+        when(userFilehandler.loadProfile("Username1")).thenReturn(profile);
+        when(userFilehandler.userExists("Username1")).thenReturn(true);
+        access = new CachingRecipeHubAccess(userFilehandler, recipeFilehandler);
+
+        access.getRecipeLibrary().putRecipe(new Recipe("Pasta", 2, profile));
+        Assertions.assertEquals(0, access.getRecipeLibrary().getSize(),
+                "Changing the returned library should not change the cache.");
+        Assertions.assertEquals(0, access.streamRecipes().count());
+        verify(recipeFilehandler, times(1)).readRecipeLibrary();
+        access.saveRecipe(new Recipe("Pizza", 2, profile));
+        access.getRecipeLibrary();
+        verify(recipeFilehandler, times(2)).readRecipeLibrary();
+
+        Assertions.assertEquals(1, access.getProfiles().size());
+        verify(userFilehandler, times(1)).readProfiles();
+        access.saveProfile(profile);
+        Assertions.assertEquals("Username1", access.loadProfile("Username1").getUsername());
+        Assertions.assertTrue(access.profileExists("Username1"));
+        Assertions.assertFalse(access.profileExists("Username2"));
+        verify(userFilehandler, times(1)).readProfiles();
+        verify(userFilehandler, times(1)).loadProfile("Username1");
+        access.saveProfile(profile);
+        access.getProfiles();
+        verify(userFilehandler, times(2)).readProfiles();
+    }
+
+    /**
+     * Tests if changes made by another access are seen by the next read.
+     *
+     * @see CachingRecipeHubAccess#getRecipeLibrary()
+     */
+    @Test
+    @DisplayName("Test reading changes made by another access")
+    public void testOtherAccess() {
+        access = new CachingRecipeHubAccess();
+        DirectRecipeHubAccess other = new DirectRecipeHubAccess();
+        Profile profile = new Profile("Username1", "Password1");
+        Assertions.assertEquals(0, access.getRecipeLibrary().getSize());
+        Assertions.assertNull(access.loadProfile("Username1"));
+
+        other.saveRecipe(new Recipe("Pasta", 2, profile));
+        other.saveProfile(profile);
+        Assertions.assertEquals("Pasta", access.getRecipeLibrary().getRecipe(0).getName());
+        Assertions.assertTrue(access.profileExists("Username1"));
+
+        access.removeRecipe(access.getRecipeLibrary().getRecipe(0));
+        Assertions.assertEquals(0, other.getRecipeLibrary().getSize());
+        Assertions.assertEquals(0, access.getRecipeLibrary().getSize());
+    }
+
+    /**
+     * Tests if a change which does not change the size or modification time of a file is
+     * found by the watch service.
+     *
+     * @throws IOException if the watched file can not be written
+     * @throws InterruptedException if interrupted while waiting for the watch service
+     */
+    @Test
+    @DisplayName("Test finding changes with the watch service")
+    public void testWatchService() throws IOException, InterruptedException {
+        Files.writeString(watchedPath, "first");
+        FileTime modified = Files.getLastModifiedTime(watchedPath);
+        UserFilehandler userFilehandler = mock(UserFilehandler.class);
+        RecipeFilehandler recipeFilehandler = mock(RecipeFilehandler.class);
+        AtomicInteger reads = new AtomicInteger();
+        when(recipeFilehandler.getStoragePaths()).thenReturn(List.of(watchedPath));
+        when(recipeFilehandler.readRecipeLibrary()).thenAnswer(invocation -> {
+            reads.incrementAndGet();
+            return new RecipeLibrary();
+        });
+        access = new CachingRecipeHubAccess(userFilehandler, recipeFilehandler);
+        access.getRecipeLibrary();
+        access.getRecipeLibrary();
+        Assertions.assertEquals(1, reads.get());
+
+        Files.writeString(watchedPath, "other");
+        Files.setLastModifiedTime(watchedPath, modified);
+        long deadline = System.currentTimeMillis() + 10000;
+        while (reads.get() == 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            access.getRecipeLibrary();
+        }
+        Assertions.assertEquals(2, reads.get(), "The change should be found by the watcher.");
+    }
+
+    /**
+     * Closes the access, deletes the test files and sets the filenames back after each
+     * test.
+     */
+    @AfterEach
+    public void cleanUp() {
+        if (access != null) {
+            access.close();
+        }
+        try {
+            Files.deleteIfExists(watchedPath);
+            Files.deleteIfExists(RecipeFilehandler.getFilePath());
+            ShardedUserFilehandlerTest.deleteFiles(UserFilehandler.getFilePath());
+            Files.deleteIfExists(StoreLock.getLockPath(RecipeFilehandler.getFilePath()));
+            Files.deleteIfExists(RecipeSummaryIndex.getIndexPath(
+                    RecipeFilehandler.getFilePath()));
+            Files.deleteIfExists(RecipeSummaryIndex.getIndexLogPath(
+                    RecipeFilehandler.getFilePath()));
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+        RecipeFilehandler.setFileName(recipeFileName);
+        UserFilehandler.setFileName(userFileName);
+    }
+}
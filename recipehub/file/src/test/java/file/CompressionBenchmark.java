@@ -0,0 +1,102 @@
+package file;
+
+import com.google.gson.reflect.TypeToken;
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class compares the size of the recipe and profile files in each storage format,
+ * and the time it takes to write and read them, to show how much CPU compression costs
+ * for the disk space and I/O it saves.
+ *
+ * <p>The times include syncing the file to disk, as every write of a filehandler does,
+ * but reads are likely served from the page cache, so they mostly show the CPU cost.
+ * </p>
+ */
+public class CompressionBenchmark {
+    private static final int RECIPES = 20000;
+    private static final int PROFILES = 2000;
+    private static final int ROUNDS = 5;
+    private static final Path filePath = Path.of("compressionBenchmark.json");
+
+    /**
+     * Writes and reads the same recipes and profiles in each storage format, and prints
+     * the results.
+     */
+    @Test
+    public void benchmark() {
+        RecipeLibrary recipeLibrary = Benchmarks.createRecipes(RECIPES);
+        List<Profile> profiles = createProfiles();
+        Type profileListType = new TypeToken<List<Profile>>() {
+        }.getType();
+
+        System.out.printf("%d recipes, %d profiles%n", RECIPES, PROFILES);
+        System.out.printf("%-9s %-16s %12s %12s %12s%n", "File", "Format", "Size (KB)",
+                "Write (ms)", "Read (ms)");
+        for (StorageFormat format : StorageFormat.values()) {
+            run("Recipes", format, () -> format == StorageFormat.BINARY
+                    ? BinaryCodec.writeRecipes(filePath, recipeLibrary)
+                    : FileUtil.writeFile(filePath, recipeLibrary,
+                            format == StorageFormat.COMPRESSED_JSON),
+                    () -> BinaryCodec.isBinary(filePath) ? BinaryCodec.readRecipes(filePath)
+                            : FileUtil.<RecipeLibrary>readFile(filePath, null, RecipeLibrary.class)
+                                    .getRecipes(), RECIPES);
+        }
+        for (StorageFormat format : StorageFormat.values()) {
+            run("Profiles", format, () -> format == StorageFormat.BINARY
+                    ? BinaryCodec.writeProfiles(filePath, profiles)
+                    : FileUtil.writeFile(filePath, profiles,
+                            format == StorageFormat.COMPRESSED_JSON),
+                    () -> BinaryCodec.isBinary(filePath) ? BinaryCodec.readProfiles(filePath)
+                            : FileUtil.<List<Profile>>readFile(filePath, null,
+                                    profileListType), PROFILES);
+        }
+        try {
+            Files.deleteIfExists(filePath);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+
+    /**
+     * Helper method which writes and reads the file a number of times, and prints its size
+     * and the average times.
+     */
+    private static void run(String file, StorageFormat format, BooleanSupplier write,
+            Supplier<List<?>> read, int expectedSize) {
+        Assertions.assertTrue(write.getAsBoolean());
+        double writeTime = Benchmarks.time(0, ROUNDS, write::getAsBoolean);
+        Assertions.assertEquals(expectedSize, read.get().size());
+        double readTime = Benchmarks.time(0, ROUNDS, read::get);
+        System.out.printf("%-9s %-16s %12d %12.1f %12.1f%n", file, format,
+                Benchmarks.size(filePath) / 1024, writeTime, readTime);
+    }
+
+    /**
+     * Helper method which makes profiles, each with a few recipes.
+     */
+    private static List<Profile> createProfiles() {
+        List<Profile> profiles = new ArrayList<>();
+        for (int i = 0; i < PROFILES; i++) {
+            Profile profile = new Profile("Benchmark" + i, "Password123");
+            for (int j = 0; j < 3; j++) {
+                Recipe recipe = new Recipe("Recipe " + j, 2, profile);
+                recipe.addIngredient("Ingredient", 100.0, "g");
+                recipe.addStep("Make recipe " + j);
+            }
+            profiles.add(profile);
+        }
+        return profiles;
+    }
+}
@@ -1,14 +1,26 @@
 package file;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import core.Profile;
 import core.Recipe;
 import core.RecipeLibrary;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -28,13 +40,84 @@ public class DirectRecipeHubAccessTest {
     /**
      * This method tests if the empty contructor works properly.
      * 
+     * @throws IOException if the test files can not be deleted
      * @see DirectRecipeHubAccess#DirectRecipeHubAccess()
      */
     @Test
     @DisplayName("Empty contructor test")
-    public void testEmptyContructor() {
-        Assertions.assertDoesNotThrow(() -> new DirectRecipeHubAccess(),
-            "Initializing a DirectRecipeHubAcess without filehandlers should not throw exception");
+    public void testEmptyContructor() throws IOException {
+        String recipeFileName = RecipeFilehandler.getFileName();
+        String userFileName = UserFilehandler.getFileName();
+        RecipeFilehandler.setFileName("testEmptyRecipes.json");
+        UserFilehandler.setFileName("testEmptyUsers.json");
+        try {
+            Assertions.assertDoesNotThrow(() -> new DirectRecipeHubAccess(),
+                "Initializing a DirectRecipeHubAcess without filehandlers should not throw");
+            Assertions.assertDoesNotThrow(() -> new DirectRecipeHubAccess(true),
+                "Initializing a log-structured DirectRecipeHubAcess should not throw exception");
+        } finally {
+            ShardedUserFilehandlerTest.deleteFiles(UserFilehandler.getFilePath());
+            Files.deleteIfExists(RecipeFilehandler.getFilePath());
+            RecipeFilehandler.setFileName(recipeFileName);
+            UserFilehandler.setFileName(userFileName);
+        }
+    }
+
+    /**
+     * This method tests if accesses for different directories keep their recipes and
+     * profiles apart, while both are written to at the same time.
+     * 
+     * @see DirectRecipeHubAccess#DirectRecipeHubAccess(Path, boolean)
+     */
+    @Test
+    @DisplayName("Independent stores test")
+    public void testIndependentStores() throws Exception {
+        List<Path> directories = List.of(Path.of("testStoreA"), Path.of("testStoreB"));
+        ExecutorService executor = Executors.newFixedThreadPool(directories.size());
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (Path directory : directories) {
+                DirectRecipeHubAccess access = new DirectRecipeHubAccess(directory, false);
+                writes.add(executor.submit(() -> {
+                    Profile profile = new Profile("User" + directory.getFileName(),
+                            "Password123");
+                    for (int i = 0; i < 10; i++) {
+                        Recipe recipe = new Recipe("Recipe " + i, 2, profile);
+                        Assertions.assertTrue(access.saveRecipe(recipe));
+                    }
+                    Assertions.assertTrue(access.saveProfile(profile));
+                }));
+            }
+            for (Future<?> write : writes) {
+                write.get(30, TimeUnit.SECONDS);
+            }
+            for (Path directory : directories) {
+                DirectRecipeHubAccess access = new DirectRecipeHubAccess(directory, false);
+                Assertions.assertEquals(10, access.getRecipeLibrary().getSize());
+                Assertions.assertEquals(List.of("User" + directory.getFileName()),
+                        access.getProfiles().stream().map(Profile::getUsername)
+                                .collect(Collectors.toList()));
+            }
+        } finally {
+            executor.shutdownNow();
+            for (Path directory : directories) {
+                deleteDirectory(directory);
+            }
+        }
+    }
+
+    /**
+     * Helper method which deletes a directory and the files in it.
+     */
+    private static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
     }
 
     /**
@@ -72,6 +155,34 @@ public class DirectRecipeHubAccessTest {
             "An empty RecipeLibrary should be reeturned");
     }
 
+    /**
+     * This method tests if streaming the recipes is passed on to the filehandler.
+     * 
+     * @see DirectRecipeHubAccess#streamRecipes()
+     */
+    @Test
+    @DisplayName("streamRecipes() test")
+    public void testStreamRecipes() {
+        when(mockRecipeFilehandler.streamRecipes()).thenReturn(Stream.empty());
+        Assertions.assertEquals(0, directRecipeHubAccess.streamRecipes().count());
+        verify(mockRecipeFilehandler, never()).readRecipeLibrary();
+    }
+
+    /**
+     * This method tests if loading a single recipe is passed on to the filehandler.
+     * 
+     * @see DirectRecipeHubAccess#loadRecipe(String, String)
+     */
+    @Test
+    @DisplayName("loadRecipe() test")
+    public void testLoadRecipe() {
+        Recipe recipe = new Recipe("Pancakes", 2, new Profile("Annabelle", "Password123"));
+        when(mockRecipeFilehandler.loadRecipe("Annabelle", "Pancakes")).thenReturn(recipe);
+        Assertions.assertSame(recipe, directRecipeHubAccess.loadRecipe("Annabelle", "Pancakes"));
+        Assertions.assertNull(directRecipeHubAccess.loadRecipe("Annabelle", "Waffles"));
+        verify(mockRecipeFilehandler, never()).streamRecipes();
+    }
+
     /**
      * This method tests if you can remove a recipe properly, using removeRecipe().
      * 
@@ -144,6 +255,78 @@ public class DirectRecipeHubAccessTest {
             "The method should return null if the profile is not found.");
     }
 
+    /**
+     * This method tests if the recipes of a loaded profile are read from the saved recipes
+     * one by one, without reading every saved recipe.
+     * 
+     * @see DirectRecipeHubAccess#loadProfile(String)
+     */
+    @Test
+    @DisplayName("loadProfile() recipes test")
+    public void testLoadProfileRecipes() {
+        Profile profile = new Profile("Username1", "Password1");
+        Recipe recipe = new Recipe("Pancakes", 2, profile);
+        profile.putRecipe(recipe);
+        profile.addFavorite(recipe);
+        Recipe stored = new Recipe("Pancakes", 4, profile);
+        when(mockUserFilehandler.loadProfile("Username1")).thenReturn(profile);
+        when(mockRecipeFilehandler.loadRecipe("Username1", "Pancakes")).thenReturn(stored);
+
+        Profile readProfile = directRecipeHubAccess.loadProfile("Username1");
+        Assertions.assertSame(stored, readProfile.getRecipes().getRecipe(0));
+        Assertions.assertSame(stored, readProfile.getFavorites().getRecipe(0));
+        verify(mockRecipeFilehandler).loadRecipe("Username1", "Pancakes");
+        verify(mockRecipeFilehandler, never()).streamRecipes();
+    }
+
+    /**
+     * This method tests if the recipes of all profiles are found by reading the recipes
+     * once when the recipe file is log-structured, instead of once for every recipe.
+     * 
+     * @see DirectRecipeHubAccess#getProfiles()
+     */
+    @Test
+    @DisplayName("getProfiles() log-structured recipes test")
+    public void testGetProfilesLogStructured() {
+        Profile profile1 = new Profile("Username1", "Password1");
+        Profile profile2 = new Profile("Username2", "Password2");
+        Recipe pancakes = new Recipe("Pancakes", 2, profile1);
+        Recipe waffles = new Recipe("Waffles", 2, profile2);
+        profile1.putRecipe(pancakes);
+        profile1.addFavorite(waffles);
+        profile2.putRecipe(waffles);
+        Recipe storedPancakes = new Recipe("Pancakes", 4, profile1);
+        Recipe storedWaffles = new Recipe("Waffles", 6, profile2);
+        when(mockRecipeFilehandler.isLogStructured()).thenReturn(true);
+        when(mockRecipeFilehandler.streamRecipes())
+            .thenAnswer(invocation -> Stream.of(storedPancakes, storedWaffles));
+        when(mockUserFilehandler.readProfiles())
+            .thenReturn(new ArrayList<>(List.of(profile1, profile2)));
+
+        List<Profile> profiles = directRecipeHubAccess.getProfiles();
+        Assertions.assertSame(storedPancakes, profiles.get(0).getRecipes().getRecipe(0));
+        Assertions.assertSame(storedWaffles, profiles.get(0).getFavorites().getRecipe(0));
+        Assertions.assertSame(storedWaffles, profiles.get(1).getRecipes().getRecipe(0));
+        verify(mockRecipeFilehandler).streamRecipes();
+        verify(mockRecipeFilehandler, never()).loadRecipe(any(), any());
+    }
+
+    /**
+     * This method tests if checking for a profile is passed on to the filehandler,
+     * without loading the profile.
+     * 
+     * @see DirectRecipeHubAccess#profileExists(String)
+     */
+    @Test
+    @DisplayName("profileExists() test")
+    public void testProfileExists() {
+        when(mockUserFilehandler.userExists("Username1")).thenReturn(true);
+
+        Assertions.assertTrue(directRecipeHubAccess.profileExists("Username1"));
+        Assertions.assertFalse(directRecipeHubAccess.profileExists("Username2"));
+        verify(mockUserFilehandler, never()).loadProfile(any());
+    }
+
     /**
      * This method tests you can save a list of profiles to file properly.
      * 
@@ -1,7 +1,13 @@
 package file;
 
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -52,4 +58,82 @@ public class FileUtilTest {
         Assertions.assertEquals("test", FileUtil.readFile(filePath, "", String.class));
         deleteFile(filePath);
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests if a file written compressed is smaller, is detected as compressed and is read
+     * and streamed the same way as an uncompressed file.
+     * 
+     * @see FileUtil#writeFile(Path, Object, boolean)
+     * @see FileUtil#isCompressed(Path)
+     */
+    @Test
+    @DisplayName("Test compressed files")
+    public void testCompressedFile() throws IOException {
+        Path compressedPath = Path.of("test.txt.gz");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            lines.add("Line number " + i);
+        }
+        FileUtil.writeFile(filePath, lines);
+        FileUtil.writeFile(compressedPath, lines, true);
+        Assertions.assertFalse(FileUtil.isCompressed(filePath));
+        Assertions.assertTrue(FileUtil.isCompressed(compressedPath));
+        Assertions.assertTrue(Files.size(compressedPath) < Files.size(filePath) / 4);
+
+        Assertions.assertEquals(lines, FileUtil.readFile(compressedPath, null, List.class));
+        try (Stream<String> stream = FileUtil.streamArray(compressedPath, null, String.class)) {
+            Assertions.assertEquals(lines, stream.collect(Collectors.toList()));
+        }
+        Assertions.assertFalse(FileUtil.isCompressed(Path.of("missing.txt")));
+        deleteFile(filePath);
+        deleteFile(compressedPath);
+    }
+
+    /**
+     * Tests if the elements of an array are streamed both when the array is the whole file
+     * and when it is a field of an object, and that unreadable files give an empty stream.
+     * 
+     * @see FileUtil#streamArray(Path, String, java.lang.reflect.Type)
+     */
+    @Test
+    @DisplayName("Test streamArray")
+    public void testStreamArray() {
+        FileUtil.writeFile(filePath, List.of("a", "b", "c"));
+        try (Stream<String> elements = FileUtil.streamArray(filePath, "values", String.class)) {
+            Assertions.assertEquals(List.of("a", "b", "c"), elements.collect(Collectors.toList()));
+        }
+        FileUtil.writeFile(filePath, Map.of("other", List.of("x"), "values", List.of("a", "b")));
+        try (Stream<String> elements = FileUtil.streamArray(filePath, "values", String.class)) {
+            Assertions.assertEquals(List.of("a", "b"), elements.collect(Collectors.toList()));
+        }
+        try (Stream<String> elements = FileUtil.streamArray(filePath, "missing", String.class)) {
+            Assertions.assertEquals(0, elements.count());
+        }
+        deleteFile(filePath);
+        try (Stream<String> elements = FileUtil.streamArray(filePath, "values", String.class)) {
+            Assertions.assertEquals(0, elements.count(), "A missing file should give no elements.");
+        }
+    }
+
+    /**
+     * Tests if a write replaces the file without leaving a temporary file behind, and that
+     * a write which fails leaves the old content of the file.
+     * 
+     * @see FileUtil#commitFile(Path, FileUtil.FileContent)
+     */
+    @Test
+    @DisplayName("Test atomic writes")
+    public void testAtomicWrite() {
+        Assertions.assertTrue(FileUtil.writeFile(filePath, "old"));
+        Assertions.assertFalse(Files.exists(Path.of(filePath + ".tmp")),
+                "The temporary file should be renamed over the file.");
+        Assertions.assertFalse(FileUtil.commitFile(filePath, output -> {
+            output.write("\"ne".getBytes());
+            throw new IOException("Crash while writing");
+        }));
+        Assertions.assertEquals("old", FileUtil.readFile(filePath, "", String.class),
+                "A failed write should not change the file.");
+        Assertions.assertFalse(Files.exists(Path.of(filePath + ".tmp")));
+        deleteFile(filePath);
+    }
+}
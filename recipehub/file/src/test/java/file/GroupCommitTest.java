@@ -0,0 +1,116 @@
+package file;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for GroupCommit.
+ */
+public class GroupCommitTest {
+    private final Path filePath = Path.of("testGroupCommit.json");
+
+    /**
+     * Tests if changes arriving while the store is locked are made together, with one read
+     * and one write of the store, and if each change gets its own result, so a change
+     * which fails is not reported as written.
+     *
+     * @throws Exception if the changing threads fail
+     * @see GroupCommit#apply(java.util.function.Consumer)
+     */
+    @Test
+    @DisplayName("Test group commit")
+    public void testGroupCommit() throws Exception {
+        List<String> store = new ArrayList<>();
+        AtomicInteger reads = new AtomicInteger();
+        GroupCommit<List<String>> groupCommit = new GroupCommit<>(
+                () -> StoreLock.forFile(filePath), () -> {
+                    reads.incrementAndGet();
+                    return new ArrayList<>(store);
+                }, data -> {
+                    store.clear();
+                    store.addAll(data);
+                    return true;
+                });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> grouped = new ArrayList<>();
+            Future<Boolean> failed = StoreLock.forFile(filePath).write(() -> {
+                for (String value : List.of("a", "b", "c")) {
+                    grouped.add(executor.submit(() -> groupCommit.apply(data -> data.add(value))));
+                }
+                Future<Boolean> failing = executor.submit(() -> groupCommit.apply(data -> {
+                    throw new IllegalStateException("Failed change");
+                }));
+                waitForThreads();
+                return failing;
+            });
+
+            for (Future<Boolean> result : grouped) {
+                Assertions.assertTrue(result.get(5, TimeUnit.SECONDS));
+            }
+            Assertions.assertFalse(failed.get(5, TimeUnit.SECONDS),
+                    "A failed change should not get the result of the others in the group.");
+            Assertions.assertEquals(3, store.size());
+            Assertions.assertEquals(1, groupCommit.getCommitCount());
+            Assertions.assertEquals(1, reads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests if a failed write is not counted as a commit, and if every change gets the
+     * result of the write even when a callback run after the commit fails.
+     *
+     * @see GroupCommit#apply(java.util.function.Consumer, Runnable)
+     */
+    @Test
+    @DisplayName("Test failed writes and callbacks")
+    public void testFailedWriteAndCallback() {
+        AtomicInteger writes = new AtomicInteger();
+        GroupCommit<List<String>> groupCommit = new GroupCommit<>(
+                () -> StoreLock.forFile(filePath), ArrayList::new,
+                data -> writes.incrementAndGet() > 1);
+        Assertions.assertFalse(groupCommit.apply(data -> data.add("a")));
+        Assertions.assertEquals(0, groupCommit.getCommitCount(),
+                "A failed write should not be counted as a commit.");
+
+        Assertions.assertTrue(groupCommit.apply(data -> data.add("b"), () -> {
+            throw new IllegalStateException("Failed callback");
+        }), "A failed callback should not change the result of the write.");
+        Assertions.assertEquals(1, groupCommit.getCommitCount());
+    }
+
+    /**
+     * Helper method which gives the threads which were started time to wait for the lock.
+     */
+    static void waitForThreads() {
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Deletes the lock file after each test.
+     *
+     * @throws IOException if the file can not be deleted
+     */
+    @AfterEach
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(StoreLock.getLockPath(filePath));
+    }
+}
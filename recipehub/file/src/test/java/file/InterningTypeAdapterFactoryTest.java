@@ -0,0 +1,54 @@
+package file;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import core.Review;
+import core.StringInterner;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for InterningTypeAdapterFactory.
+ */
+public class InterningTypeAdapterFactoryTest {
+
+    /**
+     * Tests if strings and map keys parsed by Gson are interned.
+     *
+     * @see InterningTypeAdapterFactory#create(Gson, com.google.gson.reflect.TypeToken)
+     */
+    @Test
+    @DisplayName("Test interning strings parsed by Gson")
+    public void testGson() {
+        Profile author = new Profile("Annabelle", "Password123");
+        Recipe recipe = new Recipe("Pasta", 2, author);
+        recipe.addIngredient("Tomato", 100.0, "g");
+        recipe.addIngredient("Cream", 1.0, "dL");
+        recipe.addReview(new Review(4, "Nice", "Bobby"));
+        new Recipe("Soup", 2, author).addIngredient("Tomato", 200.0, "g");
+
+        StringInterner interner = new StringInterner(StringInterner.DEFAULT_MAX_LENGTH,
+                StringInterner.DEFAULT_MAX_SIZE);
+        Gson gson = new GsonBuilder()
+                .registerTypeAdapterFactory(new InterningTypeAdapterFactory(interner)).create();
+        String json = gson.toJson(author.getRecipes());
+        RecipeLibrary first = gson.fromJson(json, RecipeLibrary.class);
+        RecipeLibrary second = gson.fromJson(json, RecipeLibrary.class);
+
+        Recipe pasta = first.getRecipe(0);
+        Recipe soup = first.getRecipe(1);
+        Assertions.assertSame(pasta.getAuthor(), soup.getAuthor());
+        Assertions.assertSame(pasta.getAuthor(), second.getRecipe(0).getAuthor());
+        Assertions.assertSame(pasta.getIngredientUnit("Tomato"), soup.getIngredientUnit("Tomato"));
+        Assertions.assertSame(pasta.getIngredients().stream().filter("Tomato"::equals)
+                .findFirst().get(), soup.getIngredients().stream().filter("Tomato"::equals)
+                .findFirst().get(), "Map keys should be interned.");
+        Assertions.assertSame(pasta.getReviews().get(0).getReviewer(),
+                second.getRecipe(0).getReviews().get(0).getReviewer());
+        Assertions.assertEquals(100.0, pasta.getIngredientAmount("Tomato"));
+    }
+}
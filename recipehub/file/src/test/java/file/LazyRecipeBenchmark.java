@@ -0,0 +1,77 @@
+package file;
+
+import com.google.gson.Gson;
+import core.Recipe;
+import core.RecipeLibrary;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class compares the time it takes to read a recipelibrary, and the heap it keeps
+ * after it is read and shown as the main screen does, when the recipes are fully decoded
+ * and when only their headers are decoded.
+ *
+ * <p>Showing a recipe on the main screen uses its name, author and average rating.
+ * </p>
+ */
+public class LazyRecipeBenchmark {
+    private static final int RECIPES = 20000;
+    private static final int ROUNDS = 5;
+
+    /**
+     * Reads the same recipes from JSON and binary, with and without lazy bodies, and
+     * prints the results.
+     */
+    @Test
+    public void benchmark() {
+        RecipeLibrary recipeLibrary = Benchmarks.createRecipes(RECIPES);
+        String json = new Gson().toJson(recipeLibrary);
+        byte[][] records = new byte[RECIPES][];
+        for (int i = 0; i < RECIPES; i++) {
+            records[i] = BinaryCodec.encodeRecipe(recipeLibrary.getRecipe(i));
+        }
+        Gson eager = ModelTypeAdapterFactory.newGsonBuilder(false).create();
+        Gson lazy = ModelTypeAdapterFactory.newGsonBuilder(true).create();
+
+        System.out.printf("%d recipes%n", RECIPES);
+        System.out.printf("%-8s %-8s %12s %16s%n", "Format", "Bodies", "Read (ms)",
+                "Retained (KB)");
+        run("JSON", "Eager", () -> eager.fromJson(json, RecipeLibrary.class));
+        run("JSON", "Lazy", () -> lazy.fromJson(json, RecipeLibrary.class));
+        run("Binary", "Eager", () -> decode(records, false));
+        run("Binary", "Lazy", () -> decode(records, true));
+    }
+
+    /**
+     * Helper method which reads the recipes a number of times, and prints the average time
+     * and the heap kept by one more library read, after going through it as the main
+     * screen does.
+     */
+    private static void run(String format, String bodies, Supplier<RecipeLibrary> read) {
+        double elapsed = Benchmarks.time(1, ROUNDS, read::get);
+        long heapBefore = Benchmarks.usedHeap();
+        RecipeLibrary recipeLibrary = read.get();
+        double ratings = 0;
+        for (Recipe recipe : recipeLibrary) {
+            Assertions.assertNotNull(recipe.getName());
+            Assertions.assertNotNull(recipe.getAuthor());
+            ratings += recipe.getAverageRating();
+        }
+        long retained = Benchmarks.usedHeap() - heapBefore;
+        System.out.printf("%-8s %-8s %12.1f %16d%n", format, bodies, elapsed, retained / 1024);
+        Assertions.assertEquals(RECIPES, recipeLibrary.getSize());
+        Assertions.assertEquals(2.0 * RECIPES, ratings, 1e-6);
+    }
+
+    private static RecipeLibrary decode(byte[][] records, boolean lazy) {
+        List<Recipe> recipes = new ArrayList<>();
+        for (byte[] record : records) {
+            recipes.add(lazy ? BinaryCodec.decodeRecipeHeader(record)
+                    : BinaryCodec.decodeRecipe(record));
+        }
+        return new RecipeLibrary(recipes);
+    }
+}
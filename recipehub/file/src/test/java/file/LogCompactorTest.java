@@ -0,0 +1,57 @@
+package file;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for LogCompactor.
+ */
+public class LogCompactorTest {
+    private Path logPath = Path.of("testCompactor.log");
+
+    /**
+     * Tests if a compaction is only scheduled when the log is past the threshold,
+     * and that it is run in the background.
+     *
+     * @throws InterruptedException if waiting for the compaction is interrupted
+     * @see LogCompactor#compactIfNeeded(AppendLog, long, java.util.function.BooleanSupplier)
+     */
+    @Test
+    @DisplayName("Test compactIfNeeded")
+    public void testCompactIfNeeded() throws InterruptedException {
+        AppendLog log = new AppendLog(logPath);
+        log.append(AppendLog.PUT, "record");
+        CountDownLatch latch = new CountDownLatch(1);
+
+        Assertions.assertFalse(LogCompactor.compactIfNeeded(log, Long.MAX_VALUE, () -> {
+            latch.countDown();
+            return true;
+        }), "No compaction should be scheduled below the threshold.");
+        Assertions.assertTrue(LogCompactor.compactIfNeeded(log, 1, () -> {
+            Assertions.assertNotEquals(Thread.currentThread().getName(), "main");
+            latch.countDown();
+            return true;
+        }), "A compaction should be scheduled above the threshold.");
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS),
+                "The compaction should run in the background.");
+    }
+
+    /**
+     * Deletes the log file after each test.
+     */
+    @AfterEach
+    public void cleanUp() {
+        try {
+            Files.deleteIfExists(logPath);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package file;
+
+import core.PasswordHasher;
+import core.Profile;
+import core.Recipe;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for LsmRecipeHubAccess.
+ */
+public class LsmRecipeHubAccessTest {
+    private LsmRecipeHubAccess access;
+    private Profile anna;
+    private Profile bob;
+
+    private String recipeFileName;
+    private String userFileName;
+
+    /**
+     * Sets the filenames, so that the stores are made next to test files.
+     */
+    @BeforeEach
+    public void setup() {
+        recipeFileName = RecipeFilehandler.getFileName();
+        userFileName = UserFilehandler.getFileName();
+        RecipeFilehandler.setFileName("testLsmRecipes.json");
+        UserFilehandler.setFileName("testLsmUsers.json");
+        anna = new Profile("Annabelle", "Password123");
+        bob = new Profile("Bobby", "Password123");
+    }
+
+    /**
+     * Tests if recipes are found by author and name, and by author.
+     *
+     * @see LsmRecipeHubAccess#loadRecipe(String, String)
+     * @see LsmRecipeHubAccess#getRecipesByAuthor(String)
+     */
+    @Test
+    @DisplayName("Test looking up recipes")
+    public void testRecipes() {
+        access = new LsmRecipeHubAccess();
+        Assertions.assertTrue(access.saveRecipe(new Recipe("Pasta", 2, anna)));
+        Assertions.assertTrue(access.saveRecipe(new Recipe("Cake", 8, anna)));
+        Assertions.assertTrue(access.saveRecipe(new Recipe("Pasta", 4, bob)));
+        Assertions.assertTrue(access.saveRecipe(new Recipe("Pasta", 3, anna)));
+
+        Assertions.assertEquals(3, access.loadRecipe("Annabelle", "Pasta").getPortions());
+        Assertions.assertEquals(4, access.loadRecipe("Bobby", "Pasta").getPortions());
+        Assertions.assertNull(access.loadRecipe("Bobby", "Cake"));
+        Assertions.assertEquals(List.of("Cake", "Pasta"), getNames(access.getRecipesByAuthor(
+                "Annabelle")));
+        Assertions.assertEquals(3, access.getRecipeLibrary().getSize());
+
+        Assertions.assertTrue(access.removeRecipe(new Recipe("Pasta", 1, anna)));
+        Assertions.assertNull(access.loadRecipe("Annabelle", "Pasta"));
+        Assertions.assertEquals(2, access.streamRecipes().count());
+    }
+
+    /**
+     * Tests if profiles are saved and loaded, and if saving a list of profiles keeps the
+     * profiles which are not in it.
+     *
+     * @see LsmRecipeHubAccess#loadProfile(String)
+     * @see LsmRecipeHubAccess#saveProfiles(List)
+     */
+    @Test
+    @DisplayName("Test saving and loading profiles")
+    public void testProfiles() {
+        access = new LsmRecipeHubAccess();
+        Assertions.assertTrue(access.saveProfile(anna));
+        Assertions.assertTrue(access.saveProfile(bob));
+        Assertions.assertEquals("Annabelle", access.loadProfile("Annabelle").getUsername());
+        Assertions.assertTrue(access.profileExists("Bobby"));
+        Assertions.assertFalse(access.profileExists("Carlos"));
+
+        Assertions.assertTrue(access.saveProfiles(List.of(bob)));
+        Assertions.assertNotNull(access.loadProfile("Annabelle"),
+                "Profiles which are not in the list should be kept.");
+        Assertions.assertEquals(2, access.getProfiles().size());
+    }
+
+    /**
+     * Tests if a new store is filled from the files, and if the stores are kept when they
+     * are opened again.
+     *
+     * @see LsmRecipeHubAccess#LsmRecipeHubAccess()
+     */
+    @Test
+    @DisplayName("Test moving the files into new stores")
+    public void testMigration() {
+        DirectRecipeHubAccess direct = new DirectRecipeHubAccess();
+        direct.saveRecipe(new Recipe("Pasta", 2, anna));
+        direct.saveProfile(anna);
+
+        access = new LsmRecipeHubAccess();
+        Assertions.assertNotNull(access.loadRecipe("Annabelle", "Pasta"));
+        Assertions.assertTrue(access.profileExists("Annabelle"));
+        access.saveProfile(bob);
+        access.close();
+
+        access = new LsmRecipeHubAccess();
+        Assertions.assertEquals(2, access.getProfiles().size());
+        access.close();
+
+        access = new LsmRecipeHubAccess(Path.of("testLsmOtherRecipes"),
+                Path.of("testLsmOtherUsers"));
+        Assertions.assertNull(access.loadRecipe("Annabelle", "Pasta"),
+                "Stores in other directories should not be filled from the current files.");
+        Assertions.assertFalse(access.profileExists("Annabelle"));
+    }
+
+    /**
+     * Tests if a store which was left half filled by a crash is filled again from the file.
+     *
+     * @throws IOException if the leftover store can not be written
+     * @see LsmRecipeHubAccess#LsmRecipeHubAccess()
+     */
+    @Test
+    @DisplayName("Test a move into the stores left unfinished")
+    public void testUnfinishedMigration() throws IOException {
+        DirectRecipeHubAccess direct = new DirectRecipeHubAccess();
+        direct.saveRecipe(new Recipe("Pasta", 2, anna));
+        direct.saveRecipe(new Recipe("Cake", 8, anna));
+        Path storePath = LsmRecipeHubAccess.getStorePath(RecipeFilehandler.getFilePath());
+        Path leftover = Path.of(storePath + ".tmp");
+        try (LsmStore store = new LsmStore(leftover)) {
+            store.put("Annabelle\u0000Cake", "{\"name\":\"Cake\"}");
+        }
+
+        access = new LsmRecipeHubAccess();
+        Assertions.assertFalse(Files.exists(leftover));
+        Assertions.assertEquals(List.of("Cake", "Pasta"),
+                getNames(access.getRecipesByAuthor("Annabelle")));
+        Assertions.assertEquals(8, access.loadRecipe("Annabelle", "Cake").getPortions());
+    }
+
+    /**
+     * Tests if recipes and profiles saved in an older version are upgraded in
+     * the stores a batch at a time.
+     *
+     * @see LsmRecipeHubAccess#migrateRecords(int)
+     */
+    @Test
+    @DisplayName("Test upgrading records in the stores")
+    public void testMigrateRecords() {
+        LsmStore recipes = new LsmStore(LsmRecipeHubAccess.getStorePath(
+                RecipeFilehandler.getFilePath()));
+        recipes.put("Annabelle\u0000Cake", "{\"version\":0,\"name\":\"Cake\",\"portions\":8,"
+                + "\"authorUsername\":\"Annabelle\"}");
+        recipes.put("Annabelle\u0000Pasta", "{\"version\":0,\"name\":\"Pasta\",\"portions\":2,"
+                + "\"authorUsername\":\"Annabelle\"}");
+        recipes.close();
+        LsmStore profiles = new LsmStore(LsmRecipeHubAccess.getStorePath(
+                UserFilehandler.getFilePath()));
+        String hash = PasswordHasher.hashPassword("Password123");
+        profiles.put("Annabelle", "{\"version\":0,\"username\":\"Annabelle\","
+                + "\"hashedPassword\":\"" + hash + "\"}");
+        profiles.close();
+
+        access = new LsmRecipeHubAccess();
+        Assertions.assertEquals(1, access.migrateRecords(1));
+        Assertions.assertEquals(2, access.migrateRecords(5));
+        Assertions.assertEquals(0, access.migrateRecords(5));
+        Assertions.assertEquals(2, access.loadRecipe("Annabelle", "Pasta").getPortions());
+        Assertions.assertEquals(hash, access.loadProfile("Annabelle").getHashedPassword());
+    }
+
+    private static List<String> getNames(List<Recipe> recipes) {
+        return recipes.stream().map(Recipe::getName).collect(Collectors.toList());
+    }
+
+    /**
+     * Closes the access, deletes the test files and stores, and sets the filenames back
+     * after each test.
+     *
+     * @throws IOException if the files can not be deleted
+     */
+    @AfterEach
+    public void cleanUp() throws IOException {
+        if (access != null) {
+            access.close();
+        }
+        LsmStoreTest.deleteDirectory(Path.of("testLsmOtherRecipes"));
+        LsmStoreTest.deleteDirectory(Path.of("testLsmOtherUsers"));
+        LsmStoreTest.deleteDirectory(LsmRecipeHubAccess.getStorePath(
+                RecipeFilehandler.getFilePath()));
+        LsmStoreTest.deleteDirectory(LsmRecipeHubAccess.getStorePath(
+                UserFilehandler.getFilePath()));
+        Files.deleteIfExists(RecipeFilehandler.getFilePath());
+        ShardedUserFilehandlerTest.deleteFiles(UserFilehandler.getFilePath());
+        Files.deleteIfExists(StoreLock.getLockPath(RecipeFilehandler.getFilePath()));
+        Files.deleteIfExists(RecipeSummaryIndex.getIndexPath(
+                RecipeFilehandler.getFilePath()));
+        Files.deleteIfExists(RecipeSummaryIndex.getIndexLogPath(
+                RecipeFilehandler.getFilePath()));
+        RecipeFilehandler.setFileName(recipeFileName);
+        UserFilehandler.setFileName(userFileName);
+    }
+}
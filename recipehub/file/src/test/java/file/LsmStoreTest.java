@@ -0,0 +1,283 @@
+package file;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for LsmStore.
+ */
+public class LsmStoreTest {
+    private Path directory = Path.of("testStore");
+    private LsmStore store;
+
+    /**
+     * Tests if values are put, replaced and removed, and if unflushed writes are read
+     * again from the write-ahead log when the store is opened, and flushed if they fill
+     * the memtable.
+     *
+     * @see LsmStore#put(String, String)
+     * @see LsmStore#remove(String)
+     * @see LsmStore#get(String)
+     */
+    @Test
+    @DisplayName("Test putting, getting and removing values")
+    public void testPutAndGet() {
+        store = new LsmStore(directory);
+        Assertions.assertTrue(store.put("a", "1"));
+        Assertions.assertTrue(store.put("b", "2"));
+        Assertions.assertTrue(store.put("a", "3"));
+        Assertions.assertTrue(store.remove("b"));
+        Assertions.assertFalse(store.put("c", ""), "Empty values should not be put.");
+        Assertions.assertEquals("3", store.get("a"));
+        Assertions.assertNull(store.get("b"));
+        Assertions.assertFalse(store.contains("c"));
+
+        store.close();
+        store = new LsmStore(directory);
+        Assertions.assertEquals(0, store.getSegmentCount());
+        Assertions.assertEquals("3", store.get("a"));
+        Assertions.assertNull(store.get("b"), "The removal should be read from the log.");
+
+        store.close();
+        store = new LsmStore(directory, 1, LsmStore.DEFAULT_MERGE_THRESHOLD);
+        Assertions.assertEquals(1, store.getSegmentCount(),
+                "A full memtable read from the log should be flushed.");
+        Assertions.assertEquals("3", store.get("a"));
+    }
+
+    /**
+     * Tests if flushed values are read from the segments, with newer values and
+     * tombstones hiding older ones.
+     *
+     * @see LsmStore#flush()
+     */
+    @Test
+    @DisplayName("Test flushing the memtable to segments")
+    public void testFlush() {
+        store = new LsmStore(directory, 1000, 10);
+        store.put("a", "1");
+        store.put("b", "2");
+        Assertions.assertTrue(store.flush());
+        Assertions.assertFalse(store.flush(), "An empty memtable should not be flushed.");
+        store.put("a", "3");
+        store.remove("b");
+        store.flush();
+        Assertions.assertEquals(2, store.getSegmentCount());
+        Assertions.assertEquals("3", store.get("a"));
+        Assertions.assertNull(store.get("b"));
+
+        store.close();
+        store = new LsmStore(directory, 1000, 10);
+        Assertions.assertEquals(2, store.getSegmentCount());
+        Assertions.assertEquals("3", store.get("a"));
+        Assertions.assertNull(store.get("b"));
+
+        for (int i = 0; i < 100; i++) {
+            store.put("key" + i, "value" + i);
+        }
+        Assertions.assertTrue(store.getSegmentCount() > 2,
+                "The memtable should be flushed when it is full.");
+        Assertions.assertEquals("value0", store.get("key0"));
+    }
+
+    /**
+     * Tests if a write-ahead log which was sealed by a flush that did not finish is read
+     * when the store is opened, and deleted when the memtable is flushed again.
+     *
+     * @throws IOException if the log can not be moved
+     * @see LsmStore#flush()
+     */
+    @Test
+    @DisplayName("Test a flush left unfinished")
+    public void testUnfinishedFlush() throws IOException {
+        store = new LsmStore(directory, 1000, 10);
+        store.put("a", "1");
+        store.close();
+        Path sealedPath = directory.resolve("wal.log.compacting");
+        Files.move(directory.resolve("wal.log"), sealedPath);
+
+        store = new LsmStore(directory, 1000, 10);
+        Assertions.assertEquals("1", store.get("a"));
+        store.put("b", "2");
+        Assertions.assertTrue(store.flush());
+        Assertions.assertFalse(Files.exists(sealedPath));
+        store.close();
+        store = new LsmStore(directory, 1000, 10);
+        Assertions.assertEquals(1, store.getSegmentCount());
+        Assertions.assertEquals("1", store.get("a"));
+        Assertions.assertEquals("2", store.get("b"));
+    }
+
+    /**
+     * Tests if a directory can only be opened by one store at a time.
+     *
+     * @see LsmStore#LsmStore(Path)
+     */
+    @Test
+    @DisplayName("Test locking the store directory")
+    public void testLock() {
+        store = new LsmStore(directory);
+        Assertions.assertTrue(Files.exists(directory.resolve(LsmStore.LOCK_FILE_NAME)));
+        Assertions.assertThrows(IllegalStateException.class, () -> new LsmStore(directory));
+        store.close();
+        store = new LsmStore(directory);
+        Assertions.assertTrue(store.put("a", "1"), "The store should open after closing.");
+    }
+
+    /**
+     * Tests if merging the segments keeps the newest values and drops tombstones.
+     *
+     * @see LsmStore#merge()
+     */
+    @Test
+    @DisplayName("Test merging segments")
+    public void testMerge() {
+        store = new LsmStore(directory, 1000, 10);
+        Assertions.assertFalse(store.merge());
+        for (int i = 0; i < 4; i++) {
+            store.put("shared", "round" + i);
+            store.put("key" + i, "value" + i);
+            store.remove("key" + (i - 1));
+            store.flush();
+        }
+        Assertions.assertEquals(4, store.getSegmentCount());
+        Assertions.assertTrue(store.merge());
+        Assertions.assertEquals(1, store.getSegmentCount());
+        Assertions.assertEquals("round3", store.get("shared"));
+        Assertions.assertEquals(Map.of("key3", "value3", "shared", "round3"),
+                store.scan(null, null));
+
+        store.close();
+        store = new LsmStore(directory, 1000, 10);
+        Assertions.assertEquals(1, store.getSegmentCount(), "Merged segments should be deleted.");
+        Assertions.assertEquals("value3", store.get("key3"));
+    }
+
+    /**
+     * Tests if segments left behind by a crash after a merge was committed are deleted
+     * when the store is opened, so keys removed before the merge do not come back.
+     *
+     * @see LsmStore#merge()
+     */
+    @Test
+    @DisplayName("Test segments left behind by a merge")
+    public void testMergeLeftovers() throws IOException {
+        store = new LsmStore(directory, 1000, 10);
+        store.put("a", "1");
+        store.put("b", "2");
+        store.flush();
+        Path oldest;
+        try (Stream<Path> paths = Files.list(directory)) {
+            oldest = paths.filter(p -> p.toString().endsWith(".seg")).findFirst().get();
+        }
+        byte[] leftover = Files.readAllBytes(oldest);
+        store.remove("a");
+        store.flush();
+        Assertions.assertTrue(store.merge());
+        store.close();
+        Files.write(oldest, leftover);
+
+        store = new LsmStore(directory, 1000, 10);
+        Assertions.assertEquals(1, store.getSegmentCount());
+        Assertions.assertNull(store.get("a"), "A removed key should not come back.");
+        Assertions.assertEquals("2", store.get("b"));
+        Assertions.assertFalse(Files.exists(oldest));
+    }
+
+    /**
+     * Tests if scanning a range or prefix gives the keys in order, from both the segments
+     * and the memtable.
+     *
+     * @see LsmStore#scan(String, String)
+     * @see LsmStore#scanPrefix(String)
+     */
+    @Test
+    @DisplayName("Test scanning ranges of keys")
+    public void testScan() {
+        store = new LsmStore(directory, 1000, 10);
+        store.put("anna/pasta", "1");
+        store.put("bob/pizza", "2");
+        store.flush();
+        store.put("anna/cake", "3");
+        store.put("anne/soup", "4");
+        store.remove("anna/pasta");
+
+        Assertions.assertEquals(List.of("anna/cake"),
+                List.copyOf(store.scanPrefix("anna/").keySet()));
+        Assertions.assertEquals(List.of("anna/cake", "anne/soup"),
+                List.copyOf(store.scan("anna", "b").keySet()));
+        Assertions.assertEquals(List.of("anna/cake", "anne/soup", "bob/pizza"),
+                List.copyOf(store.scan(null, null).keySet()));
+    }
+
+    /**
+     * Tests if a limited scan gives the first keys with values, skipping tombstones, and
+     * if the pages of a range can be gone through one after another.
+     *
+     * @see LsmStore#scan(String, String, int)
+     */
+    @Test
+    @DisplayName("Test scanning pages of keys")
+    public void testScanPages() {
+        store = new LsmStore(directory, 1000, 10);
+        for (int i = 0; i < 10; i++) {
+            store.put("key" + i, "value" + i);
+        }
+        store.flush();
+        store.remove("key1");
+        store.remove("key2");
+        store.put("key5", "new");
+
+        Assertions.assertEquals(List.of("key0", "key3", "key4"),
+                List.copyOf(store.scan(null, null, 3).keySet()));
+        Assertions.assertEquals(Map.of("key4", "value4", "key5", "new"),
+                store.scan("key4", "key6", 5));
+        List<String> keys = new ArrayList<>();
+        String from = null;
+        for (Map<String, String> page = store.scan(from, null, 3); !page.isEmpty();
+                page = store.scan(from, null, 3)) {
+            keys.addAll(page.keySet());
+            from = keys.get(keys.size() - 1) + '\u0000';
+        }
+        Assertions.assertEquals(List.copyOf(store.scan(null, null).keySet()), keys);
+    }
+
+    /**
+     * Closes the store and deletes its directory after each test.
+     *
+     * @throws IOException if the directory can not be deleted
+     */
+    @AfterEach
+    public void cleanUp() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+        deleteDirectory(directory);
+    }
+
+    /**
+     * Helper method which deletes a directory and the files in it.
+     */
+    static void deleteDirectory(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder())
+                    .collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package file;
+
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for MappedRecipeStore.
+ */
+public class MappedRecipeStoreTest {
+    private Path dataPath = Path.of("testMapped.json");
+    private List<Recipe> recipes;
+
+    /**
+     * Makes recipes by two authors with the same name, and one with braces and quotes in
+     * its values.
+     */
+    @BeforeEach
+    public void setup() {
+        Recipe pasta = new Recipe("Pasta", 3, new Profile("Annabelle", "Password123"));
+        pasta.addStep("Boil {water} and \"salt\" it");
+        pasta.addIngredient("Spaghetti", 300.0, "g");
+        Recipe otherPasta = new Recipe("Pasta", 4, new Profile("Bobby", "Password123"));
+        otherPasta.setDescription("Pasta with [tomato] sauce æøå");
+        recipes = List.of(pasta, otherPasta);
+    }
+
+    /**
+     * Tests if single recipes are read from a JSON file and a binary file, both when the
+     * file is read and when it is mapped.
+     *
+     * @see MappedRecipeStore#getRecipe(String, String)
+     */
+    @Test
+    @DisplayName("Test reading recipes from read and mapped files")
+    public void testGetRecipe() {
+        for (int i = 0; i < 2; i++) {
+            if (i == 0) {
+                FileUtil.writeFile(dataPath, new RecipeLibrary(recipes));
+            } else {
+                BinaryCodec.writeRecipes(dataPath, recipes);
+            }
+            MappedRecipeStore read = MappedRecipeStore.open(dataPath);
+            Assertions.assertFalse(read.holdsMapping(), "Small files should be read.");
+            MappedRecipeStore mapped = MappedRecipeStore.open(dataPath, 0);
+            Assertions.assertTrue(mapped.holdsMapping());
+            for (MappedRecipeStore store : List.of(read, mapped)) {
+                assertRecipes(store);
+            }
+        }
+    }
+
+    /**
+     * Helper method which checks the recipes read from a store of the recipes.
+     */
+    private static void assertRecipes(MappedRecipeStore store) {
+        Assertions.assertEquals(2, store.getSize());
+        Assertions.assertTrue(store.contains("Bobby", "Pasta"));
+        Assertions.assertFalse(store.contains("Bobby", "Cake"));
+        Assertions.assertNull(store.getRecipe("Bobby", "Cake"));
+
+        Recipe pasta = store.getRecipe("Annabelle", "Pasta");
+        Assertions.assertEquals(3, pasta.getPortions());
+        Assertions.assertEquals("Boil {water} and \"salt\" it", pasta.getSteps().get(0));
+        Assertions.assertEquals(300.0, pasta.getIngredientAmount("Spaghetti"));
+        Assertions.assertEquals("Pasta with [tomato] sauce æøå",
+                store.getRecipe("Bobby", "Pasta").getDescription());
+    }
+
+    /**
+     * Tests if the store tells when the recipe file has changed, and keeps reading the
+     * file as it was when it was mapped.
+     *
+     * @see MappedRecipeStore#isCurrent()
+     */
+    @Test
+    @DisplayName("Test changed and missing recipe file")
+    public void testChangedFile() {
+        Assertions.assertEquals(0, MappedRecipeStore.open(dataPath).getSize());
+        Assertions.assertTrue(MappedRecipeStore.open(dataPath).isMapped());
+        FileUtil.writeFile(dataPath, new RecipeLibrary(recipes));
+        MappedRecipeStore store = MappedRecipeStore.open(dataPath);
+        Assertions.assertTrue(store.isCurrent());
+        Assertions.assertTrue(store.isMapped());
+
+        FileUtil.writeFile(dataPath, new RecipeLibrary(recipes.subList(0, 1)));
+        Assertions.assertFalse(store.isCurrent());
+        Assertions.assertNotNull(store.getRecipe("Bobby", "Pasta"),
+                "The old mapping should still read the replaced file.");
+        Assertions.assertNull(MappedRecipeStore.open(dataPath).getRecipe("Bobby", "Pasta"));
+    }
+
+    /**
+     * Tests if a closed store is empty and drops its buffer.
+     *
+     * @see MappedRecipeStore#close()
+     */
+    @Test
+    @DisplayName("Test closing the store")
+    public void testClose() {
+        BinaryCodec.writeRecipes(dataPath, recipes);
+        MappedRecipeStore store = MappedRecipeStore.open(dataPath, 0);
+        store.close();
+        Assertions.assertFalse(store.holdsMapping());
+        Assertions.assertFalse(store.isMapped());
+        Assertions.assertEquals(0, store.getSize());
+        Assertions.assertNull(store.getRecipe("Bobby", "Pasta"));
+    }
+
+    /**
+     * Deletes the recipe file after each test.
+     */
+    @AfterEach
+    public void cleanUp() {
+        try {
+            Files.deleteIfExists(dataPath);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package file;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import core.RecipeLibrary;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class compares the throughput and the memory allocated per recipe when a
+ * recipelibrary is written and read with Gson by reflection, and with the adapters of
+ * ModelTypeAdapterFactory.
+ */
+public class ModelTypeAdapterBenchmark {
+    private static final int RECIPES = 2000;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int ROUNDS = 30;
+
+    /**
+     * Writes and reads the same recipes with both Gson objects, and prints the results.
+     */
+    @Test
+    public void benchmark() {
+        RecipeLibrary recipeLibrary = Benchmarks.createRecipes(RECIPES);
+        Gson reflective = new Gson();
+        Gson adapters = new GsonBuilder()
+                .registerTypeAdapterFactory(new ModelTypeAdapterFactory(null)).create();
+        String json = reflective.toJson(recipeLibrary);
+
+        System.out.printf("%d recipes, %d rounds%n", RECIPES, ROUNDS);
+        System.out.printf("%-12s %-6s %14s %16s%n", "Gson", "Op", "Recipes/s", "Bytes/recipe");
+        for (int i = 0; i < 2; i++) {
+            run("Reflection", "Write", () -> reflective.toJson(recipeLibrary));
+            run("Adapters", "Write", () -> adapters.toJson(recipeLibrary));
+            run("Reflection", "Read", () -> reflective.fromJson(json, RecipeLibrary.class));
+            run("Adapters", "Read", () -> adapters.fromJson(json, RecipeLibrary.class));
+        }
+        Assertions.assertEquals(RECIPES, adapters.fromJson(json, RecipeLibrary.class).getSize());
+    }
+
+    /**
+     * Helper method which runs an operation a number of times after warming up, and prints
+     * how many recipes were handled per second and how many bytes were allocated for each.
+     * The warmup is timed apart, so its allocation is not counted.
+     */
+    private static void run(String gson, String operation, Supplier<Object> task) {
+        Runnable checked = () -> Assertions.assertNotNull(task.get());
+        Benchmarks.time(0, WARMUP_ROUNDS, checked);
+        long allocatedBefore = Benchmarks.allocatedBytes();
+        double elapsed = Benchmarks.time(0, ROUNDS, checked);
+        long allocated = Benchmarks.allocatedBytes() - allocatedBefore;
+        double recipes = (double) RECIPES * ROUNDS;
+        System.out.printf("%-12s %-6s %14.0f %16.0f%n", gson, operation,
+                RECIPES / (elapsed / 1e3), allocatedBefore < 0 ? -1 : allocated / recipes);
+    }
+}
@@ -0,0 +1,218 @@
+package file;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import core.Review;
+import java.util.ArrayList;
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for ModelTypeAdapterFactory.
+ */
+public class ModelTypeAdapterFactoryTest {
+    private Gson reflective = new Gson();
+    private Gson gson = new GsonBuilder()
+            .registerTypeAdapterFactory(new ModelTypeAdapterFactory(null)).create();
+    private Profile profile;
+    private Recipe recipe;
+
+    /**
+     * Makes a profile with a favorite recipe which has ingredients, steps and reviews.
+     */
+    @BeforeEach
+    public void setup() {
+        profile = new Profile("Annabelle", "Password123");
+        recipe = new Recipe("Pancakes", 4, profile);
+        recipe.setDescription("For breakfast");
+        recipe.addIngredient("Flour", 400.0, "g");
+        recipe.addIngredient("Milk", 4.0, "dL");
+        recipe.addStep("Mix everything");
+        recipe.addReview(new Review(4.5, "Nice", "Bobby"));
+        recipe.setSaved(true);
+        profile.addFavorite(recipe);
+    }
+
+    /**
+     * Tests if the adapters write the same JSON as reflection, apart from the version of
+     * the records, and read what reflection writes.
+     *
+     * @see ModelTypeAdapterFactory#create(Gson, com.google.gson.reflect.TypeToken)
+     */
+    @Test
+    @DisplayName("Test writing and reading the same JSON as reflection")
+    public void testSameJson() {
+        Assertions.assertEquals(JsonParser.parseString(reflective.toJson(profile)),
+                withoutVersion(gson.toJson(profile)));
+        Assertions.assertEquals(JsonParser.parseString(reflective.toJson(recipe)),
+                withoutVersion(gson.toJson(recipe)));
+
+        Profile read = gson.fromJson(reflective.toJson(profile), Profile.class);
+        Assertions.assertEquals("Annabelle", read.getUsername());
+        Assertions.assertEquals(profile.getHashedPassword(), read.getHashedPassword());
+        Assertions.assertNull(read.getPassword());
+        Recipe favorite = read.getFavorites().getRecipe(0);
+        Assertions.assertEquals("Pancakes", favorite.getName());
+        Assertions.assertEquals("For breakfast", favorite.getDescription());
+        Assertions.assertEquals(4, favorite.getPortions());
+        Assertions.assertEquals("Annabelle", favorite.getAuthor());
+        Assertions.assertEquals(400.0, favorite.getIngredientAmount("Flour"));
+        Assertions.assertEquals("dL", favorite.getIngredientUnit("Milk"));
+        Assertions.assertEquals("Mix everything", favorite.getSteps().get(0));
+        Assertions.assertEquals(4.5, favorite.getAverageRating());
+        Assertions.assertEquals("Bobby", favorite.getReviews().get(0).getReviewer());
+        Assertions.assertTrue(favorite.isSaved());
+        Assertions.assertEquals(1, read.getRecipes().getSize());
+
+        Recipe copy = reflective.fromJson(reflective.toJson(recipe), Recipe.class);
+        Assertions.assertTrue(copy.hasRated("Bobby"),
+                "The reviews should be counted after reading them with reflection");
+        copy.addReview(new Review(3.5, "", "Clara"));
+        Assertions.assertEquals(4.0, copy.getAverageRating());
+        Assertions.assertEquals(2, copy.getNumberOfReviewers());
+        Assertions.assertEquals(1, copy.getNumberOfComments());
+        Assertions.assertEquals(400.0, copy.getIngredientAmount("Flour"));
+        Assertions.assertEquals("dL", copy.getIngredientUnit("Milk"),
+                "The units should be joined with the amounts after reading them with reflection");
+    }
+
+    /**
+     * Tests if amounts without a unit and units without an amount are written as they
+     * are, like reflection writes them.
+     *
+     * @see ModelTypeAdapterFactory#create(Gson, com.google.gson.reflect.TypeToken)
+     */
+    @Test
+    @DisplayName("Test writing amounts and units apart")
+    public void testAmountsAndUnitsApart() {
+        Recipe partial = new Recipe("Porridge", 2, "Annabelle", null, new ArrayList<>(),
+                Map.of("Oats", 200.0), Map.of("Salt", "g"), true, new ArrayList<>());
+        Assertions.assertEquals(JsonParser.parseString(reflective.toJson(partial)),
+                withoutVersion(gson.toJson(partial)));
+
+        Recipe read = gson.fromJson(gson.toJson(partial), Recipe.class);
+        Assertions.assertEquals(200.0, read.getIngredientAmount("Oats"));
+        Assertions.assertEquals("g", read.getIngredientUnit("Salt"));
+        Assertions.assertEquals(Map.of("Salt", "g"), read.getIngredientUnitsView());
+    }
+
+    /**
+     * Tests if missing members get empty values, unknown members are skipped and invalid
+     * reviews are not read.
+     *
+     * @see ModelTypeAdapterFactory#create(Gson, com.google.gson.reflect.TypeToken)
+     */
+    @Test
+    @DisplayName("Test reading missing and unknown members")
+    public void testPartialJson() {
+        Recipe reference = gson.fromJson("{\"name\":\"Pancakes\",\"authorUsername\":\"Annabelle\","
+                + "\"unknown\":[1,2]}", Recipe.class);
+        Assertions.assertTrue(ProfileReferences.isReference(reference));
+        Assertions.assertEquals(0, reference.getSteps().size());
+        Assertions.assertEquals(0, reference.getIngredients().size());
+        Assertions.assertEquals(0, reference.getNumberOfReviewers());
+
+        Profile read = gson.fromJson("{\"username\":\"Annabelle\"}", Profile.class);
+        Assertions.assertEquals(0, read.getFavorites().getSize());
+        Assertions.assertEquals(0, gson.fromJson("{}", RecipeLibrary.class).getSize());
+        Assertions.assertNull(gson.fromJson("null", Recipe.class));
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson(
+                "{\"rating\":9,\"username\":\"Bobby\"}", Review.class));
+    }
+
+    /**
+     * Tests if the lazy adapters read the header of a recipe, and the same steps,
+     * ingredients and reviews as the other adapters once they are used.
+     *
+     * @see ModelTypeAdapterFactory#ModelTypeAdapterFactory(StringInterner, boolean)
+     */
+    @Test
+    @DisplayName("Test reading recipes with lazy bodies")
+    public void testLazyBodies() {
+        Gson lazy = new GsonBuilder()
+                .registerTypeAdapterFactory(new ModelTypeAdapterFactory(null, true)).create();
+        Recipe read = lazy.fromJson(gson.toJson(profile), Profile.class)
+                .getFavorites().getRecipe(0);
+        Assertions.assertFalse(read.isLoaded());
+        Assertions.assertEquals("Pancakes", read.getName());
+        Assertions.assertEquals("Annabelle", read.getAuthor());
+        Assertions.assertEquals(4.5, read.getAverageRating());
+        Assertions.assertEquals(1, read.getNumberOfComments());
+        Assertions.assertFalse(read.isLoaded());
+        Assertions.assertEquals(JsonParser.parseString(gson.toJson(recipe)),
+                JsonParser.parseString(lazy.toJson(read)));
+        Assertions.assertTrue(read.isLoaded());
+
+        Recipe reference = lazy.fromJson("{\"name\":\"Pancakes\",\"portions\":0}",
+                Recipe.class);
+        Assertions.assertEquals(0, reference.getSteps().size());
+        Assertions.assertEquals(0.0, reference.getAverageRating());
+    }
+
+    /**
+     * Tests if recipes and profiles are written with their version first, while the
+     * recipes inside profiles are not, and if records of an older version are upgraded
+     * when they are read.
+     *
+     * @see RecordVersions
+     */
+    @Test
+    @DisplayName("Test writing and upgrading versions")
+    public void testVersions() {
+        JsonObject written = JsonParser.parseString(gson.toJson(profile)).getAsJsonObject();
+        Assertions.assertEquals(RecordVersions.VERSION_MEMBER,
+                written.keySet().iterator().next());
+        Assertions.assertEquals(1, RecordVersions.getVersion(written));
+        Assertions.assertFalse(written.getAsJsonObject("favorites").getAsJsonArray("recipes")
+                .get(0).getAsJsonObject().has(RecordVersions.VERSION_MEMBER));
+        Assertions.assertEquals(1, RecordVersions.getVersion(
+                JsonParser.parseString(gson.toJson(recipe)).getAsJsonObject()));
+
+        Profile legacy = gson.fromJson("{\"username\":\"Annabelle\",\"hashedPassword\":"
+                + "\"hash\",\"favorites\":{\"recipes\":[{\"name\":\"Pancakes\","
+                + "\"portions\":4,\"authorUsername\":\"Annabelle\"}]}}", Profile.class);
+        Assertions.assertEquals("Annabelle", legacy.getUsername());
+        Assertions.assertEquals("hash", legacy.getHashedPassword());
+        Assertions.assertEquals(4, legacy.getFavorites().getRecipe(0).getPortions());
+
+        Gson renaming = new GsonBuilder().registerTypeAdapterFactory(new ModelTypeAdapterFactory(
+                null, true, RecordVersions.getDefault().with(Recipe.class, old -> {
+                    old.add("name", old.remove("title"));
+                    return old;
+                }))).create();
+        Recipe upgraded = renaming.fromJson("{\"version\":1,\"title\":\"Waffles\","
+                + "\"authorUsername\":\"Annabelle\",\"steps\":[\"Bake\"]}", Recipe.class);
+        Assertions.assertEquals("Waffles", upgraded.getName());
+        Assertions.assertEquals("Bake", upgraded.getSteps().get(0));
+        Assertions.assertEquals(2, RecordVersions.getVersion(JsonParser.parseString(
+                renaming.toJson(upgraded)).getAsJsonObject()));
+        Assertions.assertEquals("Pancakes", renaming.fromJson(gson.toJson(recipe).replace(
+                "\"name\"", "\"title\""), Recipe.class).getName());
+
+        Recipe versionLast = gson.fromJson("{\"name\":\"Waffles\",\"steps\":[\"Bake\"],"
+                + "\"authorUsername\":\"Annabelle\",\"version\":1}", Recipe.class);
+        Assertions.assertEquals("Waffles", versionLast.getName(),
+                "The version should be read after other members as well.");
+        Assertions.assertEquals("Bake", versionLast.getSteps().get(0));
+        Assertions.assertEquals("Waffles", renaming.fromJson("{\"title\":\"Waffles\","
+                + "\"version\":1}", Recipe.class).getName());
+    }
+
+    /**
+     * Helper method which parses JSON written by the adapters, without the version.
+     */
+    private static JsonObject withoutVersion(String json) {
+        JsonObject record = JsonParser.parseString(json).getAsJsonObject();
+        record.remove(RecordVersions.VERSION_MEMBER);
+        return record;
+    }
+}
@@ -0,0 +1,130 @@
+package file;
+
+import core.Profile;
+import core.Recipe;
+import core.Review;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for ProfileReferences.
+ */
+public class ProfileReferencesTest {
+    private Profile author;
+    private Recipe pasta;
+    private Recipe cake;
+
+    private String recipeFileName;
+    private String userFileName;
+
+    /**
+     * Sets the filenames, so that the files of the application are not changed, and makes
+     * a profile with two recipes.
+     */
+    @BeforeEach
+    public void setup() {
+        recipeFileName = RecipeFilehandler.getFileName();
+        userFileName = UserFilehandler.getFileName();
+        RecipeFilehandler.setFileName("testReferenceRecipes.json");
+        UserFilehandler.setFileName("testReferenceUsers.json");
+        author = new Profile("Annabelle", "Password123");
+        pasta = new Recipe("Pasta", 2, author);
+        pasta.addStep("Boil the pasta");
+        cake = new Recipe("Cake", 8, author);
+        author.addFavorite(pasta);
+    }
+
+    /**
+     * Tests if only recipes in the store are made references, and if they are replaced
+     * by the recipes in the store when resolved.
+     *
+     * @see ProfileReferences#toReferences(Profile, BiFunction)
+     * @see ProfileReferences#resolve(Profile, BiFunction)
+     */
+    @Test
+    @DisplayName("Test making and resolving references")
+    public void testReferences() {
+        BiFunction<String, String, Recipe> lookup = (username, name) ->
+                Map.of("Pasta", pasta).get(name);
+        Assertions.assertSame(author, ProfileReferences.toReferences(author,
+                (username, name) -> null), "A profile without stored recipes should be kept.");
+
+        Profile saved = ProfileReferences.toReferences(author, lookup);
+        Assertions.assertNotSame(author, saved);
+        Assertions.assertEquals(2, author.getRecipes().getSize());
+        Assertions.assertFalse(ProfileReferences.isReference(author.getRecipes().getRecipe(0)),
+                "The profile itself should not be changed.");
+        Assertions.assertTrue(ProfileReferences.isReference(saved.getRecipes().getRecipe(0)));
+        Assertions.assertTrue(ProfileReferences.isReference(saved.getFavorites().getRecipe(0)));
+        Assertions.assertFalse(ProfileReferences.isReference(saved.getRecipes().getRecipe(1)),
+                "Recipes which are not stored should be kept as copies.");
+
+        ProfileReferences.resolve(saved, lookup);
+        Assertions.assertSame(pasta, saved.getRecipes().getRecipe(0));
+        Assertions.assertSame(pasta, saved.getFavorites().getRecipe(0));
+        Assertions.assertEquals("Cake", saved.getRecipes().getRecipe(1).getName());
+
+        Profile removed = ProfileReferences.toReferences(author, lookup);
+        ProfileReferences.resolve(removed, (username, name) -> null);
+        Assertions.assertEquals(1, removed.getRecipes().getSize(),
+                "References to removed recipes should be dropped.");
+        Assertions.assertEquals(0, removed.getFavorites().getSize());
+    }
+
+    /**
+     * Tests if a review saved to a recipe is seen in the profiles which have it, without
+     * saving the profiles again, and if a removed recipe is gone from the favorites.
+     *
+     * @see DirectRecipeHubAccess#loadProfile(String)
+     * @throws IOException if the profile file can not be read
+     */
+    @Test
+    @DisplayName("Test saving recipes once for all profiles")
+    public void testSavedProfiles() throws IOException {
+        DirectRecipeHubAccess access = new DirectRecipeHubAccess();
+        Profile other = new Profile("Bobby", "Password123");
+        other.addFavorite(pasta);
+        access.saveRecipe(pasta);
+        Assertions.assertTrue(access.saveProfiles(List.of(author, other)));
+        Assertions.assertFalse(Files.readString(ShardedUserFilehandler.getShardPath("Bobby"))
+                .contains("Boil the pasta"), "Saved recipes should not be copied to profiles.");
+
+        pasta.addReview(new Review(5, "Tasty", "Bobby"));
+        access.saveRecipe(pasta);
+        Assertions.assertEquals(1, access.loadProfile("Bobby").getFavorites().getRecipe(0)
+                .getNumberOfReviewers());
+        Assertions.assertEquals(1, access.getProfiles().get(0).getRecipes().getRecipe(0)
+                .getNumberOfReviewers());
+
+        access.removeRecipe(pasta);
+        Assertions.assertEquals(0, access.loadProfile("Bobby").getFavorites().getSize());
+        Assertions.assertEquals("Cake", access.loadProfile("Annabelle").getRecipes()
+                .getRecipe(0).getName());
+    }
+
+    /**
+     * Deletes the test files and sets the filenames back after each test.
+     *
+     * @throws IOException if the files can not be deleted
+     */
+    @AfterEach
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(RecipeFilehandler.getFilePath());
+        ShardedUserFilehandlerTest.deleteFiles(UserFilehandler.getFilePath());
+        Files.deleteIfExists(StoreLock.getLockPath(RecipeFilehandler.getFilePath()));
+        Files.deleteIfExists(RecipeSummaryIndex.getIndexPath(
+                RecipeFilehandler.getFilePath()));
+        Files.deleteIfExists(RecipeSummaryIndex.getIndexLogPath(
+                RecipeFilehandler.getFilePath()));
+        RecipeFilehandler.setFileName(recipeFileName);
+        UserFilehandler.setFileName(userFileName);
+    }
+}
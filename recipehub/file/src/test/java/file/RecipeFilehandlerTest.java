@@ -4,9 +4,20 @@ import core.PasswordHasher;
 import core.Profile;
 import core.Recipe;
 import core.RecipeLibrary;
+import core.RecipeSummary;
+import core.Review;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -100,6 +111,356 @@ public class RecipeFilehandlerTest {
         Assertions.assertEquals(0, recipeLibrary.getSize(), "The recipe should be removed.");
     }
 
+    /**
+     * Tests if saves and removals in log-structured mode are appended to the log
+     * and replayed when the recipes are read.
+     *
+     * @throws IOException if the log cannot be read
+     * @see RecipeFilehandler#RecipeFilehandler(boolean)
+     */
+    @Test
+    @DisplayName("Test log-structured mode")
+    public void testLogStructured() throws IOException {
+        RecipeFilehandler logFilehandler = new RecipeFilehandler(true);
+        Assertions.assertTrue(logFilehandler.isLogStructured());
+        Recipe otherRecipe = new Recipe("otherRecipe", 2, new Profile("testUser", "Password123"));
+        logFilehandler.writeRecipe(this.recipe);
+        logFilehandler.writeRecipe(otherRecipe);
+        logFilehandler.removeRecipe(this.recipe);
+
+        Assertions.assertEquals(3, new AppendLog(RecipeFilehandler.getLogPath())
+                .readRecords().size(), "Every change should be appended to the log.");
+        Assertions.assertFalse(Files.readAllLines(RecipeFilehandler.getLogPath()).get(2)
+                .contains("reviewList"), "A removal should only append the key of the recipe.");
+        Assertions.assertEquals(0, recipeFilehandler.readRecipeLibrary().getSize(),
+                "The recipe file itself should not be rewritten.");
+        RecipeLibrary recipeLibrary = logFilehandler.readRecipeLibrary();
+        Assertions.assertEquals(1, recipeLibrary.getSize(), "Only one recipe should remain.");
+        Assertions.assertEquals("otherRecipe", recipeLibrary.getRecipe(0).getName());
+    }
+
+    /**
+     * Tests if compacting the log writes the replayed recipes to the recipe file and
+     * empties the log, without changing what is read.
+     *
+     * @see RecipeFilehandler#compact()
+     */
+    @Test
+    @DisplayName("Test compaction in log-structured mode")
+    public void testCompact() {
+        Assertions.assertFalse(recipeFilehandler.compact(),
+                "A filehandler which is not log-structured should not compact.");
+        RecipeFilehandler logFilehandler = new RecipeFilehandler(true);
+        logFilehandler.writeRecipe(this.recipe);
+        Assertions.assertTrue(logFilehandler.compact());
+        Assertions.assertEquals(0, new AppendLog(RecipeFilehandler.getLogPath())
+                .readRecords().size(), "The log should be empty after compaction.");
+        Assertions.assertEquals(1, recipeFilehandler.readRecipeLibrary().getSize(),
+                "The recipe should be in the recipe file after compaction.");
+        logFilehandler.removeRecipe(this.recipe);
+        Assertions.assertEquals(0, logFilehandler.readRecipeLibrary().getSize(),
+                "Changes after the compaction should be replayed on the new snapshot.");
+    }
+
+    /**
+     * Tests if a filehandler using the binary format writes a binary recipe file,
+     * reads and converts an existing JSON file, and compacts into a binary file.
+     *
+     * @see RecipeFilehandler#RecipeFilehandler(boolean, StorageFormat)
+     */
+    @Test
+    @DisplayName("Test binary storage format")
+    public void testBinaryFormat() {
+        recipeFilehandler.writeRecipe(this.recipe);
+        RecipeFilehandler binaryFilehandler = new RecipeFilehandler(false, StorageFormat.BINARY);
+        Assertions.assertEquals(StorageFormat.BINARY, binaryFilehandler.getStorageFormat());
+        Assertions.assertEquals(1, binaryFilehandler.readRecipeLibrary().getSize(),
+                "An existing JSON file should be read.");
+
+        Recipe otherRecipe = new Recipe("otherRecipe", 2, new Profile("testUser", "Password123"));
+        binaryFilehandler.writeRecipe(otherRecipe);
+        Assertions.assertTrue(BinaryCodec.isBinary(RecipeFilehandler.getFilePath()),
+                "The file should be converted when it is written.");
+        Assertions.assertEquals(2, recipeFilehandler.readRecipeLibrary().getSize(),
+                "A JSON filehandler should still read the binary file.");
+        Assertions.assertEquals(List.of("testRecipe", "otherRecipe"),
+                getNames(recipeFilehandler.streamRecipes()));
+        binaryFilehandler.removeRecipe(this.recipe);
+        Assertions.assertEquals(1, binaryFilehandler.readRecipeLibrary().getSize());
+
+        RecipeFilehandler logFilehandler = new RecipeFilehandler(true, StorageFormat.BINARY);
+        logFilehandler.writeRecipe(this.recipe);
+        Assertions.assertTrue(logFilehandler.compact());
+        Assertions.assertTrue(BinaryCodec.isBinary(RecipeFilehandler.getFilePath()));
+        Assertions.assertEquals(2, recipeFilehandler.readRecipeLibrary().getSize());
+    }
+
+    /**
+     * Tests if a filehandler using the compressed format writes a compressed recipe file,
+     * which is read, streamed and searched like a JSON file, and compacts into a
+     * compressed file.
+     *
+     * @see StorageFormat#COMPRESSED_JSON
+     */
+    @Test
+    @DisplayName("Test compressed storage format")
+    public void testCompressedFormat() {
+        recipeFilehandler.writeRecipe(this.recipe);
+        RecipeFilehandler compressedFilehandler = new RecipeFilehandler(false,
+                StorageFormat.COMPRESSED_JSON);
+        Recipe otherRecipe = new Recipe("otherRecipe", 2, new Profile("testUser", "Password123"));
+        compressedFilehandler.writeRecipe(otherRecipe);
+        Assertions.assertTrue(FileUtil.isCompressed(RecipeFilehandler.getFilePath()));
+        Assertions.assertEquals(2, recipeFilehandler.readRecipeLibrary().getSize());
+        Assertions.assertEquals(List.of("testRecipe", "otherRecipe"),
+                getNames(recipeFilehandler.streamRecipes()));
+        Assertions.assertEquals(2, compressedFilehandler.loadRecipe("testUser", "otherRecipe")
+                .getPortions(), "A compressed file should be searched without mapping it.");
+        Assertions.assertEquals(2, compressedFilehandler.readRecipeSummaries().size());
+
+        RecipeFilehandler logFilehandler = new RecipeFilehandler(true,
+                StorageFormat.COMPRESSED_JSON);
+        logFilehandler.removeRecipe(this.recipe);
+        Assertions.assertTrue(logFilehandler.compact());
+        Assertions.assertTrue(FileUtil.isCompressed(RecipeFilehandler.getFilePath()));
+        Assertions.assertEquals(1, recipeFilehandler.readRecipeLibrary().getSize());
+    }
+
+    /**
+     * Tests if a filehandler in lazy loading mode reads only the headers of the recipes,
+     * both from a JSON and a binary file, and decodes the rest when it is used.
+     *
+     * @see RecipeFilehandler#setLazyLoading(boolean)
+     */
+    @Test
+    @DisplayName("Test lazy loading")
+    public void testLazyLoading() {
+        this.recipe.addStep("Mix everything");
+        this.recipe.addIngredient("Flour", 200.0, "g");
+        this.recipe.addReview(new Review(4.0, "Tasty", "otherUser"));
+        recipeFilehandler.writeRecipe(this.recipe);
+        RecipeFilehandler lazyFilehandler = new RecipeFilehandler(false, StorageFormat.BINARY);
+        Assertions.assertFalse(lazyFilehandler.isLazyLoading());
+        lazyFilehandler.setLazyLoading(true);
+        Assertions.assertTrue(lazyFilehandler.isLazyLoading());
+
+        for (int i = 0; i < 2; i++) {
+            Recipe loadedRecipe = lazyFilehandler.readRecipeLibrary().getRecipe(0);
+            Assertions.assertFalse(loadedRecipe.isLoaded(),
+                    "Only the header of the recipe should be decoded.");
+            Assertions.assertEquals("testRecipe", loadedRecipe.getName());
+            Assertions.assertEquals(4.0, loadedRecipe.getAverageRating());
+            Assertions.assertEquals(1, loadedRecipe.getNumberOfComments());
+            Assertions.assertFalse(loadedRecipe.isLoaded());
+            Assertions.assertEquals(List.of("Mix everything"), loadedRecipe.getSteps());
+            Assertions.assertEquals(200.0, loadedRecipe.getIngredientAmount("Flour"));
+            Assertions.assertTrue(loadedRecipe.hasRated("otherUser"));
+            Assertions.assertTrue(loadedRecipe.isLoaded());
+            // Convert the file to the binary format for the second round
+            lazyFilehandler.writeRecipe(new Recipe("otherRecipe", 2,
+                    new Profile("testUser", "Password123")));
+        }
+        Assertions.assertTrue(recipeFilehandler.readRecipeLibrary().getRecipe(0).isLoaded());
+    }
+
+    /**
+     * Tests if the summaries of the recipes follow the recipes which are written and
+     * removed, both with and without a log, and are made again when the file changes.
+     *
+     * @see RecipeFilehandler#readRecipeSummaries()
+     */
+    @Test
+    @DisplayName("Test readRecipeSummaries")
+    public void testReadRecipeSummaries() {
+        Assertions.assertEquals(0, recipeFilehandler.readRecipeSummaries().size());
+        this.recipe.addReview(new Review(4.0, "Tasty", "otherUser"));
+        recipeFilehandler.writeRecipe(this.recipe);
+        Recipe otherRecipe = new Recipe("otherRecipe", 2, new Profile("testUser", "Password123"));
+        recipeFilehandler.writeRecipe(otherRecipe);
+        Assertions.assertTrue(Files.exists(RecipeSummaryIndex.getIndexPath(
+                RecipeFilehandler.getFilePath())));
+        List<RecipeSummary> summaries = recipeFilehandler.readRecipeSummaries();
+        Assertions.assertEquals(List.of("testRecipe", "otherRecipe"), summaries.stream()
+                .map(RecipeSummary::getName).collect(Collectors.toList()));
+        Assertions.assertEquals(4.0, summaries.get(0).getAverageRating());
+
+        RecipeFilehandler logFilehandler = new RecipeFilehandler(true);
+        logFilehandler.removeRecipe(this.recipe);
+        Assertions.assertEquals(1, recipeFilehandler.readRecipeSummaries().size(),
+                "A removal in the log should be seen by other filehandlers.");
+        Assertions.assertTrue(logFilehandler.compact());
+        Assertions.assertEquals(0, RecipeSummaryIndex.getIndexLogPath(
+                RecipeFilehandler.getFilePath()).toFile().length(),
+                "The log of the index should be compacted with the log of the recipes.");
+        Assertions.assertEquals("otherRecipe",
+                logFilehandler.readRecipeSummaries().get(0).getName());
+
+        FileUtil.writeFile(RecipeFilehandler.getFilePath(), new RecipeLibrary());
+        Assertions.assertEquals(0, new RecipeFilehandler().readRecipeSummaries().size(),
+                "The summaries should be made again when the file is changed by others.");
+    }
+
+    /**
+     * Tests if single recipes are loaded from the recipe file, both with and without a
+     * log, and if a recipe written after the file was mapped is found.
+     *
+     * @see RecipeFilehandler#loadRecipe(String, String)
+     */
+    @Test
+    @DisplayName("Test loadRecipe")
+    public void testLoadRecipe() {
+        Assertions.assertNull(recipeFilehandler.loadRecipe("testUser", "testRecipe"));
+        recipeFilehandler.writeRecipe(this.recipe);
+        Assertions.assertEquals(1, recipeFilehandler.loadRecipe("testUser", "testRecipe")
+                .getPortions());
+        Assertions.assertNull(recipeFilehandler.loadRecipe("testUser", "otherRecipe"));
+        Assertions.assertNull(recipeFilehandler.loadRecipe(null, "testRecipe"));
+
+        this.recipe.setPortions(3);
+        recipeFilehandler.writeRecipe(this.recipe);
+        Assertions.assertEquals(3, recipeFilehandler.loadRecipe("testUser", "testRecipe")
+                .getPortions(), "The file should be mapped again after it is written.");
+
+        RecipeFilehandler logFilehandler = new RecipeFilehandler(true);
+        logFilehandler.writeRecipe(new Recipe("otherRecipe", 2,
+                new Profile("testUser", "Password123")));
+        Assertions.assertEquals(2, logFilehandler.loadRecipe("testUser", "otherRecipe")
+                .getPortions());
+
+        RecipeFilehandler binaryFilehandler = new RecipeFilehandler(false, StorageFormat.BINARY);
+        binaryFilehandler.writeRecipe(new Recipe("binaryRecipe", 5,
+                new Profile("testUser", "Password123")));
+        Assertions.assertEquals(5, binaryFilehandler.loadRecipe("testUser", "binaryRecipe")
+                .getPortions());
+    }
+
+    /**
+     * Tests if readers which find the recipe file changed by another filehandler at the
+     * same time all find the recipe, while the file is mapped again and the old mapping is
+     * closed.
+     *
+     * @throws Exception if a reading thread fails
+     * @see RecipeFilehandler#loadRecipe(String, String)
+     */
+    @Test
+    @DisplayName("Test loading recipes while the file is mapped again")
+    public void testConcurrentLoadRecipe() throws Exception {
+        recipeFilehandler.writeRecipe(this.recipe);
+        Assertions.assertNotNull(recipeFilehandler.loadRecipe("testUser", "testRecipe"));
+        RecipeFilehandler other = new RecipeFilehandler();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int round = 0; round < 20; round++) {
+                other.writeRecipe(new Recipe("otherRecipe", round + 1,
+                        new Profile("testUser", "Password123")));
+                List<Future<Recipe>> loaded = new ArrayList<>();
+                for (int i = 0; i < 8; i++) {
+                    loaded.add(executor.submit(() -> recipeFilehandler.loadRecipe("testUser",
+                            "testRecipe")));
+                }
+                for (Future<Recipe> recipe : loaded) {
+                    Assertions.assertNotNull(recipe.get(10, TimeUnit.SECONDS),
+                            "A reader should find the recipe while the file is mapped again.");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tests if streaming the recipes gives the same recipes in the same order as reading
+     * the recipe library, both with and without a log.
+     *
+     * @see RecipeFilehandler#streamRecipes()
+     */
+    @Test
+    @DisplayName("Test streamRecipes")
+    public void testStreamRecipes() {
+        try (Stream<Recipe> recipes = recipeFilehandler.streamRecipes()) {
+            Assertions.assertEquals(0, recipes.count(), "An empty file should give no recipes.");
+        }
+        Profile profile = new Profile("testUser", "Password123");
+        recipeFilehandler.writeRecipe(this.recipe);
+        recipeFilehandler.writeRecipe(new Recipe("otherRecipe", 2, profile));
+        recipeFilehandler.writeRecipe(new Recipe("thirdRecipe", 3, profile));
+        Assertions.assertEquals(getNames(recipeFilehandler.readRecipeLibrary().getRecipes()),
+                getNames(recipeFilehandler.streamRecipes()));
+
+        RecipeFilehandler logFilehandler = new RecipeFilehandler(true);
+        logFilehandler.writeRecipe(this.recipe);
+        logFilehandler.removeRecipe(new Recipe("otherRecipe", 2, profile));
+        logFilehandler.writeRecipe(new Recipe("fourthRecipe", 4, profile));
+        Assertions.assertEquals(List.of("thirdRecipe", "testRecipe", "fourthRecipe"),
+                getNames(logFilehandler.streamRecipes()),
+                "Recipes changed in the log should be streamed after the rest.");
+        Assertions.assertEquals(getNames(logFilehandler.readRecipeLibrary().getRecipes()),
+                getNames(logFilehandler.streamRecipes()));
+    }
+
+    /**
+     * Helper method which gets the names of the recipes, closing the stream afterwards.
+     */
+    private static List<String> getNames(Stream<Recipe> recipes) {
+        try (recipes) {
+            return recipes.map(Recipe::getName).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Helper method which gets the names of the recipes in a list.
+     */
+    private static List<String> getNames(List<Recipe> recipes) {
+        return getNames(recipes.stream());
+    }
+
+    /**
+     * Tests if a filehandler with its own recipe file keeps using it when the default file
+     * name is changed, and does not share recipes with the default file.
+     *
+     * @see RecipeFilehandler#RecipeFilehandler(Path, boolean, StorageFormat)
+     */
+    @Test
+    @DisplayName("Test filehandler with its own file")
+    public void testOwnFile() throws IOException {
+        Path ownPath = Path.of("testOwnStore", "ownRecipes.json");
+        try {
+            RecipeFilehandler ownFilehandler = new RecipeFilehandler(ownPath, true,
+                    StorageFormat.JSON);
+            Assertions.assertTrue(Files.exists(ownPath),
+                    "The file and its directory should be created.");
+            Assertions.assertEquals(List.of(ownPath, RecipeFilehandler.getLogPath(ownPath)),
+                    ownFilehandler.getStoragePaths());
+            Assertions.assertEquals(RecipeFilehandler.getFilePath(),
+                    recipeFilehandler.getDataPath());
+
+            ownFilehandler.writeRecipe(this.recipe);
+            RecipeFilehandler.setFileName("newtest.json");
+            Assertions.assertEquals(ownPath, ownFilehandler.getDataPath());
+            Assertions.assertEquals(1, ownFilehandler.readRecipeLibrary().getSize());
+            Assertions.assertEquals(RecipeFilehandler.getFilePath(),
+                    recipeFilehandler.getDataPath(),
+                    "A filehandler without a file of its own should use the new default file.");
+            Assertions.assertTrue(ownFilehandler.compact());
+            Assertions.assertEquals(1, new RecipeFilehandler(ownPath, false,
+                    StorageFormat.JSON).readRecipeLibrary().getSize());
+        } finally {
+            RecipeFilehandler.setFileName("test.json");
+            deleteDirectory(ownPath.getParent());
+        }
+    }
+
+    /**
+     * Helper method which deletes a directory and the files in it.
+     */
+    private static void deleteDirectory(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
     /**
      * This method tests if the getters and setters work properly.
      * 
@@ -124,6 +485,71 @@ public class RecipeFilehandlerTest {
                 "The file should be in the home directory.");
     }
 
+    /**
+     * Tests if a stream reads the recipes as they were when it was made, when the recipes
+     * are written and removed before it is read, and if writing does not wait for the
+     * stream to be closed.
+     *
+     * @see RecipeFilehandler#streamRecipes()
+     */
+    @Test
+    @DisplayName("Test writing while streaming")
+    public void testStreamWhileWriting() {
+        Recipe other = new Recipe("otherRecipe", 2, new Profile("testUser", "Password123"));
+        for (RecipeFilehandler filehandler : List.of(recipeFilehandler,
+                new RecipeFilehandler(true))) {
+            filehandler.writeRecipe(recipe);
+            try (Stream<Recipe> recipes = filehandler.streamRecipes()) {
+                Assertions.assertTrue(filehandler.writeRecipe(other));
+                Assertions.assertTrue(filehandler.removeRecipe(recipe));
+                Assertions.assertEquals(List.of("testRecipe"),
+                        recipes.map(Recipe::getName).collect(Collectors.toList()),
+                        "The stream should read the recipes as they were when it was made.");
+            }
+            try (Stream<Recipe> recipes = filehandler.streamRecipes()) {
+                Assertions.assertEquals(List.of("otherRecipe"),
+                        recipes.map(Recipe::getName).collect(Collectors.toList()));
+            }
+            filehandler.removeRecipe(other);
+        }
+    }
+
+    /**
+     * Tests if recipes written while the recipe file is locked are written to the file
+     * together, so there are fewer commits than writers, and if every recipe is in the
+     * file and the summary index afterwards.
+     *
+     * @throws Exception if the writing threads fail
+     * @see RecipeFilehandler#writeRecipe(Recipe)
+     */
+    @Test
+    @DisplayName("Test grouping concurrent writes")
+    public void testGroupCommit() throws Exception {
+        int writers = 8;
+        Profile author = new Profile("testUser", "Password123");
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            StoreLock.forFile(RecipeFilehandler.getFilePath()).write(() -> {
+                for (int i = 0; i < writers; i++) {
+                    Recipe written = new Recipe("testRecipe" + i, 1, author);
+                    results.add(executor.submit(() -> recipeFilehandler.writeRecipe(written)));
+                }
+                GroupCommitTest.waitForThreads();
+                return null;
+            });
+            for (Future<Boolean> result : results) {
+                Assertions.assertTrue(result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertTrue(recipeFilehandler.getCommitCount() < writers,
+                "Writes waiting for the lock should be committed together.");
+        Assertions.assertEquals(writers, recipeFilehandler.readRecipeLibrary().getSize());
+        Assertions.assertEquals(writers, recipeFilehandler.readRecipeSummaries().size());
+    }
+
     /**
      * This method is run after each test.
      * It deletes test.json and newtest.json if it exists.
@@ -134,6 +560,20 @@ public class RecipeFilehandlerTest {
     @AfterEach
     public void cleanUp() {
         deleteFile("test.json");
+        if (Files.exists(RecipeFilehandler.getLogPath())) {
+            deleteFile("test.json.log");
+        }
+        if (Files.exists(StoreLock.getLockPath(RecipeFilehandler.getFilePath()))) {
+            deleteFile("test.json.lock");
+        }
+        if (Files.exists(RecipeSummaryIndex.getIndexPath(
+                RecipeFilehandler.getFilePath()))) {
+            deleteFile("test.json.sum");
+        }
+        if (Files.exists(RecipeSummaryIndex.getIndexLogPath(
+                RecipeFilehandler.getFilePath()))) {
+            deleteFile("test.json.sum.log");
+        }
         if (Files.exists(Path.of(System.getProperty("user.home")
                 + System.getProperty("file.separator") + "newtest.json"))) {
             deleteFile("newtest.json");
@@ -0,0 +1,168 @@
+package file;
+
+import core.Profile;
+import core.Recipe;
+import core.Review;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class runs the same mix of operations against every registered storage engine,
+ * and compares their throughput. The mix is made to look like the use of the app, where
+ * most operations read recipes, and the rest save recipes, add reviews and add favorites.
+ * Every engine starts with the same recipes and profiles in its own files, and runs the
+ * same operations in the same order.
+ *
+ * <p>The remote engine is only measured if a server is running at its URI, and is
+ * skipped otherwise.
+ * </p>
+ *
+ * @see RecipeHubAccessProvider#getProviders()
+ */
+public class RecipeHubAccessBenchmark {
+    private static final String PREFIX = "benchmarkAccess";
+    private static final int PROFILES = 20;
+    private static final int RECIPES_PER_PROFILE = 25;
+    private static final int WARMUP_OPERATIONS = 200;
+    private static final int OPERATIONS = 1000;
+
+    private String recipeFileName;
+    private String userFileName;
+
+    /**
+     * Remembers the filenames, which each engine changes to its own files.
+     */
+    @BeforeEach
+    public void setup() {
+        recipeFileName = RecipeFilehandler.getFileName();
+        userFileName = UserFilehandler.getFileName();
+    }
+
+    /**
+     * Runs the mix against every engine, and prints the results.
+     */
+    @Test
+    public void benchmark() {
+        System.out.printf("%d profiles, %d recipes, %d operations%n", PROFILES,
+                PROFILES * RECIPES_PER_PROFILE, OPERATIONS);
+        System.out.printf("%-10s %12s %12s%n", "Engine", "Setup (ms)", "Ops/s");
+        for (RecipeHubAccessProvider provider : RecipeHubAccessProvider.getProviders()) {
+            RecipeFilehandler.setFileName(PREFIX + provider.getName() + "Recipes.json");
+            UserFilehandler.setFileName(PREFIX + provider.getName() + "Users.json");
+            RecipeHubAccess access = provider.create();
+            try {
+                List<Profile> profiles = new ArrayList<>();
+                double setup = Benchmarks.time(0, 1, () -> profiles.addAll(populate(access)));
+                run(access, profiles, new Random(1), WARMUP_OPERATIONS);
+                double elapsed = Benchmarks.time(0, 1,
+                        () -> run(access, profiles, new Random(2), OPERATIONS));
+                System.out.printf("%-10s %12.0f %12.0f%n", provider.getName(), setup,
+                        OPERATIONS / (elapsed / 1e3));
+            } catch (RuntimeException e) {
+                System.out.printf("%-10s skipped, %s%n", provider.getName(), e.getMessage());
+            } finally {
+                close(access);
+            }
+        }
+    }
+
+    /**
+     * Helper method which saves the recipes and profiles every engine starts with.
+     *
+     * @return the saved profiles
+     * @throws IllegalStateException if the engine can not save recipes, like the remote
+     *                               engine without a server
+     */
+    private static List<Profile> populate(RecipeHubAccess access) {
+        List<Profile> profiles = new ArrayList<>();
+        for (int i = 0; i < PROFILES; i++) {
+            Profile profile = new Profile("Bench" + i, "Password123");
+            for (int j = 0; j < RECIPES_PER_PROFILE; j++) {
+                Recipe recipe = new Recipe("Recipe " + j, 4, profile);
+                recipe.setDescription("A description of recipe number " + j);
+                for (int k = 0; k < 8; k++) {
+                    recipe.addIngredient("Ingredient " + k, 1.5 * k + 1, "g");
+                }
+                for (int k = 0; k < 6; k++) {
+                    recipe.addStep("Step " + k + " of making recipe number " + j);
+                }
+                if (!access.saveRecipe(recipe)) {
+                    throw new IllegalStateException("recipes can not be saved");
+                }
+            }
+            Assertions.assertTrue(access.saveProfile(profile));
+            profiles.add(profile);
+        }
+        return profiles;
+    }
+
+    /**
+     * Helper method which runs the mix: 60% reads of a recipe, 15% saves of a changed
+     * recipe, 15% reviews and 10% favorites.
+     */
+    private static void run(RecipeHubAccess access, List<Profile> profiles, Random random,
+            int operations) {
+        for (int i = 0; i < operations; i++) {
+            Profile author = profiles.get(random.nextInt(PROFILES));
+            String name = "Recipe " + random.nextInt(RECIPES_PER_PROFILE);
+            int operation = random.nextInt(100);
+            if (operation < 60) {
+                Assertions.assertNotNull(access.loadRecipe(author.getUsername(), name));
+            } else if (operation < 75) {
+                Recipe recipe = access.loadRecipe(author.getUsername(), name);
+                recipe.setPortions(1 + random.nextInt(8));
+                Assertions.assertTrue(access.saveRecipe(recipe));
+            } else if (operation < 90) {
+                Recipe recipe = access.loadRecipe(author.getUsername(), name);
+                String reviewer = "Reviewer" + i;
+                if (!recipe.hasRated(reviewer)) {
+                    recipe.addReview(new Review(1 + random.nextInt(5), "Comment " + i,
+                            reviewer));
+                }
+                Assertions.assertTrue(access.saveRecipe(recipe));
+            } else {
+                Profile profile = access.loadProfile(profiles.get(random.nextInt(PROFILES))
+                        .getUsername());
+                profile.addFavorite(access.loadRecipe(author.getUsername(), name));
+                Assertions.assertTrue(access.saveProfile(profile));
+            }
+        }
+    }
+
+    private static void close(RecipeHubAccess access) {
+        if (access instanceof Closeable) {
+            try {
+                ((Closeable) access).close();
+            } catch (IOException e) {
+                System.out.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Deletes the files and stores written by the benchmark, and sets the filenames back.
+     *
+     * @throws IOException if the files can not be deleted
+     */
+    @AfterEach
+    public void cleanUp() throws IOException {
+        try (Stream<Path> paths = Files.list(Path.of("."))) {
+            for (Path path : paths.filter(path -> path.getFileName().toString()
+                    .startsWith(PREFIX)).toList()) {
+                LsmStoreTest.deleteDirectory(path);
+            }
+        }
+        RecipeFilehandler.setFileName(recipeFileName);
+        UserFilehandler.setFileName(userFileName);
+    }
+}
@@ -0,0 +1,137 @@
+package file;
+
+import core.Profile;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for RecipeHubAccessProvider.
+ */
+public class RecipeHubAccessProviderTest {
+    private String recipeFileName;
+    private String userFileName;
+    private String storage;
+
+    /**
+     * Sets the filenames, so that accesses are made with test files.
+     */
+    @BeforeEach
+    public void setup() {
+        recipeFileName = RecipeFilehandler.getFileName();
+        userFileName = UserFilehandler.getFileName();
+        storage = System.getProperty(RecipeHubAccessProvider.STORAGE_PROPERTY);
+        RecipeFilehandler.setFileName("testProviderRecipes.json");
+        UserFilehandler.setFileName("testProviderUsers.json");
+        System.clearProperty(RecipeHubAccessProvider.STORAGE_PROPERTY);
+    }
+
+    /**
+     * Tests if the storage engines of this module are found, and found by their names.
+     *
+     * @see RecipeHubAccessProvider#getProviders()
+     */
+    @Test
+    @DisplayName("Test finding the storage engines")
+    public void testGetProviders() {
+        List<String> names = RecipeHubAccessProvider.getProviders().stream()
+                .map(RecipeHubAccessProvider::getName).collect(Collectors.toList());
+        Assertions.assertTrue(names.containsAll(List.of(DirectRecipeHubAccess.Provider.NAME,
+                CachingRecipeHubAccess.Provider.NAME, LsmRecipeHubAccess.Provider.NAME,
+                RemoteRecipeHubAccess.Provider.NAME)));
+        Assertions.assertTrue(RecipeHubAccessProvider.getProvider("LSM")
+                instanceof LsmRecipeHubAccess.Provider);
+        Assertions.assertNull(RecipeHubAccessProvider.getProvider("unknown"));
+    }
+
+    /**
+     * Tests if the engine named in the system property is used, and if the given engine
+     * is used when the property is not set or names no engine.
+     *
+     * @see RecipeHubAccessProvider#createSelected(String)
+     */
+    @Test
+    @DisplayName("Test picking a storage engine by configuration")
+    public void testCreateSelected() {
+        Assertions.assertTrue(RecipeHubAccessProvider.createSelected(
+                DirectRecipeHubAccess.Provider.NAME) instanceof DirectRecipeHubAccess);
+
+        System.setProperty(RecipeHubAccessProvider.STORAGE_PROPERTY, "remote");
+        Assertions.assertTrue(RecipeHubAccessProvider.createSelected(
+                DirectRecipeHubAccess.Provider.NAME) instanceof RemoteRecipeHubAccess);
+
+        System.setProperty(RecipeHubAccessProvider.STORAGE_PROPERTY, "unknown");
+        Assertions.assertTrue(RecipeHubAccessProvider.createSelected(
+                DirectRecipeHubAccess.Provider.NAME) instanceof DirectRecipeHubAccess);
+        Assertions.assertThrows(IllegalArgumentException.class,
+                () -> RecipeHubAccessProvider.createSelected("unknown"));
+    }
+
+    /**
+     * Tests if a profile registered with one engine, after the profiles in the profile file
+     * were moved into files of their own, is found by the other engines and by accesses
+     * made without a provider, and if the moved profile is not read again instead.
+     *
+     * @throws IOException if the lsm access can not be closed
+     * @see ShardedUserFilehandler
+     */
+    @Test
+    @DisplayName("Test switching storage engines after registering")
+    public void testSwitchEngines() throws IOException {
+        new UserFilehandler().writeProfile(new Profile("Olduser1", "Password123"));
+        RecipeHubAccess direct = new DirectRecipeHubAccess.Provider().create();
+        Assertions.assertNotNull(direct.loadProfile("Olduser1"));
+        Assertions.assertTrue(direct.saveProfile(new Profile("Newuser1", "Password123")));
+        Assertions.assertTrue(direct.saveProfile(new Profile("Olduser1", "Password456")));
+        String hash = direct.loadProfile("Olduser1").getHashedPassword();
+
+        List<RecipeHubAccess> others = List.of(new CachingRecipeHubAccess.Provider().create(),
+                new DirectRecipeHubAccess(), new CachingRecipeHubAccess(),
+                new DirectRecipeHubAccess(true), new LsmRecipeHubAccess.Provider().create());
+        for (RecipeHubAccess access : others) {
+            Assertions.assertTrue(access.profileExists("Newuser1"),
+                    "A profile registered with another engine should be found.");
+            Assertions.assertEquals(hash, access.loadProfile("Olduser1").getHashedPassword(),
+                    "The profile moved out of the profile file should not be read again.");
+            if (access instanceof Closeable closeable) {
+                closeable.close();
+            }
+        }
+        Assertions.assertTrue(new UserFilehandler().readProfiles().isEmpty());
+    }
+
+    /**
+     * Deletes the test files, and sets the filenames and the system property back after
+     * each test.
+     *
+     * @throws IOException if the files can not be deleted
+     */
+    @AfterEach
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(RecipeFilehandler.getFilePath());
+        ShardedUserFilehandlerTest.deleteFiles(UserFilehandler.getFilePath());
+        Files.deleteIfExists(StoreLock.getLockPath(RecipeFilehandler.getFilePath()));
+        Files.deleteIfExists(RecipeSummaryIndex.getIndexPath(RecipeFilehandler.getFilePath()));
+        Files.deleteIfExists(RecipeSummaryIndex.getIndexLogPath(
+                RecipeFilehandler.getFilePath()));
+        Files.deleteIfExists(RecipeFilehandler.getLogPath(RecipeFilehandler.getFilePath()));
+        LsmStoreTest.deleteDirectory(LsmRecipeHubAccess.getStorePath(
+                RecipeFilehandler.getFilePath()));
+        LsmStoreTest.deleteDirectory(LsmRecipeHubAccess.getStorePath(
+                UserFilehandler.getFilePath()));
+        RecipeFilehandler.setFileName(recipeFileName);
+        UserFilehandler.setFileName(userFileName);
+        if (storage == null) {
+            System.clearProperty(RecipeHubAccessProvider.STORAGE_PROPERTY);
+        } else {
+            System.setProperty(RecipeHubAccessProvider.STORAGE_PROPERTY, storage);
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package file;
+
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import core.RecipeSummary;
+import core.Review;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for RecipeSummaryIndex.
+ */
+public class RecipeSummaryIndexTest {
+    private Path dataPath = Path.of("testSummaries.json");
+    private Path logPath = Path.of("testSummaries.json.log");
+    private Profile profile = new Profile("Testuser", "Password123");
+
+    /**
+     * Tests that the saved index is used while the recipe files are unchanged, and made
+     * again from the recipes when they change.
+     *
+     * @see RecipeSummaryIndex#load(List, java.util.function.Supplier)
+     * @see RecipeSummaryIndex#isCurrent()
+     */
+    @Test
+    @DisplayName("Test saved index and changed recipe file")
+    public void testSavedIndex() {
+        Recipe recipe = new Recipe("Pancakes", 4, profile);
+        recipe.addReview(new Review(4.0, "Good", "Reviewer1"));
+        recipe.addReview(new Review(3.0, "", "Reviewer2"));
+        FileUtil.writeFile(dataPath, new RecipeLibrary(List.of(recipe)));
+        RecipeSummaryIndex index = RecipeSummaryIndex.load(List.of(dataPath, logPath),
+                () -> List.of(recipe));
+        Assertions.assertTrue(Files.exists(RecipeSummaryIndex.getIndexPath(dataPath)));
+
+        RecipeSummary summary = RecipeSummaryIndex.load(List.of(dataPath, logPath), () -> {
+            throw new AssertionError("The saved index should be read back.");
+        }).getSummaries().get(0);
+        Assertions.assertEquals("Pancakes", summary.getName());
+        Assertions.assertEquals("Testuser", summary.getAuthor());
+        Assertions.assertEquals(7.0, summary.getRatingSum());
+        Assertions.assertEquals(2, summary.getNumberOfReviewers());
+        Assertions.assertEquals(1, summary.getNumberOfComments());
+
+        Recipe waffles = new Recipe("Waffles", 2, profile);
+        FileUtil.writeFile(dataPath, new RecipeLibrary(List.of(recipe, waffles)));
+        Assertions.assertFalse(index.isCurrent());
+        Assertions.assertEquals(2, RecipeSummaryIndex.load(List.of(dataPath, logPath),
+                () -> List.of(recipe, waffles)).getSummaries().size(),
+                "The index should be made again when the recipe file changes.");
+    }
+
+    /**
+     * Tests that putting and removing recipes changes the summaries in the same order as
+     * the recipelibrary, and that the changes are appended to the log of the index
+     * instead of writing the index file again.
+     *
+     * @see RecipeSummaryIndex#put(Recipe)
+     * @see RecipeSummaryIndex#remove(Recipe)
+     */
+    @Test
+    @DisplayName("Test putting and removing recipes")
+    public void testPutAndRemove() throws IOException {
+        RecipeSummaryIndex index = RecipeSummaryIndex.load(List.of(dataPath, logPath),
+                List::of);
+        byte[] indexFile = Files.readAllBytes(RecipeSummaryIndex.getIndexPath(dataPath));
+        Recipe pancakes = new Recipe("Pancakes", 4, profile);
+        Assertions.assertTrue(index.put(pancakes));
+        index.put(new Recipe("Waffles", 2, profile));
+        pancakes.addReview(new Review(5.0, "Great", "Reviewer1"));
+        index.put(pancakes);
+        Assertions.assertEquals(List.of("Waffles", "Pancakes"), getNames(index));
+        Assertions.assertEquals(5.0, index.getSummaries().get(1).getAverageRating());
+
+        Assertions.assertTrue(index.remove(new Recipe("Waffles", 1, profile)));
+        Assertions.assertArrayEquals(indexFile,
+                Files.readAllBytes(RecipeSummaryIndex.getIndexPath(dataPath)),
+                "The index file should not be written for each change.");
+        RecipeSummaryIndex loaded = RecipeSummaryIndex.load(List.of(dataPath, logPath), () -> {
+            throw new AssertionError("The changes should be read back from the log.");
+        });
+        Assertions.assertEquals(List.of("Pancakes"), getNames(loaded));
+        Assertions.assertEquals(5.0, loaded.getSummaries().get(0).getAverageRating());
+    }
+
+    /**
+     * Tests that the log of the index is compacted into the index file, and that the
+     * index still matches the recipe files after it is made to match them again.
+     *
+     * @see RecipeSummaryIndex#compact()
+     * @see RecipeSummaryIndex#restamp()
+     */
+    @Test
+    @DisplayName("Test compacting the index")
+    public void testCompact() throws IOException {
+        FileUtil.writeFile(dataPath, new RecipeLibrary());
+        RecipeSummaryIndex index = RecipeSummaryIndex.load(List.of(dataPath, logPath),
+                List::of);
+        index.put(new Recipe("Pancakes", 4, profile));
+        index.put(new Recipe("Waffles", 2, profile));
+        FileUtil.writeFile(dataPath, new RecipeLibrary(List.of(new Recipe("Pancakes", 4,
+                profile), new Recipe("Waffles", 2, profile))));
+        Assertions.assertFalse(index.isCurrent());
+        Assertions.assertTrue(index.restamp());
+        Assertions.assertTrue(index.isCurrent());
+
+        Assertions.assertTrue(index.compact());
+        Assertions.assertEquals(0, Files.size(RecipeSummaryIndex.getIndexLogPath(dataPath)));
+        RecipeSummaryIndex loaded = RecipeSummaryIndex.load(List.of(dataPath, logPath), () -> {
+            throw new AssertionError("The compacted index should match the recipe files.");
+        });
+        Assertions.assertEquals(List.of("Pancakes", "Waffles"), getNames(loaded));
+    }
+
+    /**
+     * Tests that the index is made only once when threads load it at the same time, and
+     * that the other threads read back the index which was saved.
+     *
+     * @throws Exception if a thread fails
+     * @see RecipeSummaryIndex#load(List, java.util.function.Supplier)
+     */
+    @Test
+    @DisplayName("Test loading the index at the same time")
+    public void testConcurrentLoad() throws Exception {
+        Recipe recipe = new Recipe("Pancakes", 4, profile);
+        FileUtil.writeFile(dataPath, new RecipeLibrary(List.of(recipe)));
+        AtomicInteger rebuilds = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<RecipeSummaryIndex>> loads = executor.invokeAll(
+                    Collections.nCopies(8, () -> RecipeSummaryIndex.load(
+                            List.of(dataPath, logPath), () -> {
+                                rebuilds.incrementAndGet();
+                                return List.of(recipe);
+                            })));
+            for (Future<RecipeSummaryIndex> load : loads) {
+                Assertions.assertEquals(List.of("Pancakes"), getNames(load.get()));
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Assertions.assertEquals(1, rebuilds.get(), "The index should be made only once.");
+    }
+
+    private static List<String> getNames(RecipeSummaryIndex index) {
+        return index.getSummaries().stream().map(RecipeSummary::getName)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Deletes the recipe file, its index and their logs after each test.
+     */
+    @AfterEach
+    public void cleanUp() {
+        try {
+            Files.deleteIfExists(dataPath);
+            Files.deleteIfExists(RecipeSummaryIndex.getIndexPath(dataPath));
+            Files.deleteIfExists(RecipeSummaryIndex.getIndexLogPath(dataPath));
+            Files.deleteIfExists(StoreLock.getLockPath(dataPath));
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package file;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import core.Profile;
+import core.Recipe;
+import core.Review;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for RecordVersions.
+ */
+public class RecordVersionsTest {
+    private final Path filePath = Path.of("testVersions.json");
+    private final RecordVersions versions = RecordVersions.getDefault();
+
+    /**
+     * Tests if the versions of records are read, and older records are found.
+     *
+     * @see RecordVersions#isOutdated(Class, String)
+     */
+    @Test
+    @DisplayName("Test finding outdated records")
+    public void testOutdated() {
+        Assertions.assertEquals(1, versions.getCurrentVersion(Recipe.class));
+        Assertions.assertEquals(0, versions.getCurrentVersion(Review.class));
+        Assertions.assertEquals(2, versions.with(Recipe.class, old -> old)
+                .getCurrentVersion(Recipe.class));
+        Assertions.assertEquals(1, versions.getCurrentVersion(Recipe.class),
+                "Adding a migration should not change the versions it was added to.");
+
+        Assertions.assertFalse(versions.isOutdated(Recipe.class, "{\"name\":\"Pasta\"}"),
+                "Records without a version should be read as version 1.");
+        Assertions.assertTrue(versions.isOutdated(Recipe.class, "{\"version\":0}"));
+        Assertions.assertTrue(versions.with(Recipe.class, old -> old)
+                .isOutdated(Recipe.class, "{\"name\":\"Pasta\"}"));
+        Assertions.assertFalse(versions.isOutdated(Recipe.class, "{\"version\":1}"));
+        Assertions.assertFalse(versions.isOutdated(Recipe.class, "{\"name\":\"Pasta\","
+                + "\"version\":2}"));
+        Assertions.assertFalse(versions.isOutdated(Review.class, "{\"rating\":4}"));
+        Assertions.assertFalse(versions.isOutdated(Recipe.class, "not json"));
+        Assertions.assertEquals(RecordVersions.UNVERSIONED,
+                RecordVersions.getVersion(parse("{\"version\":\"one\"}")));
+
+        Assertions.assertFalse(versions.hasUpgrades(),
+                "Version 1 should not make records on file outdated.");
+        Assertions.assertTrue(versions.with(Recipe.class, old -> old).hasUpgrades());
+    }
+
+    /**
+     * Tests if records are upgraded with the version first, and if records of the current
+     * version are not changed.
+     *
+     * @see RecordVersions#migrate(Class, JsonObject)
+     */
+    @Test
+    @DisplayName("Test upgrading records")
+    public void testMigrate() {
+        JsonObject recipe = versions.migrate(Recipe.class, parse("{\"name\":\"Pasta\"}"));
+        Assertions.assertEquals(RecordVersions.VERSION_MEMBER,
+                recipe.keySet().iterator().next());
+        Assertions.assertEquals(1, RecordVersions.getVersion(recipe));
+        Assertions.assertEquals(parse("{\"version\":1,\"name\":\"Pasta\"}"), recipe,
+            "Version 1 should only add the version.");
+
+        JsonObject profile = versions.migrate(Profile.class, parse("{\"username\":\"Annabelle\","
+                + "\"hashedPassword\":\"hash\"}"));
+        Assertions.assertEquals(parse("{\"version\":1,\"username\":\"Annabelle\","
+                + "\"hashedPassword\":\"hash\"}"), profile);
+
+        JsonObject current = parse("{\"version\":1,\"name\":\"Pasta\"}");
+        Assertions.assertSame(current, versions.migrate(Recipe.class, current));
+        JsonObject newer = parse("{\"version\":5,\"name\":\"Pasta\"}");
+        Assertions.assertSame(newer, versions.migrate(Recipe.class, newer));
+
+        JsonObject versionLast = versions.migrate(Recipe.class,
+                parse("{\"name\":\"Pasta\",\"version\":5}"));
+        Assertions.assertEquals(parse("{\"version\":5,\"name\":\"Pasta\"}"), versionLast);
+        Assertions.assertEquals(RecordVersions.VERSION_MEMBER,
+                versionLast.keySet().iterator().next());
+    }
+
+    /**
+     * Tests if the outdated records in a file are counted.
+     *
+     * @throws IOException if the file can not be written
+     * @see RecordVersions#countOutdated(Path, String, Class)
+     */
+    @Test
+    @DisplayName("Test counting outdated records in a file")
+    public void testCountOutdated() throws IOException {
+        Files.writeString(filePath, "{\"recipes\":[{\"name\":\"Pasta\"},{\"version\":1,"
+                + "\"name\":\"Cake\"},{\"version\":0,\"name\":\"Soup\"}]}");
+        Assertions.assertEquals(1, versions.countOutdated(filePath, "recipes", Recipe.class));
+        Assertions.assertEquals(0, versions.countOutdated(Path.of("testMissing.json"),
+                "recipes", Recipe.class));
+    }
+
+    private static JsonObject parse(String json) {
+        return JsonParser.parseString(json).getAsJsonObject();
+    }
+
+    /**
+     * Deletes the test file after each test.
+     *
+     * @throws IOException if the file can not be deleted
+     */
+    @AfterEach
+    public void cleanUp() throws IOException {
+        Files.deleteIfExists(filePath);
+    }
+}
@@ -5,6 +5,7 @@ import static com.github.tomakehurst.wiremock.client.WireMock.delete;
 import static com.github.tomakehurst.wiremock.client.WireMock.deleteRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.put;
 import static com.github.tomakehurst.wiremock.client.WireMock.putRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.stubFor;
@@ -22,6 +23,7 @@ import core.PasswordHasher;
 import core.Profile;
 import core.Recipe;
 import core.RecipeLibrary;
+import core.RecipeSummary;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
@@ -92,6 +94,43 @@ public class RemoteRecipeHubAccessTest {
                 "Runtime exception should be thrown if the load fails.");
     }
 
+    /**
+     * Tests if the summaries of the recipes are retrieved without the recipes, and if a
+     * single recipe is retrieved by its author and name.
+     * 
+     * @see RemoteRecipeHubAccess#getRecipeSummaries()
+     * @see RemoteRecipeHubAccess#loadRecipe(String, String)
+     */
+    @Test
+    public void testGetRecipeSummariesAndLoadRecipe() {
+        Recipe recipe = new Recipe("Pasta salad", 2, new Profile("Username1", "Password1"));
+        stubFor(get(urlEqualTo("/recipesummaries"))
+                .withHeader("Accept", equalTo("application/json"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(new Gson().toJson(List.of(RecipeSummary.of(recipe))))));
+        stubFor(get(urlEqualTo("/recipes/Username1/Pasta%20salad"))
+                .withHeader("Accept", equalTo("application/json"))
+                .willReturn(aResponse()
+                        .withStatus(200)
+                        .withHeader("Content-Type", "application/json")
+                        .withBody(new Gson().toJson(recipe))));
+
+        List<RecipeSummary> summaries = remoteRecipeHubAccess.getRecipeSummaries();
+        Assertions.assertEquals(1, summaries.size());
+        Assertions.assertEquals("Username1", summaries.get(0).getAuthor());
+        Assertions.assertEquals(2, remoteRecipeHubAccess.loadRecipe("Username1",
+                "Pasta salad").getPortions());
+        verify(0, getRequestedFor(urlEqualTo("/recipelibrary")));
+
+        stubFor(get(urlEqualTo("/recipes/Username1/Cake"))
+                .willReturn(aResponse()
+                        .withFault(Fault.CONNECTION_RESET_BY_PEER)));
+        Assertions.assertNull(remoteRecipeHubAccess.loadRecipe("Username1", "Cake"),
+                "A recipe which could not be loaded should be null.");
+    }
+
     /**
      * Tests the removal of a recipe from the remote server.
      * 
@@ -0,0 +1,237 @@
+package file;
+
+import core.PasswordHasher;
+import core.Profile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class is used to test the ShardedUserFilehandler class.
+ */
+public class ShardedUserFilehandlerTest {
+    private ShardedUserFilehandler userFilehandler;
+
+    /**
+     * This is a helper method that run before each test.
+     * It sets the filename to "test.json", so the profiles are kept in the directory "test".
+     *
+     * @see UserFilehandler#setFileName(String)
+     */
+    @BeforeEach
+    public void setup() {
+        UserFilehandler.setFileName("test.json");
+        this.userFilehandler = new ShardedUserFilehandler();
+    }
+
+    /**
+     * Tests if each profile is written to its own file and loaded from it.
+     *
+     * @see ShardedUserFilehandler#writeProfile(Profile)
+     * @see ShardedUserFilehandler#loadProfile(String)
+     */
+    @Test
+    @DisplayName("Test if profiles are written to and loaded from their own files")
+    public void testWriteAndLoadProfile() {
+        Assertions.assertFalse(userFilehandler.writeProfile(null));
+        Assertions.assertTrue(userFilehandler.writeProfile(new Profile("testuser", "Password123")));
+        Assertions.assertTrue(userFilehandler.writeProfile(new Profile("Testuser", "Password456")));
+        Assertions.assertTrue(Files.exists(ShardedUserFilehandler.getShardPath("testuser")));
+        Assertions.assertNotEquals(ShardedUserFilehandler.getShardPath("testuser"),
+                ShardedUserFilehandler.getShardPath("Testuser"),
+                "Usernames which only differ in case should get different files.");
+
+        Profile readProfile = userFilehandler.loadProfile("Testuser");
+        Assertions.assertEquals("Testuser", readProfile.getUsername());
+        Assertions.assertTrue(PasswordHasher.verifyPassword("Password456",
+                readProfile.getHashedPassword()));
+        Assertions.assertNull(userFilehandler.loadProfile("unknownuser"),
+                "Loading a profile which does not exist should return null.");
+        Assertions.assertNull(userFilehandler.loadProfile("../test"),
+                "Loading a profile with an invalid username should return null.");
+    }
+
+    /**
+     * Tests if all profiles are read, and if writeAllProfiles writes every profile.
+     *
+     * @see ShardedUserFilehandler#readProfiles()
+     * @see ShardedUserFilehandler#writeAllProfiles(List)
+     */
+    @Test
+    @DisplayName("Test readProfiles and writeAllProfiles")
+    public void testReadAndWriteAllProfiles() {
+        Assertions.assertFalse(userFilehandler.writeAllProfiles(null));
+        Assertions.assertFalse(userFilehandler.writeAllProfiles(new ArrayList<>()));
+        userFilehandler.writeAllProfiles(List.of(new Profile("Testuser1", "Easypass1"),
+                new Profile("Testuser2", "Easypass2")));
+        userFilehandler.writeProfile(new Profile("Testuser1", "Easypass3"));
+        List<Profile> profiles = userFilehandler.readProfiles();
+        Assertions.assertEquals(2, profiles.size(), "Updating a profile should not add a file.");
+        Assertions.assertEquals("Testuser1", profiles.get(0).getUsername());
+        Assertions.assertEquals("Testuser2", profiles.get(1).getUsername());
+    }
+
+    /**
+     * Tests if profiles in the profile file are moved into the directory when the
+     * directory does not exist yet.
+     *
+     * @throws IOException if the files can not be deleted
+     * @see ShardedUserFilehandler#ShardedUserFilehandler()
+     */
+    @Test
+    @DisplayName("Test if existing profiles are moved into the directory")
+    public void testExistingProfiles() throws IOException {
+        deleteFiles(UserFilehandler.getFilePath());
+        new UserFilehandler().writeProfile(new Profile("Olduser1", "Password123"));
+        ShardedUserFilehandler newFilehandler = new ShardedUserFilehandler();
+        Assertions.assertNotNull(newFilehandler.loadProfile("Olduser1"),
+                "The existing profile should be loaded from its own file.");
+    }
+
+    /**
+     * Tests if the profile file and its log are renamed once their profiles are moved, so a
+     * filehandler for the profile file does not read the moved profiles, and if they are
+     * renamed when a crash came after the directory was in place.
+     *
+     * @throws IOException if the files can not be read
+     * @see ShardedUserFilehandler#ShardedUserFilehandler()
+     */
+    @Test
+    @DisplayName("Test if the profile file is retired after the move")
+    public void testRetiredFile() throws IOException {
+        Path filePath = UserFilehandler.getFilePath();
+        Path movedPath = ShardedUserFilehandler.getMovedPath(filePath);
+        Assertions.assertTrue(Files.exists(movedPath));
+
+        deleteFiles(filePath);
+        UserFilehandler oldFilehandler = new UserFilehandler(true);
+        oldFilehandler.writeProfile(new Profile("Olduser1", "Password123"));
+        Files.createDirectories(ShardedUserFilehandler.getDirectoryPath());
+        FileUtil.writeFile(ShardedUserFilehandler.getShardPath("Olduser1"),
+                new Profile("Olduser1", "Password123"));
+
+        ShardedUserFilehandler newFilehandler = new ShardedUserFilehandler();
+        Assertions.assertTrue(Files.exists(movedPath),
+                "The profile file should be retired even if the directory was in place.");
+        Assertions.assertTrue(Files.exists(ShardedUserFilehandler.getMovedPath(
+                UserFilehandler.getLogPath(filePath))));
+        Assertions.assertTrue(oldFilehandler.readProfiles().isEmpty(),
+                "The moved profiles should not be read from the profile file again.");
+        Assertions.assertNotNull(newFilehandler.loadProfile("Olduser1"));
+    }
+
+    /**
+     * Tests if profiles are moved again when a move into a temporary directory was left
+     * unfinished, so no profile is lost.
+     *
+     * @see ShardedUserFilehandler#ShardedUserFilehandler()
+     */
+    @Test
+    @DisplayName("Test if an unfinished move is started again")
+    public void testUnfinishedMove() throws IOException {
+        deleteFiles(UserFilehandler.getFilePath());
+        new UserFilehandler().writeAllProfiles(List.of(new Profile("Olduser1", "Password123"),
+                new Profile("Olduser2", "Password123")));
+        Path tempDirectory = Path.of(ShardedUserFilehandler.getDirectoryPath() + ".tmp");
+        Files.createDirectories(tempDirectory);
+        FileUtil.writeFile(ShardedUserFilehandler.getShardPath(tempDirectory, "Olduser1"),
+                new Profile("Olduser1", "Password123"));
+
+        ShardedUserFilehandler newFilehandler = new ShardedUserFilehandler();
+        Assertions.assertEquals(2, newFilehandler.readProfiles().size(),
+                "Every profile should be moved, not only those moved before the crash.");
+        Assertions.assertFalse(Files.exists(tempDirectory));
+    }
+
+    /**
+     * Tests if outdated profiles are upgraded one file at a time, up to the limit.
+     *
+     * @see ShardedUserFilehandler#migrateRecords(long)
+     */
+    @Test
+    @DisplayName("Test migrateRecords")
+    public void testMigrateRecords() throws IOException {
+        userFilehandler.writeProfile(new Profile("Testuser1", "Password123"));
+        userFilehandler.writeProfile(new Profile("Testuser2", "Password123"));
+        userFilehandler.writeProfile(new Profile("Testuser3", "Password123"));
+        for (String username : List.of("Testuser1", "Testuser2")) {
+            Path shardPath = ShardedUserFilehandler.getShardPath(username);
+            Files.writeString(shardPath, Files.readString(shardPath).replaceFirst(
+                    "\"version\":\\s*\\d+", "\"version\": 0"));
+        }
+        Assertions.assertEquals(1, userFilehandler.migrateRecords(1));
+        Assertions.assertEquals(1, userFilehandler.migrateRecords(10));
+        Assertions.assertEquals(0, userFilehandler.migrateRecords(10));
+        Assertions.assertFalse(RecordVersions.getDefault().isOutdated(Profile.class,
+                Files.readString(ShardedUserFilehandler.getShardPath("Testuser2"))));
+        Assertions.assertEquals("Testuser2", userFilehandler.loadProfile("Testuser2")
+                .getUsername());
+    }
+
+    /**
+     * Tests if a filehandler with its own profile file keeps its profiles in a directory
+     * next to that file.
+     *
+     * @see ShardedUserFilehandler#ShardedUserFilehandler(Path)
+     */
+    @Test
+    @DisplayName("Test filehandler with its own profile file")
+    public void testOwnFile() throws IOException {
+        Path ownPath = Path.of("testOwnUsers.json");
+        Path ownDirectory = Path.of("testOwnUsers");
+        try {
+            ShardedUserFilehandler ownFilehandler = new ShardedUserFilehandler(ownPath);
+            Assertions.assertEquals(ownDirectory,
+                    ShardedUserFilehandler.getDirectoryPath(ownPath));
+            Assertions.assertTrue(ownFilehandler.writeProfile(new Profile("Ownuser1",
+                    "Password123")));
+            Assertions.assertTrue(Files.exists(ShardedUserFilehandler.getShardPath(
+                    ownDirectory, "Ownuser1")));
+            Assertions.assertTrue(ownFilehandler.userExists("Ownuser1"));
+            Assertions.assertFalse(userFilehandler.userExists("Ownuser1"),
+                    "The profile should not be in the default directory.");
+        } finally {
+            deleteFiles(ownPath);
+        }
+    }
+
+    /**
+     * Helper method which deletes the directory with the profile files for the given
+     * profile file, and the profile file and its log as they were before and after their
+     * profiles were moved.
+     *
+     * @param filePath - Path object to the profile file
+     * @throws IOException if the files can not be deleted
+     */
+    static void deleteFiles(Path filePath) throws IOException {
+        Path directory = ShardedUserFilehandler.getDirectoryPath(filePath);
+        LsmStoreTest.deleteDirectory(directory);
+        LsmStoreTest.deleteDirectory(Path.of(directory + ".tmp"));
+        Path logPath = UserFilehandler.getLogPath(filePath);
+        for (Path path : List.of(filePath, logPath, ShardedUserFilehandler.getMovedPath(
+                filePath), ShardedUserFilehandler.getMovedPath(logPath),
+                UsernameIndex.getIndexPath(filePath), StoreLock.getLockPath(filePath))) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * This method is run after each test.
+     * It deletes test.json and the directory with the profile files.
+     */
+    @AfterEach
+    public void cleanUp() {
+        try {
+            deleteFiles(UserFilehandler.getFilePath());
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
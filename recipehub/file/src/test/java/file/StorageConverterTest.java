@@ -0,0 +1,83 @@
+package file;
+
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for StorageConverter.
+ */
+public class StorageConverterTest {
+    private Path jsonPath = Path.of("testConvert.json");
+    private Path binaryPath = Path.of("testConvert.bin");
+
+    /**
+     * Tests if a JSON recipe file is converted to binary and back, and then compressed.
+     *
+     * @see StorageConverter#convertRecipes(Path, Path, StorageFormat)
+     */
+    @Test
+    @DisplayName("Test converting recipe files")
+    public void testConvertRecipes() {
+        Profile profile = new Profile("Testuser", "Password123");
+        new Recipe("Pancakes", 4, profile);
+        new Recipe("Waffles", 2, profile);
+        FileUtil.writeFile(jsonPath, profile.getRecipes());
+
+        Assertions.assertTrue(StorageConverter.convertRecipes(jsonPath, binaryPath,
+                StorageFormat.BINARY));
+        Assertions.assertTrue(BinaryCodec.isBinary(binaryPath));
+        Assertions.assertEquals(2, BinaryCodec.readRecipes(binaryPath).size());
+
+        Assertions.assertTrue(StorageConverter.convertRecipes(binaryPath, binaryPath,
+                StorageFormat.JSON), "A file should be able to be converted in place.");
+        RecipeLibrary recipeLibrary = FileUtil.readFile(binaryPath, null, RecipeLibrary.class);
+        Assertions.assertEquals("Waffles", recipeLibrary.getRecipe(1).getName());
+
+        Assertions.assertTrue(StorageConverter.convertRecipes(binaryPath, binaryPath,
+                StorageFormat.COMPRESSED_JSON));
+        Assertions.assertTrue(FileUtil.isCompressed(binaryPath));
+        Assertions.assertEquals(2, FileUtil.<RecipeLibrary>readFile(binaryPath, null,
+                RecipeLibrary.class).getSize());
+    }
+
+    /**
+     * Tests if a JSON profile file is converted to binary, and that files which can not
+     * be read are not converted.
+     *
+     * @see StorageConverter#convertProfiles(Path, Path, StorageFormat)
+     */
+    @Test
+    @DisplayName("Test converting profile files")
+    public void testConvertProfiles() {
+        Assertions.assertFalse(StorageConverter.convertProfiles(jsonPath, binaryPath,
+                StorageFormat.BINARY), "A missing file should not be converted.");
+        FileUtil.writeFile(jsonPath, List.of(new Profile("Testuser1", "Password123"),
+                new Profile("Testuser2", "Password123")));
+        Assertions.assertTrue(StorageConverter.convertProfiles(jsonPath, binaryPath,
+                StorageFormat.BINARY));
+        Assertions.assertEquals("Testuser2", BinaryCodec.readProfiles(binaryPath).get(1)
+                .getUsername());
+    }
+
+    /**
+     * Deletes the test files after each test.
+     */
+    @AfterEach
+    public void cleanUp() {
+        try {
+            Files.deleteIfExists(jsonPath);
+            Files.deleteIfExists(binaryPath);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package file;
+
+import core.RecipeLibrary;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class compares the file size and the read and write throughput of the JSON and
+ * the binary storage format.
+ */
+public class StorageFormatBenchmark {
+    private static final int RECIPES = 2000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 20;
+
+    private Path jsonPath = Path.of("benchmarkRecipes.json");
+    private Path binaryPath = Path.of("benchmarkRecipes.bin");
+
+    /**
+     * Writes and reads the same recipes in both formats, and prints the results.
+     */
+    @Test
+    public void benchmark() {
+        RecipeLibrary recipeLibrary = Benchmarks.createRecipes(RECIPES);
+
+        double jsonWrite = time(() -> FileUtil.writeFile(jsonPath, recipeLibrary));
+        double binaryWrite = time(() -> BinaryCodec.writeRecipes(binaryPath, recipeLibrary));
+        double jsonRead = time(() -> FileUtil.<RecipeLibrary>readFile(jsonPath, null,
+                RecipeLibrary.class).getSize() == RECIPES);
+        double binaryRead = time(() -> BinaryCodec.readRecipes(binaryPath).size() == RECIPES);
+
+        long jsonSize = Benchmarks.size(jsonPath);
+        long binarySize = Benchmarks.size(binaryPath);
+        System.out.printf("%d recipes, %d rounds%n", RECIPES, ROUNDS);
+        System.out.printf("%-8s %12s %12s %12s%n", "Format", "Size (KB)", "Write (ms)",
+                "Read (ms)");
+        System.out.printf("%-8s %12d %12.2f %12.2f%n", "JSON", jsonSize / 1024, jsonWrite,
+                jsonRead);
+        System.out.printf("%-8s %12d %12.2f %12.2f%n", "Binary", binarySize / 1024,
+                binaryWrite, binaryRead);
+        System.out.printf("Binary is %.0f%% of the JSON size%n", 100.0 * binarySize / jsonSize);
+        Assertions.assertTrue(binarySize < jsonSize);
+    }
+
+    /**
+     * Helper method which runs an operation a number of times after warming up, and checks
+     * that it succeeds each time.
+     *
+     * @return the average time of one run in milliseconds
+     */
+    private static double time(BooleanSupplier operation) {
+        return Benchmarks.time(WARMUP_ROUNDS, ROUNDS,
+                () -> Assertions.assertTrue(operation.getAsBoolean()));
+    }
+
+    /**
+     * Deletes the files written by the benchmark.
+     */
+    @AfterEach
+    public void cleanUp() {
+        try {
+            Files.deleteIfExists(jsonPath);
+            Files.deleteIfExists(binaryPath);
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
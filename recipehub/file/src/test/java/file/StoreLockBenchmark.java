@@ -0,0 +1,103 @@
+package file;
+
+import core.Profile;
+import core.Recipe;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class measures the throughput of the locked recipe file when several threads read
+ * and write it at once, and checks that no write is lost. Each run lasts a fixed time
+ * instead of a number of rounds, since the threads share the work.
+ */
+public class StoreLockBenchmark {
+    private static final int RECIPES = 200;
+    private static final int THREADS = 8;
+    private static final long DURATION_MILLIS = 3000;
+
+    private final AtomicInteger nextRecipe = new AtomicInteger(RECIPES);
+
+    /**
+     * Runs a mix of reads and writes for each share of writes, and prints the results.
+     *
+     * @throws Exception if a thread fails
+     */
+    @Test
+    public void benchmark() throws Exception {
+        RecipeFilehandler.setFileName("benchmarkLocked.json");
+        RecipeFilehandler recipeFilehandler = new RecipeFilehandler();
+        Profile author = new Profile("Benchmark", "Password123");
+        for (int i = 0; i < RECIPES; i++) {
+            recipeFilehandler.writeRecipe(new Recipe("Recipe " + i, 4, author));
+        }
+
+        System.out.printf("%d recipes, %d ms per run%n", RECIPES, DURATION_MILLIS);
+        System.out.printf("%-8s %8s %12s %12s%n", "Threads", "Writes", "Reads/s", "Writes/s");
+        run(recipeFilehandler, 1, 0);
+        for (int writePercent : new int[] {0, 10, 50}) {
+            run(recipeFilehandler, THREADS, writePercent);
+        }
+        Assertions.assertEquals(nextRecipe.get(), recipeFilehandler.readRecipeLibrary()
+                .getSize(), "Every recipe written should be in the file.");
+    }
+
+    /**
+     * Helper method which lets the threads read and write for a while, and prints how
+     * many reads and writes were done per second. Each thread has its own author, since
+     * making a recipe adds it to the author.
+     */
+    private void run(RecipeFilehandler recipeFilehandler, int threads, int writePercent)
+            throws Exception {
+        AtomicInteger reads = new AtomicInteger();
+        AtomicInteger writes = new AtomicInteger();
+        long end = System.currentTimeMillis() + DURATION_MILLIS;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> {
+                Profile author = new Profile("Benchmark", "Password123");
+                while (System.currentTimeMillis() < end) {
+                    if (ThreadLocalRandom.current().nextInt(100) < writePercent) {
+                        Recipe recipe = new Recipe("Recipe " + nextRecipe.getAndIncrement(), 4,
+                                author);
+                        Assertions.assertTrue(recipeFilehandler.writeRecipe(recipe));
+                        writes.incrementAndGet();
+                    } else {
+                        recipeFilehandler.readRecipeLibrary();
+                        reads.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+        executor.shutdown();
+        double seconds = DURATION_MILLIS / 1000.0;
+        System.out.printf("%-8d %7d%% %12.0f %12.0f%n", threads, writePercent,
+                reads.get() / seconds, writes.get() / seconds);
+    }
+
+    /**
+     * Deletes the files written by the benchmark.
+     */
+    @AfterEach
+    public void cleanUp() {
+        try {
+            Files.deleteIfExists(RecipeFilehandler.getFilePath());
+            Files.deleteIfExists(StoreLock.getLockPath(RecipeFilehandler.getFilePath()));
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package file;
+
+import core.Profile;
+import core.Recipe;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for StoreLock.
+ */
+public class StoreLockTest {
+    private Path filePath = Path.of("testLocked.json");
+    private ExecutorService executor = Executors.newFixedThreadPool(4);
+    private String recipeFileName = RecipeFilehandler.getFileName();
+
+    /**
+     * Tests if readers are let in at the same time.
+     *
+     * @see StoreLock#read(java.util.function.Supplier)
+     * @throws Exception if a reader fails
+     */
+    @Test
+    @DisplayName("Test reading in parallel")
+    public void testParallelReads() throws Exception {
+        StoreLock lock = StoreLock.forFile(filePath);
+        CountDownLatch inside = new CountDownLatch(2);
+        List<Future<Boolean>> readers = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            readers.add(executor.submit(() -> lock.read(() -> {
+                inside.countDown();
+                try {
+                    return inside.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return false;
+                }
+            })));
+        }
+        for (Future<Boolean> reader : readers) {
+            Assertions.assertTrue(reader.get(), "Both readers should hold the lock at once.");
+        }
+    }
+
+    /**
+     * Tests if a writer holds the lock file alone, and if it can read while writing.
+     *
+     * @see StoreLock#write(java.util.function.Supplier)
+     */
+    @Test
+    @DisplayName("Test locking the lock file while writing")
+    public void testWrite() {
+        StoreLock lock = StoreLock.forFile(filePath);
+        Assertions.assertSame(lock, StoreLock.forFile(filePath.toAbsolutePath()));
+        boolean locked = lock.write(() -> {
+            try (FileChannel channel = FileChannel.open(StoreLock.getLockPath(filePath),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                channel.tryLock();
+                return false;
+            } catch (OverlappingFileLockException e) {
+                return true;
+            } catch (IOException e) {
+                return false;
+            }
+        });
+        Assertions.assertTrue(locked, "The lock file should be locked while writing.");
+        Assertions.assertEquals("read", lock.write(() -> lock.read(() -> "read")));
+    }
+
+    /**
+     * Tests if no recipe is lost when several threads save recipes to the same file.
+     *
+     * @see RecipeFilehandler#writeRecipe(Recipe)
+     * @throws Exception if a writer fails
+     */
+    @Test
+    @DisplayName("Test writing from several threads")
+    public void testConcurrentWrites() throws Exception {
+        RecipeFilehandler.setFileName("testLockedRecipes.json");
+        RecipeFilehandler recipeFilehandler = new RecipeFilehandler();
+        List<Future<?>> writers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            int writer = i;
+            writers.add(executor.submit(() -> {
+                Profile profile = new Profile("Username" + writer, "Password1");
+                for (int j = 0; j < 10; j++) {
+                    recipeFilehandler.writeRecipe(new Recipe("Recipe " + writer + "-" + j, 1,
+                            profile));
+                }
+            }));
+        }
+        for (Future<?> writer : writers) {
+            writer.get();
+        }
+        Assertions.assertEquals(40, recipeFilehandler.readRecipeLibrary().getSize(),
+                "No write should be lost.");
+    }
+
+    /**
+     * Stops the threads, deletes the test files and sets the filename back after each test.
+     */
+    @AfterEach
+    public void cleanUp() {
+        executor.shutdownNow();
+        try {
+            Files.deleteIfExists(StoreLock.getLockPath(filePath));
+            if (!RecipeFilehandler.getFileName().equals(recipeFileName)) {
+                Files.deleteIfExists(RecipeFilehandler.getFilePath());
+                Files.deleteIfExists(StoreLock.getLockPath(RecipeFilehandler.getFilePath()));
+                Files.deleteIfExists(RecipeSummaryIndex.getIndexPath(
+                        RecipeFilehandler.getFilePath()));
+                Files.deleteIfExists(RecipeSummaryIndex.getIndexLogPath(
+                        RecipeFilehandler.getFilePath()));
+                RecipeFilehandler.setFileName(recipeFileName);
+            }
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package file;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import core.Profile;
+import core.Recipe;
+import core.RecipeLibrary;
+import core.Review;
+import core.StringInterner;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This class measures how much memory the strings of a loaded recipelibrary take, when it
+ * is parsed with and without the StringInterner.
+ *
+ * <p>The strings are counted by walking the ingredients, units, authors and reviewers of
+ * the recipes, and each String object found is counted once, with its object header,
+ * fields and character array. The heap used by each library is also printed, but it is
+ * only a rough number.
+ * </p>
+ */
+public class StringInternerBenchmark {
+    private static final int AUTHORS = 50;
+    private static final int INGREDIENTS = 200;
+    private static final String[] UNITS = {"g", "dL", "pcs"};
+
+    /**
+     * Parses libraries of different sizes with both Gson objects, and prints the results.
+     */
+    @Test
+    public void benchmark() {
+        System.out.printf("%-8s %14s %14s %14s %14s%n", "Recipes", "Plain (KB)",
+                "Interned (KB)", "Saved (KB)", "Heap saved (KB)");
+        for (int recipes : new int[] {1000, 5000, 20000}) {
+            run(recipes);
+        }
+    }
+
+    private void run(int recipes) {
+        String json = new Gson().toJson(createRecipes(recipes));
+        Gson plain = new Gson();
+        Gson interning = new GsonBuilder().registerTypeAdapterFactory(
+                new InterningTypeAdapterFactory(new StringInterner(
+                StringInterner.DEFAULT_MAX_LENGTH, StringInterner.DEFAULT_MAX_SIZE))).create();
+
+        long heapBefore = Benchmarks.usedHeap();
+        RecipeLibrary plainLibrary = plain.fromJson(json, RecipeLibrary.class);
+        long plainHeap = Benchmarks.usedHeap() - heapBefore;
+        heapBefore = Benchmarks.usedHeap();
+        RecipeLibrary internedLibrary = interning.fromJson(json, RecipeLibrary.class);
+        long internedHeap = Benchmarks.usedHeap() - heapBefore;
+
+        long plainBytes = stringBytes(plainLibrary);
+        long internedBytes = stringBytes(internedLibrary);
+        System.out.printf("%-8d %14d %14d %14d %14d%n", recipes, plainBytes / 1024,
+                internedBytes / 1024, (plainBytes - internedBytes) / 1024,
+                (plainHeap - internedHeap) / 1024);
+        Assertions.assertEquals(plainLibrary.getSize(), internedLibrary.getSize());
+        Assertions.assertTrue(internedBytes < plainBytes);
+    }
+
+    /**
+     * Helper method which makes recipes by several authors, which use a limited set of
+     * ingredients and review each other.
+     */
+    private static RecipeLibrary createRecipes(int recipes) {
+        Profile[] authors = new Profile[AUTHORS];
+        for (int i = 0; i < AUTHORS; i++) {
+            authors[i] = new Profile("Author" + i, "Password123");
+        }
+        RecipeLibrary recipeLibrary = new RecipeLibrary();
+        for (int i = 0; i < recipes; i++) {
+            Recipe recipe = new Recipe("Recipe " + i, 4, authors[i % AUTHORS]);
+            recipe.setDescription("A description of recipe number " + i);
+            for (int j = 0; j < 8; j++) {
+                recipe.addIngredient("Ingredient " + ((i * 7 + j * 13) % INGREDIENTS),
+                        1.5 * j + 1, UNITS[(i + j) % UNITS.length]);
+            }
+            recipe.addStep("Mix everything for recipe number " + i);
+            for (int j = 1; j <= 3; j++) {
+                recipe.addReview(new Review(j, "Comment " + j, "Author" + ((i + j) % AUTHORS)));
+            }
+            recipeLibrary.putRecipe(recipe);
+            authors[i % AUTHORS].removeRecipe(recipe);
+        }
+        return recipeLibrary;
+    }
+
+    /**
+     * Helper method which adds up the size of the distinct String objects of the short
+     * fields of the recipes. A String is counted as a 24 byte object and a byte array
+     * with a 16 byte header, both rounded up to 8 bytes, as with compressed pointers and
+     * compact strings.
+     */
+    private static long stringBytes(RecipeLibrary recipeLibrary) {
+        Set<String> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Recipe recipe : recipeLibrary) {
+            seen.add(recipe.getAuthor());
+            for (String ingredient : recipe.getIngredients()) {
+                seen.add(ingredient);
+                seen.add(recipe.getIngredientUnit(ingredient));
+            }
+            for (Review review : recipe.getReviews()) {
+                seen.add(review.getReviewer());
+            }
+        }
+        return seen.stream().mapToLong(string -> 24 + align(16 + string.length())).sum();
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) / 8 * 8;
+    }
+}
@@ -122,6 +122,108 @@ public class UserFilehandlerTest {
                 "The third profile should have the username \"Testuser3\".");
     }
 
+    /**
+     * Tests if profiles written in log-structured mode are appended to the log, read back
+     * correctly, and kept when the log is compacted.
+     *
+     * @see UserFilehandler#UserFilehandler(boolean)
+     * @see UserFilehandler#compact()
+     */
+    @Test
+    @DisplayName("Test log-structured mode and compaction")
+    public void testLogStructured() {
+        UserFilehandler logFilehandler = new UserFilehandler(true);
+        Assertions.assertTrue(logFilehandler.isLogStructured());
+        logFilehandler.writeProfile(new Profile("Testuser1", "Easypass1"));
+        logFilehandler.writeAllProfiles(List.of(new Profile("Testuser1", "Easypass2"),
+                new Profile("Testuser2", "Easypass2")));
+        Assertions.assertEquals(0, userFilehandler.readProfiles().size(),
+                "The profile file itself should not be rewritten.");
+        Assertions.assertEquals(2, logFilehandler.readProfiles().size(),
+                "An updated profile should replace the old one.");
+        Assertions.assertTrue(PasswordHasher.verifyPassword("Easypass2",
+                logFilehandler.loadProfile("Testuser1").getHashedPassword()),
+                "The latest version of the profile should be loaded.");
+
+        Assertions.assertTrue(logFilehandler.compact());
+        Assertions.assertEquals(2, userFilehandler.readProfiles().size(),
+                "The profiles should be in the profile file after compaction.");
+        Assertions.assertEquals(2, logFilehandler.readProfiles().size());
+    }
+
+    /**
+     * Tests if userExists and loadProfile use the username index, and that the index
+     * follows changes to the profile file.
+     *
+     * @see UserFilehandler#userExists(String)
+     * @see UserFilehandler#loadProfile(String)
+     */
+    @Test
+    @DisplayName("Test userExists and indexed loadProfile")
+    public void testUserExists() {
+        Assertions.assertFalse(userFilehandler.userExists("Testuser1"));
+        userFilehandler.writeAllProfiles(List.of(new Profile("Testuser1", "Easypass1"),
+                new Profile("Testuser2", "Easypass2")));
+        Assertions.assertTrue(userFilehandler.userExists("Testuser1"));
+        Assertions.assertFalse(userFilehandler.userExists("Testuser3"));
+        Assertions.assertFalse(userFilehandler.userExists(null));
+        Assertions.assertEquals("Testuser2",
+                userFilehandler.loadProfile("Testuser2").getUsername());
+        Assertions.assertTrue(Files.exists(UsernameIndex.getIndexPath(
+                UserFilehandler.getFilePath())), "The index should be saved next to the file.");
+
+        userFilehandler.writeProfile(new Profile("Testuser3", "Easypass3"));
+        Assertions.assertTrue(userFilehandler.userExists("Testuser3"),
+                "The index should be updated when the profile file changes.");
+        Assertions.assertNull(userFilehandler.loadProfile("Testuser4"));
+    }
+
+    /**
+     * Tests if a filehandler using the binary format writes a binary profile file, and
+     * that the username index finds profiles in it.
+     *
+     * @see UserFilehandler#UserFilehandler(boolean, StorageFormat)
+     */
+    @Test
+    @DisplayName("Test binary storage format")
+    public void testBinaryFormat() {
+        userFilehandler.writeProfile(new Profile("Testuser1", "Easypass1"));
+        UserFilehandler binaryFilehandler = new UserFilehandler(false, StorageFormat.BINARY);
+        Assertions.assertEquals(StorageFormat.BINARY, binaryFilehandler.getStorageFormat());
+        binaryFilehandler.writeProfile(new Profile("Testuser2", "Easypass2"));
+        Assertions.assertTrue(BinaryCodec.isBinary(UserFilehandler.getFilePath()));
+        Assertions.assertEquals(2, userFilehandler.readProfiles().size());
+
+        Assertions.assertTrue(binaryFilehandler.userExists("Testuser1"));
+        Assertions.assertFalse(binaryFilehandler.userExists("Testuser3"));
+        Assertions.assertTrue(PasswordHasher.verifyPassword("Easypass2",
+                binaryFilehandler.loadProfile("Testuser2").getHashedPassword()),
+                "The profile should be read from the binary file.");
+    }
+
+    /**
+     * Tests if a filehandler using the compressed format writes a compressed profile file,
+     * and that profiles are found in it without the username index.
+     *
+     * @see StorageFormat#COMPRESSED_JSON
+     */
+    @Test
+    @DisplayName("Test compressed storage format")
+    public void testCompressedFormat() {
+        userFilehandler.writeProfile(new Profile("Testuser1", "Easypass1"));
+        UserFilehandler compressedFilehandler = new UserFilehandler(false,
+                StorageFormat.COMPRESSED_JSON);
+        compressedFilehandler.writeProfile(new Profile("Testuser2", "Easypass2"));
+        Assertions.assertTrue(FileUtil.isCompressed(UserFilehandler.getFilePath()));
+        Assertions.assertEquals(2, userFilehandler.readProfiles().size(),
+                "A JSON filehandler should still read the compressed file.");
+
+        Assertions.assertTrue(userFilehandler.userExists("Testuser1"));
+        Assertions.assertFalse(compressedFilehandler.userExists("Testuser3"));
+        Assertions.assertEquals("Testuser2",
+                compressedFilehandler.loadProfile("Testuser2").getUsername());
+    }
+
     /**
      * This method tests if the loadProfile method throws exception if the file is an empty string.
      * 
@@ -163,11 +265,20 @@ public class UserFilehandlerTest {
 
     /**
      * This method is run after each test.
-     * It deletes test.json and newtest.json if it exists.
+     * It deletes test.json with its log, index and lock file, and newtest.json if they exist.
      */
     @AfterEach
     public void cleanUp() {
         deleteFile("test.json");
+        if (Files.exists(UserFilehandler.getLogPath())) {
+            deleteFile("test.json.log");
+        }
+        if (Files.exists(UsernameIndex.getIndexPath(UserFilehandler.getFilePath()))) {
+            deleteFile("test.json.idx");
+        }
+        if (Files.exists(StoreLock.getLockPath(UserFilehandler.getFilePath()))) {
+            deleteFile("test.json.lock");
+        }
         if (Files.exists(Path.of(System.getProperty("user.home")
                 + System.getProperty("file.separator") + "newtest.json"))) {
             deleteFile("newtest.json");
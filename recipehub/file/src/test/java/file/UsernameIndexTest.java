@@ -0,0 +1,110 @@
+package file;
+
+import core.Profile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+/**
+ * This is a test class for UsernameIndex.
+ */
+public class UsernameIndexTest {
+    private Path dataPath = Path.of("testIndex.json");
+
+    /**
+     * Tests that the index finds where each profile is, so that only that profile
+     * has to be read.
+     *
+     * @see UsernameIndex#load(Path)
+     * @see UsernameIndex#getLocation(String)
+     */
+    @Test
+    @DisplayName("Test locations of profiles")
+    public void testLocations() {
+        FileUtil.writeFile(dataPath, List.of(new Profile("Testuser1", "Password123"),
+                new Profile("Testuser2", "Password123")));
+        UsernameIndex index = UsernameIndex.load(dataPath);
+        Assertions.assertEquals(2, index.getSize());
+        Assertions.assertTrue(index.contains("Testuser2"));
+        Assertions.assertFalse(index.contains("Testuser3"));
+        Assertions.assertNull(index.getLocation("Testuser3"));
+
+        long[] location = index.getLocation("Testuser2");
+        Profile profile = FileUtil.readRange(dataPath, location[0], (int) location[1],
+                Profile.class);
+        Assertions.assertEquals("Testuser2", profile.getUsername());
+    }
+
+    /**
+     * Tests that the saved index is used while the profile file is unchanged,
+     * and made again when the profile file changes.
+     *
+     * @see UsernameIndex#isCurrent()
+     * @see UsernameIndex#save()
+     */
+    @Test
+    @DisplayName("Test saved index and changed profile file")
+    public void testSavedIndex() {
+        FileUtil.writeFile(dataPath, List.of(new Profile("Testuser1", "Password123")));
+        UsernameIndex index = UsernameIndex.load(dataPath);
+        Assertions.assertTrue(Files.exists(UsernameIndex.getIndexPath(dataPath)));
+        Assertions.assertTrue(UsernameIndex.load(dataPath).contains("Testuser1"),
+                "The saved index should be read back.");
+
+        FileUtil.writeFile(dataPath, List.of(new Profile("Testuser1", "Password123"),
+                new Profile("Testuser2", "Password123")));
+        Assertions.assertFalse(index.isCurrent());
+        Assertions.assertTrue(UsernameIndex.load(dataPath).contains("Testuser2"),
+                "The index should be made again when the profile file changes.");
+    }
+
+    /**
+     * Tests that writing profiles gives an index of where they were written, which is
+     * current and saved, and that the file is the same as other writers make it.
+     *
+     * @see UsernameIndex#write(Path, List, boolean)
+     */
+    @Test
+    @DisplayName("Test index of written profiles")
+    public void testWrite() throws IOException {
+        List<Profile> profiles = List.of(new Profile("Testuser1", "Password123"),
+                new Profile("Testuser2", "Password123"));
+        FileUtil.writeFile(dataPath, profiles);
+        String expected = Files.readString(dataPath);
+
+        UsernameIndex index = UsernameIndex.write(dataPath, profiles, false);
+        Assertions.assertEquals(expected, Files.readString(dataPath));
+        Assertions.assertTrue(index.isCurrent());
+        Assertions.assertArrayEquals(UsernameIndex.build(dataPath).getLocation("Testuser2"),
+                index.getLocation("Testuser2"));
+        Assertions.assertTrue(UsernameIndex.load(dataPath).contains("Testuser1"),
+                "The index of the written profiles should be saved.");
+
+        index = UsernameIndex.write(dataPath, profiles, true);
+        long[] location = index.getLocation("Testuser2");
+        Assertions.assertEquals("Testuser2", BinaryCodec.readProfile(dataPath, location[0],
+                (int) location[1]).getUsername());
+        Assertions.assertEquals(2, BinaryCodec.readProfiles(dataPath).size());
+
+        UsernameIndex.write(dataPath, List.of(), false);
+        Assertions.assertEquals("[]", Files.readString(dataPath));
+    }
+
+    /**
+     * Deletes the profile file and its index after each test.
+     */
+    @AfterEach
+    public void cleanUp() {
+        try {
+            Files.deleteIfExists(dataPath);
+            Files.deleteIfExists(UsernameIndex.getIndexPath(dataPath));
+        } catch (IOException e) {
+            System.out.println(e.getMessage());
+        }
+    }
+}
@@ -1,7 +1,7 @@
 package springboot.restserver;
 
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
+import file.ModelTypeAdapterFactory;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
@@ -13,12 +13,12 @@ import org.springframework.context.annotation.Bean;
 public class RecipeHubApplication {
 
     /**
-     * The Gson bean.
+     * The Gson bean, which uses the same adapters for recipes and profiles as the files.
      * @return the Gson bean
      */
     @Bean
     public Gson gson() {
-        return new GsonBuilder().setPrettyPrinting().create();
+        return ModelTypeAdapterFactory.newGsonBuilder().setPrettyPrinting().create();
     }
 
     /**
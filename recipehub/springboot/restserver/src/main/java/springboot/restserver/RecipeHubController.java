@@ -3,8 +3,12 @@ package springboot.restserver;
 import core.Profile;
 import core.Recipe;
 import core.RecipeLibrary;
-import file.DirectRecipeHubAccess;
+import core.RecipeSummary;
+import file.BackgroundMigrator;
+import file.CachingRecipeHubAccess;
 import file.RecipeHubAccess;
+import file.RecipeHubAccessProvider;
+import file.RecordVersions;
 import java.util.List;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -25,7 +29,23 @@ public class RecipeHubController {
 
     public static final String RECIPEHUB_MODEL_SERVICE_PATH = "recipehub";
 
-    private RecipeHubAccess access = new DirectRecipeHubAccess();
+    private RecipeHubAccess access = RecipeHubAccessProvider.createSelected(
+            CachingRecipeHubAccess.Provider.NAME);
+
+    /**
+     * Makes the controller with the cached files, or the storage engine named in the
+     * {@value file.RecipeHubAccessProvider#STORAGE_PROPERTY} system property, and starts
+     * upgrading records saved in an older version in the background. No migration is
+     * started while no version changes the records.
+     *
+     * @see BackgroundMigrator
+     * @see RecordVersions#hasUpgrades()
+     */
+    public RecipeHubController() {
+        if (RecordVersions.getDefault().hasUpgrades()) {
+            new BackgroundMigrator(access).start();
+        }
+    }
 
     /**
      * Get the recipe library.
@@ -37,6 +57,29 @@ public class RecipeHubController {
         return access.getRecipeLibrary();
     }
 
+    /**
+     * Get the summaries of all recipes, without the recipes themselves.
+     * 
+     * @return the summaries of the recipes, in the order of the recipe library
+     */
+    @GetMapping(path = "/recipesummaries")
+    public List<RecipeSummary> getRecipeSummaries() {
+        return access.getRecipeSummaries();
+    }
+
+    /**
+     * Get the recipe with the given author and name.
+     * 
+     * @param author - the username of the author of the recipe
+     * @param name - the name of the recipe
+     * @return the recipe, or null if it does not exist
+     */
+    @GetMapping(path = "/recipes/{author}/{name}")
+    public Recipe getRecipe(@PathVariable("author") String author,
+            @PathVariable("name") String name) {
+        return access.loadRecipe(author, name);
+    }
+
     /**
      * Saves a recipe to the recipe library.
      * 
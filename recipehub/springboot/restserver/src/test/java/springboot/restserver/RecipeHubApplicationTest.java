@@ -6,11 +6,14 @@ import core.RecipeLibrary;
 import core.Review;
 import file.DirectRecipeHubAccess;
 import file.RecipeFilehandler;
+import file.ShardedUserFilehandler;
 import file.UserFilehandler;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeAll;
@@ -36,7 +39,8 @@ public class RecipeHubApplicationTest {
 
     private TestRestTemplate testRestTemplate = new TestRestTemplate();
 
-    private DirectRecipeHubAccess access = new DirectRecipeHubAccess();
+    private DirectRecipeHubAccess access = new DirectRecipeHubAccess(
+            new ShardedUserFilehandler(), new RecipeFilehandler());
     private Recipe recipe1;
     private Profile profile;
 
@@ -115,6 +119,26 @@ public class RecipeHubApplicationTest {
                 "Should have recipe with name Recipe2");
     }
 
+    /**
+     * Tests the GetRecipeSummaries and GetRecipe methods.
+     * 
+     * @see RecipeHubController#getRecipeSummaries()
+     * @see RecipeHubController#getRecipe(String, String)
+     */
+    @Test
+    public void testGetRecipeSummariesAndRecipe() {
+        access.saveRecipe(recipe1);
+        String summaries = testRestTemplate.getForObject(getUrl() + "recipesummaries",
+                String.class);
+        Assertions.assertTrue(summaries.contains("Recipe1"), "Should have summary of Recipe1");
+        Recipe readRecipe = testRestTemplate.getForObject(getUrl() + "recipes/testUser/Recipe1",
+                Recipe.class);
+        Assertions.assertEquals("Recipe1", readRecipe.getName(),
+                "Should have recipe with name Recipe1");
+        Assertions.assertNull(testRestTemplate.getForObject(getUrl() + "recipes/testUser/Recipe2",
+                Recipe.class), "Should return null");
+    }
+
     /**
      * Tests the RemoveRecipe method.
      * 
@@ -210,6 +234,21 @@ public class RecipeHubApplicationTest {
         try {
             Files.delete(Path.of(System.getProperty("user.home")).resolve("testRecipes.json"));
             Files.delete(Path.of(System.getProperty("user.home")).resolve("testUserInfo.json"));
+            Files.deleteIfExists(Path.of(System.getProperty("user.home"))
+                    .resolve("testUserInfo.json.idx"));
+            Files.deleteIfExists(Path.of(System.getProperty("user.home"))
+                    .resolve("testRecipes.json.lock"));
+            Files.deleteIfExists(Path.of(System.getProperty("user.home"))
+                    .resolve("testRecipes.json.sum"));
+            Files.deleteIfExists(Path.of(System.getProperty("user.home"))
+                    .resolve("testUserInfo.json.lock"));
+            Files.deleteIfExists(ShardedUserFilehandler.getMovedPath(
+                    UserFilehandler.getFilePath()));
+            try (Stream<Path> files = Files.walk(ShardedUserFilehandler.getDirectoryPath())) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.delete(file);
+                }
+            }
         } catch (IOException e) {
             System.out.println("Error deleting file");
             System.out.println(e.getMessage());
@@ -1,6 +1,7 @@
 package ui;
 
 import file.DirectRecipeHubAccess;
+import file.RecipeHubAccessProvider;
 import java.io.IOException;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -10,7 +11,8 @@ import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
 /**
- * The App class starts the application with direct access.
+ * The App class starts the application with direct access, or with the storage engine
+ * named in the {@value file.RecipeHubAccessProvider#STORAGE_PROPERTY} system property.
  */
 public class App extends Application {
 
@@ -45,7 +47,8 @@ public class App extends Application {
         stage.setScene(scene);
         stage.setTitle("RecipeHub");
         SuperController controller = fxmlLoader.getController();
-        controller.setCurrentRecipeHubAccess(new DirectRecipeHubAccess());
+        controller.setCurrentRecipeHubAccess(
+                RecipeHubAccessProvider.createSelected(DirectRecipeHubAccess.Provider.NAME));
         stage.show();
     }
 
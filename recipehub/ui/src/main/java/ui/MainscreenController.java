@@ -5,6 +5,8 @@ import core.Recipe;
 import core.RecipeLibrary;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIcon;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIconView;
+import file.ProfileReferences;
+import file.RecipeHubAccess;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.Comparator;
@@ -302,6 +304,7 @@ public class MainscreenController extends SuperController {
     /**
      * This method will switch scene to Recipe.fxml and give RecipeController the
      * given recipe.
+     * A recipe in the grid only has its summary, so the saved recipe is loaded first.
      *
      * @param event   the ActionEvent
      * @param recipe  the recipe the user clicked on
@@ -309,6 +312,13 @@ public class MainscreenController extends SuperController {
      * @throws IOException if there are problems with the filehandling
      */
     protected void switchSceneRecipe(ActionEvent event, Recipe recipe) throws IOException {
+        if (ProfileReferences.isReference(recipe)) {
+            Recipe saved = currentRecipeHubAccess.loadRecipe(recipe.getAuthor(),
+                    recipe.getName());
+            if (saved != null) {
+                recipe = saved;
+            }
+        }
         FXMLLoader loader = new FXMLLoader(getClass().getResource("Recipe.fxml"));
         root = loader.load();
 
@@ -339,7 +349,7 @@ public class MainscreenController extends SuperController {
 
         String searchTerm = txtField.getText().trim().toLowerCase();
 
-        List<Recipe> modifiedLibrary = currentLibrary.getRecipes().stream()
+        List<Recipe> modifiedLibrary = currentLibrary.stream()
                 .filter(recipe -> recipe.getName().trim().toLowerCase().contains(searchTerm))
                 .collect(Collectors.toList());
         Collections.sort(modifiedLibrary,
@@ -362,7 +372,12 @@ public class MainscreenController extends SuperController {
      * @param profile the profile which is logged in
      */
     protected void loadLibrary() {
-        allRecipes = currentRecipeHubAccess.getRecipeLibrary();
+        // The grid only needs the summaries, the rest is loaded when a recipe is opened
+        RecipeHubAccess access = currentRecipeHubAccess;
+        allRecipes = new RecipeLibrary(access.getRecipeSummaries().stream()
+                .map(summary -> summary.toRecipe(
+                        () -> access.loadRecipe(summary.getAuthor(), summary.getName())))
+                .collect(Collectors.toList()));
         loadAllRecipes();
     }
 }
@@ -45,7 +45,6 @@ public class RecipeController extends SuperController {
     private Boolean flag = false;
     private Alert alert;
     private Alert ratingAlert;
-    private double scale = 1.0;
     private int portions = 0;
 
     @FXML
@@ -85,12 +84,13 @@ public class RecipeController extends SuperController {
 
     /**
      * This method populates the RecipeScreen with the information from the recipe.
-     * The helper methods showDeleteButton, showRating and showComments are called
-     * to populate different parts of the screen.
+     * The helper methods showDeleteButton, showRating, showComments and
+     * showIngredients are called to populate different parts of the screen.
      *
      * @see #showDeleteButton()
      * @see #showRating()
      * @see #showComments()
+     * @see #showIngredients()
      */
     public void populate() {
         // If the recipe is the users own, show the delete button
@@ -101,24 +101,17 @@ public class RecipeController extends SuperController {
         mainscreenController.setHeart(heartButton, recipe, currentProfile);
         nameField.setText(recipe.getName());
         authorLabel.setText("Posted by: " + recipe.getAuthor());
-        portionsField.setText("" + portions);
         descriptionText.setText(recipe.getDescription());
 
-        List<String> steps = recipe.getSteps();
-
+        List<String> steps = recipe.getStepsView();
+        StringBuilder stepLines = new StringBuilder();
         for (int i = 1; i < steps.size() + 1; i++) {
-            stepsText.appendText("Step " + i + ":  " + steps.get(i - 1) + "\n");
-        }
-        for (String ingredient : recipe.getIngredients()) {
-            String amount = String.format(Locale.US, "%.1f",
-                    recipe.getIngredientAmount(ingredient) * scale);
-            ingredientsText.appendText(amount
-                    + " " + recipe.getIngredientUnit(ingredient)
-                    + " : " + ingredient + "\n");
+            stepLines.append("Step " + i + ":  " + steps.get(i - 1) + "\n");
         }
+        stepsText.setText(stepLines.toString());
+        showIngredients();
         descriptionText.positionCaret(0);
         stepsText.positionCaret(0);
-        ingredientsText.positionCaret(0);
 
         descriptionText.setEditable(false);
         stepsText.setEditable(false);
@@ -128,11 +121,9 @@ public class RecipeController extends SuperController {
     /**
      * This method handles the adding of portions through writing in the
      * portionsField.
-     * Portions must be an int larger than 0. Calls the clearText and populate
-     * method to update the screen.
+     * Portions must be an int larger than 0. Only the ingredients are updated.
      *
-     * @see #clearText()
-     * @see #populate()
+     * @see #showIngredients()
      */
     public void handlePortions() {
         int por = 0;
@@ -148,20 +139,26 @@ public class RecipeController extends SuperController {
             portionsField.positionCaret((fault).length());
         } else {
             portions = por;
-            scale = scale();
-            clearText();
-            populate();
+            showIngredients();
         }
     }
 
     /**
-     * This helper method clears the text from stepsText and ingredientsText to
-     * avoid dupliucates.
-     * Intended use with scale operations.
+     * This helper method shows the portions, and the ingredients scaled to the
+     * portions.
+     * The amounts are scaled by a view of the recipe, so the rest of the screen is
+     * not made again when the portions change.
+     *
+     * @see Recipe#scaledTo(int)
      */
-    private void clearText() {
-        ingredientsText.setText("");
-        stepsText.setText("");
+    private void showIngredients() {
+        portionsField.setText("" + portions);
+        StringBuilder ingredientLines = new StringBuilder();
+        recipe.scaledTo(portions).forEachIngredient((ingredient, amount, unit) ->
+                ingredientLines.append(String.format(Locale.US, "%.1f", amount)
+                        + " " + unit + " : " + ingredient + "\n"));
+        ingredientsText.setText(ingredientLines.toString());
+        ingredientsText.positionCaret(0);
     }
 
     /**
@@ -170,9 +167,7 @@ public class RecipeController extends SuperController {
      */
     public void plusButtonClick() {
         portions += 1;
-        scale = scale();
-        clearText();
-        populate();
+        showIngredients();
     }
 
     /**
@@ -185,21 +180,7 @@ public class RecipeController extends SuperController {
             return;
         }
         portions -= 1;
-        scale = scale();
-        clearText();
-        populate();
-    }
-
-    /**
-     * This helper method computes the scaling factor for adjusting the recipe's
-     * portions.
-     * It calculates the ratio between the desired portions and the original recipe
-     * portions.
-     *
-     * @return the scaling factor as a double value.
-     */
-    private double scale() {
-        return ((double) portions / (double) recipe.getPortions());
+        showIngredients();
     }
 
     /**
@@ -281,8 +262,9 @@ public class RecipeController extends SuperController {
             commentsPane.setOrientation(Orientation.VERTICAL);
 
             // Sorts the list of comments so the newest is on top
-            List<Review> reviews = new ArrayList<>(
-                    recipe.getReviews().stream().filter(r -> !r.getComment().equals("")).toList());
+            List<Review> reviews = new ArrayList<>(recipe.getNumberOfComments());
+            recipe.getReviewsView().stream().filter(r -> !r.getComment().equals(""))
+                    .forEach(reviews::add);
             Collections.reverse(reviews);
 
             double totalHeight = 0;
@@ -364,7 +346,7 @@ public class RecipeController extends SuperController {
     /**
      * This method shows an alert to the user to confirm the deletion of the recipe.
      * If the user confirms the deletion, the recipe is also removed from all other
-     * users' favorites.
+     * users' favorites, since their profiles are saved with references to it.
      *
      * @return true if the user confirms the deletion, false otherwise
      */
@@ -378,20 +360,11 @@ public class RecipeController extends SuperController {
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             currentRecipeHubAccess.removeRecipe(recipe);
-            // If another profile has the removed recipe favorited it is also removed from
-            // their favorites
-            List<Profile> profiles = new ArrayList<>();
-            for (Profile p : currentRecipeHubAccess.getProfiles()) {
-                if (p.getUsername().equals(currentProfile.getUsername())) {
-                    currentProfile.removeFavorite(recipe);
-                    currentProfile.removeRecipe(recipe);
-                    profiles.add(currentProfile);
-                } else {
-                    p.removeFavorite(recipe);
-                    profiles.add(p);
-                }
-            }
-            currentRecipeHubAccess.saveProfiles(profiles);
+            // Other profiles only reference the recipe, so it is gone from their
+            // favorites the next time they are loaded
+            currentProfile.removeFavorite(recipe);
+            currentProfile.removeRecipe(recipe);
+            currentRecipeHubAccess.saveProfile(currentProfile);
             flag = true;
         } else {
             flag = false;
@@ -443,6 +416,7 @@ public class RecipeController extends SuperController {
 
     /**
      * This method adds a review to the recipe if it is valid.
+     * Only the recipe is saved, since the profiles which have it refer to the saved recipe.
      *
      * @param rating  the rating to be added
      * @param comment the comment to be added
@@ -450,24 +424,14 @@ public class RecipeController extends SuperController {
      */
     public void addRating(double rating, String comment) {
         recipe.addReview(new Review(rating, comment, currentProfile.getUsername()));
+        // Profiles only reference the recipe, so saving the recipe updates all of them
         currentRecipeHubAccess.saveRecipe(this.recipe);
-        Profile authorProfile = currentRecipeHubAccess.loadProfile(recipe.getAuthor());
-        authorProfile.putRecipe(recipe);
-        if (authorProfile.getFavorites().containsRecipe(recipe)) {
-            authorProfile.getFavorites().putRecipe(recipe);
+        if (currentProfile.getRecipes().containsRecipe(recipe)) {
+            currentProfile.putRecipe(recipe);
         }
-
-        List<Profile> profiles = new ArrayList<>();
-        profiles.add(authorProfile);
-        for (Profile p : currentRecipeHubAccess.getProfiles()) {
-            if (p.getFavorites().containsRecipe(recipe)) {
-                p.getFavorites().putRecipe(recipe);
-            }
-            if (!(p.getUsername().equals(authorProfile.getUsername()))) {
-                profiles.add(p);
-            }
+        if (currentProfile.getFavorites().containsRecipe(recipe)) {
+            currentProfile.addFavorite(recipe);
         }
-        currentRecipeHubAccess.saveProfiles(profiles);
 
         showRating();
         showComments();
@@ -83,7 +83,7 @@ public class RegisterController extends SuperController {
      *
      * @see Profile#isValidUsername(String)
      * @see Profile#isValidPassword(String)
-     * @see RecipeHubAccess#loadProfile(String)
+     * @see RecipeHubAccess#profileExists(String)
      * @see RecipeHubAccess#saveProfile(Profile)
      */
     public boolean validateRegister(String username, String password) {
@@ -99,7 +99,7 @@ public class RegisterController extends SuperController {
             registerMessageLabel.setText(e.getMessage());
             return false;
         }
-        if (currentRecipeHubAccess.loadProfile(username) != null) {
+        if (currentRecipeHubAccess.profileExists(username)) {
             registerMessageLabel.setText("Username already exists");
             return false;
         } else if (!passwordField.getText().equals(confirmPasswordField.getText())) {
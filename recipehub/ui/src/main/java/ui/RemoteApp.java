@@ -1,9 +1,8 @@
 package ui;
 
+import file.RecipeHubAccessProvider;
 import file.RemoteRecipeHubAccess;
 import java.io.IOException;
-import java.net.URI;
-import java.net.URISyntaxException;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -12,7 +11,8 @@ import javafx.scene.image.Image;
 import javafx.stage.Stage;
 
 /**
- * This class starts the application with remote access.
+ * This class starts the application with remote access, or with the storage engine
+ * named in the {@value file.RecipeHubAccessProvider#STORAGE_PROPERTY} system property.
  */
 public class RemoteApp extends Application {
 
@@ -33,8 +33,8 @@ public class RemoteApp extends Application {
      * This method starts the application.
      *
      * @param stage stage object
-     * @throws IOException        if the FXMLLoader.load method throws an exception
-     * @throws URISyntaxException if the URI is invalid
+     * @throws IOException if the FXMLLoader.load method throws an exception
+     * @see RemoteRecipeHubAccess.Provider
      */
     @Override
     public void start(Stage stage) throws IOException {
@@ -50,8 +50,8 @@ public class RemoteApp extends Application {
         SuperController controller = fxmlLoader.getController();
         try {
             controller.setCurrentRecipeHubAccess(
-                    new RemoteRecipeHubAccess(new URI("http://localhost:8080/recipehub/")));
-        } catch (URISyntaxException e) {
+                    RecipeHubAccessProvider.createSelected(RemoteRecipeHubAccess.Provider.NAME));
+        } catch (IllegalArgumentException e) {
             System.out.println(e.getMessage());
         }
         stage.show();
@@ -4,12 +4,14 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import core.Profile;
 import core.Recipe;
 import core.RecipeLibrary;
+import core.RecipeSummary;
 import core.Review;
 import de.jensd.fx.glyphs.fontawesome.FontAwesomeIconView;
 import file.DirectRecipeHubAccess;
@@ -102,6 +104,15 @@ public class MainscreenControllerTest extends ApplicationTest {
 
         when(mockUserFilehandler.writeProfile(profile1)).thenReturn(true);
         when(mockRecipeFilehandler.readRecipeLibrary()).thenReturn(recipes);
+        when(mockRecipeFilehandler.readRecipeSummaries()).thenReturn(recipes.getRecipes()
+                .stream().map(RecipeSummary::of).collect(Collectors.toList()));
+        when(mockRecipeFilehandler.streamRecipes())
+                .thenAnswer(invocation -> recipes.getRecipes().stream());
+        when(mockRecipeFilehandler.loadRecipe(anyString(), anyString()))
+                .thenAnswer(invocation -> recipes.getRecipes().stream()
+                        .filter(r -> r.getAuthor().equals(invocation.getArgument(0))
+                                && r.getName().equals(invocation.getArgument(1)))
+                        .findFirst().orElse(null));
 
         // Makes it so that we uses mocks instead of real filehandlers
         controller.setCurrentRecipeHubAccess(
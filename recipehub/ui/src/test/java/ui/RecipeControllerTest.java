@@ -186,7 +186,8 @@ public class RecipeControllerTest extends ApplicationTest {
      * It tests if clicking on the plus and minus buttons will scale the recipe.
      * It also tests if illegal input is ignored.
      *
-     * @see RecipeController#scale()
+     * @see RecipeController#plusButtonClick()
+     * @see RecipeController#handlePortions()
      */
     @Test
     public void testScale() {
@@ -128,6 +128,7 @@ public class RegisterControllerTest extends ApplicationTest {
     public void testValidateRegisterWithUsernameExists() {
         Profile profile = new Profile("Existinguser", "Password123");
         when(mockUserFileHandler.loadProfile(any())).thenReturn(profile);
+        when(mockUserFileHandler.userExists(any())).thenReturn(true);
 
         write("Existinguser").push(javafx.scene.input.KeyCode.TAB);
         write("Password123").push(javafx.scene.input.KeyCode.TAB);